@@ -13,6 +13,7 @@
 import org.geoserver.featurestemplating.writers.TemplateOutputWriter;
 import org.geotools.api.filter.Filter;
 import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Literal;
 import org.geotools.filter.LiteralExpressionImpl;
 import org.geotools.filter.text.cql2.CQLException;
 import org.xml.sax.helpers.NamespaceSupport;
@@ -43,6 +44,7 @@ protected AbstractTemplateBuilder(
         this.key = abstractTemplateBuilder.getKey();
         this.namespaces = abstractTemplateBuilder.getNamespaces();
         this.filter = abstractTemplateBuilder.getFilter();
+        this.filterContextPos = abstractTemplateBuilder.getFilterContextPos();
         this.encodingHints = abstractTemplateBuilder.getEncodingHints();
         if (includeChildren) {
             this.children = abstractTemplateBuilder.getChildren();
@@ -77,6 +79,9 @@ public Expression getKey() {
 
     public String getKey(TemplateBuilderContext context) {
         if (key == null) return null;
+        // static keys do not need any evaluation
+        if (key instanceof Literal && ((Literal) key).getValue() instanceof String)
+            return (String) ((Literal) key).getValue();
         Object currentObj = context != null ? context.getCurrentObj() : null;
         return key.evaluate(currentObj, String.class);
     }
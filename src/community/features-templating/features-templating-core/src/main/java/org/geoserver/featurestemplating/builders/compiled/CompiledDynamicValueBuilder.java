@@ -0,0 +1,237 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.featurestemplating.builders.compiled;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.regex.Pattern;
+import org.geoserver.featurestemplating.builders.JSONFieldSupport;
+import org.geoserver.featurestemplating.builders.impl.DynamicValueBuilder;
+import org.geoserver.featurestemplating.builders.impl.TemplateBuilderContext;
+import org.geoserver.featurestemplating.expressions.RequestFunction;
+import org.geoserver.ows.Dispatcher;
+import org.geoserver.ows.Request;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.expression.BinaryExpression;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Function;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.filter.AttributeExpressionImpl;
+import org.geotools.filter.function.EnvFunction;
+
+/**
+ * A {@link DynamicValueBuilder} with pre-resolved property access and expression caching:
+ *
+ * <ul>
+ *   <li>xpaths made of a plain attribute name are resolved against simple features by attribute
+ *       index, looked up once per feature type
+ *   <li>cql expressions made only of literals are evaluated once
+ *   <li>cql expressions depending only on the request (request functions, env) are evaluated once
+ *       per request
+ * </ul>
+ *
+ * Anything else is evaluated as in the {@link DynamicValueBuilder}.
+ */
+public class CompiledDynamicValueBuilder extends DynamicValueBuilder {
+
+    /** What the value of an expression depends on, from the most to the least stable */
+    public enum Scope {
+        CONSTANT,
+        REQUEST,
+        FEATURE
+    }
+
+    private static final Pattern SIMPLE_NAME = Pattern.compile("[\\p{L}\\p{N}_\\-]+");
+
+    private static final Object NOT_EVALUATED = new Object();
+
+    private String propertyName;
+
+    private Scope scope;
+
+    private volatile AttributeAccessor accessor;
+
+    private volatile Object constantValue = NOT_EVALUATED;
+
+    private volatile RequestValue requestValue;
+
+    public CompiledDynamicValueBuilder(DynamicValueBuilder original, boolean includeChildren) {
+        super(original, includeChildren);
+        compile();
+    }
+
+    private void compile() {
+        this.propertyName = getSimplePropertyName(xpath);
+        this.scope = cql != null ? getScope(cql) : Scope.FEATURE;
+        this.accessor = null;
+        this.constantValue = NOT_EVALUATED;
+        this.requestValue = null;
+    }
+
+    private static String getSimplePropertyName(AttributeExpressionImpl xpath) {
+        if (xpath == null) return null;
+        String name = xpath.getPropertyName();
+        return name != null && SIMPLE_NAME.matcher(name).matches() ? name : null;
+    }
+
+    /**
+     * Computes what the value of the expression depends on. Only literals, arithmetic, request
+     * functions and env are recognized as not depending on the feature.
+     *
+     * @param expression the expression to be checked
+     * @return the scope of the expression
+     */
+    static Scope getScope(Expression expression) {
+        if (expression instanceof Literal) {
+            return Scope.CONSTANT;
+        } else if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            return max(getScope(binary.getExpression1()), getScope(binary.getExpression2()));
+        } else if (expression instanceof Function && !(expression instanceof PropertyName)) {
+            if (!(expression instanceof RequestFunction) && !(expression instanceof EnvFunction))
+                return Scope.FEATURE;
+            Scope result = Scope.REQUEST;
+            for (Expression parameter : ((Function) expression).getParameters()) {
+                result = max(result, getScope(parameter));
+            }
+            return result;
+        }
+        return Scope.FEATURE;
+    }
+
+    private static Scope max(Scope s1, Scope s2) {
+        return s1.compareTo(s2) >= 0 ? s1 : s2;
+    }
+
+    @Override
+    protected Object evaluateXPath(TemplateBuilderContext context) {
+        if (propertyName != null) {
+            TemplateBuilderContext evaluationContext = context;
+            for (int i = 0; i < contextPos && evaluationContext != null; i++) {
+                evaluationContext = evaluationContext.getParent();
+            }
+            Object contextObject =
+                    evaluationContext != null ? getContextObject(evaluationContext) : null;
+            if (contextObject instanceof SimpleFeature) {
+                SimpleFeature feature = (SimpleFeature) contextObject;
+                AttributeAccessor attributeAccessor = getAccessor(feature.getFeatureType());
+                if (attributeAccessor.index >= 0) {
+                    return attributeAccessor.getValue(feature);
+                }
+            }
+        }
+        return super.evaluateXPath(context);
+    }
+
+    private AttributeAccessor getAccessor(SimpleFeatureType featureType) {
+        AttributeAccessor result = accessor;
+        if (result == null || result.featureType != featureType) {
+            result = new AttributeAccessor(featureType, propertyName);
+            accessor = result;
+        }
+        return result;
+    }
+
+    @Override
+    protected Object evaluateExpressions(Expression expression, TemplateBuilderContext context) {
+        if (expression != cql || scope == Scope.FEATURE) {
+            return super.evaluateExpressions(expression, context);
+        } else if (scope == Scope.CONSTANT) {
+            Object result = constantValue;
+            if (result == NOT_EVALUATED) {
+                result = super.evaluateExpressions(expression, context);
+                constantValue = result;
+            }
+            return result;
+        }
+        Request request = Dispatcher.REQUEST.get();
+        if (request == null) return super.evaluateExpressions(expression, context);
+        RequestValue cached = requestValue;
+        if (cached == null || cached.request != request) {
+            cached = new RequestValue(request, super.evaluateExpressions(expression, context));
+            requestValue = cached;
+        }
+        return cached.value;
+    }
+
+    @Override
+    public void setCql(Expression cql) {
+        super.setCql(cql);
+        compile();
+    }
+
+    @Override
+    public void setXpath(AttributeExpressionImpl xpath) {
+        super.setXpath(xpath);
+        compile();
+    }
+
+    /**
+     * Returns the scope of the cql expression, {@link Scope#FEATURE} if the builder evaluates an
+     * xpath
+     *
+     * @return the scope of the builder's expression
+     */
+    public Scope getScope() {
+        return scope;
+    }
+
+    /**
+     * Returns the attribute name resolved by index against simple features, if any
+     *
+     * @return the attribute name, or null if the xpath is not a plain attribute name
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    @Override
+    public CompiledDynamicValueBuilder copy(boolean includeChildren) {
+        return new CompiledDynamicValueBuilder(this, includeChildren);
+    }
+
+    /** Attribute index and JSON field flag of a property, for a given feature type */
+    private static class AttributeAccessor {
+
+        private final SimpleFeatureType featureType;
+
+        private final int index;
+
+        private final boolean json;
+
+        AttributeAccessor(SimpleFeatureType featureType, String name) {
+            this.featureType = featureType;
+            this.index = featureType.indexOf(name);
+            this.json =
+                    index >= 0 && JSONFieldSupport.isJSONField(featureType.getDescriptor(index));
+        }
+
+        Object getValue(SimpleFeature feature) {
+            Object value = feature.getAttribute(index);
+            if (json) {
+                try {
+                    return JSONFieldSupport.parseJSON(value);
+                } catch (JsonProcessingException e) {
+                    // fall back on the original value, as the regular evaluation does
+                }
+            }
+            return value;
+        }
+    }
+
+    /** The value of a request scoped expression, for a given request */
+    private static class RequestValue {
+
+        private final Request request;
+
+        private final Object value;
+
+        RequestValue(Request request, Object value) {
+            this.request = request;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.featurestemplating.builders.compiled;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.featurestemplating.builders.impl.StaticBuilder;
+import org.geoserver.featurestemplating.builders.impl.TemplateBuilderContext;
+import org.geoserver.featurestemplating.writers.CommonJSONWriter;
+import org.geoserver.featurestemplating.writers.GeoJSONWriter;
+import org.geoserver.featurestemplating.writers.TemplateOutputWriter;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.util.logging.Logging;
+
+/**
+ * A {@link StaticBuilder} whose JSON content is encoded once, at compile time. JSON writers copy
+ * the encoded bytes to the output instead of walking the static JSON tree for each feature, other
+ * writers fall back on the regular encoding.
+ */
+public class CompiledStaticBuilder extends StaticBuilder {
+
+    private static final Logger LOGGER = Logging.getLogger(CompiledStaticBuilder.class);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private SerializedString encodedKey;
+
+    private SerializedString encodedValue;
+
+    public CompiledStaticBuilder(StaticBuilder original, boolean includeChildren) {
+        super(original, includeChildren);
+        if (staticValue != null && (key == null || key instanceof Literal)) {
+            encode();
+        }
+    }
+
+    private void encode() {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            // same encoding as the one performed at runtime by the JSON writers
+            new GeoJSONWriter(generator).writeStaticContent(null, staticValue, null);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not pre-encode static content, will encode it live", e);
+            return;
+        }
+        String encoded = out.toString();
+        if (!encoded.isEmpty()) {
+            String keyValue = getKey(null);
+            this.encodedKey =
+                    keyValue != null && !keyValue.isEmpty() ? new SerializedString(keyValue) : null;
+            this.encodedValue = new SerializedString(encoded);
+        }
+    }
+
+    @Override
+    protected void evaluateInternal(TemplateOutputWriter writer, TemplateBuilderContext context)
+            throws IOException {
+        boolean written = false;
+        if (encodedValue != null
+                && (children == null || children.isEmpty())
+                && writer instanceof CommonJSONWriter) {
+            written =
+                    ((CommonJSONWriter) writer).writePreEncodedContent(encodedKey, encodedValue);
+        }
+        if (!written) super.evaluateInternal(writer, context);
+    }
+
+    /**
+     * Returns true if the static content has been pre-encoded
+     *
+     * @return true if the content is pre-encoded, false otherwise
+     */
+    public boolean isPreEncoded() {
+        return encodedValue != null;
+    }
+
+    @Override
+    public CompiledStaticBuilder copy(boolean includeChildren) {
+        return new CompiledStaticBuilder(this, includeChildren);
+    }
+}
@@ -0,0 +1,60 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.featurestemplating.builders.compiled;
+
+import org.geoserver.featurestemplating.builders.impl.DynamicValueBuilder;
+import org.geoserver.featurestemplating.builders.impl.RootBuilder;
+import org.geoserver.featurestemplating.builders.impl.StaticBuilder;
+import org.geoserver.featurestemplating.builders.visitors.DuplicatingTemplateVisitor;
+
+/**
+ * Compiles a builder tree into an execution plan, a copy of the tree where the builders doing most
+ * of the per feature work are replaced by their compiled counterparts: {@link
+ * CompiledStaticBuilder} with pre-encoded static content and {@link CompiledDynamicValueBuilder}
+ * with pre-resolved property access and expression caching. Static keys are folded by the builders
+ * themselves. Subclasses of the static and dynamic builders (flat builders, includes, merges) are
+ * copied as they are.
+ *
+ * <p>The source tree is left untouched, the plan has to be compiled again when the source tree
+ * changes.
+ */
+public class TemplateCompiler extends DuplicatingTemplateVisitor {
+
+    /**
+     * Compiles the builder tree
+     *
+     * @param root the root of the builder tree
+     * @return the root of the execution plan
+     */
+    public RootBuilder compile(RootBuilder root) {
+        return (RootBuilder) root.accept(this, null);
+    }
+
+    @Override
+    public Object visit(RootBuilder rootBuilder, Object extradata) {
+        RootBuilder copy = (RootBuilder) super.visit(rootBuilder, extradata);
+        // the root hints carry the JSON-LD context and the GML namespaces
+        copy.getEncodingHints().putAll(rootBuilder.getEncodingHints());
+        return copy;
+    }
+
+    @Override
+    public Object visit(StaticBuilder staticBuilder, Object extradata) {
+        if (staticBuilder.getClass() != StaticBuilder.class)
+            return super.visit(staticBuilder, extradata);
+        StaticBuilder copy = new CompiledStaticBuilder(staticBuilder, false);
+        addChildren(copy, extradata, staticBuilder.getChildren());
+        return copy;
+    }
+
+    @Override
+    public Object visit(DynamicValueBuilder dynamicBuilder, Object extradata) {
+        if (dynamicBuilder.getClass() != DynamicValueBuilder.class)
+            return super.visit(dynamicBuilder, extradata);
+        DynamicValueBuilder copy = new CompiledDynamicValueBuilder(dynamicBuilder, false);
+        addChildren(copy, extradata, dynamicBuilder.getChildren());
+        return copy;
+    }
+}
@@ -7,6 +7,7 @@
 import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.geoserver.featurestemplating.builders.compiled.TemplateCompiler;
 import org.geoserver.featurestemplating.builders.impl.RootBuilder;
 import org.geoserver.featurestemplating.readers.TemplateReaderConfiguration;
 import org.geoserver.platform.FileWatcher;
@@ -16,13 +17,19 @@
 /**
  * This class handles the management of a single template file, giving access to the ${@link
  * RootBuilder} produced from it and issuing the reloading of the file when needed through ${@link
- * TemplateWatcher}
+ * TemplateWatcher}. The builder tree is also compiled into an execution plan, see {@link
+ * TemplateCompiler}, that is discarded whenever the template is reloaded.
  */
 public class Template {
 
+    /** Allows to disable the compilation of the templates, evaluating the builder trees as is */
+    static final boolean COMPILE_TEMPLATES =
+            Boolean.parseBoolean(System.getProperty("GEOSERVER_FT_COMPILE", "true"));
+
     private Resource templateFile;
     private FileWatcher<RootBuilder> watcher;
     private RootBuilder builderTree;
+    private volatile RootBuilder executionPlan;
 
     private static final Logger LOGGER = Logging.getLogger(Template.class);
 
@@ -48,6 +55,7 @@ public boolean checkTemplate() {
                     try {
                         RootBuilder root = watcher.read();
                         this.builderTree = root;
+                        this.executionPlan = null;
                         return true;
                     } catch (IOException ioe) {
                         throw new RuntimeException(ioe);
@@ -69,6 +77,7 @@ public void reloadTemplate() {
                 try {
                     RootBuilder root = watcher.read();
                     this.builderTree = root;
+                    this.executionPlan = null;
                 } catch (IOException ioe) {
                     throw new RuntimeException(ioe);
                 }
@@ -84,4 +93,26 @@ public void reloadTemplate() {
     public RootBuilder getRootBuilder() {
         return builderTree;
     }
+
+    /**
+     * Provides the template compiled into an execution plan. The plan is compiled on first access,
+     * so that changes made to the builder tree after loading it are taken into account, and
+     * compiled again after each reload.
+     *
+     * @return the execution plan as a RootBuilder, or the builder tree if compilation is disabled
+     */
+    public RootBuilder getExecutionPlan() {
+        if (!COMPILE_TEMPLATES || builderTree == null) return builderTree;
+        RootBuilder plan = executionPlan;
+        if (plan == null) {
+            synchronized (this) {
+                plan = executionPlan;
+                if (plan == null && builderTree != null) {
+                    plan = new TemplateCompiler().compile(builderTree);
+                    this.executionPlan = plan;
+                }
+            }
+        }
+        return plan;
+    }
 }
@@ -59,7 +59,7 @@ public TemplateLoader(GeoServerDataDirectory dd) {
      * @param typeInfo the FeatureTypeInfo for which retrieve the template.
      * @param outputFormat the output format for which retrieve the template.
      * @param request the ows request can be null.
-     * @return the RootBuilder.
+     * @return the RootBuilder, compiled into an execution plan.
      * @throws ExecutionException
      */
     public RootBuilder getTemplate(FeatureTypeInfo typeInfo, String outputFormat, Request request)
@@ -95,13 +95,13 @@ private RootBuilder getTemplateByIdentifier(FeatureTypeInfo typeInfo, String tem
         boolean updateCache = false;
         if (template.checkTemplate()) updateCache = true;
 
-        RootBuilder root = template.getRootBuilder();
-
         if (updateCache) {
             replaceSimplifiedPropertiesIfNeeded(key.getResource(), template.getRootBuilder());
             templateCache.put(key, template);
         }
 
+        RootBuilder root = template.getExecutionPlan();
+
         if (root != null) {
             TemplateValidator validator = new TemplateValidator(typeInfo);
             boolean isValid = validator.validateTemplate(root);
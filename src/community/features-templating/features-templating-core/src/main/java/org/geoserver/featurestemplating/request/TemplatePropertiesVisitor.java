@@ -0,0 +1,222 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.featurestemplating.request;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Stack;
+import org.geoserver.featurestemplating.builders.AbstractTemplateBuilder;
+import org.geoserver.featurestemplating.builders.SourceBuilder;
+import org.geoserver.featurestemplating.builders.impl.CompositeBuilder;
+import org.geoserver.featurestemplating.builders.impl.DynamicJsonBuilder;
+import org.geoserver.featurestemplating.builders.impl.DynamicValueBuilder;
+import org.geoserver.featurestemplating.builders.impl.IteratingBuilder;
+import org.geoserver.featurestemplating.builders.impl.StaticBuilder;
+import org.geoserver.featurestemplating.builders.visitors.DefaultTemplateVisitor;
+import org.geoserver.featurestemplating.expressions.aggregate.StreamFunction;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Function;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.filter.visitor.DefaultFilterVisitor;
+
+/**
+ * Collects the top level feature properties a template reads: xpaths, property names used in cql
+ * expressions, dynamic keys, filters and sources. Paths found below a {@code $source} are completed
+ * with the source parts, the same way the {@link TemplatePathVisitor} does for complex features,
+ * so that nested feature chains are reported through the top level property leading to them.
+ *
+ * <p>When the template reads the whole feature, or reads properties in a way that cannot be
+ * analyzed (e.g. dynamic includes and merges, computed sources), {@link #getProperties()} returns
+ * null, meaning all the properties are needed.
+ */
+public class TemplatePropertiesVisitor extends DefaultTemplateVisitor {
+
+    private Stack<String> sources = new Stack<>();
+
+    private Set<String> properties = new LinkedHashSet<>();
+
+    private boolean allProperties;
+
+    /**
+     * Returns the names of the top level properties read by the template, as found in the template
+     * (possibly prefixed)
+     *
+     * @return the property names, or null if the template needs all the properties
+     */
+    public Set<String> getProperties() {
+        return allProperties ? null : properties;
+    }
+
+    @Override
+    public Object visit(IteratingBuilder iteratingBuilder, Object extradata) {
+        return visitSourceBuilder(iteratingBuilder, extradata);
+    }
+
+    @Override
+    public Object visit(CompositeBuilder compositeBuilder, Object extradata) {
+        return visitSourceBuilder(compositeBuilder, extradata);
+    }
+
+    @Override
+    public Object visit(SourceBuilder sourceBuilder, Object extradata) {
+        return visitSourceBuilder(sourceBuilder, extradata);
+    }
+
+    private Object visitSourceBuilder(SourceBuilder sourceBuilder, Object extradata) {
+        if (allProperties) return extradata;
+        addKey(sourceBuilder);
+        boolean pushed = false;
+        // the top level feature source is the feature itself
+        if (!sourceBuilder.isTopLevelFeature()) {
+            String source;
+            try {
+                source = sourceBuilder.getStrSource();
+            } catch (RuntimeException e) {
+                // computed source, cannot tell what it reads
+                allProperties = true;
+                return extradata;
+            }
+            if (source != null) {
+                source = source.replace(".", "/");
+                addPath(source, 0);
+                sources.push(source);
+                pushed = true;
+            }
+        }
+        addFilter(sourceBuilder);
+        sourceBuilder.getChildren().forEach(b -> b.accept(this, extradata));
+        if (pushed) sources.pop();
+        return extradata;
+    }
+
+    @Override
+    public Object visit(DynamicValueBuilder dynamicBuilder, Object extradata) {
+        if (allProperties) return extradata;
+        if (dynamicBuilder instanceof DynamicJsonBuilder) {
+            // the json might contain expressions evaluated against the feature
+            allProperties = true;
+            return extradata;
+        }
+        addKey(dynamicBuilder);
+        addFilter(dynamicBuilder);
+        int contextPos = dynamicBuilder.getContextPos();
+        if (dynamicBuilder.getXpath() != null) {
+            addPath(dynamicBuilder.getXpath().getPropertyName(), contextPos);
+        } else if (dynamicBuilder.getCql() != null) {
+            addExpression(dynamicBuilder.getCql(), contextPos);
+        }
+        return super.visit(dynamicBuilder, extradata);
+    }
+
+    @Override
+    public Object visit(StaticBuilder staticBuilder, Object extradata) {
+        if (allProperties) return extradata;
+        addKey(staticBuilder);
+        addFilter(staticBuilder);
+        return super.visit(staticBuilder, extradata);
+    }
+
+    @Override
+    public Object visit(AbstractTemplateBuilder abstractTemplateBuilder, Object extradata) {
+        if (allProperties) return extradata;
+        addKey(abstractTemplateBuilder);
+        addFilter(abstractTemplateBuilder);
+        return super.visit(abstractTemplateBuilder, extradata);
+    }
+
+    private void addKey(AbstractTemplateBuilder builder) {
+        Expression key = builder.getKey();
+        if (key != null && !(key instanceof Literal)) addExpression(key, 0);
+    }
+
+    private void addFilter(AbstractTemplateBuilder builder) {
+        Filter filter = builder.getFilter();
+        if (filter != null) {
+            for (String path : extractPaths(filter)) {
+                addPath(path, builder.getFilterContextPos());
+            }
+        }
+    }
+
+    private void addExpression(Expression expression, int contextPos) {
+        for (String path : extractPaths(expression)) {
+            addPath(path, contextPos);
+        }
+    }
+
+    private List<String> extractPaths(Object filterOrExpression) {
+        PropertyNameExtractor extractor = new PropertyNameExtractor();
+        try {
+            if (filterOrExpression instanceof Filter)
+                ((Filter) filterOrExpression).accept(extractor, null);
+            else ((Expression) filterOrExpression).accept(extractor, null);
+        } catch (RuntimeException e) {
+            // property names computed at runtime
+            allProperties = true;
+        }
+        return extractor.paths;
+    }
+
+    /**
+     * Adds a path read by the template, completed with the current sources minus the ones skipped
+     * by the context position
+     */
+    private void addPath(String path, int contextPos) {
+        if (path == null) {
+            allProperties = true;
+            return;
+        }
+        // attributes (e.g. gml:id) are always returned
+        if (path.startsWith("@")) return;
+        int available = sources.size() - contextPos;
+        String first = path;
+        if (available > 0) {
+            first = sources.get(0);
+        } else if (path.equals(".") || path.isEmpty()) {
+            // the whole feature is used
+            allProperties = true;
+            return;
+        }
+        int slash = first.indexOf('/');
+        if (slash != -1) first = first.substring(0, slash);
+        int bracket = first.indexOf('[');
+        if (bracket != -1) first = first.substring(0, bracket);
+        if (!first.isEmpty() && !first.startsWith("@")) properties.add(first);
+    }
+
+    /**
+     * Collects property names from filters and expressions. Stream functions evaluate the property
+     * names following the first one against the result of the first, only the first is collected.
+     */
+    private static class PropertyNameExtractor extends DefaultFilterVisitor {
+
+        private List<String> paths = new ArrayList<>();
+
+        @Override
+        public Object visit(PropertyName expression, Object data) {
+            paths.add(expression.getPropertyName());
+            return data;
+        }
+
+        @Override
+        public Object visit(Function expression, Object data) {
+            if (expression instanceof StreamFunction) {
+                for (Expression parameter : expression.getParameters()) {
+                    if (parameter instanceof PropertyName) {
+                        parameter.accept(this, data);
+                        break;
+                    }
+                    parameter.accept(this, data);
+                }
+                return data;
+            }
+            return super.visit(expression, data);
+        }
+    }
+}
@@ -8,6 +8,7 @@
 import static org.geoserver.featurestemplating.builders.EncodingHints.isSingleFeatureRequest;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.util.StdDateFormat;
@@ -61,6 +62,24 @@ public void writeStaticContent(String key, Object staticContent, EncodingHints e
             else writeValueNode(key, jsonNode);
         }
     }
+
+    /**
+     * Writes static content that has been encoded once, when compiling the template, copying the
+     * encoded bytes to the output.
+     *
+     * @param key the encoded key, or null if the content has no key
+     * @param encodedContent the encoded content, a single JSON value
+     * @return false if the content cannot be written as is (pretty printed or flat output), true
+     *     otherwise
+     */
+    public boolean writePreEncodedContent(
+            SerializableString key, SerializableString encodedContent) throws IOException {
+        if (flatOutput || generator.getPrettyPrinter() != null) return false;
+        if (key != null) generator.writeFieldName(key);
+        generator.writeRawValue(encodedContent);
+        return true;
+    }
+
     /**
      * Write contents from a Json Object. Used with {@link StaticBuilder} to write content as it is
      * from the json-ld template to the json-ld output
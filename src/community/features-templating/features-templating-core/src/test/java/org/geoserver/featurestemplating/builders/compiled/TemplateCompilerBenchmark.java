@@ -0,0 +1,59 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.featurestemplating.builders.compiled;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.geoserver.featurestemplating.builders.impl.RootBuilder;
+import org.geotools.api.feature.simple.SimpleFeature;
+
+/**
+ * Manual benchmark comparing the encoding time of a template builder tree against its execution
+ * plan, using the {@link TemplateCompilerTest} fixture. Not part of the unit test run, as timings
+ * on shared build machines are not reliable enough to assert on, run it from the IDE or with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=org.geoserver.featurestemplating.builders.compiled.TemplateCompilerBenchmark
+ * </pre>
+ */
+public class TemplateCompilerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int copies = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        TemplateCompilerTest fixture = new TemplateCompilerTest();
+        fixture.setup();
+        try {
+            List<SimpleFeature> many = new ArrayList<>();
+            for (int i = 0; i < copies; i++) {
+                many.addAll(fixture.features);
+            }
+            RootBuilder root = fixture.root;
+            RootBuilder plan = new TemplateCompiler().compile(root);
+            // warm up, checking the output is the same
+            if (!fixture.encode(root, many, false).equals(fixture.encode(plan, many, false))) {
+                throw new IllegalStateException("The execution plan output differs");
+            }
+
+            long treeWalk = 0;
+            long compiled = 0;
+            for (int i = 0; i < rounds; i++) {
+                long start = System.nanoTime();
+                fixture.encode(root, many, false);
+                treeWalk += System.nanoTime() - start;
+                start = System.nanoTime();
+                fixture.encode(plan, many, false);
+                compiled += System.nanoTime() - start;
+            }
+            System.out.printf(
+                    "Encoded %d features %d times, tree walk %d ms, execution plan %d ms%n",
+                    many.size(), rounds, treeWalk / 1_000_000, compiled / 1_000_000);
+        } finally {
+            fixture.cleanup();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.featurestemplating.builders.compiled;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.geoserver.featurestemplating.builders.TemplateBuilder;
+import org.geoserver.featurestemplating.builders.compiled.CompiledDynamicValueBuilder.Scope;
+import org.geoserver.featurestemplating.builders.impl.DynamicValueBuilder;
+import org.geoserver.featurestemplating.builders.impl.RootBuilder;
+import org.geoserver.featurestemplating.builders.impl.StaticBuilder;
+import org.geoserver.featurestemplating.builders.impl.TemplateBuilderContext;
+import org.geoserver.featurestemplating.builders.visitors.DefaultTemplateVisitor;
+import org.geoserver.featurestemplating.configuration.TemplateIdentifier;
+import org.geoserver.featurestemplating.readers.JSONTemplateReader;
+import org.geoserver.featurestemplating.readers.TemplateReaderConfiguration;
+import org.geoserver.featurestemplating.writers.GeoJSONWriter;
+import org.geoserver.ows.Dispatcher;
+import org.geoserver.ows.Request;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.filter.function.EnvFunction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.xml.sax.helpers.NamespaceSupport;
+
+public class TemplateCompilerTest {
+
+    private static final String TEMPLATE =
+            "{\"type\": \"FeatureCollection\", \"features\": [{"
+                    + "\"type\": \"Feature\","
+                    + "\"id\": \"${id}\","
+                    + "\"geometry\": \"${geom}\","
+                    + "\"properties\": {"
+                    + "  \"name\": \"${name}\","
+                    + "  \"upperName\": \"$${strToUpperCase(name)}\","
+                    + "  \"constant\": \"$${env('constant', 'fallback')}\","
+                    + "  \"static\": {\"list\": [1, 2.5, \"three\", {\"four\": true}],"
+                    + "    \"n\": null},"
+                    + "  \"text\": \"plain\""
+                    + "}}]}";
+
+    RootBuilder root;
+
+    List<SimpleFeature> features;
+
+    @Before
+    public void setup() throws IOException {
+        JSONTemplateReader reader =
+                new JSONTemplateReader(
+                        new ObjectMapper().readTree(TEMPLATE),
+                        new TemplateReaderConfiguration(new NamespaceSupport()),
+                        Collections.emptyList());
+        root = reader.getRootBuilder();
+
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.setName("places");
+        tb.add("id", Integer.class);
+        tb.add("name", String.class);
+        tb.add("geom", org.locationtech.jts.geom.Point.class);
+        SimpleFeatureType type = tb.buildFeatureType();
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(type);
+        GeometryFactory gf = new GeometryFactory();
+        features = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            fb.add(i);
+            fb.add(i % 3 == 0 ? null : "place " + i);
+            fb.add(gf.createPoint(new Coordinate(i, -i)));
+            features.add(fb.buildFeature("places." + i));
+        }
+    }
+
+    @After
+    public void cleanup() {
+        Dispatcher.REQUEST.remove();
+        EnvFunction.clearLocalValues();
+    }
+
+    String encode(RootBuilder builder, List<SimpleFeature> features, boolean pretty)
+            throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JsonGenerator generator = new JsonFactory().createGenerator(baos, JsonEncoding.UTF8);
+        if (pretty) generator.useDefaultPrettyPrinter();
+        try (GeoJSONWriter writer = new GeoJSONWriter(generator, TemplateIdentifier.GEOJSON)) {
+            writer.startTemplateOutput(null);
+            for (SimpleFeature f : features) {
+                builder.evaluate(writer, new TemplateBuilderContext(f));
+            }
+            writer.endTemplateOutput(null);
+        }
+        return new String(baos.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private List<TemplateBuilder> collect(RootBuilder builder) {
+        List<TemplateBuilder> result = new ArrayList<>();
+        builder.accept(
+                new DefaultTemplateVisitor() {
+                    @Override
+                    public Object visit(StaticBuilder staticBuilder, Object extradata) {
+                        result.add(staticBuilder);
+                        return super.visit(staticBuilder, extradata);
+                    }
+
+                    @Override
+                    public Object visit(DynamicValueBuilder dynamicBuilder, Object extradata) {
+                        result.add(dynamicBuilder);
+                        return super.visit(dynamicBuilder, extradata);
+                    }
+                },
+                null);
+        return result;
+    }
+
+    @Test
+    public void testCompile() {
+        RootBuilder plan = new TemplateCompiler().compile(root);
+        assertNotSame(root, plan);
+
+        List<TemplateBuilder> builders = collect(plan);
+        assertEquals(8, builders.size());
+        for (TemplateBuilder builder : builders) {
+            if (builder instanceof StaticBuilder) {
+                assertThat(builder, instanceOf(CompiledStaticBuilder.class));
+                assertTrue(((CompiledStaticBuilder) builder).isPreEncoded());
+            } else {
+                assertThat(builder, instanceOf(CompiledDynamicValueBuilder.class));
+            }
+        }
+        // the source tree is left untouched
+        collect(root).forEach(b -> assertFalse(b instanceof CompiledDynamicValueBuilder));
+        collect(root).forEach(b -> assertFalse(b instanceof CompiledStaticBuilder));
+    }
+
+    @Test
+    public void testScopes() {
+        RootBuilder plan = new TemplateCompiler().compile(root);
+        for (TemplateBuilder builder : collect(plan)) {
+            if (!(builder instanceof CompiledDynamicValueBuilder)) continue;
+            CompiledDynamicValueBuilder dynamic = (CompiledDynamicValueBuilder) builder;
+            String key = dynamic.getKey(null);
+            switch (key) {
+                case "constant":
+                    assertEquals(Scope.REQUEST, dynamic.getScope());
+                    break;
+                case "upperName":
+                    assertEquals(Scope.FEATURE, dynamic.getScope());
+                    assertNull(dynamic.getPropertyName());
+                    break;
+                case "geometry":
+                    assertEquals("geom", dynamic.getPropertyName());
+                    break;
+                default:
+                    assertEquals(key, dynamic.getPropertyName());
+            }
+        }
+    }
+
+    @Test
+    public void testSameOutput() throws IOException {
+        RootBuilder plan = new TemplateCompiler().compile(root);
+        assertEquals(encode(root, features, false), encode(plan, features, false));
+        // pre-encoded content is not used when pretty printing, still same output
+        assertEquals(encode(root, features, true), encode(plan, features, true));
+    }
+
+    @Test
+    public void testRequestScopeCaching() throws IOException {
+        RootBuilder plan = new TemplateCompiler().compile(root);
+        List<SimpleFeature> single = features.subList(1, 2);
+
+        Dispatcher.REQUEST.set(new Request());
+        EnvFunction.setLocalValue("constant", "first");
+        assertTrue(encode(plan, single, false).contains("\"constant\":\"first\""));
+        // same request, the value is not evaluated again
+        EnvFunction.setLocalValue("constant", "second");
+        assertTrue(encode(plan, single, false).contains("\"constant\":\"first\""));
+        // new request, new value
+        Dispatcher.REQUEST.set(new Request());
+        assertTrue(encode(plan, single, false).contains("\"constant\":\"second\""));
+        // no request, no caching
+        Dispatcher.REQUEST.remove();
+        EnvFunction.setLocalValue("constant", "third");
+        assertTrue(encode(plan, single, false).contains("\"constant\":\"third\""));
+    }
+}
@@ -0,0 +1,91 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.featurestemplating.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.geoserver.featurestemplating.builders.impl.RootBuilder;
+import org.geoserver.featurestemplating.readers.JSONTemplateReader;
+import org.geoserver.featurestemplating.readers.TemplateReaderConfiguration;
+import org.junit.Test;
+import org.xml.sax.helpers.NamespaceSupport;
+
+public class TemplatePropertiesVisitorTest {
+
+    private static final String SIMPLE_TEMPLATE =
+            "{\"type\": \"FeatureCollection\", \"features\": [{"
+                    + "\"type\": \"Feature\","
+                    + "\"geometry\": \"${the_geom}\","
+                    + "\"properties\": {"
+                    + "  \"name\": \"${name}\","
+                    + "  \"upper\": \"$${strToUpperCase(label)}\","
+                    + "  \"env\": \"$${env('constant', 'fallback')}\","
+                    + "  \"filtered\": \"$filter{kind = 'river'},${length}\","
+                    + "  \"static\": \"value\""
+                    + "}}]}";
+
+    private static final String WHOLE_FEATURE_TEMPLATE =
+            "{\"type\": \"FeatureCollection\", \"features\": [{"
+                    + "\"type\": \"Feature\","
+                    + "\"properties\": {\"all\": \"${.}\"}"
+                    + "}]}";
+
+    @Test
+    public void testSimpleTemplate() throws IOException {
+        RootBuilder root = getBuilderTree(new ObjectMapper().readTree(SIMPLE_TEMPLATE));
+        assertEquals(set("the_geom", "name", "label", "kind", "length"), getProperties(root));
+    }
+
+    @Test
+    public void testSourcesAndContextPositions() throws IOException {
+        // the nested paths all lead to the top level properties a and b
+        RootBuilder root = getBuilderTree("testTemplateBackwardMapping.json");
+        assertEquals(set("a", "b"), getProperties(root));
+    }
+
+    @Test
+    public void testWholeFeature() throws IOException {
+        RootBuilder root = getBuilderTree(new ObjectMapper().readTree(WHOLE_FEATURE_TEMPLATE));
+        assertNull(getProperties(root));
+    }
+
+    private Set<String> getProperties(RootBuilder root) {
+        TemplatePropertiesVisitor visitor = new TemplatePropertiesVisitor();
+        root.accept(visitor, null);
+        return visitor.getProperties();
+    }
+
+    private Set<String> set(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    private RootBuilder getBuilderTree(String resourceName) throws IOException {
+        try (InputStream is = getClass().getResource(resourceName).openStream()) {
+            ObjectMapper mapper =
+                    new ObjectMapper(new JsonFactory().enable(JsonParser.Feature.ALLOW_COMMENTS));
+            return getBuilderTree(mapper.readTree(is));
+        }
+    }
+
+    private RootBuilder getBuilderTree(JsonNode template) throws IOException {
+        JSONTemplateReader templateReader =
+                new JSONTemplateReader(
+                        template,
+                        new TemplateReaderConfiguration(new NamespaceSupport()),
+                        Collections.emptyList());
+        return templateReader.getRootBuilder();
+    }
+}
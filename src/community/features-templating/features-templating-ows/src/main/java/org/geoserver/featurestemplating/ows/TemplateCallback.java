@@ -4,9 +4,12 @@
  */
 package org.geoserver.featurestemplating.ows;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.xml.namespace.QName;
 import org.geoserver.catalog.*;
@@ -16,17 +19,22 @@
 import org.geoserver.featurestemplating.configuration.TemplateIdentifier;
 import org.geoserver.featurestemplating.configuration.TemplateLoader;
 import org.geoserver.featurestemplating.request.TemplatePathVisitor;
+import org.geoserver.featurestemplating.request.TemplatePropertiesVisitor;
 import org.geoserver.ows.AbstractDispatcherCallback;
 import org.geoserver.ows.Dispatcher;
 import org.geoserver.ows.DispatcherCallback;
 import org.geoserver.ows.Request;
 import org.geoserver.ows.Response;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.Operation;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.wfs.request.GetFeatureRequest;
 import org.geoserver.wfs.request.Query;
 import org.geoserver.wms.GetFeatureInfoRequest;
 import org.geoserver.wms.MapLayerInfo;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.FeatureType;
+import org.geotools.api.feature.type.PropertyDescriptor;
 import org.geotools.api.filter.Filter;
 import org.geotools.api.filter.FilterFactory;
 import org.geotools.factory.CommonFactoryFinder;
@@ -43,6 +51,14 @@ public class TemplateCallback extends AbstractDispatcherCallback {
 
     private static final Logger LOGGER = Logging.getLogger(TemplateCallback.class);
 
+    /**
+     * When set to true the properties requested to the store are narrowed down to the ones read by
+     * the template, if the request does not specify them already, and all of them can be found in
+     * the feature type. Off by default, as properties read by expressions evaluated at runtime
+     * cannot be detected, and would be missing from the output.
+     */
+    public static final String SELECT_TEMPLATE_PROPERTIES = "GEOSERVER_FT_SELECT_PROPERTIES";
+
     private Catalog catalog;
 
     private GeoServer gs;
@@ -89,8 +105,61 @@ private void handleTemplateFilters(List<Query> queries, String outputFormat)
                     RootBuilder root = rootBuilders.get(i);
                     replaceTemplatePath(q, fti, root);
                 }
+                // joins are left alone, property names would need to be aliased
+                if (featureTypeInfos.size() == 1) {
+                    selectTemplateProperties(q, featureTypeInfos.get(0), rootBuilders.get(0));
+                }
+            }
+        }
+    }
+
+    // narrows the properties read from the store to the ones the template uses,
+    // for complex features this avoids loading the nested features the template does not encode
+    private void selectTemplateProperties(Query q, FeatureTypeInfo fti, RootBuilder root) {
+        List<String> requested = q.getPropertyNames();
+        boolean select =
+                Boolean.parseBoolean(GeoServerExtensions.getProperty(SELECT_TEMPLATE_PROPERTIES));
+        if (!select || (requested != null && !requested.isEmpty())) return;
+        TemplatePropertiesVisitor visitor = new TemplatePropertiesVisitor();
+        root.accept(visitor, null);
+        Set<String> properties = visitor.getProperties();
+        if (properties == null) return;
+        try {
+            FeatureType type = fti.getFeatureType();
+            List<String> names = new ArrayList<>();
+            for (String property : properties) {
+                String localName = property.substring(property.indexOf(':') + 1);
+                PropertyDescriptor pd = type.getDescriptor(localName);
+                if (pd == null) {
+                    // cannot tell what the template needs, read all properties
+                    LOGGER.fine(
+                            "Template property "
+                                    + property
+                                    + " not found in "
+                                    + fti.prefixedName()
+                                    + ", not narrowing the query");
+                    return;
+                }
+                addPropertyName(names, type, pd);
+            }
+            // the default geometry is needed to compute the output CRS and bounds
+            addPropertyName(names, type, type.getGeometryDescriptor());
+            if (!names.isEmpty() && names.size() < type.getDescriptors().size()) {
+                q.setPropertyNames(names);
             }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not narrow the query properties to the template", e);
+        }
+    }
+
+    private void addPropertyName(List<String> names, FeatureType type, PropertyDescriptor pd) {
+        if (pd == null) return;
+        String name = pd.getName().getLocalPart();
+        if (!(type instanceof SimpleFeatureType)) {
+            NamespaceInfo ns = catalog.getNamespaceByURI(pd.getName().getNamespaceURI());
+            if (ns != null) name = ns.getPrefix() + ":" + name;
         }
+        if (!names.contains(name)) names.add(name);
     }
 
     // get the FeatureTypeInfo from the query
@@ -15,6 +15,7 @@
 import org.geoserver.catalog.FeatureTypeInfo;
 import org.geoserver.data.test.SystemTestData;
 import org.geoserver.featurestemplating.configuration.SupportedFormat;
+import org.geoserver.featurestemplating.ows.TemplateCallback;
 import org.junit.Test;
 
 public class GeoJSONGetComplexFeaturesResponseWFSTest extends TemplateComplexTestSupport {
@@ -194,4 +195,20 @@ public void testGeoJSONAggregateFunBackwardMappingWithBackPoints() throws Except
             assertEquals("name_cc_4,name_cc_3", lithology);
         }
     }
+
+    @Test
+    public void testSelectTemplatePropertiesSameOutput() throws Exception {
+        String path =
+                "wfs?request=GetFeature&version=2.0"
+                        + "&TYPENAME=gsml:MappedFeature&outputFormat=application/json"
+                        + GEOJSON_MF_PARAM;
+        JSONArray full = ((JSONObject) getJson(path)).getJSONArray("features");
+        System.setProperty(TemplateCallback.SELECT_TEMPLATE_PROPERTIES, "true");
+        try {
+            // app-schema skips the nested features the template does not use, same output
+            assertEquals(full, ((JSONObject) getJson(path)).getJSONArray("features"));
+        } finally {
+            System.clearProperty(TemplateCallback.SELECT_TEMPLATE_PROPERTIES);
+        }
+    }
 }
@@ -11,6 +11,7 @@
 import java.io.IOException;
 import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
+import org.geoserver.featurestemplating.ows.TemplateCallback;
 import org.junit.Test;
 
 public class GeoJSONGetSimpleFeaturesResponseWFSTest extends GeoJSONGetSimpleFeaturesResponseTest {
@@ -118,4 +119,20 @@ public void testGeoJSONResponseFilteredDynamicKey() throws Exception {
         assertNotNull(feature.getString("id"));
         assertEquals("Name: Goose Island", feature.getString("Goose Island"));
     }
+
+    @Test
+    public void testSelectTemplatePropertiesSameOutput() throws Exception {
+        setUpSimple("NamedPlacesGeoJSON.json");
+        String path =
+                "wfs?request=GetFeature&version=2.0"
+                        + "&TYPENAME=cite:NamedPlaces&outputFormat=application/json";
+        JSONArray full = ((JSONObject) getJson(path)).getJSONArray("features");
+        System.setProperty(TemplateCallback.SELECT_TEMPLATE_PROPERTIES, "true");
+        try {
+            // reading only the properties used by the template does not change the output
+            assertEquals(full, ((JSONObject) getJson(path)).getJSONArray("features"));
+        } finally {
+            System.clearProperty(TemplateCallback.SELECT_TEMPLATE_PROPERTIES);
+        }
+    }
 }
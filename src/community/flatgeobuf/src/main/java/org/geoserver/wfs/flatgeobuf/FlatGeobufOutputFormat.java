@@ -15,6 +15,7 @@
 import org.geoserver.wfs.WFSGetFeatureOutputFormat;
 import org.geoserver.wfs.WFSInfo;
 import org.geoserver.wfs.request.FeatureCollectionResponse;
+import org.geoserver.wfs.request.GetFeatureRequest;
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.data.flatgeobuf.FeatureCollectionConversions;
 import org.geotools.data.simple.SimpleFeatureCollection;
@@ -27,6 +28,9 @@
  * @author Björn Harrtell
  */
 public class FlatGeobufOutputFormat extends WFSGetFeatureOutputFormat {
+    /** Format option enabling the packed Hilbert R-tree spatial index */
+    public static final String INDEX_OPTION = "INDEX";
+
     private final Logger LOGGER = org.geotools.util.logging.Logging.getLogger(this.getClass());
 
     public FlatGeobufOutputFormat(GeoServer gs) {
@@ -68,7 +72,19 @@ protected void write(
 
         SimpleFeatureCollection fc =
                 (SimpleFeatureCollection) featureCollection.getFeature().get(0);
-        FeatureCollectionConversions.serialize(fc, 0, output);
+        if (isIndexed(operation)) {
+            new IndexedFlatGeobufWriter().write(fc, output);
+        } else {
+            FeatureCollectionConversions.serialize(fc, 0, output);
+        }
+    }
+
+    /** Checks if the request asked for a spatially indexed output, format_options=index:true */
+    protected boolean isIndexed(Operation operation) {
+        GetFeatureRequest request = GetFeatureRequest.adapt(operation.getParameters()[0]);
+        if (request == null || request.getFormatOptions() == null) return false;
+        Object index = request.getFormatOptions().get(INDEX_OPTION);
+        return index != null && Boolean.parseBoolean(index.toString());
     }
 
     /** Is WFS configured to return feature and collection bounds? */
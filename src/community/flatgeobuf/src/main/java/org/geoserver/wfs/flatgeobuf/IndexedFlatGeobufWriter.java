@@ -0,0 +1,411 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.flatgeobuf;
+
+import static org.geoserver.wfs.flatgeobuf.PackedHilbertRTree.NODE_ITEM_BYTES;
+
+import com.google.flatbuffers.FlatBufferBuilder;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.apache.commons.io.FileUtils;
+import org.geoserver.util.IOUtils;
+import org.geoserver.wfs.flatgeobuf.PackedHilbertRTree.NodeWriter;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.data.flatgeobuf.FeatureCollectionConversions;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.collection.DecoratingSimpleFeatureCollection;
+import org.geotools.feature.collection.DecoratingSimpleFeatureIterator;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.wololo.flatgeobuf.HeaderMeta;
+
+/**
+ * Writes FlatGeobuf files with a packed Hilbert R-tree spatial index, allowing clients to read
+ * only the features intersecting an area of interest, e.g., with HTTP range requests.
+ *
+ * <p>The index requires the features to be sorted along the Hilbert curve, and its size to be
+ * known before the features are written. To do so in bounded memory the features are first
+ * encoded in a temporary file, then their bounding boxes are sorted with an external merge sort,
+ * the index levels are built bottom up in temporary files, and finally the header, the index and
+ * the features in Hilbert order are copied to the output.
+ */
+class IndexedFlatGeobufWriter {
+
+    /** Number of features sorted in memory before being spilled to a temporary run */
+    static final int DEFAULT_CHUNK_SIZE = 100_000;
+
+    private static final int MAGIC_BYTES = 8;
+
+    private static final Comparator<Entry> HILBERT_ORDER =
+            (e1, e2) -> {
+                int result = Integer.compareUnsigned(e1.hilbert, e2.hilbert);
+                return result != 0 ? result : Long.compare(e1.offset, e2.offset);
+            };
+
+    int nodeSize = PackedHilbertRTree.DEFAULT_NODE_SIZE;
+
+    int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    public void write(SimpleFeatureCollection collection, OutputStream output) throws IOException {
+        File dir = IOUtils.createTempDirectory("fgbindex");
+        try {
+            File features = new File(dir, "features.fgb");
+            File envelopes = new File(dir, "envelopes");
+            EnvelopeCollection recorder;
+            try (OutputStream fos = new BufferedOutputStream(new FileOutputStream(features));
+                    DataOutputStream eos = dataOutput(envelopes)) {
+                recorder = new EnvelopeCollection(collection, eos);
+                FeatureCollectionConversions.serialize(recorder, 0, fos);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            OutputStream out = new BufferedOutputStream(output);
+            if (recorder.count == 0) {
+                // nothing to index
+                Files.copy(features.toPath(), out);
+            } else {
+                writeIndexed(dir, features, envelopes, recorder.count, recorder.extent, out);
+            }
+            out.flush();
+        } finally {
+            FileUtils.deleteQuietly(dir);
+        }
+    }
+
+    private void writeIndexed(
+            File dir,
+            File features,
+            File envelopes,
+            long count,
+            Envelope extent,
+            OutputStream out)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(features.toPath(), StandardOpenOption.READ)) {
+            // magic bytes and header, updated with the index information
+            ByteBuffer prefix = ByteBuffer.allocate(MAGIC_BYTES + 4);
+            prefix.order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, prefix, 0);
+            long featuresStart = MAGIC_BYTES + 4 + prefix.getInt(MAGIC_BYTES);
+            ByteBuffer headerBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, featuresStart);
+            HeaderMeta header = HeaderMeta.read(headerBuffer.order(ByteOrder.LITTLE_ENDIAN));
+            header.featuresCount = count;
+            header.indexNodeSize = nodeSize;
+            if (!extent.isNull()) {
+                header.envelope = extent;
+            }
+
+            List<File> runs = sortRuns(dir, features, featuresStart, envelopes, count, extent);
+            File sorted = new File(dir, "sorted");
+            long[][] levelBounds = PackedHilbertRTree.levelBounds(count, nodeSize);
+            List<File> levels = new ArrayList<>();
+            levels.add(new File(dir, "level0"));
+            merge(runs, sorted, levels.get(0));
+            for (int i = 0; i < levelBounds.length - 1; i++) {
+                File parent = new File(dir, "level" + (i + 1));
+                buildParentLevel(levels.get(i), levelBounds[i], parent);
+                levels.add(parent);
+            }
+
+            out.write(Arrays.copyOf(prefix.array(), MAGIC_BYTES));
+            HeaderMeta.write(header, out, new FlatBufferBuilder(4096));
+            for (int i = levels.size() - 1; i >= 0; i--) {
+                Files.copy(levels.get(i).toPath(), out);
+            }
+            copyFeatures(channel, featuresStart, sorted, count, out);
+        }
+    }
+
+    /**
+     * Reads the features sizes and bounding boxes, and writes them in runs of at most {@link
+     * #chunkSize} entries sorted in Hilbert order
+     */
+    private List<File> sortRuns(
+            File dir,
+            File features,
+            long featuresStart,
+            File envelopes,
+            long count,
+            Envelope extent)
+            throws IOException {
+        List<File> runs = new ArrayList<>();
+        List<Entry> chunk = new ArrayList<>();
+        try (DataInputStream fis = dataInput(features);
+                DataInputStream eis = dataInput(envelopes)) {
+            skipFully(fis, featuresStart);
+            long offset = 0;
+            for (long i = 0; i < count; i++) {
+                Entry entry = new Entry();
+                entry.minX = eis.readDouble();
+                entry.minY = eis.readDouble();
+                entry.maxX = eis.readDouble();
+                entry.maxY = eis.readDouble();
+                entry.hilbert =
+                        PackedHilbertRTree.hilbert(
+                                entry.minX, entry.minY, entry.maxX, entry.maxY, extent);
+                entry.size = Integer.reverseBytes(fis.readInt());
+                skipFully(fis, entry.size);
+                entry.offset = offset;
+                offset += 4 + entry.size;
+                chunk.add(entry);
+                if (chunk.size() >= chunkSize) {
+                    runs.add(writeRun(dir, runs.size(), chunk));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            runs.add(writeRun(dir, runs.size(), chunk));
+        }
+        return runs;
+    }
+
+    private File writeRun(File dir, int index, List<Entry> chunk) throws IOException {
+        chunk.sort(HILBERT_ORDER);
+        File run = new File(dir, "run" + index);
+        try (DataOutputStream out = dataOutput(run)) {
+            for (Entry entry : chunk) {
+                entry.write(out);
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Merges the sorted runs, writing the original offset and size of the features in Hilbert
+     * order, and the leaves of the index pointing to their offsets once sorted
+     */
+    private void merge(List<File> runs, File sorted, File leaves) throws IOException {
+        List<RunReader> readers = new ArrayList<>();
+        try (DataOutputStream sortedOut = dataOutput(sorted);
+                OutputStream leavesOut = new BufferedOutputStream(new FileOutputStream(leaves))) {
+            PriorityQueue<RunReader> queue =
+                    new PriorityQueue<>((r1, r2) -> HILBERT_ORDER.compare(r1.current, r2.current));
+            for (File run : runs) {
+                RunReader reader = new RunReader(dataInput(run));
+                readers.add(reader);
+                if (reader.next()) queue.add(reader);
+            }
+
+            NodeWriter nodes = new NodeWriter(leavesOut);
+            long offset = 0;
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                Entry entry = reader.current;
+                sortedOut.writeLong(entry.offset);
+                sortedOut.writeInt(entry.size);
+                nodes.write(entry.minX, entry.minY, entry.maxX, entry.maxY, offset);
+                offset += 4 + entry.size;
+                if (reader.next()) queue.add(reader);
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.in.close();
+            }
+        }
+    }
+
+    /** Builds the level above the given one, each parent node pointing to its first child */
+    private void buildParentLevel(File level, long[] bounds, File parent) throws IOException {
+        ByteBuffer node = ByteBuffer.allocate(NODE_ITEM_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(level));
+                OutputStream out = new BufferedOutputStream(new FileOutputStream(parent))) {
+            NodeWriter nodes = new NodeWriter(out);
+            long pos = bounds[0];
+            while (pos < bounds[1]) {
+                long first = pos;
+                double minX = Double.POSITIVE_INFINITY;
+                double minY = Double.POSITIVE_INFINITY;
+                double maxX = Double.NEGATIVE_INFINITY;
+                double maxY = Double.NEGATIVE_INFINITY;
+                for (int j = 0; j < nodeSize && pos < bounds[1]; j++, pos++) {
+                    if (in.readNBytes(node.array(), 0, NODE_ITEM_BYTES) != NODE_ITEM_BYTES) {
+                        throw new EOFException("Unexpected end of index level " + level);
+                    }
+                    minX = Math.min(minX, node.getDouble(0));
+                    minY = Math.min(minY, node.getDouble(8));
+                    maxX = Math.max(maxX, node.getDouble(16));
+                    maxY = Math.max(maxY, node.getDouble(24));
+                }
+                nodes.write(minX, minY, maxX, maxY, first);
+            }
+        }
+    }
+
+    /** Copies the features to the output in Hilbert order */
+    private void copyFeatures(
+            FileChannel channel, long featuresStart, File sorted, long count, OutputStream out)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try (DataInputStream in = dataInput(sorted)) {
+            for (long i = 0; i < count; i++) {
+                long offset = in.readLong();
+                int length = 4 + in.readInt();
+                if (length > buffer.capacity()) {
+                    buffer = ByteBuffer.allocate(length);
+                }
+                buffer.clear().limit(length);
+                readFully(channel, buffer, featuresStart + offset);
+                out.write(buffer.array(), 0, length);
+            }
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of the temporary FlatGeobuf file");
+            }
+            position += read;
+        }
+        buffer.flip();
+    }
+
+    private static void skipFully(InputStream in, long bytes) throws IOException {
+        while (bytes > 0) {
+            long skipped = in.skip(bytes);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException("Unexpected end of the temporary FlatGeobuf file");
+                }
+                skipped = 1;
+            }
+            bytes -= skipped;
+        }
+    }
+
+    private static DataOutputStream dataOutput(File file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+    }
+
+    private static DataInputStream dataInput(File file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+    }
+
+    /** Size, position and bounding box of an encoded feature */
+    static class Entry {
+        int hilbert;
+        long offset;
+        int size;
+        double minX, minY, maxX, maxY;
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(hilbert);
+            out.writeLong(offset);
+            out.writeInt(size);
+            out.writeDouble(minX);
+            out.writeDouble(minY);
+            out.writeDouble(maxX);
+            out.writeDouble(maxY);
+        }
+
+        static Entry read(DataInputStream in) throws IOException {
+            Entry entry = new Entry();
+            entry.hilbert = in.readInt();
+            entry.offset = in.readLong();
+            entry.size = in.readInt();
+            entry.minX = in.readDouble();
+            entry.minY = in.readDouble();
+            entry.maxX = in.readDouble();
+            entry.maxY = in.readDouble();
+            return entry;
+        }
+    }
+
+    /** Reads the entries of a sorted run one at a time */
+    static class RunReader {
+        final DataInputStream in;
+        Entry current;
+
+        RunReader(DataInputStream in) {
+            this.in = in;
+        }
+
+        boolean next() throws IOException {
+            try {
+                current = Entry.read(in);
+                return true;
+            } catch (EOFException e) {
+                current = null;
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Records the bounding box of each feature, in encoding order, along with the overall extent.
+     * Features without a geometry get an empty box, never matching any search.
+     */
+    static class EnvelopeCollection extends DecoratingSimpleFeatureCollection {
+
+        final DataOutputStream envelopes;
+
+        final Envelope extent = new Envelope();
+
+        long count;
+
+        EnvelopeCollection(SimpleFeatureCollection delegate, DataOutputStream envelopes) {
+            super(delegate);
+            this.envelopes = envelopes;
+        }
+
+        @Override
+        public SimpleFeatureIterator features() {
+            return new DecoratingSimpleFeatureIterator(delegate.features()) {
+                @Override
+                public SimpleFeature next() {
+                    SimpleFeature feature = super.next();
+                    record(feature);
+                    return feature;
+                }
+            };
+        }
+
+        private void record(SimpleFeature feature) {
+            Geometry geometry = (Geometry) feature.getDefaultGeometry();
+            try {
+                if (geometry == null || geometry.isEmpty()) {
+                    envelopes.writeDouble(Double.POSITIVE_INFINITY);
+                    envelopes.writeDouble(Double.POSITIVE_INFINITY);
+                    envelopes.writeDouble(Double.NEGATIVE_INFINITY);
+                    envelopes.writeDouble(Double.NEGATIVE_INFINITY);
+                } else {
+                    Envelope envelope = geometry.getEnvelopeInternal();
+                    extent.expandToInclude(envelope);
+                    envelopes.writeDouble(envelope.getMinX());
+                    envelopes.writeDouble(envelope.getMinY());
+                    envelopes.writeDouble(envelope.getMaxX());
+                    envelopes.writeDouble(envelope.getMaxY());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count++;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.flatgeobuf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Layout of the packed Hilbert R-tree used as the spatial index of FlatGeobuf files. The tree is
+ * stored as a flat array of 40 bytes node items (bounding box and offset, little endian), the root
+ * first and the leaves last. Leaves point to the byte offset of their feature in the features
+ * section, the other nodes to the index of their first child node.
+ */
+class PackedHilbertRTree {
+
+    /** The default number of children of each node */
+    static final int DEFAULT_NODE_SIZE = 16;
+
+    /** Size in bytes of a node item */
+    static final int NODE_ITEM_BYTES = 40;
+
+    /** The Hilbert curve is computed over a 2^16 x 2^16 grid */
+    static final int HILBERT_MAX = (1 << 16) - 1;
+
+    private PackedHilbertRTree() {}
+
+    /**
+     * Returns the start (inclusive) and end (exclusive) node index of each level of a tree with the
+     * given number of items, starting from the leaves and ending with the root
+     */
+    static long[][] levelBounds(long numItems, int nodeSize) {
+        if (numItems < 1) {
+            throw new IllegalArgumentException("The tree needs at least one item");
+        }
+        List<Long> levelNumNodes = new ArrayList<>();
+        long n = numItems;
+        long numNodes = n;
+        levelNumNodes.add(n);
+        do {
+            n = (n + nodeSize - 1) / nodeSize;
+            numNodes += n;
+            levelNumNodes.add(n);
+        } while (n != 1);
+
+        long[][] bounds = new long[levelNumNodes.size()][];
+        n = numNodes;
+        for (int i = 0; i < bounds.length; i++) {
+            long size = levelNumNodes.get(i);
+            bounds[i] = new long[] {n - size, n};
+            n -= size;
+        }
+        return bounds;
+    }
+
+    /** Returns the size in bytes of the index of a tree with the given number of items */
+    static long indexSize(long numItems, int nodeSize) {
+        long[][] bounds = levelBounds(numItems, nodeSize);
+        return bounds[0][1] * NODE_ITEM_BYTES;
+    }
+
+    /**
+     * Returns the position along the Hilbert curve of the center of the given box, within the
+     * specified extent
+     */
+    static int hilbert(double minX, double minY, double maxX, double maxY, Envelope extent) {
+        int x = toGrid((minX + maxX) / 2, extent.getMinX(), extent.getWidth());
+        int y = toGrid((minY + maxY) / 2, extent.getMinY(), extent.getHeight());
+        return hilbert(x, y);
+    }
+
+    private static int toGrid(double value, double min, double span) {
+        if (!(span > 0) || Double.isNaN(value)) return 0;
+        double scaled = Math.floor(HILBERT_MAX * (value - min) / span);
+        return (int) Math.max(0, Math.min(HILBERT_MAX, scaled));
+    }
+
+    /**
+     * Returns the position along the Hilbert curve of the given cell of a 2^16 x 2^16 grid, the
+     * result is to be compared as an unsigned integer
+     */
+    static int hilbert(int x, int y) {
+        int a = x ^ y;
+        int b = 0xFFFF ^ a;
+        int c = 0xFFFF ^ (x | y);
+        int d = x & (y ^ 0xFFFF);
+
+        int A = a | (b >>> 1);
+        int B = (a >>> 1) ^ a;
+        int C = ((c >>> 1) ^ (b & (d >>> 1))) ^ c;
+        int D = ((a & (c >>> 1)) ^ (d >>> 1)) ^ d;
+
+        a = A;
+        b = B;
+        c = C;
+        d = D;
+        A = ((a & (a >>> 2)) ^ (b & (b >>> 2)));
+        B = ((a & (b >>> 2)) ^ (b & ((a ^ b) >>> 2)));
+        C ^= ((a & (c >>> 2)) ^ (b & (d >>> 2)));
+        D ^= ((b & (c >>> 2)) ^ ((a ^ b) & (d >>> 2)));
+
+        a = A;
+        b = B;
+        c = C;
+        d = D;
+        A = ((a & (a >>> 4)) ^ (b & (b >>> 4)));
+        B = ((a & (b >>> 4)) ^ (b & ((a ^ b) >>> 4)));
+        C ^= ((a & (c >>> 4)) ^ (b & (d >>> 4)));
+        D ^= ((b & (c >>> 4)) ^ ((a ^ b) & (d >>> 4)));
+
+        a = A;
+        b = B;
+        c = C;
+        d = D;
+        C ^= ((a & (c >>> 8)) ^ (b & (d >>> 8)));
+        D ^= ((b & (c >>> 8)) ^ ((a ^ b) & (d >>> 8)));
+
+        a = C ^ (C >>> 1);
+        b = D ^ (D >>> 1);
+
+        int i0 = x ^ y;
+        int i1 = b | (0xFFFF ^ (i0 | a));
+
+        i0 = (i0 | (i0 << 8)) & 0x00FF00FF;
+        i0 = (i0 | (i0 << 4)) & 0x0F0F0F0F;
+        i0 = (i0 | (i0 << 2)) & 0x33333333;
+        i0 = (i0 | (i0 << 1)) & 0x55555555;
+
+        i1 = (i1 | (i1 << 8)) & 0x00FF00FF;
+        i1 = (i1 | (i1 << 4)) & 0x0F0F0F0F;
+        i1 = (i1 | (i1 << 2)) & 0x33333333;
+        i1 = (i1 | (i1 << 1)) & 0x55555555;
+
+        return (i1 << 1) | i0;
+    }
+
+    /** Writes node items in the index binary format, reusing the same buffer */
+    static class NodeWriter {
+
+        private final ByteBuffer buffer =
+                ByteBuffer.allocate(NODE_ITEM_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        private final OutputStream out;
+
+        NodeWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        void write(double minX, double minY, double maxX, double maxY, long offset)
+                throws IOException {
+            buffer.clear();
+            buffer.putDouble(minX).putDouble(minY).putDouble(maxX).putDouble(maxY);
+            buffer.putLong(offset);
+            out.write(buffer.array(), 0, NODE_ITEM_BYTES);
+        }
+    }
+}
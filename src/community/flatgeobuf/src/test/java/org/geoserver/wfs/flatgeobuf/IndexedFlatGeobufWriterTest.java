@@ -0,0 +1,192 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.flatgeobuf;
+
+import static org.geoserver.wfs.flatgeobuf.PackedHilbertRTree.NODE_ITEM_BYTES;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.opengis.wfs.FeatureCollectionType;
+import net.opengis.wfs.GetFeatureType;
+import net.opengis.wfs.WfsFactory;
+import org.geoserver.platform.Operation;
+import org.geotools.api.data.DataStore;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.data.flatgeobuf.FlatGeobufDataStoreFactory;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.wololo.flatgeobuf.HeaderMeta;
+
+public class IndexedFlatGeobufWriterTest {
+
+    static final int NODE_SIZE = PackedHilbertRTree.DEFAULT_NODE_SIZE;
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLevelBounds() {
+        assertArrayEquals(
+                new long[][] {{1, 2}, {0, 1}}, PackedHilbertRTree.levelBounds(1, NODE_SIZE));
+        assertArrayEquals(
+                new long[][] {{3, 20}, {1, 3}, {0, 1}},
+                PackedHilbertRTree.levelBounds(17, NODE_SIZE));
+        assertEquals(20 * NODE_ITEM_BYTES, PackedHilbertRTree.indexSize(17, NODE_SIZE));
+    }
+
+    /** A 40x25 grid of points, the id of each point being x * 25 + y */
+    private ListFeatureCollection grid() throws Exception {
+        SimpleFeatureType type = DataUtilities.createType("Grid", "geom:Point:srid=4326,id:int");
+        GeometryFactory gf = new GeometryFactory();
+        List<SimpleFeature> features = new ArrayList<>();
+        for (int x = 0; x < 40; x++) {
+            for (int y = 0; y < 25; y++) {
+                Object[] values = {gf.createPoint(new Coordinate(x, y)), x * 25 + y};
+                features.add(SimpleFeatureBuilder.build(type, values, null));
+            }
+        }
+        return new ListFeatureCollection(type, features);
+    }
+
+    @Test
+    public void testIndexedOutput() throws Exception {
+        // sorted in multiple runs
+        IndexedFlatGeobufWriter writer = new IndexedFlatGeobufWriter();
+        writer.chunkSize = 64;
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        writer.write(grid(), bos);
+
+        ByteBuffer bb = ByteBuffer.wrap(bos.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals('f', bb.get(0));
+        assertEquals('g', bb.get(1));
+        assertEquals('b', bb.get(2));
+        HeaderMeta header = HeaderMeta.read(bb.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+        assertEquals(1000, header.featuresCount);
+        assertEquals(NODE_SIZE, header.indexNodeSize);
+
+        int indexStart = 12 + bb.getInt(8);
+        int featuresStart = indexStart + (int) PackedHilbertRTree.indexSize(1000, NODE_SIZE);
+
+        // the leaves point to each feature exactly once
+        Set<Long> featureOffsets = new HashSet<>();
+        for (long offset = 0; featuresStart + offset < bb.limit(); ) {
+            featureOffsets.add(offset);
+            offset += 4 + bb.getInt((int) (featuresStart + offset));
+        }
+        assertEquals(1000, featureOffsets.size());
+        List<Long> all = search(bb, indexStart, 1000, new Envelope(-1, 41, -1, 26));
+        assertEquals(featureOffsets, new HashSet<>(all));
+        assertEquals(1000, all.size());
+
+        // a bbox search only returns the features within it
+        List<Long> hits = search(bb, indexStart, 1000, new Envelope(9.5, 19.5, 4.5, 9.5));
+        assertEquals(10 * 5, hits.size());
+        assertTrue(featureOffsets.containsAll(hits));
+    }
+
+    @Test
+    public void testReadBackIndexed() throws Exception {
+        // format_options=index:true
+        GetFeatureType request = WfsFactory.eINSTANCE.createGetFeatureType();
+        Map<String, Object> formatOptions = new HashMap<>();
+        formatOptions.put(FlatGeobufOutputFormat.INDEX_OPTION, "true");
+        request.setFormatOptions(formatOptions);
+        Operation operation = new Operation("GetFeature", null, null, new Object[] {request});
+        FeatureCollectionType response = WfsFactory.eINSTANCE.createFeatureCollectionType();
+        response.getFeature().add(grid());
+        File file = new File(folder.getRoot(), "grid.fgb");
+        try (OutputStream os = new FileOutputStream(file)) {
+            new FlatGeobufOutputFormat(null).write(response, os, operation);
+        }
+
+        // the GeoTools reader uses the spatial index to answer the bbox query
+        Map<String, Object> params = new HashMap<>();
+        params.put(FlatGeobufDataStoreFactory.URL_PARAM.key, file.toURI().toURL());
+        DataStore store = new FlatGeobufDataStoreFactory().createDataStore(params);
+        try {
+            SimpleFeatureSource source = store.getFeatureSource(store.getTypeNames()[0]);
+            assertEquals(1000, source.getCount(Query.ALL));
+            FilterFactory ff = CommonFactoryFinder.getFilterFactory();
+            Query query = new Query(null, ff.bbox("geom", 9.5, 4.5, 19.5, 9.5, "EPSG:4326"));
+            Set<Integer> ids = new HashSet<>();
+            try (SimpleFeatureIterator it = source.getFeatures(query).features()) {
+                while (it.hasNext()) {
+                    SimpleFeature feature = it.next();
+                    Coordinate c = ((Point) feature.getDefaultGeometry()).getCoordinate();
+                    assertEquals((int) (c.x * 25 + c.y), feature.getAttribute("id"));
+                    assertTrue(ids.add((Integer) feature.getAttribute("id")));
+                }
+            }
+            Set<Integer> expected = new HashSet<>();
+            for (int x = 10; x < 20; x++) {
+                for (int y = 5; y < 10; y++) {
+                    expected.add(x * 25 + y);
+                }
+            }
+            assertEquals(expected, ids);
+        } finally {
+            store.dispose();
+        }
+    }
+
+    /** Walks the packed tree top down, returning the offsets of the matching features */
+    private List<Long> search(ByteBuffer bb, int indexStart, long count, Envelope box) {
+        long[][] bounds = PackedHilbertRTree.levelBounds(count, NODE_SIZE);
+        long leavesStart = bounds[0][0];
+        List<Long> hits = new ArrayList<>();
+        Deque<long[]> queue = new ArrayDeque<>();
+        queue.add(new long[] {0, bounds.length - 1});
+        while (!queue.isEmpty()) {
+            long[] next = queue.poll();
+            int level = (int) next[1];
+            long end = Math.min(next[0] + NODE_SIZE, bounds[level][1]);
+            for (long pos = next[0]; pos < end; pos++) {
+                int o = (int) (indexStart + pos * NODE_ITEM_BYTES);
+                Envelope node =
+                        new Envelope(
+                                bb.getDouble(o),
+                                bb.getDouble(o + 16),
+                                bb.getDouble(o + 8),
+                                bb.getDouble(o + 24));
+                if (!node.intersects(box)) continue;
+                long offset = bb.getLong(o + 32);
+                if (pos >= leavesStart) {
+                    hits.add(offset);
+                } else {
+                    queue.add(new long[] {offset, level - 1});
+                }
+            }
+        }
+        return hits;
+    }
+}
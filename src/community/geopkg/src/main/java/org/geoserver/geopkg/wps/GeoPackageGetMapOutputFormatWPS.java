@@ -14,20 +14,17 @@
 import org.geoserver.geopkg.wms.GeoPackageGetMapOutputFormat;
 import org.geoserver.gwc.GWC;
 import org.geoserver.ows.util.OwsUtils;
-import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
+import org.geoserver.tiles.ParallelTileRenderer;
 import org.geoserver.wms.GetMapRequest;
 import org.geoserver.wms.MapLayerInfo;
-import org.geoserver.wms.RasterCleaner;
 import org.geoserver.wms.WMS;
-import org.geoserver.wms.WebMap;
 import org.geoserver.wms.WebMapService;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
 import org.geotools.api.util.ProgressListener;
 import org.geotools.data.util.DefaultProgressListener;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.geopkg.GeoPackage;
-import org.geotools.geopkg.Tile;
 import org.geotools.geopkg.TileEntry;
 import org.geotools.geopkg.TileMatrix;
 import org.geotools.referencing.CRS;
@@ -65,9 +62,6 @@ public void addTiles(
             return;
         }
 
-        // Get the RasterCleaner object
-        RasterCleaner cleaner = GeoServerExtensions.bean(RasterCleaner.class);
-
         // figure out the actual bounds of the tiles to be renderered
         ReferencedEnvelope bbox = bounds(request);
 
@@ -142,49 +136,56 @@ public void addTiles(
             maxRow = Integer.parseInt(formatOpts.get("max_row").toString());
         }
 
-        for (TileMatrix matrix : matrixSet.values()) {
-
-            req.setWidth(matrix.getTileWidth());
-            req.setHeight(matrix.getTileHeight());
-
-            // long[] intersect = gridSubset.getCoverageIntersection(z, bbox);
-            double resX = xSpan / matrix.getMatrixWidth();
-            double resY = ySpan / matrix.getMatrixHeight();
-
-            long minX = Math.round(Math.floor((bbox.getMinX() - xOffset) / resX));
-            long minY = Math.round(Math.floor((bbox.getMinY() - yOffset) / resY));
-            long maxX = Math.round(Math.ceil((bbox.getMaxX() - xOffset) / resX));
-            long maxY = Math.round(Math.ceil((bbox.getMaxY() - yOffset) / resY));
-
-            minX = minColumn == null ? minX : Math.max(minColumn, minX);
-            maxX = maxColumn == null ? maxX : Math.min(maxColumn, maxX);
-            minY = minRow == null ? minY : Math.max(minRow, minY);
-            maxY = maxRow == null ? maxY : Math.min(maxRow, maxY);
-
-            for (long x = minX; x < maxX; x++) {
-                for (long y = minY; y < maxY; y++) {
-                    req.setBbox(
-                            new Envelope(
-                                    xOffset + x * resX,
-                                    xOffset + (x + 1) * resX,
-                                    yOffset + y * resY,
-                                    yOffset + (y + 1) * resY));
-                    WebMap result = webMapService.getMap(req);
-                    Tile t = new Tile();
-                    t.setZoom(matrix.getZoomLevel());
-                    t.setColumn((int) x);
-                    t.setRow((int) y);
-                    t.setData(toBytes(result));
-                    geopkg.add(e, t);
-                    // Cleanup
-                    cleaner.finished(null);
+        GeopackageWrapper tiles = new GeopackageWrapper(geopkg, e);
+        try (ParallelTileRenderer renderer = new ParallelTileRenderer(tiles)) {
+            for (TileMatrix matrix : matrixSet.values()) {
+
+                req.setWidth(matrix.getTileWidth());
+                req.setHeight(matrix.getTileHeight());
+
+                // long[] intersect = gridSubset.getCoverageIntersection(z, bbox);
+                double resX = xSpan / matrix.getMatrixWidth();
+                double resY = ySpan / matrix.getMatrixHeight();
+
+                long minX = Math.round(Math.floor((bbox.getMinX() - xOffset) / resX));
+                long minY = Math.round(Math.floor((bbox.getMinY() - yOffset) / resY));
+                long maxX = Math.round(Math.ceil((bbox.getMaxX() - xOffset) / resX));
+                long maxY = Math.round(Math.ceil((bbox.getMaxY() - yOffset) / resY));
+
+                minX = minColumn == null ? minX : Math.max(minColumn, minX);
+                maxX = maxColumn == null ? maxX : Math.min(maxColumn, maxX);
+                minY = minRow == null ? minY : Math.max(minRow, minY);
+                maxY = maxRow == null ? maxY : Math.min(maxRow, maxY);
+
+                for (long x = minX; x < maxX; x++) {
+                    for (long y = minY; y < maxY; y++) {
+                        // each tile gets its own request, as they are rendered concurrently
+                        GetMapRequest tileRequest = (GetMapRequest) req.clone();
+                        tileRequest.setStyles(req.getStyles());
+                        tileRequest.setBbox(
+                                new Envelope(
+                                        xOffset + x * resX,
+                                        xOffset + (x + 1) * resX,
+                                        yOffset + y * resY,
+                                        yOffset + (y + 1) * resY));
+                        renderer.render(
+                                matrix.getZoomLevel(),
+                                (int) x,
+                                (int) y,
+                                () -> toBytes(webMapService.getMap(tileRequest)));
+                    }
                 }
-            }
 
-            if (listener.isCanceled()) {
-                LOGGER.log(Level.FINE, "Stopping tile generation, request has been canceled");
-                return;
+                if (listener.isCanceled()) {
+                    LOGGER.log(Level.FINE, "Stopping tile generation, request has been canceled");
+                    break;
+                }
             }
+            renderer.finish();
+            tiles.flush();
+        } finally {
+            // releases the batch connection, the GeoPackage is left open
+            tiles.close();
         }
     }
 }
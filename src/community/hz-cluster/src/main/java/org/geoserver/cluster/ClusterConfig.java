@@ -27,6 +27,22 @@ public int getSyncDelay() {
         return Integer.parseInt(getProperty("sync_delay", "5"));
     }
 
+    /**
+     * @return whether a node using the delta synchronization method should apply the changes
+     *     recorded in the cluster wide snapshot when it starts
+     */
+    public boolean isDeltaCatchup() {
+        return Boolean.valueOf(getProperty("delta_catchup", "true"));
+    }
+
+    /**
+     * @return seconds the removals are kept in the cluster wide snapshot used by the delta
+     *     synchronization method. Defaults to 3600.
+     */
+    public int getDeltaTombstoneTtl() {
+        return Integer.parseInt(getProperty("delta_tombstone_ttl", "3600"));
+    }
+
     /**
      * @return milliseconds to wait for node ack notifications upon sending a config change event.
      *     Defaults to 2000ms.
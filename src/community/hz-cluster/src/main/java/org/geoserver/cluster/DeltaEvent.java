@@ -0,0 +1,66 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cluster;
+
+import org.geoserver.catalog.Info;
+
+/**
+ * Configuration change event carrying the changed object itself, serialized as XML, so that peers
+ * can apply the change in memory without reading it back from the data directory.
+ *
+ * <p>Each node numbers the events it publishes, the {@link #getOrigin() origin} identifies the
+ * publishing node for its whole lifetime, and changes at every restart, so that peers can detect
+ * missing events.
+ */
+public class DeltaEvent extends ConfigChangeEvent {
+
+    /** serialVersionUID */
+    private static final long serialVersionUID = 1L;
+
+    /** identifier of the publishing node, changes at every restart */
+    String origin;
+
+    /** position of the event in the sequence of events published by the origin */
+    long sequence;
+
+    /**
+     * the object serialized as XML, null for removals. When the property names are not set, the
+     * whole object is applied
+     */
+    String payload;
+
+    public DeltaEvent(String id, String name, Class<? extends Info> clazz, Type type) {
+        super(id, name, clazz, type);
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "[origin:" + origin + ", sequence:" + sequence + "]";
+    }
+}
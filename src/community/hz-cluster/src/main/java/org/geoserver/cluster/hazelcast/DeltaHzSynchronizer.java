@@ -0,0 +1,806 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cluster.hazelcast;
+
+import static java.lang.String.format;
+import static org.geoserver.cluster.hazelcast.HazelcastUtil.localAddress;
+
+import com.hazelcast.map.IMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogException;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.Info;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.catalog.impl.ModificationProxy;
+import org.geoserver.catalog.impl.ResolvingProxy;
+import org.geoserver.cluster.ConfigChangeEvent;
+import org.geoserver.cluster.ConfigChangeEvent.Type;
+import org.geoserver.cluster.DeltaEvent;
+import org.geoserver.cluster.Event;
+import org.geoserver.config.GeoServer;
+import org.geoserver.config.GeoServerConfigPersister;
+import org.geoserver.config.GeoServerInfo;
+import org.geoserver.config.LoggingInfo;
+import org.geoserver.config.ServiceInfo;
+import org.geoserver.config.SettingsInfo;
+import org.geoserver.config.util.XStreamPersister;
+import org.geoserver.config.util.XStreamPersisterFactory;
+import org.geoserver.config.util.XStreamServiceLoader;
+import org.geoserver.ows.util.ClassProperties;
+import org.geoserver.ows.util.OwsUtils;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.resource.Files;
+import org.geoserver.platform.resource.Resource;
+
+/**
+ * Synchronizer that ships the changed objects to the other nodes, which apply them in memory.
+ *
+ * <p>Each added or modified object is serialized once, as XML, by the node where the change
+ * happened, and the other nodes apply it to their catalog and configuration without reading it
+ * back from the data directory. While a remote change is applied the local persistence is skipped,
+ * the node where the change happened already saved it.
+ *
+ * <p>Events received within the synchronization delay are applied as a single ordered batch,
+ * consecutive modifications of the same object being applied once. The latest state of every
+ * object changed since the cluster started is kept in a distributed map, which allows a node to
+ * catch up when it starts, and to recover the changes it missed when it detects a gap in the
+ * sequence of events published by another node. Removals are only kept for a while, see {@link
+ * org.geoserver.cluster.ClusterConfig#getDeltaTombstoneTtl()}.
+ *
+ * <p>This synchronizer assumes the catalog is held in memory by each node.
+ */
+public class DeltaHzSynchronizer extends HzSynchronizer {
+
+    static final String SNAPSHOT_MAP_NAME = "geoserver.config.snapshot";
+
+    /** set while applying remote changes, the events they cause must not be propagated */
+    static final ThreadLocal<Boolean> APPLYING = ThreadLocal.withInitial(() -> false);
+
+    /** identifies this node in the events it publishes, changes at every restart */
+    final String origin = UUID.randomUUID().toString();
+
+    final AtomicLong sequence = new AtomicLong();
+
+    /** latest state of the objects changed since the cluster started, by object id */
+    final IMap<String, DeltaEvent> snapshot;
+
+    /** events received from other nodes, waiting to be applied */
+    final Queue<DeltaEvent> received = new ConcurrentLinkedQueue<>();
+
+    /** last sequence number applied for each origin */
+    final Map<String, Long> lastSequences = new ConcurrentHashMap<>();
+
+    /** names of the properties modified by changes that have not been committed yet, by id */
+    final Map<String, Set<String>> pendingProperties = new ConcurrentHashMap<>();
+
+    private XStreamPersister persister;
+
+    /** local scratch directory the services are saved to and loaded from by their loaders */
+    private Resource serviceDirectory;
+
+    public DeltaHzSynchronizer(HzCluster cluster, GeoServer gs) {
+        super(cluster, gs);
+        snapshot = cluster.getHz().getMap(SNAPSHOT_MAP_NAME);
+    }
+
+    //
+    // Publishing
+    //
+
+    @Override
+    public void handleAddEvent(CatalogAddEvent event) throws CatalogException {
+        publish(event.getSource(), Type.ADD, null);
+    }
+
+    @Override
+    public void handleModifyEvent(CatalogModifyEvent event) throws CatalogException {
+        modified(event.getSource(), event.getPropertyNames());
+    }
+
+    @Override
+    public void handlePostModifyEvent(CatalogPostModifyEvent event) throws CatalogException {
+        publishModified(event.getSource());
+    }
+
+    @Override
+    public void handleRemoveEvent(CatalogRemoveEvent event) throws CatalogException {
+        publish(event.getSource(), Type.REMOVE, null);
+    }
+
+    @Override
+    public void handleGlobalChange(
+            GeoServerInfo global,
+            List<String> propertyNames,
+            List<Object> oldValues,
+            List<Object> newValues) {
+        // optimization for update sequence
+        if (propertyNames.size() == 1 && propertyNames.contains("updateSequence")) {
+            return;
+        }
+        modified(global, propertyNames);
+    }
+
+    @Override
+    public void handlePostGlobalChange(GeoServerInfo global) {
+        publishModified(global);
+    }
+
+    @Override
+    public void handleSettingsAdded(SettingsInfo settings) {
+        publish(settings, Type.ADD, null);
+    }
+
+    @Override
+    public void handleSettingsModified(
+            SettingsInfo settings,
+            List<String> propertyNames,
+            List<Object> oldValues,
+            List<Object> newValues) {
+        // optimization for update sequence
+        if (propertyNames.size() == 1 && propertyNames.contains("updateSequence")) {
+            return;
+        }
+        modified(settings, propertyNames);
+    }
+
+    @Override
+    public void handleSettingsPostModified(SettingsInfo settings) {
+        publishModified(settings);
+    }
+
+    @Override
+    public void handleSettingsRemoved(SettingsInfo settings) {
+        publish(settings, Type.REMOVE, null);
+    }
+
+    @Override
+    public void handleLoggingChange(
+            LoggingInfo logging,
+            List<String> propertyNames,
+            List<Object> oldValues,
+            List<Object> newValues) {
+        modified(logging, propertyNames);
+    }
+
+    @Override
+    public void handlePostLoggingChange(LoggingInfo logging) {
+        publishModified(logging);
+    }
+
+    @Override
+    public void handleServiceChange(
+            ServiceInfo service,
+            List<String> propertyNames,
+            List<Object> oldValues,
+            List<Object> newValues) {
+        modified(service, propertyNames);
+    }
+
+    @Override
+    public void handlePostServiceChange(ServiceInfo service) {
+        publishModified(service);
+    }
+
+    @Override
+    public void handleServiceRemove(ServiceInfo service) {
+        publish(service, Type.REMOVE, null);
+    }
+
+    private void modified(Info info, List<String> propertyNames) {
+        if (APPLYING.get() || info == null || propertyNames == null) {
+            return;
+        }
+        pendingProperties
+                .computeIfAbsent(key(info), k -> ConcurrentHashMap.newKeySet())
+                .addAll(propertyNames);
+    }
+
+    private void publishModified(Info info) {
+        if (APPLYING.get() || info == null) {
+            return;
+        }
+        Set<String> names = pendingProperties.remove(key(info));
+        if (names == null || names.isEmpty()) {
+            // nothing changed, or just the update sequence
+            return;
+        }
+        publish(info, Type.MODIFY, new ArrayList<>(names));
+    }
+
+    private void publish(Info info, Type type, List<String> propertyNames) {
+        if (APPLYING.get() || info == null) {
+            return;
+        }
+        info = ModificationProxy.unwrap(info);
+        DeltaEvent delta = newDeltaEvent(info, type);
+        delta.setPropertyNames(propertyNames);
+        if (type != Type.REMOVE) {
+            try {
+                delta.setPayload(serialize(info));
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, format("%s - Could not serialize %s", nodeId(), info), e);
+                return;
+            }
+        }
+        dispatch(delta);
+    }
+
+    DeltaEvent newDeltaEvent(Info info, Type type) {
+        ConfigChangeEvent event = newChangeEvent(info, type);
+        DeltaEvent delta =
+                new DeltaEvent(
+                        key(info),
+                        event.getObjectName(),
+                        event.getObjectClass(),
+                        event.getChangeType());
+        delta.setWorkspaceId(event.getWorkspaceId());
+        delta.setStoreId(event.getStoreId());
+        delta.setNativeName(event.getNativeName());
+        return delta;
+    }
+
+    @Override
+    protected synchronized void dispatch(Event e) {
+        if (APPLYING.get() || !(e instanceof DeltaEvent)) {
+            return;
+        }
+        DeltaEvent delta = (DeltaEvent) e;
+        delta.setOrigin(origin);
+        delta.setSequence(sequence.incrementAndGet());
+        delta.setSource(localAddress(cluster.getHz()));
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(format("%s - Publishing event %s", nodeId(), e));
+        }
+        // record the change before publishing it, peers finding a gap look it up
+        if (delta.getChangeType() == Type.REMOVE) {
+            // the removed object is gone, the tombstone is only needed for gap recovery
+            int ttl = configWatcher.get().getDeltaTombstoneTtl();
+            snapshot.set(delta.getObjectId(), delta, ttl, TimeUnit.SECONDS);
+        } else {
+            snapshot.set(delta.getObjectId(), delta);
+        }
+        topic.publish(delta);
+
+        incCounter(getClass(), "dispatched");
+    }
+
+    /** The key of an object in the snapshot, config singletons might not have an id */
+    static String key(Info info) {
+        Info unwrapped = ModificationProxy.unwrap(info);
+        if (unwrapped.getId() != null) {
+            return unwrapped.getId();
+        }
+        return unwrapped.getClass().getSimpleName();
+    }
+
+    //
+    // Receiving
+    //
+
+    @Override
+    protected void eventReceived(Event event) {
+        if (event instanceof DeltaEvent) {
+            received.add((DeltaEvent) event);
+        }
+    }
+
+    @Override
+    protected Future<?> processEvent(Event event) {
+        // the first worker applies all the events received so far, in order
+        List<DeltaEvent> batch = new ArrayList<>();
+        DeltaEvent delta;
+        while ((delta = received.poll()) != null) {
+            batch.add(delta);
+        }
+        if (!batch.isEmpty()) {
+            applyBatch(batch);
+        }
+        return null;
+    }
+
+    /** Applies a batch of events received from the other nodes, in order */
+    synchronized void applyBatch(List<DeltaEvent> batch) {
+        List<DeltaEvent> accepted = new ArrayList<>();
+        for (DeltaEvent delta : batch) {
+            Long last = lastSequences.get(delta.getOrigin());
+            if (last != null && delta.getSequence() <= last) {
+                // already applied, or superseded by the snapshot
+                continue;
+            }
+            if (last != null && delta.getSequence() > last + 1) {
+                LOGGER.warning(
+                        format(
+                                "%s - Missed events %d to %d from %s, recovering them",
+                                nodeId(), last + 1, delta.getSequence() - 1, delta.getSource()));
+                accepted.addAll(missed(delta.getOrigin(), last, delta.getSequence()));
+                incCounter(getClass(), "gaps");
+            }
+            lastSequences.put(delta.getOrigin(), delta.getSequence());
+            accepted.add(delta);
+        }
+        apply(collapse(accepted));
+    }
+
+    /** The events of an origin that are still in the snapshot, with a sequence in the range */
+    List<DeltaEvent> missed(String origin, long after, long before) {
+        List<DeltaEvent> missed = new ArrayList<>();
+        for (DeltaEvent delta : snapshot.values()) {
+            if (origin.equals(delta.getOrigin())
+                    && delta.getSequence() > after
+                    && delta.getSequence() < before) {
+                missed.add(delta);
+            }
+        }
+        missed.sort(Comparator.comparingLong(DeltaEvent::getSequence));
+        return missed;
+    }
+
+    /**
+     * Collapses consecutive modifications of the same object. As events carry the whole object the
+     * last modification is enough, the modified properties are merged into it.
+     */
+    static List<DeltaEvent> collapse(List<DeltaEvent> events) {
+        Map<String, DeltaEvent> later = new HashMap<>();
+        List<DeltaEvent> result = new ArrayList<>();
+        for (int i = events.size() - 1; i >= 0; i--) {
+            DeltaEvent delta = events.get(i);
+            String id = delta.getObjectId();
+            if (delta.getChangeType() != Type.MODIFY) {
+                later.remove(id);
+                result.add(0, delta);
+                continue;
+            }
+            DeltaEvent next = later.get(id);
+            if (next == null) {
+                later.put(id, delta);
+                result.add(0, delta);
+            } else if (next.getPropertyNames() != null && delta.getPropertyNames() != null) {
+                Set<String> names = new LinkedHashSet<>(delta.getPropertyNames());
+                names.addAll(next.getPropertyNames());
+                next.setPropertyNames(new ArrayList<>(names));
+            } else {
+                // one of the two applies the whole object
+                next.setPropertyNames(null);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void start() {
+        if (!isStarted() && configWatcher.get().isDeltaCatchup()) {
+            catchUp();
+        }
+        super.start();
+    }
+
+    /** Applies the changes recorded in the snapshot by the other nodes */
+    synchronized void catchUp() {
+        List<DeltaEvent> changes = new ArrayList<>();
+        for (DeltaEvent delta : snapshot.values()) {
+            if (!origin.equals(delta.getOrigin())) {
+                changes.add(delta);
+                lastSequences.merge(delta.getOrigin(), delta.getSequence(), Math::max);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        LOGGER.info(
+                format("%s - Catching up %d changes from the cluster", nodeId(), changes.size()));
+        List<DeltaEvent> failed = apply(sortForCatchUp(changes));
+        if (!failed.isEmpty()) {
+            // the objects they depend upon might have been applied afterwards
+            apply(failed);
+        }
+    }
+
+    /**
+     * Sorts the snapshot changes so that objects are added after the ones they reference, and
+     * removed before them
+     */
+    static List<DeltaEvent> sortForCatchUp(List<DeltaEvent> changes) {
+        List<DeltaEvent> upserts = new ArrayList<>();
+        List<DeltaEvent> removals = new ArrayList<>();
+        for (DeltaEvent delta : changes) {
+            (delta.getChangeType() == Type.REMOVE ? removals : upserts).add(delta);
+        }
+        Comparator<DeltaEvent> byRank = Comparator.comparingInt(d -> rank(d.getObjectInterface()));
+        upserts.sort(byRank);
+        removals.sort(byRank.reversed());
+        List<DeltaEvent> result = new ArrayList<>(upserts);
+        result.addAll(removals);
+        return result;
+    }
+
+    private static int rank(Class<? extends Info> clazz) {
+        Class<?>[] order = {
+            WorkspaceInfo.class,
+            NamespaceInfo.class,
+            StoreInfo.class,
+            StyleInfo.class,
+            ResourceInfo.class,
+            LayerInfo.class,
+            LayerGroupInfo.class
+        };
+        for (int i = 0; i < order.length; i++) {
+            if (clazz != null && order[i].isAssignableFrom(clazz)) {
+                return i;
+            }
+        }
+        return order.length;
+    }
+
+    /** Applies the changes in order, returning the ones that failed */
+    private List<DeltaEvent> apply(List<DeltaEvent> changes) {
+        List<DeltaEvent> failed = new ArrayList<>();
+        // the node where the changes happened already saved them
+        GeoServerConfigPersister.setPersistenceSkipped(true);
+        APPLYING.set(true);
+        try {
+            for (DeltaEvent delta : changes) {
+                try {
+                    apply(delta);
+                    incCounter(getClass(), "applied");
+                } catch (Exception e) {
+                    LOGGER.log(
+                            Level.WARNING,
+                            format("%s - Error applying event %s", nodeId(), delta),
+                            e);
+                    failed.add(delta);
+                }
+            }
+        } finally {
+            APPLYING.set(false);
+            GeoServerConfigPersister.setPersistenceSkipped(false);
+        }
+        return failed;
+    }
+
+    void apply(DeltaEvent delta) throws Exception {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(format("%s - Applying event %s", nodeId(), delta));
+        }
+        Class<? extends Info> clazz = delta.getObjectInterface();
+        Info info = delta.getPayload() != null ? deserialize(delta) : null;
+        if (CatalogInfo.class.isAssignableFrom(clazz)) {
+            applyCatalogChange(delta, clazz, (CatalogInfo) info);
+        } else {
+            applyConfigChange(delta, clazz, info);
+        }
+    }
+
+    private void applyCatalogChange(
+            DeltaEvent delta, Class<? extends Info> clazz, CatalogInfo received) {
+        Catalog catalog = cluster.getRawCatalog();
+        CatalogInfo local =
+                EventHzSynchronizer.getCatalogInfo(catalog, delta.getObjectId(), clazz);
+        if (delta.getChangeType() == Type.REMOVE) {
+            if (local != null) {
+                remove(catalog, local);
+            }
+        } else if (local == null) {
+            add(catalog, received);
+        } else if (update(received, local, clazz, delta.getPropertyNames())) {
+            save(catalog, local);
+        }
+    }
+
+    private void applyConfigChange(DeltaEvent delta, Class<? extends Info> clazz, Info received) {
+        Catalog catalog = cluster.getRawCatalog();
+        List<String> names = delta.getPropertyNames();
+        boolean remove = delta.getChangeType() == Type.REMOVE;
+        if (GeoServerInfo.class.isAssignableFrom(clazz)) {
+            GeoServerInfo global = gs.getGlobal();
+            if (!remove && update(received, global, GeoServerInfo.class, names)) {
+                gs.save(global);
+            }
+        } else if (LoggingInfo.class.isAssignableFrom(clazz)) {
+            LoggingInfo logging = gs.getLogging();
+            if (!remove && update(received, logging, LoggingInfo.class, names)) {
+                gs.save(logging);
+            }
+        } else if (SettingsInfo.class.isAssignableFrom(clazz)) {
+            WorkspaceInfo ws =
+                    delta.getWorkspaceId() != null
+                            ? catalog.getWorkspace(delta.getWorkspaceId())
+                            : null;
+            SettingsInfo settings = ws != null ? gs.getSettings(ws) : gs.getSettings();
+            if (remove) {
+                if (ws != null && settings != null) {
+                    gs.remove(settings);
+                }
+            } else if (settings == null) {
+                resolve(received, SettingsInfo.class);
+                gs.add((SettingsInfo) received);
+            } else if (update(received, settings, SettingsInfo.class, names)) {
+                gs.save(settings);
+            }
+        } else if (ServiceInfo.class.isAssignableFrom(clazz)) {
+            ServiceInfo service = gs.getService(delta.getObjectId(), ServiceInfo.class);
+            if (remove) {
+                if (service != null) {
+                    gs.remove(service);
+                }
+            } else if (service == null) {
+                resolve(received, ServiceInfo.class);
+                gs.add((ServiceInfo) received);
+            } else if (update(received, service, ServiceInfo.class, names)) {
+                gs.save(service);
+            }
+        } else {
+            throw new IllegalStateException("Unknown event type " + clazz);
+        }
+    }
+
+    /**
+     * Copies the properties of the received object onto the local one
+     *
+     * @param received the object received from the other node
+     * @param local the local object, a modification proxy
+     * @param clazz the interface of the object
+     * @param names the properties to copy, all of them if null or empty
+     * @return true if the local object was changed
+     */
+    boolean update(Info received, Info local, Class<?> clazz, List<String> names) {
+        ClassProperties properties = OwsUtils.getClassProperties(clazz);
+        boolean all = names == null || names.isEmpty();
+        for (String name : all ? properties.properties() : names) {
+            Method getter = properties.getter(name, null);
+            if (getter == null) {
+                continue;
+            }
+            Method setter = properties.setter(name, null);
+            Class<?> type = getter.getReturnType();
+            boolean collection =
+                    Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type);
+            if (setter == null && !collection) {
+                // read only
+                continue;
+            }
+            try {
+                Object value = resolveValue(getter.invoke(received));
+                if (value == null && all) {
+                    continue;
+                }
+                if (setter != null) {
+                    setter.invoke(local, value);
+                } else if (value instanceof Collection) {
+                    @SuppressWarnings("unchecked")
+                    Collection<Object> live = (Collection<Object>) getter.invoke(local);
+                    live.clear();
+                    live.addAll((Collection<?>) value);
+                } else if (value instanceof Map) {
+                    @SuppressWarnings("unchecked")
+                    Map<Object, Object> live = (Map<Object, Object>) getter.invoke(local);
+                    live.clear();
+                    live.putAll((Map<?, ?>) value);
+                }
+            } catch (Exception e) {
+                LOGGER.log(
+                        Level.FINE, format("%s - Could not copy property %s", nodeId(), name), e);
+            }
+        }
+        ModificationProxy handler = ModificationProxy.handler(local);
+        return handler == null || handler.isDirty();
+    }
+
+    /** Resolves the references held by an object that is going to be added */
+    void resolve(Info info, Class<?> clazz) {
+        ClassProperties properties = OwsUtils.getClassProperties(clazz);
+        for (String name : properties.properties()) {
+            Method getter = properties.getter(name, null);
+            Method setter = properties.setter(name, null);
+            if (getter == null || setter == null) {
+                continue;
+            }
+            try {
+                Object value = getter.invoke(info);
+                Object resolved = resolveValue(value);
+                if (resolved != value) {
+                    setter.invoke(info, resolved);
+                }
+            } catch (Exception e) {
+                LOGGER.log(
+                        Level.FINE,
+                        format("%s - Could not resolve property %s", nodeId(), name),
+                        e);
+            }
+        }
+    }
+
+    private Object resolveValue(Object value) {
+        if (value instanceof Proxy
+                && Proxy.getInvocationHandler(value) instanceof ResolvingProxy) {
+            return ResolvingProxy.resolve(cluster.getRawCatalog(), value);
+        }
+        if (value instanceof List) {
+            List<Object> resolved = new ArrayList<>();
+            for (Object v : (List<?>) value) {
+                resolved.add(resolveValue(v));
+            }
+            return resolved;
+        }
+        if (value instanceof Set) {
+            Set<Object> resolved = new LinkedHashSet<>();
+            for (Object v : (Set<?>) value) {
+                resolved.add(resolveValue(v));
+            }
+            return resolved;
+        }
+        return value;
+    }
+
+    private static void add(Catalog catalog, CatalogInfo info) {
+        if (info instanceof WorkspaceInfo) {
+            catalog.add((WorkspaceInfo) info);
+        } else if (info instanceof NamespaceInfo) {
+            catalog.add((NamespaceInfo) info);
+        } else if (info instanceof StoreInfo) {
+            catalog.add((StoreInfo) info);
+        } else if (info instanceof ResourceInfo) {
+            catalog.add((ResourceInfo) info);
+        } else if (info instanceof StyleInfo) {
+            catalog.add((StyleInfo) info);
+        } else if (info instanceof LayerInfo) {
+            catalog.add((LayerInfo) info);
+        } else if (info instanceof LayerGroupInfo) {
+            catalog.add((LayerGroupInfo) info);
+        }
+    }
+
+    private static void save(Catalog catalog, CatalogInfo info) {
+        if (info instanceof WorkspaceInfo) {
+            catalog.save((WorkspaceInfo) info);
+        } else if (info instanceof NamespaceInfo) {
+            catalog.save((NamespaceInfo) info);
+        } else if (info instanceof StoreInfo) {
+            catalog.save((StoreInfo) info);
+        } else if (info instanceof ResourceInfo) {
+            catalog.save((ResourceInfo) info);
+        } else if (info instanceof StyleInfo) {
+            catalog.save((StyleInfo) info);
+        } else if (info instanceof LayerInfo) {
+            catalog.save((LayerInfo) info);
+        } else if (info instanceof LayerGroupInfo) {
+            catalog.save((LayerGroupInfo) info);
+        }
+    }
+
+    private static void remove(Catalog catalog, CatalogInfo info) {
+        if (info instanceof WorkspaceInfo) {
+            catalog.remove((WorkspaceInfo) info);
+        } else if (info instanceof NamespaceInfo) {
+            catalog.remove((NamespaceInfo) info);
+        } else if (info instanceof StoreInfo) {
+            catalog.remove((StoreInfo) info);
+        } else if (info instanceof ResourceInfo) {
+            catalog.remove((ResourceInfo) info);
+        } else if (info instanceof StyleInfo) {
+            catalog.remove((StyleInfo) info);
+        } else if (info instanceof LayerInfo) {
+            catalog.remove((LayerInfo) info);
+        } else if (info instanceof LayerGroupInfo) {
+            catalog.remove((LayerGroupInfo) info);
+        }
+    }
+
+    //
+    // Serialization
+    //
+
+    String serialize(Info info) throws Exception {
+        if (info instanceof ServiceInfo) {
+            return serializeService((ServiceInfo) info);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        getPersister().save(info, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    Info deserialize(DeltaEvent delta) throws Exception {
+        if (ServiceInfo.class.isAssignableFrom(delta.getObjectInterface())) {
+            return deserializeService(delta.getPayload(), delta.getObjectClass());
+        }
+        byte[] bytes = delta.getPayload().getBytes(StandardCharsets.UTF_8);
+        return getPersister().load(new ByteArrayInputStream(bytes), delta.getObjectInterface());
+    }
+
+    synchronized XStreamPersister getPersister() throws Exception {
+        if (persister == null) {
+            XStreamPersisterFactory factory =
+                    GeoServerExtensions.bean(XStreamPersisterFactory.class);
+            if (factory == null) {
+                factory = new XStreamPersisterFactory();
+            }
+            XStreamPersister xp = factory.createXMLPersister();
+            xp.setCatalog(cluster.getRawCatalog());
+            xp.setGeoServer(gs);
+            persister = xp;
+        }
+        return persister;
+    }
+
+    //
+    // Services are saved by their loaders, which know how to configure the persister for them
+    //
+
+    private synchronized String serializeService(ServiceInfo service) throws Exception {
+        XStreamServiceLoader<ServiceInfo> loader = getServiceLoader(service.getClass());
+        Resource directory = getServiceDirectory();
+        loader.save(service, gs, directory);
+        Resource file = directory.get(loader.getFilename());
+        try {
+            return new String(file.getContents(), StandardCharsets.UTF_8);
+        } finally {
+            file.delete();
+        }
+    }
+
+    private synchronized ServiceInfo deserializeService(String payload, Class<?> clazz)
+            throws Exception {
+        XStreamServiceLoader<ServiceInfo> loader = getServiceLoader(clazz);
+        Resource directory = getServiceDirectory();
+        Resource file = directory.get(loader.getFilename());
+        file.setContents(payload.getBytes(StandardCharsets.UTF_8));
+        try {
+            return loader.load(gs, directory);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static XStreamServiceLoader<ServiceInfo> getServiceLoader(Class<?> clazz) {
+        for (XStreamServiceLoader<?> loader :
+                GeoServerExtensions.extensions(XStreamServiceLoader.class)) {
+            if (loader.getServiceClass().isAssignableFrom(clazz)) {
+                return (XStreamServiceLoader<ServiceInfo>) loader;
+            }
+        }
+        throw new IllegalArgumentException("No loader for service class " + clazz.getName());
+    }
+
+    private Resource getServiceDirectory() throws Exception {
+        if (serviceDirectory == null) {
+            // not in the data directory, it might be shared with the other nodes
+            serviceDirectory =
+                    Files.asResource(
+                            java.nio.file.Files.createTempDirectory("hz-delta").toFile());
+        }
+        return serviceDirectory;
+    }
+}
@@ -393,7 +393,7 @@ private void processGeoServerConfigEvent(ConfigChangeEvent ce)
         }
     }
 
-    private CatalogInfo getCatalogInfo(Catalog cat, String id, Class<? extends Info> clazz) {
+    static CatalogInfo getCatalogInfo(Catalog cat, String id, Class<? extends Info> clazz) {
         CatalogInfo subj = null;
         if (WorkspaceInfo.class.isAssignableFrom(clazz)) {
             subj = cat.getWorkspace(id);
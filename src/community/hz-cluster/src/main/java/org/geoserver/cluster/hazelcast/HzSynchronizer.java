@@ -113,6 +113,8 @@ public void onMessage(Message<Event> message) {
             LOGGER.fine(format("%s - Received event %s", nodeId(), event));
         }
 
+        eventReceived(event);
+
         // schedule job to process the event with a short delay
         final int syncDelay = configWatcher.get().getSyncDelay();
         executor.schedule(new EventWorker(event), syncDelay, TimeUnit.SECONDS);
@@ -145,6 +147,12 @@ public Future<?> call() {
 
     protected abstract void dispatch(Event e);
 
+    /**
+     * Called as soon as an event generated by another node is received, before its processing is
+     * scheduled. Does nothing by default.
+     */
+    protected void eventReceived(Event event) {}
+
     /**
      * Processes the event queue.
      *
@@ -0,0 +1,181 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cluster.hazelcast;
+
+import static org.easymock.EasyMock.anyString;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.hazelcast.cluster.Cluster;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.topic.ITopic;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.Info;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.geoserver.cluster.ClusterConfig;
+import org.geoserver.cluster.ClusterConfigWatcher;
+import org.geoserver.cluster.ConfigChangeEvent.Type;
+import org.geoserver.cluster.DeltaEvent;
+import org.geoserver.cluster.Event;
+import org.geoserver.config.GeoServerConfigPersister;
+import org.geoserver.data.test.MockData;
+import org.geoserver.platform.resource.Resource;
+import org.geoserver.test.GeoServerSystemTestSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Applies delta events to a real catalog, checking the local persistence is skipped. */
+public class DeltaHzApplyTest extends GeoServerSystemTestSupport {
+
+    private static final String REMOTE_TITLE = "Title set on another node";
+
+    HzCluster cluster;
+
+    IMap<String, DeltaEvent> snapshot;
+
+    ClusterConfigWatcher configWatcher;
+
+    DeltaHzSynchronizer sync;
+
+    long sequence;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void createMocks() {
+        Member member = createNiceMock(Member.class);
+        expect(member.getSocketAddress())
+                .andStubReturn(new InetSocketAddress(InetAddress.getLoopbackAddress(), 5701));
+        Cluster hzCluster = createNiceMock(Cluster.class);
+        expect(hzCluster.getLocalMember()).andStubReturn(member);
+        ITopic<Event> topic = createNiceMock(ITopic.class);
+        snapshot = createNiceMock(IMap.class);
+        HazelcastInstance hz = createNiceMock(HazelcastInstance.class);
+        expect(hz.getCluster()).andStubReturn(hzCluster);
+        expect(hz.<Event>getTopic(anyString())).andStubReturn(topic);
+        expect(hz.<String, DeltaEvent>getMap(DeltaHzSynchronizer.SNAPSHOT_MAP_NAME))
+                .andStubReturn(snapshot);
+        cluster = createNiceMock(HzCluster.class);
+        expect(cluster.getHz()).andStubReturn(hz);
+        expect(cluster.getRawCatalog())
+                .andStubReturn((Catalog) applicationContext.getBean("rawCatalog"));
+        ClusterConfig config = createNiceMock(ClusterConfig.class);
+        expect(config.getDeltaTombstoneTtl()).andStubReturn(60);
+        configWatcher = createNiceMock(ClusterConfigWatcher.class);
+        expect(configWatcher.get()).andStubReturn(config);
+        replay(member, hzCluster, topic, hz, cluster, config, configWatcher);
+    }
+
+    @After
+    public void removeSynchronizer() {
+        if (sync != null) {
+            getGeoServer().removeListener(sync);
+            getGeoServer().getCatalog().removeListener(sync);
+        }
+    }
+
+    /** Builds the synchronizer, once the snapshot expectations have been recorded */
+    private DeltaHzSynchronizer synchronizer() {
+        replay(snapshot);
+        sync = new DeltaHzSynchronizer(cluster, getGeoServer());
+        sync.initialize(configWatcher);
+        return sync;
+    }
+
+    /** Applies a change as if it was received from another node */
+    private void applyRemote(Info info, Type type, String payload, List<String> names) {
+        DeltaEvent delta = sync.newDeltaEvent(info, type);
+        delta.setOrigin("remote-node");
+        delta.setSequence(++sequence);
+        delta.setPayload(payload);
+        delta.setPropertyNames(names);
+        sync.applyBatch(Collections.singletonList(delta));
+    }
+
+    private String contents(Resource resource) throws Exception {
+        return new String(resource.getContents(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testAddModifyRemove() throws Exception {
+        synchronizer();
+        Catalog catalog = getCatalog();
+
+        // add
+        WorkspaceInfoImpl workspace = new WorkspaceInfoImpl();
+        workspace.setId("remote-workspace");
+        workspace.setName("remote");
+        applyRemote(workspace, Type.ADD, sync.serialize(workspace), null);
+        WorkspaceInfo added = catalog.getWorkspaceByName("remote");
+        assertNotNull(added);
+        assertEquals("remote-workspace", added.getId());
+        // the other node already saved it
+        Resource workspaceFile = getDataDirectory().config(added);
+        assertEquals(Resource.Type.UNDEFINED, workspaceFile.getType());
+
+        // modify
+        FeatureTypeInfo local = catalog.getFeatureTypeByName(getLayerId(MockData.BUILDINGS));
+        String title = local.getTitle();
+        String payload =
+                sync.serialize(local)
+                        .replace(
+                                "<title>" + title + "</title>",
+                                "<title>" + REMOTE_TITLE + "</title>");
+        applyRemote(local, Type.MODIFY, payload, Collections.singletonList("title"));
+        assertEquals(REMOTE_TITLE, catalog.getFeatureType(local.getId()).getTitle());
+        Resource featureTypeFile = getDataDirectory().config(local);
+        assertThat(contents(featureTypeFile), containsString(title));
+        assertThat(contents(featureTypeFile), not(containsString(REMOTE_TITLE)));
+
+        // remove
+        applyRemote(added, Type.REMOVE, null, null);
+        assertNull(catalog.getWorkspaceByName("remote"));
+
+        // local changes are persisted as usual
+        assertFalse(GeoServerConfigPersister.isPersistenceSkipped());
+        FeatureTypeInfo buildings = catalog.getFeatureType(local.getId());
+        buildings.setTitle("Saved locally");
+        catalog.save(buildings);
+        assertThat(contents(featureTypeFile), containsString("Saved locally"));
+        buildings = catalog.getFeatureType(local.getId());
+        buildings.setTitle(title);
+        catalog.save(buildings);
+    }
+
+    @Test
+    public void testTombstoneExpires() throws Exception {
+        DeltaEvent removal =
+                new DeltaEvent("removed-id", "removed", WorkspaceInfoImpl.class, Type.REMOVE);
+        DeltaEvent modification =
+                new DeltaEvent("modified-id", "modified", WorkspaceInfoImpl.class, Type.MODIFY);
+        // removals expire, the latest state of the other objects is kept
+        snapshot.set("removed-id", removal, 60, TimeUnit.SECONDS);
+        snapshot.set("modified-id", modification);
+
+        synchronizer();
+        sync.dispatch(removal);
+        sync.dispatch(modification);
+        verify(snapshot);
+    }
+}
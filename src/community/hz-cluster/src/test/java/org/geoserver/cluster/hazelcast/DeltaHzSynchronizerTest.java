@@ -0,0 +1,87 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cluster.hazelcast;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.Info;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.cluster.ConfigChangeEvent.Type;
+import org.geoserver.cluster.DeltaEvent;
+import org.junit.Test;
+
+public class DeltaHzSynchronizerTest {
+
+    @Test
+    public void testCollapseModifications() {
+        DeltaEvent first = event("a", LayerInfo.class, Type.MODIFY, 1, "title");
+        DeltaEvent other = event("b", LayerInfo.class, Type.MODIFY, 2, "title");
+        DeltaEvent second = event("a", LayerInfo.class, Type.MODIFY, 3, "abstract");
+
+        List<DeltaEvent> collapsed =
+                DeltaHzSynchronizer.collapse(Arrays.asList(first, other, second));
+
+        assertThat(collapsed, contains(other, second));
+        assertThat(second.getPropertyNames(), containsInAnyOrder("title", "abstract"));
+    }
+
+    @Test
+    public void testCollapseWholeObject() {
+        DeltaEvent first = event("a", LayerInfo.class, Type.MODIFY, 1);
+        DeltaEvent second = event("a", LayerInfo.class, Type.MODIFY, 2, "abstract");
+
+        List<DeltaEvent> collapsed = DeltaHzSynchronizer.collapse(Arrays.asList(first, second));
+
+        assertThat(collapsed, contains(second));
+        assertThat(second.getPropertyNames(), nullValue());
+    }
+
+    @Test
+    public void testCollapseStopsAtRemoval() {
+        DeltaEvent modify = event("a", LayerInfo.class, Type.MODIFY, 1, "title");
+        DeltaEvent remove = event("a", LayerInfo.class, Type.REMOVE, 2);
+        DeltaEvent add = event("a", LayerInfo.class, Type.ADD, 3);
+        DeltaEvent modifyAgain = event("a", LayerInfo.class, Type.MODIFY, 4, "title");
+
+        List<DeltaEvent> events = Arrays.asList(modify, remove, add, modifyAgain);
+
+        assertThat(
+                DeltaHzSynchronizer.collapse(events), contains(modify, remove, add, modifyAgain));
+    }
+
+    @Test
+    public void testCatchUpOrder() {
+        DeltaEvent layer = event("l", LayerInfo.class, Type.ADD, 1);
+        DeltaEvent removedLayer = event("rl", LayerInfo.class, Type.REMOVE, 2);
+        DeltaEvent resource = event("r", FeatureTypeInfo.class, Type.MODIFY, 3);
+        DeltaEvent workspace = event("w", WorkspaceInfo.class, Type.ADD, 4);
+        DeltaEvent removedWorkspace = event("rw", WorkspaceInfo.class, Type.REMOVE, 5);
+
+        List<DeltaEvent> sorted =
+                DeltaHzSynchronizer.sortForCatchUp(
+                        Arrays.asList(layer, removedLayer, resource, workspace, removedWorkspace));
+
+        // additions from the workspaces down, removals from the layers up
+        assertThat(sorted, contains(workspace, resource, layer, removedLayer, removedWorkspace));
+    }
+
+    private DeltaEvent event(
+            String id, Class<? extends Info> clazz, Type type, long sequence, String... names) {
+        DeltaEvent event = new DeltaEvent(id, id, clazz, type);
+        event.setOrigin("origin");
+        event.setSequence(sequence);
+        if (names.length > 0) {
+            event.setPropertyNames(Arrays.asList(names));
+        }
+        return event;
+    }
+}
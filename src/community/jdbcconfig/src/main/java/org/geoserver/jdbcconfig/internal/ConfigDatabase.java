@@ -16,7 +16,6 @@
 import static org.geoserver.jdbcconfig.internal.DbUtils.logStatement;
 import static org.geoserver.jdbcconfig.internal.DbUtils.params;
 
-import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
@@ -43,6 +42,8 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -159,6 +160,14 @@ public class ConfigDatabase implements ApplicationContextAware {
 
     private static final int LOCK_TIMEOUT_SECONDS = 60;
 
+    /** Number of objects loaded by a single query, and of identifiers in its IN list */
+    static final int BATCH_SIZE = 500;
+
+    /** How far references are followed when prefetching, e.g. layer, resource, store, workspace */
+    static final int MAX_REFERENCE_DEPTH = 3;
+
+    private static final String REFERENCES_QUERY = referencesQuery(MAX_REFERENCE_DEPTH);
+
     private Dialect dialect;
 
     private JDBCLoaderProperties properties;
@@ -417,21 +426,8 @@ public String mapRow(ResultSet rs, int rowNum) throws SQLException {
             }
         }
 
-        List<T> lazyTransformed =
-                Lists.transform(
-                        ids,
-                        new Function<String, T>() {
-                            @Nullable
-                            @Override
-                            public T apply(String id) {
-                                return getById(id, of);
-                            }
-                        });
-
         CloseableIterator<T> result;
-        Iterator<T> iterator =
-                Iterators.filter(
-                        lazyTransformed.iterator(), com.google.common.base.Predicates.notNull());
+        Iterator<T> iterator = batchLoading(ids, of);
 
         if (sqlBuilder.isFullySupported()) {
             result = new CloseableIteratorAdapter<T>(iterator);
@@ -1307,19 +1303,127 @@ public <T extends Info> List<T> getAll(final Class<T> clazz) {
             LOGGER.fine("query returned " + ids.size() + " records in " + sw);
         }
 
-        List<T> transformed =
-                Lists.transform(
-                        ids,
-                        new Function<String, T>() {
-                            @Nullable
-                            @Override
-                            public T apply(String input) {
-                                return getById(input, clazz);
-                            }
+        return ImmutableList.copyOf(batchLoading(ids, clazz));
+    }
+
+    /**
+     * Resolves the identifiers to objects while iterating, skipping the ones no longer found.
+     * Before resolving each batch of {@link #BATCH_SIZE} identifiers, the objects not cached yet
+     * are loaded with a few queries, see {@link #prefetch(Collection, Class)}, instead of one query
+     * per object and per referenced object.
+     */
+    private <T extends Info> Iterator<T> batchLoading(final List<String> ids, final Class<T> of) {
+        Iterator<Iterator<T>> batches =
+                Iterators.transform(
+                        Lists.partition(ids, BATCH_SIZE).iterator(),
+                        batch -> {
+                            transactionalConfigDatabase.prefetch(batch, of);
+                            return Iterators.transform(batch.iterator(), id -> getById(id, of));
                         });
-        Iterable<T> filtered =
-                Iterables.filter(transformed, com.google.common.base.Predicates.notNull());
-        return ImmutableList.copyOf(filtered);
+        return Iterators.filter(
+                Iterators.concat(batches), com.google.common.base.Predicates.notNull());
+    }
+
+    /**
+     * Loads in the cache the catalog objects with the given identifiers that are not cached yet,
+     * along with the objects they reference (e.g., layer, resource, store, workspace), so that
+     * resolving them afterwards does not require a query per object. A query is run for each batch
+     * of {@link #BATCH_SIZE} objects, plus one finding the references of each batch.
+     *
+     * <p>Configuration objects are not prefetched, they are few, and loaded one by one as usual.
+     */
+    @Transactional(
+            transactionManager = "jdbcConfigTransactionManager",
+            propagation = Propagation.REQUIRED,
+            readOnly = true)
+    public void prefetch(final Collection<String> ids, final Class<? extends Info> type) {
+        if (!CatalogInfo.class.isAssignableFrom(type)) {
+            return;
+        }
+        Set<String> missing = uncached(ids);
+        if (missing.isEmpty()) {
+            return;
+        }
+        Stopwatch sw = Stopwatch.createStarted();
+        int loaded = loadCatalogBatch(missing);
+        loaded += loadCatalogBatch(uncached(findReferencedIds(missing)));
+        sw.stop();
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("prefetched " + loaded + " objects in " + sw);
+        }
+    }
+
+    private Set<String> uncached(Collection<String> ids) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && cache.getIfPresent(id) == null) {
+                missing.add(id);
+            }
+        }
+        return missing;
+    }
+
+    /** Loads the catalog objects in the cache, returns the number of objects loaded */
+    private int loadCatalogBatch(Collection<String> ids) {
+        int loaded = 0;
+        for (List<String> batch : Iterables.partition(ids, BATCH_SIZE)) {
+            // same as getById, skip the objects locked for writing
+            Map<String, Semaphore> acquired = new LinkedHashMap<>();
+            for (String id : batch) {
+                Semaphore lock = locks.computeIfAbsent(id, x -> new Semaphore(1));
+                if (lock.tryAcquire()) {
+                    acquired.put(id, lock);
+                }
+            }
+            try {
+                if (acquired.isEmpty()) {
+                    continue;
+                }
+                String sql = "SELECT blob FROM object WHERE id IN (:ids)";
+                Map<String, ?> params = params("ids", new ArrayList<>(acquired.keySet()));
+                logStatement(sql, params);
+                for (CatalogInfo info : template.query(sql, params, catalogRowMapper)) {
+                    if (info != null && cache.asMap().putIfAbsent(info.getId(), info) == null) {
+                        loaded++;
+                    }
+                }
+            } finally {
+                acquired.values().forEach(Semaphore::release);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Looks up the identifiers of the objects referenced by the given ones, following the reference
+     * chains up to {@link #MAX_REFERENCE_DEPTH} levels in a single query
+     */
+    private List<String> findReferencedIds(Collection<String> ids) {
+        List<String> referenced = new ArrayList<>();
+        for (List<String> batch : Iterables.partition(ids, BATCH_SIZE)) {
+            Map<String, ?> params = params("ids", batch);
+            logStatement(REFERENCES_QUERY, params);
+            referenced.addAll(template.queryForList(REFERENCES_QUERY, params, String.class));
+        }
+        return referenced;
+    }
+
+    /**
+     * Builds the query returning the identifiers of the objects related to the ones in the {@code
+     * ids} parameter, directly or through up to {@code depth} references
+     */
+    static String referencesQuery(int depth) {
+        String related = "SELECT oid FROM object WHERE id IN (:ids)";
+        List<String> levels = new ArrayList<>();
+        for (int i = 0; i < depth; i++) {
+            related =
+                    "SELECT related_oid FROM object_property WHERE related_oid IS NOT NULL"
+                            + " AND oid IN ("
+                            + related
+                            + ")";
+            levels.add("oid IN (" + related + ")");
+        }
+        return "SELECT id FROM object WHERE " + String.join(" OR ", levels);
     }
 
     private <T extends Info> List<Integer> typesParam(final Class<T> clazz) {
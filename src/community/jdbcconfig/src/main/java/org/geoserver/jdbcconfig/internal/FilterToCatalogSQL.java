@@ -8,6 +8,7 @@
 import static com.google.common.base.Preconditions.*;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -81,6 +82,9 @@ public class FilterToCatalogSQL implements FilterVisitor, ExpressionVisitor {
 
     public static final FilterCapabilities CAPABILITIES;
 
+    /** Maximum number of values in a SQL IN list, Oracle does not accept more than 1000 */
+    static final int MAX_IN_LIST_SIZE = 1000;
+
     static {
         Capabilities builder = new Capabilities();
         builder.addType(PropertyIsEqualTo.class);
@@ -441,9 +445,81 @@ public Object visit(And filter, Object extraData) {
      */
     @Override
     public Object visit(Or filter, Object extraData) {
+        if (isInList(filter)) {
+            return visitInList(filter, extraData);
+        }
         return visit(filter, "OR", extraData);
     }
 
+    /**
+     * Whether the filter is made of case sensitive equality checks of the same property against
+     * literal values, like the ones {@link Predicates#in(String, List)} is expanded to, that can be
+     * encoded as a single IN clause instead of one sub query per value
+     */
+    private static boolean isInList(Or filter) {
+        List<Filter> children = filter.getChildren();
+        if (children.size() < 2) {
+            return false;
+        }
+        String propertyName = null;
+        for (Filter child : children) {
+            if (!(child instanceof PropertyIsEqualTo)) {
+                return false;
+            }
+            PropertyIsEqualTo equal = (PropertyIsEqualTo) child;
+            if (!equal.isMatchingCase()
+                    || equal.getMatchAction() != MatchAction.ANY
+                    || !(equal.getExpression1() instanceof PropertyName)
+                    || !(equal.getExpression2() instanceof Literal)
+                    || ((Literal) equal.getExpression2()).getValue() == null) {
+                return false;
+            }
+            String name = ((PropertyName) equal.getExpression1()).getPropertyName();
+            if (propertyName == null) {
+                propertyName = name;
+            } else if (!propertyName.equals(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object visitInList(Or filter, Object extraData) {
+        List<String> values = new ArrayList<>();
+        PropertyName property = null;
+        for (Filter child : filter.getChildren()) {
+            PropertyIsEqualTo equal = (PropertyIsEqualTo) child;
+            property = (PropertyName) equal.getExpression1();
+            String value = equal.getExpression2().evaluate(null, String.class);
+            if (!values.contains(value)) {
+                values.add(value);
+            }
+        }
+
+        // the identifier is a column of the object table, no need to look into the properties
+        final boolean isId = "id".equals(property.getPropertyName());
+        final String column = isId ? "id" : "value";
+        if (isId) {
+            append(extraData, "(");
+        } else {
+            append(
+                    extraData,
+                    "oid IN (SELECT oid FROM object_property WHERE property_type IN (:",
+                    propertyTypesParam(property),
+                    ") AND (");
+        }
+        for (Iterator<List<String>> it = Lists.partition(values, MAX_IN_LIST_SIZE).iterator();
+                it.hasNext(); ) {
+            append(extraData, column, " IN (:", newParam("values", it.next()), ")");
+            if (it.hasNext()) {
+                append(extraData, " OR ");
+            }
+        }
+        append(extraData, isId ? ")" : "))");
+        return dialect.appendComment(
+                extraData, property.getPropertyName(), " IN ", values.size(), " values");
+    }
+
     protected Object visit(BinaryLogicOperator filter, String type, Object extraData) {
         StringBuilder sql = (StringBuilder) extraData;
         List<Filter> children = filter.getChildren();
@@ -19,15 +19,20 @@
 import org.geoserver.function.IsInstanceOf;
 import org.geotools.api.filter.And;
 import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.MultiValuedFilter.MatchAction;
 import org.geotools.api.filter.Or;
 import org.geotools.api.filter.PropertyIsEqualTo;
+import org.geotools.api.filter.expression.Expression;
 import org.geotools.api.filter.expression.Function;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.api.filter.expression.PropertyName;
 import org.geotools.api.filter.sort.SortBy;
 import org.geotools.api.filter.sort.SortOrder;
 import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.filter.Capabilities;
 import org.geotools.filter.visitor.CapabilitiesFilterSplitter;
 import org.geotools.filter.visitor.ClientTransactionAccessor;
+import org.geotools.filter.visitor.DuplicatingFilterVisitor;
 import org.geotools.filter.visitor.LiteralDemultiplyingFilterVisitor;
 import org.geotools.filter.visitor.SimplifyingFilterVisitor;
 import org.geotools.util.logging.Logging;
@@ -250,7 +255,8 @@ public Filter getDeleteFilter() {
                 new CapabilitiesFilterSplitter(fcs, null, transactionAccessor);
 
         SimplifyingFilterVisitor filterSimplifier = new SimplifyingFilterVisitor();
-        Filter simplified = (Filter) filter.accept(filterSimplifier, null);
+        Filter expanded = (Filter) filter.accept(new InFunctionExpander(), null);
+        Filter simplified = (Filter) expanded.accept(filterSimplifier, null);
         simplified.accept(filterSplitter, null);
 
         Filter supported = filterSplitter.getFilterPre();
@@ -428,4 +434,36 @@ protected void applyOffsetLimit(StringBuilder sql) {
             offsetLimitApplied = false;
         }
     }
+
+    /**
+     * Expands the filters built by {@link Predicates#in(String, List)}, which the filter splitter
+     * cannot tell apart from other functions, to an OR of equality checks against each value, that
+     * {@link FilterToCatalogSQL} encodes back as a single SQL IN clause. Filters using the function
+     * in other ways are left untouched, and evaluated in memory.
+     */
+    static class InFunctionExpander extends DuplicatingFilterVisitor {
+
+        static final String IN = "in";
+
+        @Override
+        public Object visit(PropertyIsEqualTo filter, Object extraData) {
+            if (filter.getExpression1() instanceof Function
+                    && filter.getExpression2() instanceof Literal
+                    && IN.equals(((Function) filter.getExpression1()).getName())
+                    && Boolean.TRUE.equals(filter.getExpression2().evaluate(null, Boolean.class))) {
+                List<Expression> parameters = ((Function) filter.getExpression1()).getParameters();
+                if (parameters.size() > 1 && parameters.get(0) instanceof PropertyName) {
+                    List<Filter> equals = new ArrayList<>();
+                    for (Expression value : parameters.subList(1, parameters.size())) {
+                        if (!(value instanceof Literal) || ((Literal) value).getValue() == null) {
+                            return super.visit(filter, extraData);
+                        }
+                        equals.add(ff.equal(parameters.get(0), value, true, MatchAction.ANY));
+                    }
+                    return equals.size() == 1 ? equals.get(0) : ff.or(equals);
+                }
+            }
+            return super.visit(filter, extraData);
+        }
+    }
 }
@@ -48,6 +48,7 @@
 import org.geoserver.catalog.Info;
 import org.geoserver.catalog.LayerInfo;
 import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.Predicates;
 import org.geoserver.catalog.ResourceInfo;
 import org.geoserver.catalog.StoreInfo;
 import org.geoserver.catalog.StyleInfo;
@@ -389,6 +390,38 @@ public void reloaded() {}
         assertEquals("rs2", layer2.getResource().getName());
     }
 
+    @Test
+    public void testPrefetch() throws Exception {
+        LayerInfo layer = addLayer();
+        database.clearCache();
+        database.prefetch(Arrays.asList(layer.getId()), LayerInfo.class);
+
+        // change the stored data store, the prefetched one should be returned instead
+        Connection conn = testSupport.getDataSource().getConnection();
+        try {
+            Statement stmt = conn.createStatement();
+            assertEquals(
+                    1,
+                    stmt.executeUpdate(
+                            "UPDATE object SET blob=(SELECT replace(blob, '<name>data store one</name>', '<name>data store two</name>') FROM object WHERE id = 'ds1') WHERE id = 'ds1'"));
+        } finally {
+            conn.close();
+        }
+        DataStoreInfo store = database.getById("ds1", DataStoreInfo.class);
+        assertEquals("data store one", store.getName());
+        assertEquals("wsid", store.getWorkspace().getId());
+
+        List<LayerInfo> layers =
+                database.queryAsList(
+                        LayerInfo.class,
+                        Predicates.in("id", Arrays.asList(layer.getId(), "missing")),
+                        null,
+                        null,
+                        null);
+        assertEquals(1, layers.size());
+        assertEquals("data store one", layers.get(0).getResource().getStore().getName());
+    }
+
     @Test
     public void testCacheConfig() throws Exception {
         // Simulates the situation where multiple GeoServer instances are sharing a database.
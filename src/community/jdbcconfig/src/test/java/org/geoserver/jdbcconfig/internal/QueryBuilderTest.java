@@ -23,6 +23,9 @@
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.geoserver.catalog.LayerGroupInfo;
 import org.geoserver.catalog.LayerInfo;
 import org.geoserver.catalog.Predicates;
@@ -945,6 +948,33 @@ public void testForIdsIsNotNullDebugEnabled() {
         verifyForIds(expected, true, Predicates.not(Predicates.isNull("name")));
     }
 
+    @Test
+    public void testForIdsInDebugDisabled() {
+        String expected =
+                "oid IN (SELECT oid FROM object_property WHERE property_type "
+                        + "IN (:ptype0) AND (value IN (:values0))) ";
+        Filter filter = Predicates.in("name", Arrays.asList("foo", "bar", "baz"));
+        verifyForIds(expected, false, filter);
+    }
+
+    @Test
+    public void testForCountInIdsDebugDisabled() {
+        String expected = "(id IN (:values0))";
+        Filter filter = Predicates.in("id", Arrays.asList("id1", "id2"));
+        verifyForCount(expected, false, filter);
+    }
+
+    @Test
+    public void testForCountInIdsSplitDebugDisabled() {
+        // no more than 1000 values per IN list
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            ids.add("id" + i);
+        }
+        String expected = "(id IN (:values0) OR id IN (:values1))";
+        verifyForCount(expected, false, Predicates.in("id", ids));
+    }
+
     private void verifyForCount(String expectedSQL, boolean debugMode, Filter filter) {
         String expected = expectedSQL;
         if (!expected.startsWith("SELECT")) {
@@ -156,6 +156,17 @@ public void init() {
                 addCachingEvents(child, true);
             }
         }
+        dir.startChangeFeed();
+    }
+
+    /** Stops the background activities of the store */
+    public void destroy() {
+        dir.stopChangeFeed();
+    }
+
+    /** Returns the hit and miss counts of the database caches */
+    public JDBCDirectoryStructure.CacheStatistics getCacheStatistics() {
+        return dir.getCacheStatistics();
     }
 
     @Override
@@ -12,6 +12,7 @@
 import org.geoserver.platform.resource.Resource;
 import org.geoserver.platform.resource.ResourceNotificationDispatcher;
 import org.geoserver.platform.resource.ResourceStore;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
 
@@ -20,7 +21,8 @@
  *
  * @author Niels Charlier
  */
-public class JDBCResourceStoreFactoryBean implements FactoryBean<ResourceStore>, InitializingBean {
+public class JDBCResourceStoreFactoryBean
+        implements FactoryBean<ResourceStore>, InitializingBean, DisposableBean {
 
     private ResourceStore resourceStore;
 
@@ -69,6 +71,13 @@ public void afterPropertiesSet() throws Exception {
         }
     }
 
+    @Override
+    public void destroy() throws Exception {
+        if (resourceStore instanceof JDBCResourceStore) {
+            ((JDBCResourceStore) resourceStore).destroy();
+        }
+    }
+
     @Override
     public ResourceStore getObject() throws Exception {
         return resourceStore;
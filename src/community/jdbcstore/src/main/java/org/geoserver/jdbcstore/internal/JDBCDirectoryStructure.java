@@ -7,17 +7,29 @@
 import static org.geoserver.jdbcstore.internal.JDBCQueryHelper.*;
 
 import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.io.Serializable;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.sql.DataSource;
@@ -28,6 +40,7 @@
 import org.geoserver.platform.resource.ResourceNotificationDispatcher;
 import org.geoserver.util.CacheProvider;
 import org.geoserver.util.DefaultCacheProvider;
+import org.geoserver.util.IOUtils;
 
 /**
  * Handles database access & ORM mapping of directory structure
@@ -57,6 +70,28 @@ public class JDBCDirectoryStructure {
     protected static final Field<Boolean> DIRECTORY =
             new Field<Boolean>("directory", "content IS NULL AS directory", TYPE_BOOLEAN);
 
+    protected static final String TABLE_CHANGES = "resource_changes";
+
+    protected static final Field<Integer> REVISION =
+            new Field<Integer>("revision", "revision", TYPE_INT);
+
+    protected static final Field<Integer> LAST_REVISION =
+            new Field<Integer>("revision", "MAX(revision) AS revision", TYPE_INT);
+
+    protected static final Field<String> PATH = new Field<String>("path", "path", TYPE_STRING);
+
+    protected static final Field<Timestamp> CHANGED =
+            new Field<Timestamp>("changed", "changed", TYPE_TIMESTAMP);
+
+    /** How long the changes are kept in the change feed */
+    static final long CHANGE_RETENTION = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * How long a missing revision of the change feed is waited for, as it might belong to a
+     * transaction still running, before assuming it was rolled back
+     */
+    static final long REVISION_GAP_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
     private JDBCResourceStoreProperties config;
 
     private JDBCQueryHelper helper;
@@ -65,6 +100,39 @@ public class JDBCDirectoryStructure {
 
     private ResourceNotificationDispatcher resourceNotificationDispatcher;
 
+    /** content of small resources, along with the modification time it was read at */
+    private Cache<ArrayList<String>, CachedContent> contentCache;
+
+    /**
+     * revision of the change feed up to which all changes have been seen, null if the change feed
+     * is disabled
+     */
+    private volatile Integer lastRevision;
+
+    /** revisions after {@link #lastRevision} already seen */
+    private final Set<Integer> seenRevisions = new HashSet<>();
+
+    /**
+     * revisions after {@link #lastRevision} not found in the change feed yet, the revisions being
+     * assigned before commit, along with the time they were first found missing
+     */
+    private final Map<Integer, Long> revisionGaps = new HashMap<>();
+
+    /** revisions of the change feed recorded by this instance */
+    private final Set<Integer> ownRevisions = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService changeFeedPoller;
+
+    private final AtomicLong metadataRequests = new AtomicLong();
+
+    private final AtomicLong metadataLoads = new AtomicLong();
+
+    private final AtomicLong contentHits = new AtomicLong();
+
+    private final AtomicLong contentMisses = new AtomicLong();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
     private static class EntryMetaData implements Serializable {
         private static final long serialVersionUID = 4442694295286861328L;
 
@@ -73,6 +141,78 @@ private static class EntryMetaData implements Serializable {
         public Timestamp lastModified;
     }
 
+    private static class CachedContent {
+        final Timestamp lastModified;
+        final byte[] content;
+
+        CachedContent(Timestamp lastModified, byte[] content) {
+            this.lastModified = lastModified;
+            this.content = content;
+        }
+    }
+
+    /** Hit and miss counts of the caches of the directory structure. */
+    public static class CacheStatistics {
+        private final long metadataRequests;
+        private final long metadataLoads;
+        private final long contentHits;
+        private final long contentMisses;
+        private final long invalidations;
+
+        CacheStatistics(
+                long metadataRequests,
+                long metadataLoads,
+                long contentHits,
+                long contentMisses,
+                long invalidations) {
+            this.metadataRequests = metadataRequests;
+            this.metadataLoads = metadataLoads;
+            this.contentHits = contentHits;
+            this.contentMisses = contentMisses;
+            this.invalidations = invalidations;
+        }
+
+        /** Number of times the metadata (type, modification time) of an entry was requested */
+        public long getMetadataRequests() {
+            return metadataRequests;
+        }
+
+        /** Number of times the metadata of an entry had to be queried from the database */
+        public long getMetadataLoads() {
+            return metadataLoads;
+        }
+
+        /** Number of reads served from the in memory content cache */
+        public long getContentHits() {
+            return contentHits;
+        }
+
+        /** Number of reads served from the database */
+        public long getContentMisses() {
+            return contentMisses;
+        }
+
+        /** Number of changes made by other instances received through the change feed */
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        @Override
+        public String toString() {
+            return "CacheStatistics [metadataRequests="
+                    + metadataRequests
+                    + ", metadataLoads="
+                    + metadataLoads
+                    + ", contentHits="
+                    + contentHits
+                    + ", contentMisses="
+                    + contentMisses
+                    + ", invalidations="
+                    + invalidations
+                    + "]";
+        }
+    }
+
     /** Resource/Directory entry in the database. */
     public class Entry {
 
@@ -119,10 +259,20 @@ public List<Entry> getChildren() {
             List<Entry> list = new ArrayList<Entry>();
             Integer oid = getOid();
             if (oid != null) {
+                // the metadata of the children comes along, saving a query per child
                 for (Map<String, Object> result :
                         helper.multiSelectQuery(
-                                TABLE_RESOURCES, new FieldSelector<Integer>(PARENT, oid), NAME)) {
-                    list.add(createEntry(path, (String) result.get(NAME.getFieldName())));
+                                TABLE_RESOURCES,
+                                new FieldSelector<Integer>(PARENT, oid),
+                                OID,
+                                NAME,
+                                DIRECTORY,
+                                LAST_MODIFIED)) {
+                    Entry child = createEntry(path, (String) result.get(NAME.getFieldName()));
+                    if (entryCache().getIfPresent(child.path) == null) {
+                        entryCache().put(child.path, newMetadata(child.path, result));
+                    }
+                    list.add(child);
                 }
             }
             return list;
@@ -151,6 +301,8 @@ public boolean delete() {
             md.lastModified = null;
 
             entryCache.put(path, md);
+            invalidateContent(path);
+            recordChange(path);
 
             return true;
         }
@@ -211,11 +363,57 @@ public boolean renameTo(Entry dest) {
             md.lastModified = null;
 
             entryCache.put(path, md);
+            invalidateContent(path);
+            invalidateContent(dest.path);
+            recordChange(path);
+            recordChange(dest.path);
 
             return true;
         }
 
         public InputStream getContent() {
+            if (contentCache == null) {
+                return readContent();
+            }
+            Timestamp lastModified = getMetadata(path).lastModified;
+            CachedContent cached = contentCache.getIfPresent(path);
+            if (cached != null && Objects.equals(cached.lastModified, lastModified)) {
+                contentHits.incrementAndGet();
+                return new ByteArrayInputStream(cached.content);
+            }
+            contentMisses.incrementAndGet();
+            InputStream is = readContent();
+            if (lastModified == null) {
+                return is;
+            }
+            // read up to the size limit, larger resources are streamed as usual
+            int limit = config.getMemoryCacheResourceSize();
+            try {
+                ByteArrayOutputStream head = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                while (head.size() <= limit) {
+                    int read = is.read(buffer, 0, Math.min(buffer.length, limit + 1 - head.size()));
+                    if (read < 0) {
+                        break;
+                    }
+                    head.write(buffer, 0, read);
+                }
+                if (head.size() > limit) {
+                    return new SequenceInputStream(
+                            new ByteArrayInputStream(head.toByteArray()), is);
+                }
+                is.close();
+                byte[] content = head.toByteArray();
+                contentCache.put(path, new CachedContent(lastModified, content));
+                return new ByteArrayInputStream(content);
+            } catch (IOException e) {
+                IOUtils.closeQuietly(is);
+                throw new IllegalStateException(
+                        "Could not read content for entry " + toString(), e);
+            }
+        }
+
+        private InputStream readContent() {
             InputStream is = helper.blobQuery(TABLE_RESOURCES, new PathSelector(path), CONTENT);
             if (is == null) {
                 throw new IllegalStateException("Could not find content for entry " + toString());
@@ -247,6 +445,8 @@ public void setContent(InputStream is) {
             }
 
             entryCache.put(path, md);
+            invalidateContent(path);
+            recordChange(path);
         }
 
         public boolean isPermantentlyCached() {
@@ -255,6 +455,7 @@ public boolean isPermantentlyCached() {
 
         public void createDirectory() {
             int parentOid = 0;
+            boolean created = false;
             for (String name : path) {
                 Map<String, Object> record =
                         helper.selectQuery(
@@ -269,6 +470,7 @@ public void createDirectory() {
                                     TABLE_RESOURCES,
                                     new Assignment<String>(NAME, name),
                                     new Assignment<Integer>(PARENT, parentOid));
+                    created = true;
                 } else {
                     if (!(Boolean) record.get(DIRECTORY.getFieldName())) {
                         throw new IllegalStateException(
@@ -285,6 +487,9 @@ public void createDirectory() {
             md.oid = parentOid;
             md.dir = true;
             entryCache.put(path, md);
+            if (created) {
+                recordChange(path);
+            }
         }
 
         public boolean createResource() {
@@ -332,6 +537,7 @@ public boolean createResource() {
             md.dir = false;
 
             entryCache.put(path, md);
+            recordChange(path);
 
             return true;
         }
@@ -395,17 +601,226 @@ public JDBCDirectoryStructure(DataSource ds, JDBCResourceStoreProperties config)
                 LOGGER.log(Level.WARNING, "Unable to save ResourceStore configuration", e);
             }
         }
+
+        if (config.getChangeFeedInterval() > 0) {
+            try {
+                Map<String, Object> record =
+                        helper.anyQuery(
+                                new QueryBuilder(
+                                        "SELECT MAX(revision) AS revision FROM "
+                                                + TABLE_CHANGES
+                                                + ";"),
+                                LAST_REVISION);
+                Integer revision = (Integer) record.get(LAST_REVISION.getFieldName());
+                lastRevision = revision == null ? 0 : revision;
+            } catch (IllegalStateException e) {
+                LOGGER.log(
+                        Level.WARNING,
+                        "Change feed disabled, the "
+                                + TABLE_CHANGES
+                                + " table could not be read. Databases initialized by earlier "
+                                + "versions need to create it, see the initialization script.",
+                        e);
+            }
+        }
+
+        // the cached content is checked against the cached metadata only, which the change feed
+        // keeps in synch with the changes made by other instances
+        if (config.getMemoryCacheResourceSize() > 0 && config.getMemoryCacheSize() > 0) {
+            if (lastRevision != null) {
+                contentCache =
+                        CacheBuilder.newBuilder()
+                                .maximumWeight(config.getMemoryCacheSize())
+                                .<ArrayList<String>, CachedContent>weigher(
+                                        (path, content) -> content.content.length)
+                                .build();
+            } else {
+                LOGGER.fine("Resource content memory cache disabled, needs the change feed");
+            }
+        }
+    }
+
+    /** Starts polling the change feed, if enabled */
+    public synchronized void startChangeFeed() {
+        if (lastRevision == null || changeFeedPoller != null) {
+            return;
+        }
+        changeFeedPoller =
+                Executors.newSingleThreadScheduledExecutor(
+                        r -> {
+                            Thread thread = new Thread(r, "JDBCResourceStore-changes");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        int interval = config.getChangeFeedInterval();
+        changeFeedPoller.scheduleWithFixedDelay(
+                () -> {
+                    try {
+                        pollChanges();
+                    } catch (Exception e) {
+                        LOGGER.log(Level.WARNING, "Failed to poll the resource change feed", e);
+                    }
+                },
+                interval,
+                interval,
+                TimeUnit.SECONDS);
+    }
+
+    /** Stops polling the change feed */
+    public synchronized void stopChangeFeed() {
+        if (changeFeedPoller != null) {
+            changeFeedPoller.shutdownNow();
+            changeFeedPoller = null;
+        }
+    }
+
+    /**
+     * Reads the changes made by other instances since the last poll, in a single query, and
+     * invalidates the cached metadata and content of the changed entries, of their children and of
+     * their parents.
+     *
+     * <p>Revisions are assigned before the transactions recording them commit, so a revision
+     * might show up after higher ones have been read. Missing revisions are read again at each
+     * poll, until they show up or {@link #REVISION_GAP_TIMEOUT} expires.
+     */
+    public synchronized void pollChanges() {
+        Integer revision = lastRevision;
+        if (revision == null) {
+            return;
+        }
+        QueryBuilder query =
+                new QueryBuilder(
+                        "SELECT revision, path FROM "
+                                + TABLE_CHANGES
+                                + " WHERE revision > ? ORDER BY revision;");
+        query.addParameter(new Parameter<Integer>(TYPE_INT, revision));
+        Set<List<String>> changed = new HashSet<>();
+        int maxRevision = revision;
+        for (Map<String, Object> record : helper.anyMultiQuery(query, REVISION, PATH)) {
+            Integer current = (Integer) record.get(REVISION.getFieldName());
+            maxRevision = Math.max(maxRevision, current);
+            revisionGaps.remove(current);
+            if (seenRevisions.add(current) && !ownRevisions.remove(current)) {
+                changed.add(Paths.names((String) record.get(PATH.getFieldName())));
+            }
+        }
+        long now = System.currentTimeMillis();
+        for (int r = revision + 1; r < maxRevision; r++) {
+            if (!seenRevisions.contains(r)) {
+                revisionGaps.putIfAbsent(r, now);
+            }
+        }
+        revisionGaps.values().removeIf(since -> now - since > REVISION_GAP_TIMEOUT);
+        int resolved =
+                revisionGaps.isEmpty()
+                        ? maxRevision
+                        : Collections.min(revisionGaps.keySet()) - 1;
+        seenRevisions.removeIf(r -> r <= resolved);
+        lastRevision = resolved;
+        if (!changed.isEmpty()) {
+            invalidations.addAndGet(changed.size());
+            invalidateCaches(changed);
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(
+                        "Invalidated "
+                                + changed.size()
+                                + " changed resources, "
+                                + getCacheStatistics());
+            }
+        }
+        Timestamp expired = new Timestamp(System.currentTimeMillis() - CHANGE_RETENTION);
+        helper.deleteQuery(
+                TABLE_CHANGES,
+                qb -> {
+                    qb.append("changed < ?");
+                    qb.addParameter(new Parameter<Timestamp>(TYPE_TIMESTAMP, expired));
+                    return qb;
+                });
+    }
+
+    private void invalidateCaches(Set<List<String>> changed) {
+        // a change affects the entry itself, its parents and, if a directory, its contents
+        Set<List<String>> parents = new HashSet<>();
+        for (List<String> path : changed) {
+            for (int i = 0; i < path.size(); i++) {
+                parents.add(path.subList(0, i));
+            }
+        }
+        invalidate(entryCache().asMap().keySet(), changed, parents);
+        if (contentCache != null) {
+            invalidate(contentCache.asMap().keySet(), changed, Collections.emptySet());
+        }
+    }
+
+    private static void invalidate(
+            Set<ArrayList<String>> keys, Set<List<String>> changed, Set<List<String>> parents) {
+        keys.removeIf(
+                key -> {
+                    if (parents.contains(key)) {
+                        return true;
+                    }
+                    for (int i = key.size(); i >= 0; i--) {
+                        if (changed.contains(key.subList(0, i))) {
+                            return true;
+                        }
+                    }
+                    return false;
+                });
+    }
+
+    private void invalidateContent(List<String> path) {
+        if (contentCache != null) {
+            invalidate(
+                    contentCache.asMap().keySet(),
+                    Collections.singleton(path),
+                    Collections.emptySet());
+        }
+    }
+
+    /** Records a change in the change feed, for other instances to pick it up */
+    private void recordChange(List<String> path) {
+        if (lastRevision == null) {
+            return;
+        }
+        Integer revision =
+                helper.insertQuery(
+                        TABLE_CHANGES,
+                        new Assignment<String>(PATH, mergePath(path)),
+                        new Assignment<Timestamp>(
+                                CHANGED, new Timestamp(System.currentTimeMillis())));
+        if (revision != null) {
+            ownRevisions.add(revision);
+        }
+    }
+
+    /** Returns the hit and miss counts of the caches */
+    public CacheStatistics getCacheStatistics() {
+        return new CacheStatistics(
+                metadataRequests.get(),
+                metadataLoads.get(),
+                contentHits.get(),
+                contentMisses.get(),
+                invalidations.get());
     }
 
     private Cache<ArrayList<String>, EntryMetaData> entryCache() {
         if (entryCache == null) {
-            CacheProvider cacheProvider = DefaultCacheProvider.findProvider();
-            entryCache = cacheProvider.getCache("resourceEntries");
+            if (lastRevision != null) {
+                // the change feed keeps the entries up to date, no need to expire them
+                entryCache =
+                        CacheBuilder.newBuilder()
+                                .maximumSize(DefaultCacheProvider.DEFAULT_MAX_ENTRIES)
+                                .build();
+            } else {
+                CacheProvider cacheProvider = DefaultCacheProvider.findProvider();
+                entryCache = cacheProvider.getCache("resourceEntries");
+            }
         }
         return entryCache;
     }
 
     private EntryMetaData getMetadata(ArrayList<String> path) {
+        metadataRequests.incrementAndGet();
         try {
             return entryCache()
                     .get(
@@ -413,7 +828,7 @@ private EntryMetaData getMetadata(ArrayList<String> path) {
                             new Callable<EntryMetaData>() {
                                 @Override
                                 public EntryMetaData call() throws Exception {
-                                    EntryMetaData md = new EntryMetaData();
+                                    metadataLoads.incrementAndGet();
                                     Map<String, Object> record =
                                             helper.selectQuery(
                                                     TABLE_RESOURCES,
@@ -421,25 +836,7 @@ public EntryMetaData call() throws Exception {
                                                     OID,
                                                     DIRECTORY,
                                                     LAST_MODIFIED);
-                                    if (record != null) {
-                                        md.oid = (Integer) record.get(OID.getFieldName());
-                                        md.dir = (Boolean) record.get(DIRECTORY.getFieldName());
-                                        md.lastModified =
-                                                (Timestamp)
-                                                        record.get(LAST_MODIFIED.getFieldName());
-                                    }
-                                    resourceNotificationDispatcher.addListener(
-                                            mergePath(path),
-                                            new ResourceListener() {
-
-                                                @Override
-                                                public void changed(ResourceNotification notify) {
-                                                    entryCache().invalidate(path);
-                                                    resourceNotificationDispatcher.removeListener(
-                                                            md.toString(), this);
-                                                }
-                                            });
-                                    return md;
+                                    return newMetadata(path, record);
                                 }
                             });
         } catch (ExecutionException e) {
@@ -447,6 +844,26 @@ public void changed(ResourceNotification notify) {
         }
     }
 
+    private EntryMetaData newMetadata(ArrayList<String> path, Map<String, Object> record) {
+        EntryMetaData md = new EntryMetaData();
+        if (record != null) {
+            md.oid = (Integer) record.get(OID.getFieldName());
+            md.dir = (Boolean) record.get(DIRECTORY.getFieldName());
+            md.lastModified = (Timestamp) record.get(LAST_MODIFIED.getFieldName());
+        }
+        resourceNotificationDispatcher.addListener(
+                mergePath(path),
+                new ResourceListener() {
+
+                    @Override
+                    public void changed(ResourceNotification notify) {
+                        entryCache().invalidate(path);
+                        resourceNotificationDispatcher.removeListener(md.toString(), this);
+                    }
+                });
+        return md;
+    }
+
     protected Entry createEntry(List<String> parent, String child) {
         ArrayList<String> path = new ArrayList<String>(parent);
         path.add(child);
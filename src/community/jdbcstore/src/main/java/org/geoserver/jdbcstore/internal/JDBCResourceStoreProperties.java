@@ -47,4 +47,25 @@ public String[] getIgnoreDirs() {
     public String[] getCachedDirs() {
         return getProperty("cachedDirs", "").split(",");
     }
+
+    /**
+     * Interval in seconds between two polls of the change feed, through which the changes made by
+     * other nodes invalidate the local caches. Zero or less disables the change feed.
+     */
+    public int getChangeFeedInterval() {
+        return Integer.parseInt(getProperty("changeFeedInterval", "0"));
+    }
+
+    /**
+     * Maximum size in bytes of a resource whose content is kept in memory. Zero or less disables
+     * the in memory cache.
+     */
+    public int getMemoryCacheResourceSize() {
+        return Integer.parseInt(getProperty("memoryCacheResourceSize", "65536"));
+    }
+
+    /** Maximum size in bytes of the content kept in memory, all resources together. */
+    public long getMemoryCacheSize() {
+        return Long.parseLong(getProperty("memoryCacheSize", "16777216"));
+    }
 }
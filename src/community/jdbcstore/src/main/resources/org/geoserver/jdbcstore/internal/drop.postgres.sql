@@ -1 +1,2 @@
+DROP TABLE IF EXISTS resource_changes;
 DROP TABLE resources CASCADE;
@@ -18,3 +18,11 @@ CREATE INDEX resources_parent_name_idx
 
 INSERT INTO resources (oid, name, parent, content) VALUES (0, '', NULL, NULL);
 
+
+CREATE TABLE resource_changes
+(
+  revision serial NOT NULL,
+  path character varying NOT NULL,
+  changed timestamp without time zone NOT NULL,
+  CONSTRAINT resource_changes_pkey PRIMARY KEY (revision)
+);
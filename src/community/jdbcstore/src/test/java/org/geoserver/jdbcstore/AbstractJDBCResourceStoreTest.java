@@ -14,6 +14,7 @@
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.describedAs;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
@@ -26,7 +27,11 @@
 import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
 import org.geoserver.catalog.impl.StyleInfoImpl;
 import org.geoserver.config.GeoServerDataDirectory;
 import org.geoserver.config.GeoServerDataDirectoryTest;
@@ -71,12 +76,19 @@ public void cleanUp() throws Exception {
     }
 
     JDBCResourceStoreProperties getConfig(boolean enabled, boolean init) {
+        return getConfig(enabled, init, 0);
+    }
+
+    JDBCResourceStoreProperties getConfig(boolean enabled, boolean init, int changeFeedInterval) {
         JDBCResourceStoreProperties config = createMock(JDBCResourceStoreProperties.class);
         expect(config.isInitDb()).andStubReturn(init);
         expect(config.isEnabled()).andStubReturn(enabled);
         expect(config.isImport()).andStubReturn(init);
         expect(config.getIgnoreDirs()).andStubReturn(new String[] {"DirIgnore"});
         expect(config.getCachedDirs()).andStubReturn(new String[] {});
+        expect(config.getChangeFeedInterval()).andStubReturn(changeFeedInterval);
+        expect(config.getMemoryCacheResourceSize()).andStubReturn(65536);
+        expect(config.getMemoryCacheSize()).andStubReturn(16777216L);
         config.setInitDb(false);
         expectLastCall();
         try {
@@ -488,6 +500,149 @@ public void directoryEvents() throws Exception {
         store.get(Paths.BASE).removeListener(listener);
     }
 
+    @Test
+    public void testChangeFeed() throws Exception {
+        standardData();
+
+        // two stores sharing the database, as two nodes of a cluster would
+        JDBCResourceStore store =
+                new JDBCResourceStore(support.getDataSource(), getConfig(true, false, 3600));
+        store.setLockProvider(new NullLockProvider());
+        JDBCResourceStore other =
+                new JDBCResourceStore(support.getDataSource(), getConfig(true, false, 3600));
+        other.setLockProvider(new NullLockProvider());
+
+        assertThat(read(other.get("FileA")), equalTo("FileA Contents"));
+        // Make sure the timestamp is different
+        Thread.sleep(2);
+        try (OutputStream out = store.get("FileA").out()) {
+            out.write("FileA Updated Contents".getBytes());
+        }
+
+        // the change is picked up by the other store
+        other.dir.pollChanges();
+        assertThat(read(other.get("FileA")), equalTo("FileA Updated Contents"));
+        assertThat(other.getCacheStatistics().getInvalidations(), equalTo(1L));
+
+        // but it does not invalidate the caches of the store that made it
+        store.dir.pollChanges();
+        assertThat(store.getCacheStatistics().getInvalidations(), equalTo(0L));
+    }
+
+    @Test
+    public void testChangeFeedLateCommit() throws Exception {
+        standardData();
+
+        JDBCResourceStore store =
+                new JDBCResourceStore(support.getDataSource(), getConfig(true, false, 3600));
+        store.setLockProvider(new NullLockProvider());
+        JDBCResourceStore other =
+                new JDBCResourceStore(support.getDataSource(), getConfig(true, false, 3600));
+        other.setLockProvider(new NullLockProvider());
+        assertThat(read(other.get("FileA")), equalTo("FileA Contents"));
+
+        Thread.sleep(2);
+        try (OutputStream out = store.get("FileA").out()) {
+            out.write("FileA Updated Contents".getBytes());
+        }
+        // hide the change, as if its transaction did not commit yet
+        Statement statement = support.getConnection().createStatement();
+        ResultSet rs =
+                statement.executeQuery(
+                        "SELECT revision, path, changed FROM resource_changes "
+                                + "ORDER BY revision DESC");
+        assertTrue(rs.next());
+        int revision = rs.getInt("revision");
+        String path = rs.getString("path");
+        Timestamp changed = rs.getTimestamp("changed");
+        rs.close();
+        statement.execute("DELETE FROM resource_changes WHERE revision = " + revision);
+
+        // a later change is committed and read first
+        try (OutputStream out = store.get("DirC/FileD").out()) {
+            out.write("FileD Updated Contents".getBytes());
+        }
+        other.dir.pollChanges();
+        assertThat(read(other.get("DirC/FileD")), equalTo("FileD Updated Contents"));
+        assertThat(read(other.get("FileA")), equalTo("FileA Contents"));
+
+        // the late change shows up, and is not skipped
+        try (PreparedStatement insert =
+                support.getConnection()
+                        .prepareStatement(
+                                "INSERT INTO resource_changes (revision, path, changed) "
+                                        + "VALUES (?, ?, ?)")) {
+            insert.setInt(1, revision);
+            insert.setString(2, path);
+            insert.setTimestamp(3, changed);
+            insert.executeUpdate();
+        }
+        other.dir.pollChanges();
+        assertThat(read(other.get("FileA")), equalTo("FileA Updated Contents"));
+    }
+
+    @Test
+    public void testMemoryCacheNeedsChangeFeed() throws Exception {
+        standardData();
+
+        // without the change feed the content might be changed by other instances at any time
+        JDBCResourceStore store =
+                new JDBCResourceStore(support.getDataSource(), getConfig(true, false));
+        store.setLockProvider(new NullLockProvider());
+
+        Resource r = store.get("FileA");
+        assertThat(read(r), equalTo("FileA Contents"));
+        assertThat(read(r), equalTo("FileA Contents"));
+        assertThat(store.getCacheStatistics().getContentHits(), equalTo(0L));
+    }
+
+    @Test
+    public void testMemoryCache() throws Exception {
+        standardData();
+
+        JDBCResourceStore store =
+                new JDBCResourceStore(support.getDataSource(), getConfig(true, false, 3600));
+        store.setLockProvider(new NullLockProvider());
+
+        Resource r = store.get("FileA");
+        assertThat(read(r), equalTo("FileA Contents"));
+        assertThat(read(r), equalTo("FileA Contents"));
+        assertThat(store.getCacheStatistics().getContentMisses(), equalTo(1L));
+        assertThat(store.getCacheStatistics().getContentHits(), equalTo(1L));
+
+        // a local update is visible right away
+        try (OutputStream out = r.out()) {
+            out.write("FileA Updated Contents".getBytes());
+        }
+        assertThat(read(r), equalTo("FileA Updated Contents"));
+    }
+
+    @Test
+    public void testListLoadsChildrenMetadata() throws Exception {
+        standardData();
+
+        JDBCResourceStore store =
+                new JDBCResourceStore(support.getDataSource(), getConfig(true, false, 3600));
+        store.setLockProvider(new NullLockProvider());
+
+        List<Resource> children = store.get("DirC").list();
+        assertThat(children.size(), equalTo(2));
+        long loads = store.getCacheStatistics().getMetadataLoads();
+        assertThat(loads, greaterThan(0L));
+        for (Resource child : children) {
+            assertThat(child.getType(), not(equalTo(Resource.Type.UNDEFINED)));
+            child.lastmodified();
+        }
+        // no further query was needed
+        assertThat(store.getCacheStatistics().getMetadataLoads(), equalTo(loads));
+    }
+
+    private String read(Resource resource) throws Exception {
+        try (InputStream in = resource.in()) {
+            return new String(in.readAllBytes());
+        }
+    }
+
     @Rule public TemporaryFolder cache = new TemporaryFolder();
 
     @Test
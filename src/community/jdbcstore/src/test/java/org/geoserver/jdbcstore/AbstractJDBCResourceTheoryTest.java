@@ -56,6 +56,9 @@ protected JDBCResourceStoreProperties mockConfig(boolean enabled, boolean init)
         expect(config.isEnabled()).andStubReturn(enabled);
         expect(config.isImport()).andStubReturn(init);
         expect(config.getCachedDirs()).andStubReturn(new String[] {"DirCached"});
+        expect(config.getChangeFeedInterval()).andStubReturn(0);
+        expect(config.getMemoryCacheResourceSize()).andStubReturn(65536);
+        expect(config.getMemoryCacheSize()).andStubReturn(16777216L);
 
         support.stubConfig(config);
 
@@ -0,0 +1,196 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import javax.jms.Topic;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.impl.CatalogModifyEventImpl;
+import org.geoserver.cluster.message.JMSEventBatch;
+import org.springframework.jms.core.JmsTemplate;
+
+/**
+ * Collects the events published during a coalescing window, so that they can be sent as a single
+ * {@link JMSEventBatch}. Consecutive modifications of the same catalog object are collapsed into a
+ * single modify event, old values are taken from the first modification and new values from the
+ * last one. A modification is not collapsed across other kinds of events (add, remove, files), so
+ * that the order of dependent changes is preserved.
+ *
+ * <p>This class is not thread safe, the {@link JMSPublisher} synchronizes the access to it.
+ */
+class JMSEventBatcher {
+
+    /** A pending event, the original event is kept to allow collapsing later modifications */
+    static class PendingEvent {
+
+        final String handlerName;
+
+        final Properties properties;
+
+        final Object event;
+
+        final String payload;
+
+        PendingEvent(String handlerName, Properties properties, Object event, String payload) {
+            this.handlerName = handlerName;
+            this.properties = properties;
+            this.event = event;
+            this.payload = payload;
+        }
+    }
+
+    private List<PendingEvent> pending = new ArrayList<>();
+
+    // index of the last pending event modifications cannot be collapsed across
+    private int barrier = -1;
+
+    private Topic destination;
+
+    private JmsTemplate jmsTemplate;
+
+    private Properties properties;
+
+    /**
+     * Adds an event to the batch
+     *
+     * @param handler the handler used to serialize the event
+     * @param destination the topic the batch will be sent to
+     * @param jmsTemplate the template used to send the batch
+     * @param properties the properties the event is published with
+     * @param event the event
+     * @param payload the serialized event
+     */
+    <O> void add(
+            JMSEventHandler<String, O> handler,
+            Topic destination,
+            JmsTemplate jmsTemplate,
+            Properties properties,
+            O event,
+            String payload)
+            throws Exception {
+        this.destination = destination;
+        this.jmsTemplate = jmsTemplate;
+        this.properties = properties;
+        // the caller might reuse the properties for the next event
+        Properties eventProperties = new Properties();
+        eventProperties.putAll(properties);
+        String handlerName = handler.getGeneratorClass().getSimpleName();
+        if (isCollapsible(event)) {
+            int previous =
+                    findCollapsible((CatalogModifyEvent) event, handlerName, eventProperties);
+            if (previous >= 0) {
+                CatalogModifyEvent first = (CatalogModifyEvent) pending.get(previous).event;
+                @SuppressWarnings("unchecked")
+                O merged = (O) merge(first, (CatalogModifyEvent) event);
+                // serialize right away, the source is not going to be in the same state later
+                String mergedPayload = handler.serialize(merged);
+                pending.set(
+                        previous,
+                        new PendingEvent(handlerName, eventProperties, merged, mergedPayload));
+                return;
+            }
+        } else {
+            barrier = pending.size();
+        }
+        pending.add(new PendingEvent(handlerName, eventProperties, event, payload));
+    }
+
+    private boolean isCollapsible(Object event) {
+        // subclasses (e.g. style modifications) carry more than the changed properties
+        return event != null
+                && event.getClass().equals(CatalogModifyEventImpl.class)
+                && ((CatalogModifyEvent) event).getSource() != null
+                && ((CatalogModifyEvent) event).getSource().getId() != null;
+    }
+
+    private int findCollapsible(
+            CatalogModifyEvent event, String handlerName, Properties properties) {
+        String id = event.getSource().getId();
+        for (int i = pending.size() - 1; i > barrier; i--) {
+            PendingEvent candidate = pending.get(i);
+            Object other = candidate.event;
+            if (isCollapsible(other)) {
+                CatalogInfo source = ((CatalogModifyEvent) other).getSource();
+                if (id.equals(source.getId()) && handlerName.equals(candidate.handlerName)) {
+                    // events published with different options are synchronized separately
+                    return properties.equals(candidate.properties) ? i : -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Merges two modifications of the same object
+     *
+     * @param first the first modification
+     * @param second the following modification
+     * @return a modification going from the state before the first to the state after the second
+     */
+    static CatalogModifyEvent merge(CatalogModifyEvent first, CatalogModifyEvent second) {
+        List<String> names = new ArrayList<>(first.getPropertyNames());
+        List<Object> oldValues = new ArrayList<>(first.getOldValues());
+        List<Object> newValues = new ArrayList<>(first.getNewValues());
+        for (int i = 0; i < second.getPropertyNames().size(); i++) {
+            String name = second.getPropertyNames().get(i);
+            int index = indexOfIgnoreCase(names, name);
+            if (index >= 0) {
+                newValues.set(index, second.getNewValues().get(i));
+            } else {
+                names.add(name);
+                oldValues.add(second.getOldValues().get(i));
+                newValues.add(second.getNewValues().get(i));
+            }
+        }
+        CatalogModifyEventImpl merged = new CatalogModifyEventImpl();
+        merged.setSource(second.getSource());
+        merged.setPropertyNames(names);
+        merged.setOldValues(oldValues);
+        merged.setNewValues(newValues);
+        return merged;
+    }
+
+    private static int indexOfIgnoreCase(List<String> names, String name) {
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).equalsIgnoreCase(name)) return i;
+        }
+        return -1;
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    Topic getDestination() {
+        return destination;
+    }
+
+    JmsTemplate getJmsTemplate() {
+        return jmsTemplate;
+    }
+
+    Properties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Returns the pending events and clears the batch
+     *
+     * @return the pending events, in publication order
+     */
+    List<PendingEvent> drain() {
+        List<PendingEvent> result = pending;
+        pending = new ArrayList<>();
+        barrier = -1;
+        return result;
+    }
+}
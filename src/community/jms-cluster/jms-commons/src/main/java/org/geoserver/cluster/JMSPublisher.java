@@ -6,12 +6,25 @@
 package org.geoserver.cluster;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.jms.JMSException;
 import javax.jms.Topic;
+import org.geoserver.cluster.configuration.BatchConfiguration;
+import org.geoserver.cluster.configuration.JMSConfiguration;
+import org.geoserver.cluster.message.JMSCompressedMessageCreator;
+import org.geoserver.cluster.message.JMSEventBatch;
 import org.geoserver.cluster.message.JMSObjectMessageCreator;
 import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.jms.core.MessageCreator;
 
@@ -22,14 +35,32 @@
  * JMSTemplate. Valid means that we are appending to the message some conventional (to this JMS
  * plug-in) properties which can be used to synchronize consumer and producers.
  *
+ * <p>Each message carries a sequence number in the {@link #SEQUENCE_KEY} property, which allows
+ * consumers to detect lost messages. Depending on the {@link BatchConfiguration} events can also be
+ * collected in a short window and sent as a single {@link JMSEventBatch}, and large payloads can be
+ * compressed.
+ *
  * @author Carlo Cancellieri - carlo.cancellieri@geo-solutions.it
  */
 public class JMSPublisher {
 
     static final Logger LOGGER = Logging.getLogger(JMSPublisher.class);
 
+    /** The message property holding the sequence number of the message */
+    public static final String SEQUENCE_KEY = "JMSSequence";
+
     private final JMSManager jmsManager;
 
+    @Autowired public JMSConfiguration config;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final JMSEventBatcher batcher = new JMSEventBatcher();
+
+    private ScheduledExecutorService scheduler;
+
+    private ScheduledFuture<?> scheduledFlush;
+
     /** Constructor */
     public JMSPublisher(JMSManager jmsManager) {
         this.jmsManager = jmsManager;
@@ -58,11 +89,30 @@ public <S extends Serializable, O> void publish(
             // set the used SPI
             props.put(JMSEventHandlerSPI.getKeyName(), handler.getGeneratorClass().getSimpleName());
 
-            // TODO make this configurable
-            final MessageCreator creator =
-                    new JMSObjectMessageCreator(handler.serialize(object), props);
+            final S payload = handler.serialize(object);
 
-            jmsTemplate.send(destination, creator);
+            synchronized (this) {
+                if (BatchConfiguration.getBatchWindow(config) > 0 && payload instanceof String) {
+                    @SuppressWarnings("unchecked")
+                    JMSEventHandler<String, O> stringHandler = (JMSEventHandler<String, O>) handler;
+                    batcher.add(
+                            stringHandler,
+                            destination,
+                            jmsTemplate,
+                            props,
+                            object,
+                            (String) payload);
+                    if (batcher.size() >= BatchConfiguration.getBatchMaxSize(config)) {
+                        flush();
+                    } else {
+                        scheduleFlush();
+                    }
+                } else {
+                    // keep the events order
+                    flush();
+                    send(destination, jmsTemplate, props, payload);
+                }
+            }
 
         } catch (Exception e) {
             if (LOGGER.isLoggable(java.util.logging.Level.SEVERE)) {
@@ -73,4 +123,111 @@ public <S extends Serializable, O> void publish(
             throw ex;
         }
     }
+
+    /** Sends the events collected so far, if any */
+    public synchronized void flush() throws Exception {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (batcher.isEmpty()) {
+            return;
+        }
+        Topic destination = batcher.getDestination();
+        JmsTemplate jmsTemplate = batcher.getJmsTemplate();
+        Properties props = batcher.getProperties();
+        List<JMSEventBatcher.PendingEvent> events = batcher.drain();
+        if (events.size() == 1) {
+            // no need to wrap a single event
+            JMSEventBatcher.PendingEvent event = events.get(0);
+            Properties eventProps = new Properties();
+            eventProps.putAll(event.properties);
+            eventProps.put(JMSEventHandlerSPI.getKeyName(), event.handlerName);
+            send(destination, jmsTemplate, eventProps, event.payload);
+            return;
+        }
+        List<JMSEventBatch.Entry> entries = new ArrayList<>(events.size());
+        for (JMSEventBatcher.PendingEvent event : events) {
+            entries.add(
+                    new JMSEventBatch.Entry(event.handlerName, event.properties, event.payload));
+        }
+        Properties batchProps = new Properties();
+        batchProps.putAll(props);
+        batchProps.put(JMSEventHandlerSPI.getKeyName(), JMSEventBatch.HANDLER_NAME);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("Sending a batch of " + entries.size() + " events");
+        }
+        send(destination, jmsTemplate, batchProps, new JMSEventBatch(entries).encode());
+    }
+
+    private void scheduleFlush() {
+        if (scheduledFlush != null) {
+            // the window is opened by the first event of the batch
+            return;
+        }
+        if (scheduler == null) {
+            scheduler =
+                    Executors.newSingleThreadScheduledExecutor(
+                            r -> {
+                                Thread thread = new Thread(r, "JMSPublisher-batch");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+        }
+        scheduledFlush =
+                scheduler.schedule(
+                        this::flushQuietly,
+                        BatchConfiguration.getBatchWindow(config),
+                        TimeUnit.MILLISECONDS);
+    }
+
+    private void flushQuietly() {
+        try {
+            synchronized (this) {
+                // this is the scheduled flush, don't try to cancel it
+                scheduledFlush = null;
+                flush();
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to send the batched cluster events", e);
+        }
+    }
+
+    private void send(Topic destination, JmsTemplate jmsTemplate, Properties props, Object payload)
+            throws Exception {
+        // the sequence number is assigned here, so that it follows the sending order
+        Properties messageProps = new Properties();
+        messageProps.putAll(props);
+        messageProps.put(SEQUENCE_KEY, sequence.incrementAndGet());
+
+        final MessageCreator creator;
+        int threshold = BatchConfiguration.getCompressionThreshold(config);
+        if (threshold >= 0
+                && payload instanceof String
+                && ((String) payload).length() > threshold) {
+            creator = new JMSCompressedMessageCreator((String) payload, messageProps);
+        } else {
+            creator = new JMSObjectMessageCreator((Serializable) payload, messageProps);
+        }
+
+        jmsTemplate.send(destination, creator);
+    }
+
+    /** Returns the sequence number of the last message sent */
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    /** Sends the pending events and releases the batching resources */
+    public synchronized void shutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to send the batched cluster events", e);
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
 }
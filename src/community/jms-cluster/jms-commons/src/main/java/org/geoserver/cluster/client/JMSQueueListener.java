@@ -5,11 +5,16 @@
  */
 package org.geoserver.cluster.client;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
+import javax.jms.BytesMessage;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.ObjectMessage;
@@ -18,8 +23,15 @@
 import org.geoserver.cluster.JMSEventHandler;
 import org.geoserver.cluster.JMSEventHandlerSPI;
 import org.geoserver.cluster.JMSManager;
+import org.geoserver.cluster.JMSPublisher;
 import org.geoserver.cluster.configuration.JMSConfiguration;
+import org.geoserver.cluster.configuration.ReadOnlyConfiguration;
+import org.geoserver.cluster.events.ToggleSwitch;
 import org.geoserver.cluster.events.ToggleType;
+import org.geoserver.cluster.message.JMSCompressedMessageCreator;
+import org.geoserver.cluster.message.JMSEventBatch;
+import org.geoserver.config.GeoServer;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geotools.util.logging.Logging;
 import org.springframework.jms.listener.SessionAwareMessageListener;
 
@@ -47,6 +59,11 @@ public JMSQueueListener(final JMSManager jmsManager) {
 
     private AtomicLong consumedEvents = new AtomicLong();
 
+    private AtomicLong sequenceGaps = new AtomicLong();
+
+    // last sequence number received from each instance
+    private final Map<String, Long> lastSequences = new ConcurrentHashMap<>();
+
     @Override
     public void onMessage(Message message, Session session) throws JMSException {
 
@@ -126,45 +143,185 @@ public void onMessage(Message message, Session session) throws JMSException {
         }
 
         // USING INCOMING MESSAGE
+        final Serializable obj;
         if (message instanceof ObjectMessage) {
-
-            final ObjectMessage objMessage = (ObjectMessage) (message);
-            final Serializable obj = objMessage.getObject();
-
+            obj = ((ObjectMessage) message).getObject();
+        } else if (message instanceof BytesMessage) {
             try {
-                // lookup the SPI handler, search is performed using the
-                // name
-                final JMSEventHandler<Serializable, Object> handler =
-                        jmsManager.getHandlerByClassName(generatorClass);
-                if (handler == null) {
-                    throw new JMSException(
-                            "Unable to find SPI named \'"
-                                    + generatorClass
-                                    + "\', be shure to load that SPI into your context.");
-                }
+                obj = JMSCompressedMessageCreator.decompress((BytesMessage) message);
+            } catch (IOException e) {
+                final JMSException jmsE = new JMSException(e.getLocalizedMessage());
+                jmsE.initCause(e);
+                throw jmsE;
+            }
+        } else throw new JMSException("Unrecognized message type for catalog incoming event");
 
-                final Enumeration<String> keys = message.getPropertyNames();
-                final Properties options = new Properties();
-                while (keys.hasMoreElements()) {
-                    String key = keys.nextElement();
-                    options.put(key, message.getObjectProperty(key));
-                }
-                handler.setProperties(options);
+        checkSequence(message);
 
-                // try to synchronize object locally
-                if (!handler.synchronize(handler.deserialize(obj))) {
-                    throw new JMSException(
-                            "Unable to synchronize message locally.\n SPI: " + generatorClass);
-                }
+        final Enumeration<String> keys = message.getPropertyNames();
+        final Properties options = new Properties();
+        while (keys.hasMoreElements()) {
+            String key = keys.nextElement();
+            options.put(key, message.getObjectProperty(key));
+        }
 
-            } catch (Exception e) {
+        if (JMSEventBatch.HANDLER_NAME.equals(generatorClass)) {
+            final JMSEventBatch batch;
+            try {
+                batch = JMSEventBatch.decode((String) obj);
+            } catch (RuntimeException e) {
                 final JMSException jmsE = new JMSException(e.getLocalizedMessage());
                 jmsE.initCause(e);
                 throw jmsE;
-            } finally {
-                this.consumedEvents.incrementAndGet();
             }
-        } else throw new JMSException("Unrecognized message type for catalog incoming event");
+            synchronizeBatch(batch, options);
+        } else {
+            synchronize(generatorClass, options, obj);
+        }
+    }
+
+    /**
+     * Synchronizes the events of a batch, in order. A failing event does not prevent the following
+     * ones from being synchronized, the failures are logged and reported once the whole batch has
+     * been processed.
+     *
+     * @param batch the batch
+     * @param options the properties of the message carrying the batch
+     * @throws JMSException if any of the events could not be synchronized
+     */
+    void synchronizeBatch(JMSEventBatch batch, Properties options) throws JMSException {
+        List<JMSEventBatch.Entry> entries = batch.getEntries();
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("Incoming batch of " + entries.size() + " events");
+        }
+        JMSException firstFailure = null;
+        int failures = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            JMSEventBatch.Entry entry = entries.get(i);
+            // the entry carries the properties its event was published with
+            Properties entryOptions = new Properties();
+            entryOptions.putAll(options);
+            entryOptions.putAll(entry.getProperties());
+            entryOptions.put(JMSEventHandlerSPI.getKeyName(), entry.getHandlerName());
+            try {
+                synchronize(entry.getHandlerName(), entryOptions, entry.getPayload());
+            } catch (JMSException e) {
+                LOGGER.log(
+                        Level.SEVERE,
+                        "Failed to synchronize event "
+                                + (i + 1)
+                                + " of the batch, handled by \'"
+                                + entry.getHandlerName()
+                                + "\'",
+                        e);
+                if (firstFailure == null) {
+                    firstFailure = e;
+                }
+                failures++;
+            }
+        }
+        if (firstFailure != null) {
+            final JMSException jmsE =
+                    new JMSException(
+                            "Unable to synchronize "
+                                    + failures
+                                    + " of the "
+                                    + entries.size()
+                                    + " events of the batch");
+            jmsE.initCause(firstFailure);
+            throw jmsE;
+        }
+    }
+
+    private void synchronize(String generatorClass, Properties options, Serializable obj)
+            throws JMSException {
+        try {
+            // lookup the SPI handler, search is performed using the
+            // name
+            final JMSEventHandler<Serializable, Object> handler =
+                    jmsManager.getHandlerByClassName(generatorClass);
+            if (handler == null) {
+                throw new JMSException(
+                        "Unable to find SPI named \'"
+                                + generatorClass
+                                + "\', be shure to load that SPI into your context.");
+            }
+
+            handler.setProperties(options);
+
+            // try to synchronize object locally
+            if (!handler.synchronize(handler.deserialize(obj))) {
+                throw new JMSException(
+                        "Unable to synchronize message locally.\n SPI: " + generatorClass);
+            }
+
+        } catch (Exception e) {
+            final JMSException jmsE = new JMSException(e.getLocalizedMessage());
+            jmsE.initCause(e);
+            throw jmsE;
+        } finally {
+            this.consumedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Checks the sequence number of the incoming message against the last one received from the
+     * same instance. When a message is missing the local configuration might be out of sync: if
+     * the data directory is shared it is reloaded, otherwise the gap is reported so that the
+     * administrator can resynchronize the instance.
+     */
+    private void checkSequence(Message message) throws JMSException {
+        if (!message.propertyExists(JMSPublisher.SEQUENCE_KEY)) {
+            // message sent by an older version
+            return;
+        }
+        final String instance = message.getStringProperty(JMSConfiguration.INSTANCE_NAME_KEY);
+        final long current = message.getLongProperty(JMSPublisher.SEQUENCE_KEY);
+        final Long previous = lastSequences.put(instance, current);
+        // a lower sequence number means the other instance has been restarted
+        if (previous == null || current <= previous + 1) {
+            return;
+        }
+        sequenceGaps.incrementAndGet();
+        if (LOGGER.isLoggable(Level.WARNING)) {
+            LOGGER.warning(
+                    "Detected a gap in the events received from instance \'"
+                            + instance
+                            + "\', expected sequence number "
+                            + (previous + 1)
+                            + " but got "
+                            + current);
+        }
+        if (ReadOnlyConfiguration.isReadOnly(config)) {
+            reloadSnapshot();
+        } else if (LOGGER.isLoggable(Level.SEVERE)) {
+            LOGGER.severe(
+                    "The configuration of this instance might be out of sync with instance \'"
+                            + instance
+                            + "\', it should be resynchronized");
+        }
+    }
+
+    /** Reloads the configuration from the shared data directory */
+    private void reloadSnapshot() {
+        final GeoServer geoServer = GeoServerExtensions.bean(GeoServer.class);
+        if (geoServer == null) {
+            return;
+        }
+        final ToggleSwitch producer = (ToggleSwitch) GeoServerExtensions.bean("JMSToggleProducer");
+        // the reload must not be propagated to the other instances
+        if (producer != null) {
+            producer.disable();
+        }
+        try {
+            geoServer.reload();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Unable to reload the configuration from the data dir", e);
+        } finally {
+            if (producer != null) {
+                producer.enable();
+            }
+        }
     }
 
     // /**
@@ -216,6 +373,11 @@ public void onMessage(Message message, Session session) throws JMSException {
     // "Unrecognized message type for catalog incoming event");
     // }
 
+    /** Returns the number of gaps detected in the sequence of the incoming messages */
+    public long getSequenceGaps() {
+        return sequenceGaps.get();
+    }
+
     public long getConsumedEvents() {
         return consumedEvents.get();
     }
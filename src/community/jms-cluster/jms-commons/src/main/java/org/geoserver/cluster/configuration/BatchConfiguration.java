@@ -0,0 +1,65 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cluster.configuration;
+
+import java.io.IOException;
+
+/**
+ * Configuration of the event batching and payload compression performed by the {@link
+ * org.geoserver.cluster.JMSPublisher}. Both are disabled by default.
+ */
+public final class BatchConfiguration implements JMSConfigurationExt {
+
+    // millisecs events are collected before being sent in a single message, 0 disables batching
+    public static final String BATCH_WINDOW_KEY = "batch.window";
+    public static final Long DEFAULT_BATCH_WINDOW = 0L;
+
+    // max number of events in a single batch, a full batch is sent immediately
+    public static final String BATCH_MAX_SIZE_KEY = "batch.maxSize";
+    public static final Integer DEFAULT_BATCH_MAX_SIZE = 500;
+
+    // payloads larger than this number of chars are compressed, a negative value disables it
+    public static final String COMPRESSION_THRESHOLD_KEY = "compression.threshold";
+    public static final Integer DEFAULT_COMPRESSION_THRESHOLD = -1;
+
+    @Override
+    public void initDefaults(JMSConfiguration config) throws IOException {
+        config.putConfiguration(BATCH_WINDOW_KEY, DEFAULT_BATCH_WINDOW.toString());
+        config.putConfiguration(BATCH_MAX_SIZE_KEY, DEFAULT_BATCH_MAX_SIZE.toString());
+        config.putConfiguration(
+                COMPRESSION_THRESHOLD_KEY, DEFAULT_COMPRESSION_THRESHOLD.toString());
+    }
+
+    @Override
+    public boolean override(JMSConfiguration config) throws IOException {
+        boolean override = config.override(BATCH_WINDOW_KEY, DEFAULT_BATCH_WINDOW);
+        override |= config.override(BATCH_MAX_SIZE_KEY, DEFAULT_BATCH_MAX_SIZE);
+        override |= config.override(COMPRESSION_THRESHOLD_KEY, DEFAULT_COMPRESSION_THRESHOLD);
+        return override;
+    }
+
+    public static long getBatchWindow(JMSConfiguration config) {
+        return getNumber(config, BATCH_WINDOW_KEY, DEFAULT_BATCH_WINDOW).longValue();
+    }
+
+    public static int getBatchMaxSize(JMSConfiguration config) {
+        return getNumber(config, BATCH_MAX_SIZE_KEY, DEFAULT_BATCH_MAX_SIZE).intValue();
+    }
+
+    public static int getCompressionThreshold(JMSConfiguration config) {
+        return getNumber(config, COMPRESSION_THRESHOLD_KEY, DEFAULT_COMPRESSION_THRESHOLD)
+                .intValue();
+    }
+
+    private static Number getNumber(JMSConfiguration config, String key, Number defaultValue) {
+        Object value = config != null ? config.getConfiguration(key) : null;
+        if (value == null) return defaultValue;
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
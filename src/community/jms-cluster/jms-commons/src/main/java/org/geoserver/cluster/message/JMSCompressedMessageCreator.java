@@ -0,0 +1,74 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cluster.message;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Class implementing a MessageCreator which is used to produce BytesMessages carrying a gzip
+ * compressed string payload. Consumers recognize compressed payloads by the message type.
+ */
+public class JMSCompressedMessageCreator extends JMSObjectMessageCreator {
+
+    private final byte[] compressed;
+
+    public JMSCompressedMessageCreator(final String payload, final Properties props)
+            throws IOException {
+        super(payload, props);
+        this.compressed = compress(payload);
+    }
+
+    @Override
+    public Message createMessage(Session session) throws JMSException {
+        BytesMessage message = session.createBytesMessage();
+        message.writeBytes(compressed);
+        updateProperties(message);
+        return message;
+    }
+
+    /** Returns the size of the compressed payload, in bytes */
+    public int getCompressedSize() {
+        return compressed.length;
+    }
+
+    /**
+     * Compresses a string payload
+     *
+     * @param payload the payload to compress
+     * @return the compressed bytes
+     */
+    public static byte[] compress(String payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(payload.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads back the string payload of a message created by this class
+     *
+     * @param message the message to read
+     * @return the uncompressed payload
+     */
+    public static String decompress(BytesMessage message) throws JMSException, IOException {
+        byte[] bytes = new byte[(int) message.getBodyLength()];
+        message.readBytes(bytes);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(IOUtils.toByteArray(gzip), StandardCharsets.UTF_8);
+        }
+    }
+}
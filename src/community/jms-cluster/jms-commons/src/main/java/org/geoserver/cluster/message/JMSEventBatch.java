@@ -0,0 +1,151 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cluster.message;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A list of serialized events sent as a single message. Each entry keeps the name of the SPI that
+ * serialized it, so that consumers can look up the handler to synchronize it, and the properties
+ * the event was published with, which would otherwise travel as the message properties.
+ *
+ * <p>The batch is encoded as a plain string, each value being written as {@code
+ * <length>\n<value>}: for each entry the SPI name, the number of properties, the property keys and
+ * values, and the payload. This way the batch travels as the payload of the other messages do.
+ */
+public class JMSEventBatch {
+
+    /** The handler name set in the messages carrying a batch */
+    public static final String HANDLER_NAME = "JMSEventBatch";
+
+    /** A serialized event along with the name of the SPI that serialized it and its properties */
+    public static class Entry {
+
+        private final String handlerName;
+
+        private final Properties properties;
+
+        private final String payload;
+
+        public Entry(String handlerName, String payload) {
+            this(handlerName, new Properties(), payload);
+        }
+
+        /**
+         * Builds a new entry
+         *
+         * @param handlerName the name of the SPI that serialized the event
+         * @param properties the properties the event was published with, values are encoded as
+         *     strings
+         * @param payload the serialized event
+         */
+        public Entry(String handlerName, Properties properties, String payload) {
+            this.handlerName = handlerName;
+            this.properties = new Properties();
+            this.properties.putAll(properties);
+            this.payload = payload;
+        }
+
+        public String getHandlerName() {
+            return handlerName;
+        }
+
+        public Properties getProperties() {
+            return properties;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+    }
+
+    private final List<Entry> entries;
+
+    public JMSEventBatch(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Encodes the batch as a string
+     *
+     * @return the encoded batch
+     */
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+        for (Entry entry : entries) {
+            write(sb, entry.getHandlerName());
+            write(sb, String.valueOf(entry.getProperties().size()));
+            for (Map.Entry<Object, Object> property : entry.getProperties().entrySet()) {
+                write(sb, String.valueOf(property.getKey()));
+                write(sb, String.valueOf(property.getValue()));
+            }
+            write(sb, entry.getPayload());
+        }
+        return sb.toString();
+    }
+
+    private static void write(StringBuilder sb, String value) {
+        sb.append(value.length()).append('\n').append(value);
+    }
+
+    /**
+     * Decodes a batch encoded with {@link #encode()}
+     *
+     * @param encoded the encoded batch
+     * @return the decoded batch
+     * @throws IllegalArgumentException if the string is not a valid encoded batch
+     */
+    public static JMSEventBatch decode(String encoded) {
+        List<Entry> entries = new ArrayList<>();
+        Reader reader = new Reader(encoded);
+        try {
+            while (reader.hasMore()) {
+                String handlerName = reader.read();
+                int count = Integer.parseInt(reader.read());
+                Properties properties = new Properties();
+                for (int i = 0; i < count; i++) {
+                    properties.put(reader.read(), reader.read());
+                }
+                entries.add(new Entry(handlerName, properties, reader.read()));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(
+                    "Invalid event batch at position " + reader.pos, e);
+        }
+        return new JMSEventBatch(entries);
+    }
+
+    /** Reads back the values written by {@link #write(StringBuilder, String)} */
+    private static class Reader {
+
+        private final String encoded;
+
+        private int pos;
+
+        Reader(String encoded) {
+            this.encoded = encoded;
+        }
+
+        boolean hasMore() {
+            return pos < encoded.length();
+        }
+
+        String read() {
+            int lengthEnd = encoded.indexOf('\n', pos);
+            int length = Integer.parseInt(encoded.substring(pos, lengthEnd));
+            String value = encoded.substring(lengthEnd + 1, lengthEnd + 1 + length);
+            pos = lengthEnd + 1 + length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cluster;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.core.Is.is;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import javax.jms.BytesMessage;
+import javax.jms.Message;
+import javax.jms.ObjectMessage;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.event.CatalogEvent;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.cluster.configuration.BatchConfiguration;
+import org.geoserver.cluster.configuration.JMSConfiguration;
+import org.geoserver.cluster.impl.handlers.catalog.JMSCatalogModifyEventHandlerSPI;
+import org.geoserver.cluster.message.JMSCompressedMessageCreator;
+import org.geoserver.cluster.message.JMSEventBatch;
+import org.geoserver.data.test.MockData;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.test.GeoServerSystemTestSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests related with the batching and compression of the published events. */
+public final class JmsBatchingTest extends GeoServerSystemTestSupport {
+
+    private static final String CATALOG_MODIFY_EVENT_HANDLER_KEY =
+            "JMSCatalogModifyEventHandlerSPI";
+
+    private static JMSEventHandler<String, CatalogEvent> modifyEventHandler;
+
+    @Override
+    protected void setUpSpring(List<String> springContextLocations) {
+        super.setUpSpring(springContextLocations);
+        // adding our test spring context
+        springContextLocations.add("classpath:TestContext.xml");
+    }
+
+    @Before
+    public void beforeTest() {
+        // initiate the catalog modify event handler
+        modifyEventHandler =
+                GeoServerExtensions.bean(JMSCatalogModifyEventHandlerSPI.class).createHandler();
+        JmsEventsListener.clear();
+    }
+
+    @After
+    public void afterTest() throws Exception {
+        // restore the default configuration
+        setConfiguration(
+                BatchConfiguration.DEFAULT_BATCH_WINDOW,
+                BatchConfiguration.DEFAULT_COMPRESSION_THRESHOLD);
+        // restore the modified titles
+        setTitle(MockData.ROAD_SEGMENTS.getLocalPart(), "RoadSegments");
+        setTitle(MockData.BRIDGES.getLocalPart(), "Bridges");
+        GeoServerExtensions.bean(JMSPublisher.class).flush();
+        // clear all pending events
+        JmsEventsListener.clear();
+    }
+
+    @Test
+    public void testBatchCollapsesModifications() throws Exception {
+        setConfiguration(500L, BatchConfiguration.DEFAULT_COMPRESSION_THRESHOLD);
+        // two modifications of the same object and one of another object
+        setTitle(MockData.ROAD_SEGMENTS.getLocalPart(), "first");
+        setTitle(MockData.ROAD_SEGMENTS.getLocalPart(), "second");
+        setTitle(MockData.BRIDGES.getLocalPart(), "third");
+        // wait for the batch
+        List<Message> messages =
+                JmsEventsListener.getMessagesByHandlerKey(
+                        5000, (selected) -> selected.size() >= 1, JMSEventBatch.HANDLER_NAME);
+        assertThat(messages.size(), is(1));
+        assertThat(messages.get(0), instanceOf(ObjectMessage.class));
+        String encoded = ((ObjectMessage) messages.get(0)).getObject().toString();
+        List<JMSEventBatch.Entry> entries = JMSEventBatch.decode(encoded).getEntries();
+        assertThat(entries.size(), is(2));
+        // the modifications of the first layer were collapsed in a single one
+        CatalogModifyEvent roads = deserialize(entries.get(0));
+        assertThat(roads.getPropertyNames(), is(Arrays.asList("title")));
+        assertThat(roads.getOldValues().get(0), is("RoadSegments"));
+        assertThat(roads.getNewValues().get(0), is("second"));
+        CatalogModifyEvent bridges = deserialize(entries.get(1));
+        assertThat(bridges.getNewValues().get(0), is("third"));
+        assertThat(messages.get(0).getLongProperty(JMSPublisher.SEQUENCE_KEY), greaterThan(0L));
+    }
+
+    @Test
+    public void testCompressedPayload() throws Exception {
+        setConfiguration(BatchConfiguration.DEFAULT_BATCH_WINDOW, 0);
+        long sequence = GeoServerExtensions.bean(JMSPublisher.class).getSequence();
+        setTitle(MockData.ROAD_SEGMENTS.getLocalPart(), "compressed");
+        List<Message> messages =
+                JmsEventsListener.getMessagesByHandlerKey(
+                        5000, (selected) -> selected.size() >= 1, CATALOG_MODIFY_EVENT_HANDLER_KEY);
+        assertThat(messages.size(), is(1));
+        assertThat(messages.get(0), instanceOf(BytesMessage.class));
+        String payload = JMSCompressedMessageCreator.decompress((BytesMessage) messages.get(0));
+        CatalogModifyEvent event = (CatalogModifyEvent) modifyEventHandler.deserialize(payload);
+        assertThat(event.getNewValues().get(0), is("compressed"));
+        // the sequence number follows the previous messages
+        assertThat(
+                messages.get(0).getLongProperty(JMSPublisher.SEQUENCE_KEY),
+                greaterThan(sequence));
+    }
+
+    @Test
+    public void testBatchEncoding() {
+        Properties properties = new Properties();
+        properties.put("recurse", "true");
+        properties.put("multi\nline", "");
+        JMSEventBatch batch =
+                new JMSEventBatch(
+                        Arrays.asList(
+                                new JMSEventBatch.Entry("a", properties, "first\npayload"),
+                                new JMSEventBatch.Entry("b", "")));
+        List<JMSEventBatch.Entry> entries = JMSEventBatch.decode(batch.encode()).getEntries();
+        assertThat(entries.size(), is(2));
+        assertThat(entries.get(0).getHandlerName(), is("a"));
+        assertThat(entries.get(0).getProperties(), is(properties));
+        assertThat(entries.get(0).getPayload(), is("first\npayload"));
+        assertThat(entries.get(1).getHandlerName(), is("b"));
+        assertThat(entries.get(1).getProperties().isEmpty(), is(true));
+        assertThat(entries.get(1).getPayload(), is(""));
+    }
+
+    private CatalogModifyEvent deserialize(JMSEventBatch.Entry entry) throws Exception {
+        assertThat(entry.getHandlerName(), is(CATALOG_MODIFY_EVENT_HANDLER_KEY));
+        return (CatalogModifyEvent) modifyEventHandler.deserialize(entry.getPayload());
+    }
+
+    private void setConfiguration(long batchWindow, int compressionThreshold) {
+        JMSConfiguration config = GeoServerExtensions.bean(JMSConfiguration.class);
+        config.putConfiguration(BatchConfiguration.BATCH_WINDOW_KEY, String.valueOf(batchWindow));
+        config.putConfiguration(
+                BatchConfiguration.COMPRESSION_THRESHOLD_KEY, String.valueOf(compressionThreshold));
+    }
+
+    private void setTitle(String layerName, String title) {
+        Catalog catalog = getCatalog();
+        FeatureTypeInfo featureType = catalog.getFeatureTypeByName(MockData.CITE_PREFIX, layerName);
+        if (!title.equals(featureType.getTitle())) {
+            featureType.setTitle(title);
+            catalog.save(featureType);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.cluster.client;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.ObjectMessage;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.cluster.JMSManager;
+import org.geoserver.cluster.JmsEventsListener;
+import org.geoserver.cluster.message.JMSEventBatch;
+import org.geoserver.data.test.MockData;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.test.GeoServerSystemTestSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests the synchronization of the incoming batches of events. */
+public final class JMSQueueListenerTest extends GeoServerSystemTestSupport {
+
+    private static final String CATALOG_MODIFY_EVENT_HANDLER_KEY =
+            "JMSCatalogModifyEventHandlerSPI";
+
+    @Override
+    protected void setUpSpring(List<String> springContextLocations) {
+        super.setUpSpring(springContextLocations);
+        // adding our test spring context
+        springContextLocations.add("classpath:TestContext.xml");
+    }
+
+    @Before
+    public void beforeTest() {
+        JmsEventsListener.clear();
+    }
+
+    @After
+    public void afterTest() {
+        setTitle("RoadSegments");
+        JmsEventsListener.clear();
+    }
+
+    @Test
+    public void testBatchContinuesAfterFailure() throws Exception {
+        // grab a serialized modification of the layer title
+        setTitle("published");
+        List<Message> messages =
+                JmsEventsListener.getMessagesByHandlerKey(
+                        5000, (selected) -> selected.size() >= 1, CATALOG_MODIFY_EVENT_HANDLER_KEY);
+        assertThat(messages.size(), is(1));
+        String payload = ((ObjectMessage) messages.get(0)).getObject().toString();
+        setTitle("local");
+
+        // the first event cannot be synchronized, the second one still is
+        JMSEventBatch batch =
+                new JMSEventBatch(
+                        Arrays.asList(
+                                new JMSEventBatch.Entry("MissingHandlerSPI", "missing"),
+                                new JMSEventBatch.Entry(
+                                        CATALOG_MODIFY_EVENT_HANDLER_KEY, payload)));
+        JMSQueueListener listener =
+                new JMSQueueListener(GeoServerExtensions.bean(JMSManager.class));
+        try {
+            listener.synchronizeBatch(batch, new Properties());
+            fail("The failure should have been reported");
+        } catch (JMSException e) {
+            assertThat(e.getMessage(), containsString("1 of the 2 events"));
+            assertThat(e.getCause().getMessage(), containsString("MissingHandlerSPI"));
+        }
+        assertThat(getRoads().getTitle(), is("published"));
+        assertThat(listener.getConsumedEvents(), is(2L));
+    }
+
+    private FeatureTypeInfo getRoads() {
+        return getCatalog()
+                .getFeatureTypeByName(MockData.CITE_PREFIX, MockData.ROAD_SEGMENTS.getLocalPart());
+    }
+
+    private void setTitle(String title) {
+        Catalog catalog = getCatalog();
+        FeatureTypeInfo featureType = getRoads();
+        if (!title.equals(featureType.getTitle())) {
+            featureType.setTitle(title);
+            catalog.save(featureType);
+        }
+    }
+}
@@ -8,6 +8,7 @@
 import com.google.common.collect.Sets;
 import java.io.File;
 import java.io.IOException;
+import java.sql.DriverManager;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
@@ -15,6 +16,7 @@
 import org.geoserver.gwc.GWC;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.tiles.AbstractTilesGetMapOutputFormat;
+import org.geoserver.tiles.SQLiteTileWriter;
 import org.geoserver.wms.GetMapRequest;
 import org.geoserver.wms.MapLayerInfo;
 import org.geoserver.wms.WMS;
@@ -53,11 +55,18 @@ private static class MbTilesFileWrapper implements TilesFile {
 
         MBTilesFile mbTiles;
 
+        SQLiteTileWriter writer;
+
+        /** True if the file was created by the wrapper, and is closed along with it */
+        boolean ownFile;
+
         public MbTilesFileWrapper() throws IOException {
             mbTiles = new MBTilesFile();
+            ownFile = true;
             mbTiles.init();
         }
 
+        /** Wraps a file owned by the caller, {@link #close()} leaves it open */
         public MbTilesFileWrapper(MBTilesFile file) throws IOException {
             mbTiles = file;
         }
@@ -108,9 +117,31 @@ public void setMetadata(
 
         @Override
         public void addTile(int zoom, int x, int y, byte[] data) throws IOException {
-            MBTilesTile tile = new MBTilesTile(zoom, x, y);
-            tile.setData(data);
-            mbTiles.saveTile(tile);
+            File file = mbTiles.getFile();
+            if (file == null) {
+                // not file based, cannot open a separate connection for batch inserts
+                MBTilesTile tile = new MBTilesTile(zoom, x, y);
+                tile.setData(data);
+                mbTiles.saveTile(tile);
+                return;
+            }
+            if (writer == null) {
+                String url = "jdbc:sqlite:" + file.getAbsolutePath();
+                writer =
+                        new SQLiteTileWriter(
+                                () -> DriverManager.getConnection(url),
+                                "INSERT OR REPLACE INTO tiles"
+                                        + " (zoom_level, tile_column, tile_row, tile_data)"
+                                        + " VALUES (?, ?, ?, ?)");
+            }
+            writer.add(zoom, x, y, data);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (writer != null) {
+                writer.finish();
+            }
         }
 
         @Override
@@ -120,7 +151,12 @@ public File getFile() {
 
         @Override
         public void close() {
-            mbTiles.close();
+            if (writer != null) {
+                writer.close();
+            }
+            if (ownFile) {
+                mbTiles.close();
+            }
         }
     }
 
@@ -169,6 +205,11 @@ protected String getSRS(GetMapRequest req) {
     public void addTiles(
             MBTilesFile mbtiles, GetMapRequest req, String name, ProgressListener listener)
             throws IOException {
-        addTiles(new MbTilesFileWrapper(mbtiles), req, name, listener);
+        MbTilesFileWrapper tiles = new MbTilesFileWrapper(mbtiles);
+        try {
+            addTiles(tiles, req, name, listener);
+        } finally {
+            tiles.close();
+        }
     }
 }
@@ -9,6 +9,7 @@
 import static org.geoserver.data.test.MockData.WORLD;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
@@ -18,6 +19,10 @@
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import javax.xml.namespace.QName;
 import org.apache.commons.io.FileUtils;
 import org.geoserver.config.GeoServer;
@@ -144,6 +149,32 @@ public void testTileEntriesWithAddTiles() throws Exception {
         FileUtils.deleteQuietly(f);
     }
 
+    @Test
+    public void testBatchedTiles() throws Exception {
+        WMSMapContent mapContent = createMapContent(WORLD);
+        mapContent.getRequest().setBbox(new Envelope(-170, 170, -80, 80));
+        mapContent.getRequest().getFormatOptions().put("min_zoom", "0");
+        mapContent.getRequest().getFormatOptions().put("max_zoom", "3");
+
+        MBTilesFile mbtiles = createMbTilesFiles(format.produceMap(mapContent));
+        File file = mbtiles.getFile();
+        try {
+            // all the tiles of the three zoom levels
+            assertEquals(1 + 4 + 16, mbtiles.numberOfTiles());
+        } finally {
+            mbtiles.close();
+        }
+        // written in WAL mode, the file is switched back to the default journal mode
+        assertFalse(new File(file.getPath() + "-wal").exists());
+        try (Connection cx = DriverManager.getConnection("jdbc:sqlite:" + file.getPath());
+                Statement st = cx.createStatement();
+                ResultSet rs = st.executeQuery("PRAGMA journal_mode")) {
+            assertTrue(rs.next());
+            assertEquals("delete", rs.getString(1).toLowerCase());
+        }
+        FileUtils.deleteQuietly(file);
+    }
+
     @Test
     public void testDifferentBbox() throws NoSuchAuthorityCodeException, FactoryException {
         // Instantiate a request
@@ -14,6 +14,7 @@
 import org.geoserver.ogcapi.v1.images.ImageListener;
 import org.geoserver.ogcapi.v1.images.ImagesService;
 import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.util.logging.Logging;
 import org.geowebcache.GeoWebCacheException;
@@ -35,11 +36,17 @@ public class ChangesetImageListener implements ImageListener {
 
     private final GWC gwc;
     private final ChangesetIndexProvider indexProvider;
+    private final ChangesetTileIndex tileIndex;
     private final Catalog catalog;
 
-    public ChangesetImageListener(Catalog catalog, ChangesetIndexProvider indexProvider, GWC gwc)
+    public ChangesetImageListener(
+            Catalog catalog,
+            ChangesetIndexProvider indexProvider,
+            ChangesetTileIndex tileIndex,
+            GWC gwc)
             throws IOException {
         this.indexProvider = indexProvider;
+        this.tileIndex = tileIndex;
         this.gwc = gwc;
         this.catalog = catalog;
     }
@@ -47,8 +54,9 @@ public ChangesetImageListener(Catalog catalog, ChangesetIndexProvider indexProvi
     @Override
     public void imageAdded(CoverageInfo ci, SimpleFeature feature) {
         try {
-            indexProvider.addCheckpoint(ci, feature);
+            SimpleFeature checkpoint = indexProvider.addCheckpoint(ci, feature);
             truncateTilesForCoverage(ci, feature);
+            indexTilesForCoverage(ci, checkpoint);
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Failure while trying to record a image added checkpoint", e);
         }
@@ -57,14 +65,29 @@ public void imageAdded(CoverageInfo ci, SimpleFeature feature) {
     @Override
     public void imageRemoved(CoverageInfo ci, SimpleFeature feature) {
         try {
-            indexProvider.addCheckpoint(ci, feature);
+            SimpleFeature checkpoint = indexProvider.addCheckpoint(ci, feature);
             truncateTilesForCoverage(ci, feature);
+            indexTilesForCoverage(ci, checkpoint);
         } catch (IOException e) {
             LOGGER.log(
                     Level.SEVERE, "Failure while trying to record a image removed checkpoint", e);
         }
     }
 
+    /** Pre-computes the tiles affected by the checkpoint, in all the tile matrix sets in use */
+    private void indexTilesForCoverage(CoverageInfo ci, SimpleFeature checkpoint) {
+        CoordinateReferenceSystem footprintCRS =
+                checkpoint.getFeatureType().getCoordinateReferenceSystem();
+        catalog.getLayers(ci).stream()
+                .map(l -> gwc.getTileLayer(l))
+                .filter(tl -> tl != null)
+                .flatMap(tl -> tl.getGridSubsets().stream().map(tl::getGridSubset))
+                .filter(gs -> gs != null)
+                .map(gs -> gs.getGridSet())
+                .distinct()
+                .forEach(gs -> tileIndex.index(ci, gs, checkpoint, footprintCRS));
+    }
+
     /** Truncates all the GWC tiles involved in this change */
     private void truncateTilesForCoverage(CoverageInfo ci, SimpleFeature feature) {
         catalog.getLayers(ci).stream()
@@ -120,7 +120,8 @@ SimpleFeatureStore getStoreForCoverage(CoverageInfo ci, boolean createIfMissing)
         return (SimpleFeatureStore) checkpointIndex.getFeatureSource(typeName);
     }
 
-    void addCheckpoint(CoverageInfo ci, SimpleFeature feature) throws IOException {
+    /** Records a new checkpoint for the given coverage, and returns the checkpoint feature */
+    SimpleFeature addCheckpoint(CoverageInfo ci, SimpleFeature feature) throws IOException {
         SimpleFeatureStore store = getStoreForCoverage(ci, true);
         SimpleFeatureBuilder fb = new SimpleFeatureBuilder(store.getSchema());
         String checkpoint = UUID.randomUUID().toString();
@@ -129,6 +130,7 @@ void addCheckpoint(CoverageInfo ci, SimpleFeature feature) throws IOException {
         fb.set(FOOTPRINT, getFootprint(feature));
         SimpleFeature checkPointFeature = fb.buildFeature(null);
         store.addFeatures(DataUtilities.collection(checkPointFeature));
+        return checkPointFeature;
     }
 
     private Geometry getFootprint(SimpleFeature feature) {
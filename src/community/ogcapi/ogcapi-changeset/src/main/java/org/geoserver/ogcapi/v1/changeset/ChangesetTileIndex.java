@@ -0,0 +1,243 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.ogcapi.v1.changeset;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogException;
+import org.geoserver.catalog.CoverageInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.config.GeoServerDataDirectory;
+import org.geoserver.ogcapi.APIException;
+import org.geoserver.platform.resource.Resource;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.api.referencing.operation.TransformException;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.geotools.util.logging.Logging;
+import org.geowebcache.grid.BoundingBox;
+import org.geowebcache.grid.GridSet;
+import org.geowebcache.grid.GridSubset;
+import org.geowebcache.grid.GridSubsetFactory;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps, for each checkpoint and tile matrix set, the tiles affected by the checkpoint footprint,
+ * at all zoom levels. Checkpoints never change once recorded, so the tile ranges are computed once,
+ * stored in the data directory (under {@code changeset/tiles/<coverageId>/<gridSet>}) and kept in
+ * memory for the most recently used checkpoints, making changed tiles listings a matter of merging
+ * the ranges of the checkpoints involved, rather than recomputing them from the footprints at each
+ * request.
+ */
+@Component
+public class ChangesetTileIndex {
+
+    private static final Logger LOGGER = Logging.getLogger(ChangesetTileIndex.class);
+
+    static final String TILES_PATH = "changeset/tiles";
+
+    static final String EXTENSION = ".tiles";
+
+    /** Format version of the tile range files */
+    static final int VERSION = 1;
+
+    private final GeoServerDataDirectory dd;
+
+    private final Cache<String, TileRanges> cache =
+            CacheBuilder.newBuilder().maximumSize(10000).build();
+
+    public ChangesetTileIndex(GeoServerDataDirectory dd, Catalog catalog) {
+        this.dd = dd;
+        catalog.addListener(new TileIndexCatalogListener());
+    }
+
+    /**
+     * Returns the union of the tiles affected by the given checkpoints
+     *
+     * @param ci The coverage the checkpoints refer to
+     * @param gridSet The tile matrix set
+     * @param checkpoints The checkpoints, as returned by {@link
+     *     ChangesetIndexProvider#getModifiedAreas}
+     */
+    TileRanges getTileRanges(CoverageInfo ci, GridSet gridSet, SimpleFeatureCollection checkpoints)
+            throws IOException {
+        CoordinateReferenceSystem footprintCRS =
+                checkpoints.getSchema().getCoordinateReferenceSystem();
+        List<TileRanges> ranges = new ArrayList<>();
+        try (SimpleFeatureIterator fi = checkpoints.features()) {
+            while (fi.hasNext()) {
+                ranges.add(getTileRanges(ci, gridSet, fi.next(), footprintCRS));
+            }
+        }
+        return TileRanges.union(ranges);
+    }
+
+    /** Returns the tiles affected by a single checkpoint, computing them if not available yet */
+    TileRanges getTileRanges(
+            CoverageInfo ci,
+            GridSet gridSet,
+            SimpleFeature checkpoint,
+            CoordinateReferenceSystem footprintCRS)
+            throws IOException {
+        String checkpointId = (String) checkpoint.getAttribute(ChangesetIndexProvider.CHECKPOINT);
+        String path = getPath(ci, gridSet, checkpointId);
+        TileRanges ranges = cache.getIfPresent(path);
+        if (ranges == null) {
+            Resource resource = dd.get(path);
+            String fingerprint = getFingerprint(gridSet);
+            ranges = read(resource, fingerprint);
+            if (ranges == null) {
+                Geometry footprint = (Geometry) checkpoint.getDefaultGeometry();
+                ranges = computeTileRanges(gridSet, footprint, footprintCRS);
+                write(resource, fingerprint, ranges);
+            }
+            cache.put(path, ranges);
+        }
+        return ranges;
+    }
+
+    /** Computes and stores the tile ranges of a newly added checkpoint */
+    void index(
+            CoverageInfo ci,
+            GridSet gridSet,
+            SimpleFeature checkpoint,
+            CoordinateReferenceSystem footprintCRS) {
+        try {
+            getTileRanges(ci, gridSet, checkpoint, footprintCRS);
+        } catch (Exception e) {
+            // will be computed on demand
+            LOGGER.log(Level.WARNING, "Failed to index tiles for checkpoint " + checkpoint, e);
+        }
+    }
+
+    private TileRanges computeTileRanges(
+            GridSet gridSet, Geometry footprint, CoordinateReferenceSystem footprintCRS) {
+        try {
+            CoordinateReferenceSystem gridSetCRS =
+                    CRS.decode("EPSG:" + gridSet.getSrs().getNumber(), true);
+            ReferencedEnvelope bounds =
+                    new ReferencedEnvelope(footprint.getEnvelopeInternal(), footprintCRS)
+                            .transform(gridSetCRS, true);
+            BoundingBox bbox =
+                    new BoundingBox(
+                            bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+            int maxZoom = gridSet.getNumLevels() - 1;
+            GridSubset subset = GridSubsetFactory.createGridSubSet(gridSet, bbox, 0, maxZoom);
+            return TileRanges.fromGridSubsets(List.of(subset), maxZoom);
+        } catch (FactoryException | TransformException e) {
+            throw new APIException(
+                    "InternalError",
+                    "Failed to compute modified tiles sets",
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    e);
+        }
+    }
+
+    private TileRanges read(Resource resource, String fingerprint) {
+        if (resource.getType() != Resource.Type.RESOURCE) {
+            return null;
+        }
+        try (InputStream is = resource.in();
+                DataInputStream in = new DataInputStream(new GZIPInputStream(is))) {
+            if (in.readInt() != VERSION || !fingerprint.equals(in.readUTF())) {
+                // tile matrix set got modified, the index is stale
+                return null;
+            }
+            return TileRanges.read(in);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not read tile index " + resource.path(), e);
+            return null;
+        }
+    }
+
+    private void write(Resource resource, String fingerprint, TileRanges ranges) {
+        try (OutputStream os = resource.out();
+                DataOutputStream out = new DataOutputStream(new GZIPOutputStream(os))) {
+            out.writeInt(VERSION);
+            out.writeUTF(fingerprint);
+            ranges.write(out);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not write tile index " + resource.path(), e);
+        }
+    }
+
+    static String getPath(CoverageInfo ci, GridSet gridSet, String checkpoint) {
+        return TILES_PATH
+                + "/"
+                + ci.getId()
+                + "/"
+                + gridSet.getName().replaceAll("[^\\w.-]", "_")
+                + "/"
+                + checkpoint
+                + EXTENSION;
+    }
+
+    /** Summarizes the gridset structure, to detect changes in its definition */
+    static String getFingerprint(GridSet gridSet) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(gridSet.getSrs().getNumber())
+                .append(';')
+                .append(gridSet.getTileWidth())
+                .append('x')
+                .append(gridSet.getTileHeight())
+                .append(';')
+                .append(gridSet.isTopLeftAligned())
+                .append(';')
+                .append(gridSet.getOriginalExtent());
+        for (int z = 0; z < gridSet.getNumLevels(); z++) {
+            sb.append(';').append(gridSet.getGrid(z).getResolution());
+        }
+        return Integer.toHexString(sb.toString().hashCode());
+    }
+
+    /** Drops the tile indexes when a coverage is removed */
+    private class TileIndexCatalogListener implements CatalogListener {
+        @Override
+        public void handleAddEvent(CatalogAddEvent event) throws CatalogException {}
+
+        @Override
+        public void handleRemoveEvent(CatalogRemoveEvent event) throws CatalogException {
+            if (event.getSource() instanceof CoverageInfo) {
+                String path = TILES_PATH + "/" + event.getSource().getId();
+                cache.asMap().keySet().removeIf(k -> k.startsWith(path + "/"));
+                Resource resource = dd.get(path);
+                if (resource.getType() != Resource.Type.UNDEFINED && !resource.delete()) {
+                    LOGGER.log(Level.WARNING, "Could not remove tile index at " + resource.path());
+                }
+            }
+        }
+
+        @Override
+        public void handleModifyEvent(CatalogModifyEvent event) throws CatalogException {}
+
+        @Override
+        public void handlePostModifyEvent(CatalogPostModifyEvent event) throws CatalogException {}
+
+        @Override
+        public void reloaded() {}
+    }
+}
@@ -61,6 +61,7 @@ public class ChangesetTilesService {
     public static final String ZIP_MIME = "application/x-zip-compressed";
     public static final String GET_RENDERED_COLLECTION_TILES = "getRenderedCollectionTiles";
     private final ChangesetIndexProvider indexProvider;
+    private final ChangesetTileIndex tileIndex;
     private final Catalog catalog;
     private final GWC gwc;
 
@@ -92,9 +93,14 @@ public static ChangeSetType fromName(String changeSetType) {
         }
     }
 
-    public ChangesetTilesService(GWC gwc, ChangesetIndexProvider indexProvider, Catalog catalog) {
+    public ChangesetTilesService(
+            GWC gwc,
+            ChangesetIndexProvider indexProvider,
+            ChangesetTileIndex tileIndex,
+            Catalog catalog) {
         this.gwc = gwc;
         this.indexProvider = indexProvider;
+        this.tileIndex = tileIndex;
         this.catalog = catalog;
     }
 
@@ -189,14 +195,22 @@ public Object getMultiTiles(
             }
         }
 
-        ModifiedTiles modifiedTiles =
-                new ModifiedTiles(
-                        ci,
-                        tileLayer,
-                        tileLayer.getGridSubset(tileMatrixSetId),
-                        areas,
-                        APIBBoxParser.parse(bboxSpec),
-                        scaleRange);
+        ModifiedTiles modifiedTiles;
+        GridSubset gridSubset = tileLayer.getGridSubset(tileMatrixSetId);
+        if (bboxSpec == null) {
+            // whole layer sync, the common case, merge the pre-computed checkpoint tile ranges
+            TileRanges ranges = tileIndex.getTileRanges(ci, gridSubset.getGridSet(), areas);
+            modifiedTiles = new ModifiedTiles(tileLayer, gridSubset, ranges, scaleRange);
+        } else {
+            modifiedTiles =
+                    new ModifiedTiles(
+                            ci,
+                            tileLayer,
+                            gridSubset,
+                            areas,
+                            APIBBoxParser.parse(bboxSpec),
+                            scaleRange);
+        }
         ChangeSet changeSet =
                 new ChangeSet(
                         checkpoint,
@@ -42,7 +42,7 @@ public class ModifiedTiles {
     private final int zoomStart;
     private final int zoomEnd;
     private final GridSubset gridSubset;
-    private final List<GridSubset> subsets = new ArrayList<>();
+    private final TileRanges ranges;
 
     public ModifiedTiles(
             CoverageInfo coverageInfo,
@@ -59,23 +59,47 @@ public ModifiedTiles(
                 CRS.decode("EPSG:" + gridSet.getSRS().getNumber(), true);
         List<ReferencedEnvelope> bboxesInGridsetCrs = transformBounds(boundingBoxes, gridsetCrs);
 
-        this.zoomStart =
-                scaleDenominatorRange == null
-                        ? 0
-                        : getMinZoom(gridSet, scaleDenominatorRange.getMaximum());
-        this.zoomEnd =
-                scaleDenominatorRange == null
-                        ? gridSet.getZoomStop()
-                        : getMaxZoom(gridSet, scaleDenominatorRange.getMinimum());
+        this.zoomStart = getZoomStart(gridSet, scaleDenominatorRange);
+        this.zoomEnd = getZoomEnd(gridSet, scaleDenominatorRange);
 
-        fillGridSubsets(gridSet, changes, gridsetCrs, bboxesInGridsetCrs);
+        List<GridSubset> subsets = new ArrayList<>();
+        fillGridSubsets(gridSet, changes, gridsetCrs, bboxesInGridsetCrs, subsets);
+        this.ranges = TileRanges.fromGridSubsets(subsets, zoomEnd);
+    }
+
+    /**
+     * Builds the modified tiles out of pre-computed tile ranges, see {@link ChangesetTileIndex}
+     */
+    ModifiedTiles(
+            TileLayer tileLayer,
+            GridSubset gridSet,
+            TileRanges ranges,
+            NumberRange<Double> scaleDenominatorRange) {
+        this.tileLayer = tileLayer;
+        this.gridSubset = gridSet;
+        this.ranges = ranges;
+        this.zoomStart = getZoomStart(gridSet, scaleDenominatorRange);
+        this.zoomEnd = getZoomEnd(gridSet, scaleDenominatorRange);
+    }
+
+    private int getZoomStart(GridSubset gridSet, NumberRange<Double> scaleDenominatorRange) {
+        return scaleDenominatorRange == null
+                ? 0
+                : getMinZoom(gridSet, scaleDenominatorRange.getMaximum());
+    }
+
+    private int getZoomEnd(GridSubset gridSet, NumberRange<Double> scaleDenominatorRange) {
+        return scaleDenominatorRange == null
+                ? gridSet.getZoomStop()
+                : getMaxZoom(gridSet, scaleDenominatorRange.getMinimum());
     }
 
     private void fillGridSubsets(
             GridSubset gridSubset,
             SimpleFeatureCollection changes,
             CoordinateReferenceSystem gridsetCrs,
-            List<ReferencedEnvelope> bboxesInGridsetCrs)
+            List<ReferencedEnvelope> bboxesInGridsetCrs,
+            List<GridSubset> subsets)
             throws FactoryException, IOException {
         CoordinateReferenceSystem geometryCRS = changes.getSchema().getCoordinateReferenceSystem();
         MathTransform changesToGridset = CRS.findMathTransform(geometryCRS, gridsetCrs);
@@ -186,22 +210,12 @@ private GridSubset toGridSubset(
      * positions are [x, y, z] with coordinates in the GWC internal order
      */
     public Iterator<long[]> getTiles() {
-        return new TileIterator(subsets, zoomStart, zoomEnd);
+        return ranges.iterator(zoomStart, zoomEnd);
     }
 
     /** Returns the number of tiles modified by the list of changes */
     public long getModifiedTiles() {
-        // dump implementation, just count while iterating, surely possible
-        // to compute it faster by just counting the tiles in each subset, but
-        // one would have to account for overlaps. Not trivial, doing the dumb thing now
-        Iterator<long[]> tiles = getTiles();
-        long count = 0;
-        while (tiles.hasNext()) {
-            tiles.next();
-            count++;
-        }
-
-        return count;
+        return ranges.count(zoomStart, zoomEnd);
     }
 
     public TileLayer getTileLayer() {
@@ -0,0 +1,296 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.ogcapi.v1.changeset;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.geowebcache.grid.GridSubset;
+
+/**
+ * A set of tiles, organized by zoom level, and described as a list of tile rectangles for each
+ * level. Rectangles can overlap, but counting and iteration consider each tile only once: before
+ * use, the rectangles of each level are normalized in a run length encoded form, a list of row
+ * bands, each one having a set of disjoint column intervals.
+ *
+ * <p>Rectangles are stored as {@code [minX, minY, maxX, maxY]} in the GWC internal tile order.
+ */
+class TileRanges {
+
+    /** The rectangles of each zoom level, packed four values at a time */
+    private final long[][] rectangles;
+
+    TileRanges(long[][] rectangles) {
+        this.rectangles = rectangles;
+    }
+
+    /** Builds the tile ranges covered by the given grid subsets, up to the given zoom level */
+    static TileRanges fromGridSubsets(List<GridSubset> subsets, int maxZoom) {
+        long[][] rectangles = new long[maxZoom + 1][];
+        for (int z = 0; z <= maxZoom; z++) {
+            LongList rects = new LongList();
+            for (GridSubset subset : subsets) {
+                if (z < subset.getZoomStart() || z > subset.getZoomStop()) {
+                    continue;
+                }
+                long[] coverage = subset.getCoverage(z);
+                rects.add(coverage[0], coverage[1], coverage[2], coverage[3]);
+            }
+            rectangles[z] = rects.toArray();
+        }
+        return new TileRanges(rectangles);
+    }
+
+    /** Returns the union of the given tile ranges */
+    static TileRanges union(Collection<TileRanges> ranges) {
+        int levels = ranges.stream().mapToInt(r -> r.rectangles.length).max().orElse(0);
+        long[][] rectangles = new long[levels][];
+        for (int z = 0; z < levels; z++) {
+            LongList rects = new LongList();
+            for (TileRanges range : ranges) {
+                if (z < range.rectangles.length) {
+                    rects.addAll(range.rectangles[z]);
+                }
+            }
+            rectangles[z] = rects.toArray();
+        }
+        return new TileRanges(rectangles);
+    }
+
+    /** Number of zoom levels described, the last one being {@code getLevels() - 1} */
+    int getLevels() {
+        return rectangles.length;
+    }
+
+    /** Counts the distinct tiles in the given zoom level range */
+    long count(int zoomStart, int zoomEnd) {
+        long count = 0;
+        for (int z = Math.max(0, zoomStart); z <= Math.min(zoomEnd, rectangles.length - 1); z++) {
+            for (Band band : getBands(z)) {
+                count += band.count();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Iterates over the distinct tiles in the given zoom level range, without materializing them,
+     * as [x, y, z] positions. The returned array is reused, callers should copy it if needed.
+     */
+    Iterator<long[]> iterator(int zoomStart, int zoomEnd) {
+        return new RangesIterator(Math.max(0, zoomStart), Math.min(zoomEnd, rectangles.length - 1));
+    }
+
+    /** Normalizes the rectangles of a level into a list of bands with disjoint column intervals */
+    List<Band> getBands(int z) {
+        long[] rects = rectangles[z];
+        int count = rects.length / 4;
+        List<Band> bands = new ArrayList<>();
+        if (count == 0) {
+            return bands;
+        }
+
+        // the rows at which the set of active rectangles changes
+        long[] boundaries = new long[count * 2];
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            boundaries[i * 2] = rects[i * 4 + 1];
+            boundaries[i * 2 + 1] = rects[i * 4 + 3] + 1;
+            order[i] = i;
+        }
+        Arrays.sort(boundaries);
+        Arrays.sort(order, Comparator.comparingLong(i -> rects[i * 4 + 1]));
+
+        List<Integer> active = new ArrayList<>();
+        int next = 0;
+        for (int b = 0; b < boundaries.length - 1; b++) {
+            long minY = boundaries[b];
+            long maxY = boundaries[b + 1] - 1;
+            if (maxY < minY) {
+                continue; // duplicate boundary
+            }
+            active.removeIf(i -> rects[i * 4 + 3] < minY);
+            while (next < count && rects[order[next] * 4 + 1] <= minY) {
+                active.add(order[next++]);
+            }
+            if (active.isEmpty()) {
+                continue;
+            }
+
+            long[] intervals = mergeIntervals(rects, active);
+            Band last = bands.isEmpty() ? null : bands.get(bands.size() - 1);
+            if (last != null
+                    && last.maxY + 1 == minY
+                    && Arrays.equals(last.intervals, intervals)) {
+                last.maxY = maxY;
+            } else {
+                bands.add(new Band(minY, maxY, intervals));
+            }
+        }
+        return bands;
+    }
+
+    private static long[] mergeIntervals(long[] rects, List<Integer> active) {
+        long[][] intervals = new long[active.size()][];
+        for (int i = 0; i < intervals.length; i++) {
+            int r = active.get(i);
+            intervals[i] = new long[] {rects[r * 4], rects[r * 4 + 2]};
+        }
+        Arrays.sort(intervals, Comparator.comparingLong(i -> i[0]));
+        LongList merged = new LongList();
+        long minX = intervals[0][0];
+        long maxX = intervals[0][1];
+        for (int i = 1; i < intervals.length; i++) {
+            if (intervals[i][0] <= maxX + 1) {
+                maxX = Math.max(maxX, intervals[i][1]);
+            } else {
+                merged.add(minX, maxX);
+                minX = intervals[i][0];
+                maxX = intervals[i][1];
+            }
+        }
+        merged.add(minX, maxX);
+        return merged.toArray();
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(rectangles.length);
+        for (long[] level : rectangles) {
+            out.writeInt(level.length);
+            for (long value : level) {
+                out.writeLong(value);
+            }
+        }
+    }
+
+    static TileRanges read(DataInputStream in) throws IOException {
+        long[][] rectangles = new long[in.readInt()][];
+        for (int z = 0; z < rectangles.length; z++) {
+            long[] level = new long[in.readInt()];
+            for (int i = 0; i < level.length; i++) {
+                level[i] = in.readLong();
+            }
+            rectangles[z] = level;
+        }
+        return new TileRanges(rectangles);
+    }
+
+    /** A set of contiguous rows sharing the same column intervals */
+    static class Band {
+        final long minY;
+        long maxY;
+        /** Disjoint, sorted, column intervals packed as [minX, maxX] pairs */
+        final long[] intervals;
+
+        Band(long minY, long maxY, long[] intervals) {
+            this.minY = minY;
+            this.maxY = maxY;
+            this.intervals = intervals;
+        }
+
+        long count() {
+            long columns = 0;
+            for (int i = 0; i < intervals.length; i += 2) {
+                columns += intervals[i + 1] - intervals[i] + 1;
+            }
+            return columns * (maxY - minY + 1);
+        }
+    }
+
+    /** Walks the bands of each level, row by row, column interval by column interval */
+    private class RangesIterator implements Iterator<long[]> {
+        private final int zoomEnd;
+        private final long[] position = new long[3];
+        private int z;
+        private Iterator<Band> bands;
+        private Band band;
+        private long y;
+        private int interval;
+        private long x;
+        private boolean hasNext;
+
+        RangesIterator(int zoomStart, int zoomEnd) {
+            this.zoomEnd = zoomEnd;
+            this.z = zoomStart - 1;
+            this.bands = Collections.emptyIterator();
+            this.hasNext = advanceBand();
+        }
+
+        /** Moves to the first tile of the next non empty band, possibly in the next levels */
+        private boolean advanceBand() {
+            while (!bands.hasNext()) {
+                z++;
+                if (z > zoomEnd) {
+                    return false;
+                }
+                bands = getBands(z).iterator();
+            }
+            band = bands.next();
+            y = band.minY;
+            interval = 0;
+            x = band.intervals[0];
+            return true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public long[] next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            position[0] = x;
+            position[1] = y;
+            position[2] = z;
+
+            if (x < band.intervals[interval + 1]) {
+                x++;
+            } else if (interval + 2 < band.intervals.length) {
+                interval += 2;
+                x = band.intervals[interval];
+            } else if (y < band.maxY) {
+                y++;
+                interval = 0;
+                x = band.intervals[0];
+            } else {
+                hasNext = advanceBand();
+            }
+            return position;
+        }
+    }
+
+    /** Minimal growable list of primitive longs */
+    private static class LongList {
+        private long[] data = new long[16];
+        private int size;
+
+        void add(long... values) {
+            addAll(values);
+        }
+
+        void addAll(long[] values) {
+            if (size + values.length > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + values.length));
+            }
+            System.arraycopy(values, 0, data, size, values.length);
+            size += values.length;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
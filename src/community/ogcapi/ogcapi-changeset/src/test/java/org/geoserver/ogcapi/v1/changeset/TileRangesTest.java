@@ -0,0 +1,105 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.ogcapi.v1.changeset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import org.geowebcache.config.DefaultGridsets;
+import org.geowebcache.grid.BoundingBox;
+import org.geowebcache.grid.GridSet;
+import org.geowebcache.grid.GridSubset;
+import org.geowebcache.grid.GridSubsetFactory;
+import org.junit.Test;
+
+public class TileRangesTest {
+
+    static GridSet WGS84 = new DefaultGridsets(false, false).worldEpsg4326();
+
+    @Test
+    public void testOverlappingRectangles() {
+        // two overlapping rectangles, and a disjoint one on the same rows
+        TileRanges ranges = new TileRanges(new long[][] {{0, 0, 2, 2, 1, 1, 3, 3, 6, 1, 6, 2}});
+        List<long[]> tiles = collect(ranges.iterator(0, 0));
+        // 9 + 9 - 4 overlapping + 2
+        assertEquals(16, tiles.size());
+        assertEquals(16, ranges.count(0, 0));
+        Set<String> distinct = new HashSet<>();
+        tiles.forEach(t -> distinct.add(Arrays.toString(t)));
+        assertEquals(16, distinct.size());
+        // row by row, column by column
+        assertArrayEquals(new long[] {0, 0, 0}, tiles.get(0));
+        assertArrayEquals(new long[] {6, 1, 0}, tiles.get(7));
+        assertArrayEquals(new long[] {3, 3, 0}, tiles.get(15));
+    }
+
+    @Test
+    public void testUnionAndZoomRange() {
+        TileRanges r1 = new TileRanges(new long[][] {{0, 0, 0, 0}, {0, 0, 1, 1}});
+        TileRanges r2 = new TileRanges(new long[][] {{0, 0, 0, 0}, {1, 1, 2, 2}, {4, 4, 4, 4}});
+        TileRanges union = TileRanges.union(List.of(r1, r2));
+        assertEquals(3, union.getLevels());
+        assertEquals(1, union.count(0, 0));
+        assertEquals(7, union.count(1, 1));
+        assertEquals(1, union.count(2, 2));
+        assertEquals(9, union.count(0, 10));
+        assertEquals(8, collect(union.iterator(1, 5)).size());
+        assertFalse(union.iterator(3, 5).hasNext());
+    }
+
+    @Test
+    public void testSameAsGridSubsets() throws Exception {
+        GridSubset s1 =
+                GridSubsetFactory.createGridSubSet(
+                        WGS84, new BoundingBox(-10, -10, 10, 10), 0, 6);
+        GridSubset s2 =
+                GridSubsetFactory.createGridSubSet(
+                        WGS84, new BoundingBox(5, 5, 30, 20), 0, 6);
+        List<GridSubset> subsets = List.of(s1, s2);
+        TileRanges ranges = TileRanges.fromGridSubsets(subsets, 6);
+
+        // brute force, all the tiles covered by at least one subset
+        Set<String> expected = new HashSet<>();
+        for (int z = 0; z <= 6; z++) {
+            for (GridSubset subset : subsets) {
+                long[] coverage = subset.getCoverage(z);
+                for (long y = coverage[1]; y <= coverage[3]; y++) {
+                    for (long x = coverage[0]; x <= coverage[2]; x++) {
+                        expected.add(Arrays.toString(new long[] {x, y, z}));
+                    }
+                }
+            }
+        }
+        Set<String> actual = new HashSet<>();
+        ranges.iterator(0, 6).forEachRemaining(t -> actual.add(Arrays.toString(t)));
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), ranges.count(0, 6));
+
+        // round trip through the storage format
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ranges.write(new DataOutputStream(bos));
+        TileRanges read =
+                TileRanges.read(
+                        new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+        assertEquals(expected.size(), read.count(0, 6));
+    }
+
+    private List<long[]> collect(Iterator<long[]> iterator) {
+        List<long[]> result = new ArrayList<>();
+        iterator.forEachRemaining(t -> result.add(t.clone()));
+        return result;
+    }
+}
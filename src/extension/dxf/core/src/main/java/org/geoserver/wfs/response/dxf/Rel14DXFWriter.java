@@ -5,13 +5,17 @@
  */
 package org.geoserver.wfs.response.dxf;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.Writer;
+import java.nio.file.Files;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.logging.Logger;
 import org.geotools.api.feature.Property;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.type.GeometryType;
@@ -20,10 +24,8 @@
 import org.geotools.data.simple.SimpleFeatureCollection;
 import org.geotools.data.simple.SimpleFeatureIterator;
 import org.geotools.feature.FeatureCollection;
-import org.geotools.feature.FeatureIterator;
 import org.geotools.feature.type.FeatureTypeImpl;
 import org.geotools.geometry.jts.ReferencedEnvelope;
-import org.geotools.util.logging.Logging;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
@@ -38,20 +40,15 @@
  * @author Mauro Bartolomeoli, mbarto@infosia.it
  */
 public class Rel14DXFWriter extends AbstractDXFWriter {
-    private static final Logger LOGGER = Logging.getLogger(Rel14DXFWriter.class);
-
-    // cache for block names
-    Map<String, String> blockNames = null;
-
-    // cache for block handles
-    Map<String, String> blockHandles = null;
-
     // cache for block handles
     Map<String, Object> textConfig = null;
 
     // block name counter (blocks will be names "0", "1", ...
     int blockCounter = 0;
 
+    // handle of the first block record, block records get consecutive handles
+    int firstBlockRecord;
+
     // DXF version
     protected String version = "AC1014";
 
@@ -83,20 +80,95 @@ public DXFWriter newInstance(Writer writer) {
         return new Rel14DXFWriter(writer);
     }
 
-    /** Writes the DXF for the given feature list. */
+    /**
+     * Writes the DXF for the given feature list. The blocks and entities are written first to
+     * temporary files, in a single pass over the features, so that the header and tables sections
+     * depending on them can precede them in the output without keeping the features, or any
+     * information about them, in memory.
+     */
     @Override
     public void write(List<SimpleFeatureCollection> featureList, String version)
             throws IOException {
-        // DXF General Structure
-        writeHeader(featureList);
-        writeClasses(featureList);
-        writeTables(featureList);
-        writeBlocks(featureList);
-        writeEntities(featureList);
-        writeObjects(featureList);
-        writeEof();
-        blockNames.clear();
-        blockHandles.clear();
+        File blocks = File.createTempFile("dxf-blocks", ".tmp");
+        File entities = File.createTempFile("dxf-entities", ".tmp");
+        try {
+            writeFeatures(featureList, blocks, entities);
+            // DXF General Structure
+            writeHeader(featureList);
+            writeClasses(featureList);
+            writeTables(featureList);
+            writeBlocks(blocks);
+            writeEntities(entities);
+            writeObjects(featureList);
+            writeEof();
+        } finally {
+            Files.deleteIfExists(blocks.toPath());
+            Files.deleteIfExists(entities.toPath());
+        }
+    }
+
+    /** Writes the blocks and entities of the given feature list to the given files. */
+    private void writeFeatures(
+            List<SimpleFeatureCollection> featureList, File blocks, File entities)
+            throws IOException {
+        Writer out = writer;
+        firstBlockRecord = handles.get("BlockRecord");
+        try (Writer blocksWriter = Files.newBufferedWriter(blocks.toPath(), UTF_8);
+                Writer entitiesWriter = Files.newBufferedWriter(entities.toPath(), UTF_8)) {
+            for (SimpleFeatureCollection coll : featureList) {
+                writeFeatures(coll, blocksWriter, entitiesWriter);
+            }
+        } finally {
+            writer = out;
+        }
+    }
+
+    /**
+     * Writes the blocks and entities representing the given collection. Complex geometries (or
+     * all of them, if geometryAsBlock is set) are written as blocks, and inserted as entities.
+     */
+    private void writeFeatures(SimpleFeatureCollection coll, Writer blocks, Writer entities)
+            throws IOException {
+        String layer = getLayerName(coll);
+        String attributesLayer = layer + "_attributes";
+        String attributesBlock = null;
+        String attributesHandle = null;
+        if (writeAttributes) {
+            // the attribute definitions block, used by the inserts carrying the attributes
+            attributesBlock = String.valueOf(blockCounter);
+            attributesHandle = addBlock();
+            writer = blocks;
+            writeAttributeDefinitionBlock(coll, attributesLayer, attributesHandle, attributesBlock);
+        }
+        try (SimpleFeatureIterator iter = coll.features()) {
+            while (iter.hasNext()) {
+                SimpleFeature f = iter.next();
+                Geometry geom = (Geometry) f.getDefaultGeometry();
+                if (geometryAsBlock || isBlockGeometry(geom)) {
+                    String name = String.valueOf(blockCounter);
+                    String ownerHandle = addBlock();
+                    writer = blocks;
+                    writeStartBlock(getNewHandle("Block"), ownerHandle, false, "0", name);
+                    writeGeometry(layer, ownerHandle, geom);
+                    writeEndBlock(getNewHandle("Block"), ownerHandle, false, "0", name);
+                    writer = entities;
+                    writeInsert(layer, name);
+                } else {
+                    writer = entities;
+                    writeGeometry(layer, "1F", geom);
+                    if (writeAttributes) {
+                        writeInsertWithAttributes(
+                                attributesLayer, attributesHandle, attributesBlock, f);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Allocates a new block, returning the handle of its block record. */
+    private String addBlock() {
+        blockCounter++;
+        return getNewHandle("BlockRecord");
     }
 
     /** Writes the Header section. */
@@ -147,7 +219,6 @@ private void writeClass(
 
     /** Writes the tables section */
     private void writeTables(List<SimpleFeatureCollection> featureList) throws IOException {
-        LOGGER.warning("Rel14DXFWriter.writeTables");
         writeSectionStart("TABLES");
         // Tables structure
         writeViewPort(featureList);
@@ -158,77 +229,50 @@ private void writeTables(List<SimpleFeatureCollection> featureList) throws IOExc
         writeUCS();
         writeApplications();
         writeDimensionStyles();
-        writeBlockRecords(featureList);
+        writeBlockRecords();
         writeSectionEnd();
     }
 
     /** Writes the blocks section */
-    private void writeBlocks(List<SimpleFeatureCollection> featureList) throws IOException {
+    private void writeBlocks(File blocks) throws IOException {
         writeSectionStart("BLOCKS");
         // static blocks (model space and paper space)
         writeModelSpaceBlock();
         writePaperSpaceBlock();
         // blocks computed from the feature list
-        // (complex geometries)
-        writeEntityBlocks(featureList);
-        writeAttributeDefinitionBlocks(featureList);
+        // (complex geometries and attribute definitions)
+        copy(blocks);
         writeSectionEnd();
     }
 
     /** Writes the entities section */
-    private void writeEntities(List<SimpleFeatureCollection> featureList) throws IOException {
+    private void writeEntities(File entities) throws IOException {
         writeSectionStart("ENTITIES");
 
         // entities computed from the feature list
         // (simple geometries or insert of blocks)
-        for (SimpleFeatureCollection coll : featureList) writeEntity(coll);
+        copy(entities);
         writeSectionEnd();
     }
 
+    /** Copies the contents of a temporary file to the output. */
+    private void copy(File file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file.toPath(), UTF_8)) {
+            reader.transferTo(writer);
+        }
+    }
+
     /** Writes the objects section */
     private void writeObjects(List featureList) throws IOException {
         loadFromResource("objects");
     }
 
-    /** Writes entities representing the given collection. */
-    private void writeEntity(SimpleFeatureCollection coll) throws IOException {
-        String layer = getLayerName(coll);
-        if (geometryAsBlock) {
-            for (String name : blockNames.values()) writeInsert(layer, name);
-        } else {
-            // iterates through all the items
-            try (FeatureIterator<SimpleFeature> iter = coll.features()) {
-                while (iter.hasNext()) {
-                    SimpleFeature f = iter.next();
-                    String fid = f.getID();
-
-                    // if it's a block insert it, else write the geometry
-                    // directly
-                    if (blockNames.containsKey(fid)) {
-                        String name = blockNames.get(fid);
-                        writeInsert(layer, name);
-                    } else {
-                        writeGeometry(layer, "1F", (Geometry) f.getDefaultGeometry());
-                        String name = blockNames.get(coll.hashCode() + "");
-                        if (writeAttributes) {
-                            String ownerHandle = blockHandles.get(coll.hashCode() + "");
-                            String attributesLayer = layer + "_attributes";
-                            // writeInsert(layer, name);
-                            writeInsertWithAttributes(attributesLayer, ownerHandle, name, f);
-                        }
-                    }
-                }
-            }
-        }
-    }
-
     private void writeAttributes(String layer, String ownerHandle, SimpleFeature f)
             throws IOException {
         Geometry geometry = (Geometry) f.getDefaultGeometry();
         Point intPoint = geometry.getInteriorPoint();
         for (Property p : f.getProperties()) {
             Name name = p.getName();
-            LOGGER.warning("    attr: " + name.getLocalPart() + " = " + p.getValue());
             if (!(p.getValue() instanceof Geometry)) {
                 writeAttribute(layer, ownerHandle, name.getLocalPart(), p.getValue(), intPoint);
             }
@@ -294,61 +338,18 @@ private void writeInsertWithAttributes(
         writeLayer(layer);
     }
 
-    /** Writes all the given feature list associated blocks. */
-    private void writeEntityBlocks(List<SimpleFeatureCollection> featureList) throws IOException {
-        for (SimpleFeatureCollection coll : featureList) writeFeatureBlocks(coll);
-    }
-
-    /** Writes all the given feature collection associated blocks. */
-    private void writeFeatureBlocks(SimpleFeatureCollection coll) throws IOException {
-        LOGGER.warning("Rel14DXFWriter.writeFeatureBlocks");
-        String layer = getLayerName(coll);
-
-        try (SimpleFeatureIterator iter = coll.features()) {
-            while (iter.hasNext()) {
-                SimpleFeature f = iter.next();
-                String fid = f.getID();
-
-                // consider only items cached to be treated as
-                // blocks (by the previous block_record analysis)
-                if (blockNames.containsKey(fid)) {
-                    String ownerHandle = blockHandles.get(fid);
-                    String name = blockNames.get(fid);
-                    String startHandle = getNewHandle("Block");
-                    String endHandle = getNewHandle("Block");
-                    writeStartBlock(startHandle, ownerHandle, false, "0", name);
-                    writeGeometry(layer, ownerHandle, (Geometry) f.getDefaultGeometry());
-                    writeEndBlock(endHandle, ownerHandle, false, "0", name);
-                }
-            }
-        }
-    }
-
-    /** Writes all the given attribute definition blocks to be used for later INSERT entities */
-    private void writeAttributeDefinitionBlocks(List<SimpleFeatureCollection> featureList)
+    /** Writes the attribute definitions block of the given collection */
+    private void writeAttributeDefinitionBlock(
+            SimpleFeatureCollection coll, String attributesLayer, String ownerHandle, String name)
             throws IOException {
-        LOGGER.warning("Rel14DXFWriter.writeAttributeDefinitionBlocks");
-        for (SimpleFeatureCollection coll : featureList) {
-
-            // consider only items cached to be treated as
-            // blocks (by the previous block_record analysis)
-            if (blockNames.containsKey(coll.hashCode() + "")) {
-                String ownerHandle = blockHandles.get(coll.hashCode() + "");
-                String name = blockNames.get(coll.hashCode() + "");
-                String startHandle = getNewHandle("Block");
-                String endHandle = getNewHandle("Block");
-                writeStartBlock(startHandle, ownerHandle, false, "0", name);
-                String attributesLayer = getLayerName(coll) + "_attributes";
-                writeGeometryStart("POINT", attributesLayer, ownerHandle);
-                // writeGeometryStart("CIRCLE", attributesLayer, ownerHandle);
-                writeSubClass("AcDbPoint");
-                // writeSubClass("AcDbCircle");
-                writePoint(0.0, 0.0, 0.0);
-                // writeDoubleGroup(40, 1.0);
-                writeAttributeDefinitions(attributesLayer, ownerHandle, coll);
-                writeEndBlock(endHandle, ownerHandle, false, "0", name);
-            }
-        }
+        String startHandle = getNewHandle("Block");
+        String endHandle = getNewHandle("Block");
+        writeStartBlock(startHandle, ownerHandle, false, "0", name);
+        writeGeometryStart("POINT", attributesLayer, ownerHandle);
+        writeSubClass("AcDbPoint");
+        writePoint(0.0, 0.0, 0.0);
+        writeAttributeDefinitions(attributesLayer, ownerHandle, coll);
+        writeEndBlock(endHandle, ownerHandle, false, "0", name);
     }
 
     private void writeAttributeDefinitions(String layer, String ownerHandle, FeatureCollection fc)
@@ -356,7 +357,6 @@ private void writeAttributeDefinitions(String layer, String ownerHandle, Feature
         FeatureTypeImpl schema = (FeatureTypeImpl) fc.getSchema();
         for (PropertyDescriptor p : schema.getDescriptors()) {
             Name name = p.getName();
-            LOGGER.warning("    attr: " + name.getLocalPart());
             if (!(p.getType() instanceof GeometryType)) {
                 writeAttrDef(layer, ownerHandle, name.getLocalPart());
             }
@@ -470,34 +470,26 @@ private void writeEndBlock(
     }
 
     /** Writes block references table. */
-    private void writeBlockRecords(List<SimpleFeatureCollection> featureList) throws IOException {
+    private void writeBlockRecords() throws IOException {
         writeTableStart("BLOCK_RECORD");
         writeGroup(5, "1");
         writeOwnerHandle("0");
         writeSubClass("AcDbSymbolTable");
         // 2 fixed blocks (paper space and model space)
         // N dynamic blocks for complex geometries
-        writeSize(2 + countBlocks(featureList));
+        writeSize(2 + blockCounter);
         // writes the 2 fixed block references
         writeModelSpaceBlockRecord();
         writePaperSpaceBlockRecord();
-        // write each dynamic block reference, saving handles
-        // for further reference (they will be assigned as owner
-        // handles for the real blocks)
-        if (blockNames != null) {
-            for (String fid : blockNames.keySet())
-                blockHandles.put(fid, writeBlockRecord(blockNames.get(fid)));
+        // write each dynamic block reference, using the handles
+        // already assigned as owner handles of the real blocks
+        for (int block = 0; block < blockCounter; block++) {
+            String handle = Integer.toHexString(firstBlockRecord + block).toUpperCase();
+            writeBlockRecord(handle, "1", String.valueOf(block));
         }
         writeTableEnd();
     }
 
-    /** Writes a block reference, given the desired name. The handle is dinamically created. */
-    private String writeBlockRecord(String blockName) throws IOException {
-        String handle = getNewHandle("BlockRecord");
-        writeBlockRecord(handle, "1", blockName);
-        return handle;
-    }
-
     /** Writes the model space fixed block reference. */
     private void writeModelSpaceBlockRecord() throws IOException {
         writeBlockRecord("1F", "1", "*MODEL_SPACE");
@@ -519,42 +511,6 @@ private void writeBlockRecord(String handle, String ownerHandle, String name)
         writeName(name);
     }
 
-    /** Builds a block list for the given feature list. */
-    private int countBlocks(List<SimpleFeatureCollection> featureList) {
-        if (blockNames == null) {
-            // initializes block cache
-            // for names and handles
-            blockNames = new HashMap<>();
-            blockHandles = new HashMap<>();
-            // cycle through feature to accumulate
-            // blocks
-            for (SimpleFeatureCollection coll : featureList) addBlocks(coll);
-        }
-        return blockNames.size();
-    }
-
-    /** Add blocks for the given collection. */
-    private void addBlocks(SimpleFeatureCollection coll) {
-        try (SimpleFeatureIterator iter = coll.features()) {
-            while (iter.hasNext()) {
-                SimpleFeature f = iter.next();
-                Geometry geom = (Geometry) f.getDefaultGeometry();
-                // if the geometry is complex, it will be
-                // exported as a block; we use fid to cache
-                // this for further using (blocks and entities
-                // sections)
-                if (geometryAsBlock || isBlockGeometry(geom)) {
-                    LOGGER.warning("    added");
-                    blockNames.put(f.getID(), (blockCounter++) + "");
-                }
-            }
-        }
-        if (writeAttributes) {
-            // add attribute definition blocks
-            blockNames.put(coll.hashCode() + "", (blockCounter++) + "");
-        }
-    }
-
     /** Checks if a geometry is complex and should be exported as a block. */
     private boolean isBlockGeometry(Geometry geom) {
         if (geom != null) {
@@ -0,0 +1,142 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.response.dxf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.collection.BaseSimpleFeatureCollection;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKTReader;
+
+public class Rel14DXFWriterTest {
+
+    /** Polygons with holes are written as blocks */
+    static final String WITH_HOLE =
+            "POLYGON((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 8, 8 8, 8 2, 2 2))";
+
+    static final String SIMPLE = "POLYGON((0 0, 10 0, 10 10, 0 10, 0 0))";
+
+    @Test
+    public void testLargeCollection() throws Exception {
+        final int count = 20000;
+        StringWriter out = new StringWriter();
+        Rel14DXFWriter writer = new Rel14DXFWriter(out);
+        writer.setOption("layers", new String[] {"LARGE"});
+        writer.write(Collections.singletonList(generate(count)), "14");
+
+        List<String[]> groups = parse(out.toString());
+        // half of the features have holes and are written as blocks
+        int blocks = count / 2;
+        assertEquals(blocks + 2, countEntities(groups, "BLOCK_RECORD"));
+        assertEquals(blocks + 2, countEntities(groups, "BLOCK"));
+        assertEquals(blocks, countEntities(groups, "INSERT"));
+        assertEquals(count - blocks, countEntities(groups, "LWPOLYLINE") - 2 * blocks);
+
+        // each block is owned by a block record, and each insert references a block
+        Set<String> recordHandles = new HashSet<>();
+        Set<String> blockOwners = new HashSet<>();
+        Set<String> blockNames = new HashSet<>();
+        Set<String> insertedNames = new HashSet<>();
+        for (int i = 0; i < groups.size(); i++) {
+            if (!"0".equals(groups.get(i)[0])) continue;
+            String entity = groups.get(i)[1];
+            if ("BLOCK_RECORD".equals(entity)) {
+                recordHandles.add(getValue(groups, i, "5"));
+            } else if ("BLOCK".equals(entity)) {
+                blockOwners.add(getValue(groups, i, "330"));
+                blockNames.add(getValue(groups, i, "2"));
+            } else if ("INSERT".equals(entity)) {
+                insertedNames.add(getValue(groups, i, "2"));
+            }
+        }
+        assertEquals(blocks + 2, recordHandles.size());
+        assertEquals(recordHandles, blockOwners);
+        assertEquals(blocks + 2, blockNames.size());
+        assertEquals(blocks, insertedNames.size());
+        blockNames.removeAll(insertedNames);
+        assertEquals(2, blockNames.size());
+    }
+
+    /** Returns the value of the first group with the given code following the entity start */
+    private String getValue(List<String[]> groups, int start, String code) {
+        for (int i = start + 1; i < groups.size() && !"0".equals(groups.get(i)[0]); i++) {
+            if (code.equals(groups.get(i)[0])) return groups.get(i)[1];
+        }
+        return null;
+    }
+
+    private int countEntities(List<String[]> groups, String entity) {
+        int result = 0;
+        for (String[] group : groups) {
+            if ("0".equals(group[0]) && entity.equals(group[1])) result++;
+        }
+        return result;
+    }
+
+    private List<String[]> parse(String dxf) throws Exception {
+        List<String[]> groups = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(dxf))) {
+            String code;
+            while ((code = reader.readLine()) != null) {
+                groups.add(new String[] {code.trim(), reader.readLine()});
+            }
+        }
+        return groups;
+    }
+
+    /** Generates features on the fly, alternating polygons with and without holes */
+    private SimpleFeatureCollection generate(int count) throws Exception {
+        SimpleFeatureType type = DataUtilities.createType("Large", "geom:Polygon,value:Integer");
+        WKTReader reader = new WKTReader();
+        Geometry withHole = reader.read(WITH_HOLE);
+        Geometry simple = reader.read(SIMPLE);
+        return new BaseSimpleFeatureCollection(type) {
+
+            @Override
+            public SimpleFeatureIterator features() {
+                return new SimpleFeatureIterator() {
+                    int i = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return i < count;
+                    }
+
+                    @Override
+                    public SimpleFeature next() {
+                        i++;
+                        Geometry g = i % 2 == 0 ? withHole : simple;
+                        return SimpleFeatureBuilder.build(
+                                type, new Object[] {g, i}, "Large." + i);
+                    }
+
+                    @Override
+                    public void close() {}
+                };
+            }
+
+            @Override
+            public ReferencedEnvelope getBounds() {
+                return new ReferencedEnvelope(0, 10, 0, 10, null);
+            }
+        };
+    }
+}
@@ -27,9 +27,20 @@ public Excel2007OutputFormat(GeoServer gs) {
         mimeType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
     }
 
-    /** Returns a new SXSSFWorkbook workbook */
+    /**
+     * Returns a new SXSSFWorkbook workbook, keeping a single row in memory and flushing the others
+     * to compressed temporary files, so that memory usage does not depend on the number of features
+     */
     @Override
     protected Workbook getNewWorkbook() {
-        return new SXSSFWorkbook(1);
+        SXSSFWorkbook wb = new SXSSFWorkbook(1);
+        wb.setCompressTempFiles(true);
+        return wb;
+    }
+
+    /** Removes the temporary files backing the workbook sheets */
+    @Override
+    protected void disposeWorkbook(Workbook wb) {
+        ((SXSSFWorkbook) wb).dispose();
     }
 }
@@ -52,6 +52,12 @@ public ExcelOutputFormat(GeoServer gs, String formatName) {
 
     protected abstract Workbook getNewWorkbook();
 
+    /**
+     * Releases the resources held by the workbook beyond its closing, e.g., temporary files. The
+     * default implementation does nothing.
+     */
+    protected void disposeWorkbook(Workbook wb) {}
+
     /** @return mime type; */
     @Override
     public String getMimeType(Object value, Operation operation) throws ServiceException {
@@ -75,7 +81,8 @@ protected void write(
             throws IOException, ServiceException {
 
         // Create the workbook
-        try (Workbook wb = getNewWorkbook()) {
+        Workbook wb = getNewWorkbook();
+        try {
             CreationHelper helper = wb.getCreationHelper();
             ExcelCellStyles styles = new ExcelCellStyles(wb);
 
@@ -134,6 +141,9 @@ protected void write(
 
             // write to output
             wb.write(output);
+        } finally {
+            disposeWorkbook(wb);
+            wb.close();
         }
     }
 
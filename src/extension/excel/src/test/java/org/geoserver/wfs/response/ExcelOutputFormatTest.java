@@ -9,8 +9,19 @@
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipFile;
+import net.opengis.wfs.WfsFactory;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
@@ -20,12 +31,17 @@
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.geoserver.data.test.MockData;
 import org.geoserver.wfs.WFSTestSupport;
+import org.geoserver.wfs.request.FeatureCollectionResponse;
 import org.geotools.api.data.FeatureSource;
 import org.geotools.api.data.Query;
 import org.geotools.api.data.SimpleFeatureSource;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.data.DataUtilities;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.collection.BaseSimpleFeatureCollection;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.junit.Test;
 import org.springframework.mock.web.MockHttpServletResponse;
 
@@ -149,6 +165,88 @@ public void testExcel2007MultipleFeatureTypes() throws Exception {
         }
     }
 
+    @Test
+    public void testExcel2007LargeOutput() throws Exception {
+        // more rows than an Excel 97 sheet can hold, generated on the fly
+        final int count = 100000;
+        SimpleFeatureType type = DataUtilities.createType("Large", "name:String,value:Integer");
+        FeatureCollectionResponse response =
+                FeatureCollectionResponse.adapt(WfsFactory.eINSTANCE.createFeatureCollectionType());
+        response.getFeature().add(generate(type, count));
+
+        File tempDir = new File(System.getProperty("java.io.tmpdir"), "poifiles");
+        Set<String> tempFiles = listTempFiles(tempDir);
+        File output = File.createTempFile("large", ".xlsx");
+        try {
+            try (OutputStream out = new FileOutputStream(output)) {
+                new Excel2007OutputFormat(getGeoServer()).write(response, out, null);
+            }
+            // count the rows streaming the sheet, loading it would take a lot of memory
+            try (ZipFile zip = new ZipFile(output);
+                    InputStream in =
+                            zip.getInputStream(zip.getEntry("xl/worksheets/sheet1.xml"))) {
+                assertEquals(count + 1, countOccurrences(in, "<row "));
+            }
+            // the temporary files backing the sheet have been removed
+            assertEquals(tempFiles, listTempFiles(tempDir));
+        } finally {
+            output.delete();
+        }
+    }
+
+    private SimpleFeatureCollection generate(SimpleFeatureType type, int count) {
+        return new BaseSimpleFeatureCollection(type) {
+
+            @Override
+            public SimpleFeatureIterator features() {
+                return new SimpleFeatureIterator() {
+                    int i = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return i < count;
+                    }
+
+                    @Override
+                    public SimpleFeature next() {
+                        i++;
+                        return SimpleFeatureBuilder.build(
+                                type, new Object[] {"feature" + i, i}, "Large." + i);
+                    }
+
+                    @Override
+                    public void close() {}
+                };
+            }
+        };
+    }
+
+    private Set<String> listTempFiles(File dir) {
+        String[] names = dir.list();
+        return names == null ? Collections.emptySet() : new HashSet<>(Arrays.asList(names));
+    }
+
+    private int countOccurrences(InputStream in, String text) throws IOException {
+        byte[] pattern = text.getBytes(StandardCharsets.UTF_8);
+        int matched = 0;
+        int result = 0;
+        try (InputStream bin = new BufferedInputStream(in)) {
+            int b;
+            while ((b = bin.read()) != -1) {
+                if (b == pattern[matched]) {
+                    matched++;
+                } else {
+                    matched = b == pattern[0] ? 1 : 0;
+                }
+                if (matched == pattern.length) {
+                    result++;
+                    matched = 0;
+                }
+            }
+        }
+        return result;
+    }
+
     private void testMultipleFeatureTypes(Workbook wb) throws IOException {
         // check we have the expected sheets
         Sheet sheet = wb.getSheet("PrimitiveGeoFeature");
@@ -10,8 +10,10 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -32,6 +34,7 @@
 import org.geoserver.catalog.WMTSLayerInfo;
 import org.geoserver.catalog.WorkspaceInfo;
 import org.geoserver.catalog.impl.LocalWorkspaceCatalog;
+import org.geoserver.geofence.cache.CachedRuleReader;
 import org.geoserver.geofence.config.GeoFenceConfiguration;
 import org.geoserver.geofence.config.GeoFenceConfigurationManager;
 import org.geoserver.geofence.core.model.LayerAttribute;
@@ -872,11 +875,73 @@ public Operation operationDispatched(Request gsRequest, Operation operation) {
                 && "WMS".equalsIgnoreCase(service)
                 && "GetLegendGraphic".equalsIgnoreCase(request)) {
             overrideGetLegendGraphicRequest(gsRequest, operation, service, request, user);
+        } else if ("GetCapabilities".equalsIgnoreCase(request)) {
+            prefetchCatalogAccess(user);
         }
 
         return operation;
     }
 
+    /**
+     * Capabilities documents check the access limits of every layer and layer group, one at a
+     * time. When the rules are cached, resolve them all in a single bulk lookup beforehand, so
+     * that a cold cache does not result in one rule evaluation per layer. The prefetch runs at
+     * most once per user (and roles, service, request, IP) until the cached rules are refreshed,
+     * and never for administrators, who bypass the rules.
+     */
+    void prefetchCatalogAccess(Authentication user) {
+        if (!(rulesService instanceof CachedRuleReader) || (user != null && isAdmin(user))) {
+            return;
+        }
+        // do not prefetch more than the cache can hold, entries would evict each other
+        long maxEntries = configurationManager.getCacheConfiguration().getSize();
+        int layerCount = catalog.count(LayerInfo.class, Filter.INCLUDE);
+        int groupCount = catalog.count(LayerGroupInfo.class, Filter.INCLUDE);
+        if (layerCount + groupCount > maxEntries) {
+            LOGGER.log(
+                    Level.FINE,
+                    "Not prefetching the access rules of {0} layers, more than the cache size",
+                    layerCount + groupCount);
+            return;
+        }
+
+        String ipAddress = retrieveCallerIpAddress();
+        RuleFilter tuple = buildRuleFilter(null, null, user, ipAddress);
+        ((CachedRuleReader) rulesService)
+                .prefetch(
+                        tuple,
+                        () -> {
+                            List<RuleFilter> filters = new ArrayList<>(layerCount + groupCount);
+                            for (LayerInfo layer : catalog.getLayers()) {
+                                String workspace =
+                                        layer.getResource().getStore().getWorkspace().getName();
+                                filters.add(
+                                        buildRuleFilter(
+                                                workspace, layer.getName(), user, ipAddress));
+                            }
+                            for (LayerGroupInfo group : catalog.getLayerGroups()) {
+                                WorkspaceInfo ws = group.getWorkspace();
+                                String workspace = ws != null ? ws.getName() : null;
+                                filters.add(
+                                        buildRuleFilter(
+                                                workspace, group.getName(), user, ipAddress));
+                            }
+                            return filters;
+                        });
+    }
+
+    /** Looks up the rules for the given filters, in bulk if the rule service supports it */
+    private Map<RuleFilter, AccessInfo> getAccessInfos(List<RuleFilter> ruleFilters) {
+        if (rulesService instanceof CachedRuleReader) {
+            return ((CachedRuleReader) rulesService).getAccessInfos(ruleFilters);
+        }
+        Map<RuleFilter, AccessInfo> result = new HashMap<>();
+        for (RuleFilter ruleFilter : ruleFilters) {
+            result.put(ruleFilter, rulesService.getAccessInfo(ruleFilter));
+        }
+        return result;
+    }
+
     void overrideGetLegendGraphicRequest(
             Request gsRequest,
             Operation operation,
@@ -963,10 +1028,10 @@ void overrideGetMapRequest(
         // we need to tell apart the default case from the explicit request case
         List<String> styleNameList = getRequestedStyles(gsRequest, getMap);
 
-        // apply the override/security check for each layer in the request
+        // build the rule filters for each layer in the request
         List<MapLayerInfo> layers = getMap.getLayers();
-        for (int i = 0; i < layers.size(); i++) {
-            MapLayerInfo layer = layers.get(i);
+        List<RuleFilter> ruleFilters = new ArrayList<>(layers.size());
+        for (MapLayerInfo layer : layers) {
             ResourceInfo info = null;
             if (layer.getType() == MapLayerInfo.TYPE_VECTOR
                     || layer.getType() == MapLayerInfo.TYPE_RASTER) {
@@ -989,10 +1054,16 @@ void overrideGetMapRequest(
                 ruleFilter.setWorkspace(RuleFilter.SpecialFilterType.DEFAULT);
                 ruleFilter.setLayer(RuleFilter.SpecialFilterType.DEFAULT);
             }
+            ruleFilters.add(ruleFilter);
+        }
 
+        // resolve the rules of all layers in one pass, then apply the override/security checks
+        Map<RuleFilter, AccessInfo> rules = getAccessInfos(ruleFilters);
+        for (int i = 0; i < layers.size(); i++) {
+            RuleFilter ruleFilter = ruleFilters.get(i);
             LOGGER.log(Level.FINE, "Getting access limits for getMap", ruleFilter);
 
-            AccessInfo rule = rulesService.getAccessInfo(ruleFilter);
+            AccessInfo rule = rules.get(ruleFilter);
 
             // get the requested style name
             String styleName = styleNameList.get(i);
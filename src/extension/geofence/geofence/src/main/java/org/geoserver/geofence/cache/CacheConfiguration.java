@@ -16,6 +16,8 @@ public class CacheConfiguration implements Serializable, Cloneable {
 
     private long expireMilliSec = 30000;
 
+    private long warmupSize = 0;
+
     private volatile Ticker customTicker = null; // testing only
 
     public long getExpireMilliSec() {
@@ -42,6 +44,18 @@ public void setSize(long size) {
         this.size = size;
     }
 
+    /**
+     * Number of most requested (user, roles, instance, service, request, IP) tuples whose rules are
+     * reloaded after a cache invalidation, 0 disables the cache warm up
+     */
+    public long getWarmupSize() {
+        return warmupSize;
+    }
+
+    public void setWarmupSize(long warmupSize) {
+        this.warmupSize = warmupSize;
+    }
+
     public Ticker getCustomTicker() {
         return customTicker;
     }
@@ -59,6 +73,8 @@ public String toString() {
                 + refreshMilliSec
                 + ", expMsec="
                 + expireMilliSec
+                + ", warmup="
+                + warmupSize
                 + ']';
     }
 
@@ -4,18 +4,36 @@
  */
 package org.geoserver.geofence.cache;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import org.geoserver.geofence.config.GeoFenceConfigurationManager;
 import org.geoserver.geofence.services.RuleReaderService;
 import org.geoserver.geofence.services.dto.AccessInfo;
@@ -46,6 +64,27 @@ public class CachedRuleReader implements RuleReaderService {
 
     private LoadingCache<RuleFilter, AccessInfo> authCache;
 
+    /**
+     * Usage of the (user, roles, instance, service, request, IP) tuples, with the filters recently
+     * requested for each of them, used to warm up the rule cache after an invalidation
+     */
+    private Cache<RuleFilter, TupleUsage> tupleUsage;
+
+    /** The tuples whose filters have been prefetched, until the cached rules get refreshed */
+    private Cache<RuleFilter, Boolean> prefetched;
+
+    /** Resolves the cache misses of bulk lookups, and runs the cache warm up */
+    private volatile ExecutorService executor;
+
+    private final AtomicBoolean warmingUp = new AtomicBoolean();
+
+    /** Maximum number of tuples tracked for cache warm up */
+    static final int MAX_TRACKED_TUPLES = 1000;
+
+    /** Maximum number of concurrent rule evaluations during bulk lookups */
+    static final int MAX_BULK_THREADS =
+            Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
     private final GeoFenceConfigurationManager configurationManager;
 
     /** Latest configuration used */
@@ -71,6 +110,13 @@ public final void init() {
         ruleCache = getCacheBuilder().build(new RuleLoader());
         userCache = getCacheBuilder().build(new UserLoader());
         authCache = getCacheBuilder().build(new AuthLoader());
+        tupleUsage = CacheBuilder.newBuilder().maximumSize(MAX_TRACKED_TUPLES).build();
+        prefetched =
+                CacheBuilder.newBuilder()
+                        .maximumSize(MAX_TRACKED_TUPLES)
+                        .expireAfterWrite(
+                                cacheConfiguration.getRefreshMilliSec(), TimeUnit.MILLISECONDS)
+                        .build();
     }
 
     protected CacheBuilder<Object, Object> getCacheBuilder() {
@@ -129,6 +175,36 @@ public ListenableFuture<AccessInfo> reload(final RuleFilter filter, AccessInfo a
             // }
             // });
         }
+
+        /**
+         * The rule reader service has no bulk API, the filters are evaluated concurrently, so that
+         * a bulk lookup costs about as much as the slowest of its evaluations
+         */
+        @Override
+        public Map<RuleFilter, AccessInfo> loadAll(Iterable<? extends RuleFilter> filters)
+                throws Exception {
+            List<RuleFilter> keys = new ArrayList<>();
+            filters.forEach(keys::add);
+            if (keys.size() == 1) {
+                return Map.of(keys.get(0), load(keys.get(0)));
+            }
+            if (LOGGER.isLoggable(Level.FINE))
+                LOGGER.log(Level.FINE, "Bulk loading {0} filters", keys.size());
+
+            List<Future<AccessInfo>> futures = new ArrayList<>(keys.size());
+            for (RuleFilter filter : keys) {
+                futures.add(getExecutor().submit(() -> load(filter)));
+            }
+            Map<RuleFilter, AccessInfo> result = new HashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                AccessInfo accessInfo = futures.get(i).get();
+                // null values are not cached, missing keys will be reported as a failure
+                if (accessInfo != null) {
+                    result.put(keys.get(i), accessInfo);
+                }
+            }
+            return result;
+        }
     }
 
     private class AuthLoader extends CacheLoader<RuleFilter, AccessInfo> {
@@ -187,6 +263,123 @@ public void invalidateAll() {
         ruleCache.invalidateAll();
         userCache.invalidateAll();
         authCache.invalidateAll();
+        prefetched.invalidateAll();
+
+        // a single warm up at a time, it keeps a bulk loading thread busy while running
+        if (cacheConfiguration.getWarmupSize() > 0 && warmingUp.compareAndSet(false, true)) {
+            getExecutor()
+                    .execute(
+                            () -> {
+                                try {
+                                    warmUp();
+                                } finally {
+                                    warmingUp.set(false);
+                                }
+                            });
+        }
+    }
+
+    /**
+     * Reloads in the rule cache the filters recently used by the most requested (user, roles,
+     * instance, service, request, IP) tuples, up to {@link CacheConfiguration#getWarmupSize()}
+     * tuples.
+     *
+     * @return the number of filters loaded
+     */
+    public int warmUp() {
+        long size = cacheConfiguration.getWarmupSize();
+        List<TupleUsage> mostRequested =
+                tupleUsage.asMap().values().stream()
+                        .sorted(Comparator.comparingLong(TupleUsage::getCount).reversed())
+                        .limit(size)
+                        .collect(Collectors.toList());
+        Set<RuleFilter> filters = new LinkedHashSet<>();
+        for (TupleUsage usage : mostRequested) {
+            filters.addAll(usage.filters.keySet());
+        }
+        if (filters.isEmpty()) {
+            return 0;
+        }
+        LOGGER.log(
+                Level.INFO,
+                "Warming up the rule cache with {0} filters for {1} tuples",
+                new Object[] {filters.size(), mostRequested.size()});
+        try {
+            ruleCache.getAll(filters);
+        } catch (Exception ex) {
+            LOGGER.log(Level.WARNING, "Rule cache warm up failed", ex);
+        }
+        return filters.size();
+    }
+
+    /**
+     * Looks up in bulk the filters of the given (user, roles, instance, service, request, IP)
+     * tuple, unless they have already been prefetched since the cached rules were last refreshed
+     * or invalidated. The filters are computed only if the prefetch actually runs.
+     *
+     * @param tuple a filter carrying the tuple, its workspace and layer are ignored
+     * @return true if the prefetch was run
+     */
+    public boolean prefetch(RuleFilter tuple, Supplier<Collection<RuleFilter>> filters) {
+        RuleFilter key = toTuple(tuple);
+        if (prefetched.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+            return false;
+        }
+        getAccessInfos(filters.get());
+        return true;
+    }
+
+    /** Returns a copy of the filter without the workspace and layer */
+    private static RuleFilter toTuple(RuleFilter filter) {
+        RuleFilter tuple = filter.clone();
+        tuple.setWorkspace(RuleFilter.SpecialFilterType.DEFAULT);
+        tuple.setLayer(RuleFilter.SpecialFilterType.DEFAULT);
+        return tuple;
+    }
+
+    /** Tracks the usage of the filter tuple, if cache warm up is enabled */
+    private void recordUsage(RuleFilter filter) {
+        if (cacheConfiguration.getWarmupSize() <= 0) {
+            return;
+        }
+        RuleFilter tuple = toTuple(filter);
+        try {
+            tupleUsage.get(tuple, TupleUsage::new).record(filter, cacheConfiguration.getSize());
+        } catch (ExecutionException ex) {
+            // cannot happen, the loader does not throw
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    executor =
+                            Executors.newFixedThreadPool(
+                                    MAX_BULK_THREADS,
+                                    r -> {
+                                        Thread t =
+                                                new Thread(
+                                                        r,
+                                                        "GeoFenceRuleLoader-"
+                                                                + counter.incrementAndGet());
+                                        t.setDaemon(true);
+                                        return t;
+                                    });
+                }
+            }
+        }
+        return executor;
+    }
+
+    /** Shuts down the bulk loading threads */
+    public void destroy() {
+        ExecutorService current = executor;
+        executor = null;
+        if (current != null) {
+            current.shutdownNow();
+        }
     }
 
     //    /**
@@ -231,6 +424,7 @@ public AccessInfo getAccessInfo(RuleFilter filter) {
                 LOGGER.fine("params :" + cacheConfiguration);
             }
 
+        recordUsage(filter);
         AccessInfo accessInfo = null;
         try {
             accessInfo = ruleCache.get(filter);
@@ -240,6 +434,39 @@ public AccessInfo getAccessInfo(RuleFilter filter) {
         return accessInfo;
     }
 
+    /**
+     * Bulk version of {@link #getAccessInfo(RuleFilter)}, resolving all the cache misses in a
+     * single pass, typically used to look up all the layers involved in a request for the same
+     * (user, roles, instance, service, request, IP) tuple.
+     *
+     * @return the access info of each distinct filter, keyed by filter, iterating in the order the
+     *     filters are first found. Duplicate filters are looked up once and share a single entry,
+     *     so the map can be smaller than the collection: look up results by filter, not position.
+     */
+    public Map<RuleFilter, AccessInfo> getAccessInfos(Collection<RuleFilter> filters) {
+        if (LOGGER.isLoggable(Level.FINE))
+            LOGGER.log(Level.FINE, "Bulk request for {0} filters", filters.size());
+
+        Map<RuleFilter, AccessInfo> result = new LinkedHashMap<>();
+        for (RuleFilter filter : filters) {
+            recordUsage(filter);
+        }
+        try {
+            result.putAll(ruleCache.getAll(filters));
+        } catch (Exception ex) {
+            // some filter failed to load, fall back on the single lookups
+            LOGGER.log(Level.FINE, "Bulk rule lookup failed, resolving filters one by one", ex);
+            for (RuleFilter filter : filters) {
+                try {
+                    result.put(filter, ruleCache.get(filter));
+                } catch (ExecutionException e) {
+                    result.put(filter, null);
+                }
+            }
+        }
+        return result;
+    }
+
     @Override
     public AccessInfo getAdminAuthorization(RuleFilter filter) {
         // return realRuleReaderService.getAdminAuthorization(filter);
@@ -409,6 +636,24 @@ public boolean equals(Object obj) {
         }
     }
 
+    /** Usage of a filter tuple, with the filters recently looked up for it */
+    static class TupleUsage {
+        private final LongAdder count = new LongAdder();
+
+        private final Map<RuleFilter, Boolean> filters = new ConcurrentHashMap<>();
+
+        void record(RuleFilter filter, long maxFilters) {
+            count.increment();
+            if (filters.size() < maxFilters) {
+                filters.put(filter, Boolean.TRUE);
+            }
+        }
+
+        long getCount() {
+            return count.sum();
+        }
+    }
+
     class NoAuthException extends Exception {
 
         public NoAuthException() {}
@@ -185,6 +185,10 @@ public void onSubmit() {
                 new TextField<>("cacheExpire", new PropertyModel<>(cacheModel, "expireMilliSec"))
                         .setRequired(true));
 
+        form.add(
+                new TextField<>("cacheWarmup", new PropertyModel<>(cacheModel, "warmupSize"))
+                        .setRequired(true));
+
         CachedRuleReader cacheRuleReader = GeoServerExtensions.bean(CachedRuleReader.class);
 
         updateStatsValues(cacheRuleReader);
@@ -0,0 +1,162 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.geofence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.geoserver.geofence.cache.CacheConfiguration;
+import org.geoserver.geofence.cache.CachedRuleReader;
+import org.geoserver.geofence.config.GeoFenceConfigurationManager;
+import org.geoserver.geofence.core.model.enums.GrantType;
+import org.geoserver.geofence.services.RuleReaderService;
+import org.geoserver.geofence.services.dto.AccessInfo;
+import org.geoserver.geofence.services.dto.RuleFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachedRuleReaderBulkTest {
+
+    private AtomicInteger evaluations = new AtomicInteger();
+
+    private CachedRuleReader reader;
+
+    @Before
+    public void setupReader() {
+        CacheConfiguration config = new CacheConfiguration();
+        config.setSize(100);
+        config.setRefreshMilliSec(60000);
+        config.setExpireMilliSec(120000);
+        config.setWarmupSize(1);
+        GeoFenceConfigurationManager configManager = new GeoFenceConfigurationManager();
+        configManager.setCacheConfiguration(config);
+
+        // a rule service allowing access to everything, counting the evaluations
+        RuleReaderService service =
+                (RuleReaderService)
+                        Proxy.newProxyInstance(
+                                getClass().getClassLoader(),
+                                new Class[] {RuleReaderService.class},
+                                (proxy, method, args) -> {
+                                    if ("getAccessInfo".equals(method.getName())) {
+                                        evaluations.incrementAndGet();
+                                        AccessInfo accessInfo = new AccessInfo();
+                                        accessInfo.setGrant(GrantType.ALLOW);
+                                        return accessInfo;
+                                    }
+                                    throw new UnsupportedOperationException(method.getName());
+                                });
+
+        reader = new CachedRuleReader(configManager);
+        reader.setRealRuleReaderService(service);
+    }
+
+    @After
+    public void disposeReader() {
+        reader.destroy();
+    }
+
+    private List<RuleFilter> layerFilters(String user, int count) {
+        List<RuleFilter> filters = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            RuleFilter filter = new RuleFilter(RuleFilter.SpecialFilterType.DEFAULT);
+            filter.setUser(user);
+            filter.setService("WMS");
+            filter.setRequest("GetCapabilities");
+            filter.setWorkspace("ws");
+            filter.setLayer("layer" + i);
+            filters.add(filter);
+        }
+        return filters;
+    }
+
+    @Test
+    public void testBulkLookup() {
+        List<RuleFilter> filters = layerFilters("bob", 50);
+        Map<RuleFilter, AccessInfo> result = reader.getAccessInfos(filters);
+        assertEquals(50, result.size());
+        assertEquals(50, evaluations.get());
+        assertEquals(50, reader.getCacheSize());
+
+        // all cached now, single and bulk lookups hit the cache
+        assertSame(result.get(filters.get(10)), reader.getAccessInfo(filters.get(10)));
+        reader.getAccessInfos(filters.subList(0, 20));
+        assertEquals(50, evaluations.get());
+    }
+
+    @Test
+    public void testDuplicateFilters() {
+        // the same layer requested twice, e.g., in a GetMap with repeated layers
+        List<RuleFilter> filters = layerFilters("bob", 2);
+        filters.add(filters.get(0).clone());
+        Map<RuleFilter, AccessInfo> result = reader.getAccessInfos(filters);
+        assertEquals(2, result.size());
+        assertEquals(2, evaluations.get());
+        assertSame(result.get(filters.get(0)), result.get(filters.get(2)));
+    }
+
+    @Test
+    public void testWarmUp() {
+        // bob is the most requested tuple, alice is requested only once
+        List<RuleFilter> bobFilters = layerFilters("bob", 10);
+        reader.getAccessInfos(bobFilters);
+        reader.getAccessInfos(bobFilters);
+        reader.getAccessInfos(layerFilters("alice", 5));
+        assertEquals(15, evaluations.get());
+
+        // invalidate without the asynchronous warm up, then run it explicitly
+        reader.getCacheInitParams().setWarmupSize(0);
+        reader.invalidateAll();
+        reader.getCacheInitParams().setWarmupSize(1);
+        assertEquals(0, reader.getCacheSize());
+
+        // warm up size is one, only the bob tuple is reloaded
+        evaluations.set(0);
+        assertEquals(10, reader.warmUp());
+        assertEquals(10, evaluations.get());
+        assertEquals(10, reader.getCacheSize());
+        reader.getAccessInfos(bobFilters);
+        assertEquals(10, evaluations.get());
+    }
+
+    @Test
+    public void testPrefetchOncePerTuple() {
+        AtomicInteger computed = new AtomicInteger();
+        List<RuleFilter> bobFilters = layerFilters("bob", 10);
+        Supplier<Collection<RuleFilter>> supplier =
+                () -> {
+                    computed.incrementAndGet();
+                    return bobFilters;
+                };
+        assertTrue(reader.prefetch(bobFilters.get(0), supplier));
+        assertEquals(10, evaluations.get());
+
+        // same tuple, different layer, already prefetched
+        assertFalse(reader.prefetch(bobFilters.get(5), supplier));
+        assertEquals(1, computed.get());
+
+        // another user gets its own prefetch
+        RuleFilter alice = layerFilters("alice", 1).get(0);
+        assertTrue(reader.prefetch(alice, () -> layerFilters("alice", 3)));
+        assertEquals(13, evaluations.get());
+
+        // invalidation resets the prefetch state
+        reader.getCacheInitParams().setWarmupSize(0);
+        reader.invalidateAll();
+        assertTrue(reader.prefetch(bobFilters.get(0), supplier));
+        assertEquals(2, computed.get());
+        assertEquals(23, evaluations.get());
+    }
+}
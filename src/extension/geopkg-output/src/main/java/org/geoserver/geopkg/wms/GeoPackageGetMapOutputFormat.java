@@ -17,6 +17,7 @@
 import org.geoserver.gwc.GWC;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.tiles.AbstractTilesGetMapOutputFormat;
+import org.geoserver.tiles.SQLiteTileWriter;
 import org.geoserver.wms.GetMapRequest;
 import org.geoserver.wms.MapLayerInfo;
 import org.geoserver.wms.WMS;
@@ -28,7 +29,6 @@
 import org.geotools.api.util.ProgressListener;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.geopkg.GeoPackage;
-import org.geotools.geopkg.Tile;
 import org.geotools.geopkg.TileEntry;
 import org.geotools.geopkg.TileMatrix;
 import org.geotools.referencing.CRS;
@@ -49,13 +49,22 @@ public GeoPackageGetMapOutputFormat(WebMapService webMapService, WMS wms, GWC gw
         super(MIME_TYPE, "." + EXTENSION, Sets.newHashSet(NAMES), webMapService, wms, gwc);
     }
 
-    /** TilesFile interface implementation for a GeoPackage */
-    private static class GeopackageWrapper implements TilesFile {
+    /**
+     * TilesFile interface implementation for a GeoPackage, the tiles are inserted in batches, call
+     * {@link #flush()} to write out the last ones
+     */
+    protected static class GeopackageWrapper implements TilesFile {
 
         GeoPackage geopkg;
 
         TileEntry e;
 
+        SQLiteTileWriter writer;
+
+        /** True if the GeoPackage was created by the wrapper, and is closed along with it */
+        boolean ownGeoPackage;
+
+        /** Wraps a GeoPackage owned by the caller, {@link #close()} leaves it open */
         public GeopackageWrapper(GeoPackage geopkg, TileEntry e) throws IOException {
             this.geopkg = geopkg;
             this.e = e;
@@ -63,6 +72,7 @@ public GeopackageWrapper(GeoPackage geopkg, TileEntry e) throws IOException {
 
         public GeopackageWrapper() throws IOException {
             this(new GeoPackage(), new TileEntry());
+            ownGeoPackage = true;
             geopkg.init();
         }
 
@@ -131,12 +141,22 @@ public void setMetadata(
         // add a tile (image) into the geoopackage with the given grid coordinates
         @Override
         public void addTile(int zoom, int x, int y, byte[] data) throws IOException {
-            Tile t = new Tile();
-            t.setZoom(zoom);
-            t.setColumn(x);
-            t.setRow(y);
-            t.setData(data);
-            geopkg.add(e, t);
+            if (writer == null) {
+                String insert =
+                        String.format(
+                                "INSERT INTO \"%s\" (zoom_level, tile_column, tile_row, tile_data)"
+                                        + " VALUES (?, ?, ?, ?)",
+                                e.getTableName());
+                writer = new SQLiteTileWriter(() -> geopkg.getDataSource().getConnection(), insert);
+            }
+            writer.add(zoom, x, y, data);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (writer != null) {
+                writer.finish();
+            }
         }
 
         @Override
@@ -146,7 +166,12 @@ public File getFile() {
 
         @Override
         public void close() {
-            geopkg.close();
+            if (writer != null) {
+                writer.close();
+            }
+            if (ownGeoPackage) {
+                geopkg.close();
+            }
         }
     }
 
@@ -219,6 +244,11 @@ public void addTiles(
             String name,
             ProgressListener listener)
             throws IOException {
-        addTiles(new GeopackageWrapper(geopkg, e), req, name, listener);
+        GeopackageWrapper tiles = new GeopackageWrapper(geopkg, e);
+        try {
+            addTiles(tiles, req, name, listener);
+        } finally {
+            tiles.close();
+        }
     }
 }
@@ -10,22 +10,26 @@
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geoserver.gwc.GWC;
+import org.geoserver.ows.util.CaseInsensitiveMap;
 import org.geoserver.ows.util.OwsUtils;
 import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.wms.GetMapRequest;
 import org.geoserver.wms.MapLayerInfo;
 import org.geoserver.wms.MapProducerCapabilities;
-import org.geoserver.wms.RasterCleaner;
 import org.geoserver.wms.WMS;
 import org.geoserver.wms.WMSMapContent;
 import org.geoserver.wms.WebMap;
@@ -37,6 +41,7 @@
 import org.geoserver.wms.map.RenderedImageMap;
 import org.geoserver.wms.map.RenderedImageMapResponse;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.api.style.Style;
 import org.geotools.api.util.ProgressListener;
 import org.geotools.data.util.NullProgressListener;
 import org.geotools.geometry.jts.ReferencedEnvelope;
@@ -44,6 +49,7 @@
 import org.geotools.referencing.CRS;
 import org.geotools.renderer.lite.RendererUtilities;
 import org.geotools.util.logging.Logging;
+import org.geowebcache.GeoWebCacheException;
 import org.geowebcache.grid.BoundingBox;
 import org.geowebcache.grid.Grid;
 import org.geowebcache.grid.GridSet;
@@ -52,6 +58,9 @@
 import org.geowebcache.grid.GridSubsetFactory;
 import org.geowebcache.grid.SRS;
 import org.geowebcache.layer.TileLayer;
+import org.geowebcache.storage.StorageBroker;
+import org.geowebcache.storage.StorageException;
+import org.geowebcache.storage.TileObject;
 import org.locationtech.jts.geom.Envelope;
 
 /**
@@ -104,6 +113,12 @@ void setMetadata(
          */
         void addTile(int zoom, int x, int y, byte[] data) throws IOException, ServiceException;
 
+        /**
+         * Writes out the tiles buffered by {@link #addTile(int, int, int, byte[])}, called once
+         * all the tiles of a dataset have been added.
+         */
+        default void flush() throws IOException {}
+
         /**
          * Get the underlying File that this TilesFile is writing to.
          *
@@ -129,6 +144,22 @@ void setMetadata(
 
     protected static final String JPEG_MIME_TYPE = "image/jpeg";
 
+    /** Format options controlling the tiles file creation, rather than the tiles rendering */
+    protected static final Set<String> TILES_FORMAT_OPTIONS =
+            Set.of(
+                    "tileset_name",
+                    "format",
+                    "gridset",
+                    "min_zoom",
+                    "max_zoom",
+                    "num_zooms",
+                    "min_column",
+                    "max_column",
+                    "min_row",
+                    "max_row",
+                    "flipy",
+                    "use_cache");
+
     protected WebMapService webMapService;
 
     protected WMS wms;
@@ -167,8 +198,11 @@ public MapProducerCapabilities getCapabilities(String format) {
     @Override
     public WebMap produceMap(WMSMapContent map) throws ServiceException, IOException {
         TilesFile tiles = createTilesFile();
-        addTiles(tiles, map, getListener(map));
-        tiles.close();
+        try {
+            addTiles(tiles, map, getListener(map));
+        } finally {
+            tiles.close();
+        }
 
         final File dbFile = tiles.getFile();
         FileBackedRawMap result = new FileBackedRawMap(map, dbFile, getMimeType());
@@ -252,9 +286,6 @@ protected void addTiles(
         }
         if (listener == null) listener = new NullProgressListener();
 
-        // Get the RasterCleaner object
-        RasterCleaner cleaner = GeoServerExtensions.bean(RasterCleaner.class);
-
         // figure out a name for the file entry
         String tileEntryName = null;
         Map formatOpts = request.getFormatOptions();
@@ -322,34 +353,181 @@ protected void addTiles(
 
         // flag determining if tile row indexes we store in database should be inverted
         boolean flipy = Boolean.valueOf((String) formatOpts.get("flipy"));
-        for (int z = minmax[0]; z < minmax[1]; z++) {
-            long[] intersect = gridSubset.getCoverageIntersection(z, bbox);
-            long minX = minColumn == null ? intersect[0] : Math.max(minColumn, intersect[0]);
-            long maxX = maxColumn == null ? intersect[2] : Math.min(maxColumn, intersect[2]);
-            long minY = minRow == null ? intersect[1] : Math.max(minRow, intersect[1]);
-            long maxY = maxRow == null ? intersect[3] : Math.min(maxRow, intersect[3]);
-            for (long x = minX; x <= maxX; x++) {
-                for (long y = minY; y <= maxY; y++) {
-                    BoundingBox box = gridSubset.boundsFromIndex(new long[] {x, y, z});
-                    req.setBbox(
-                            new Envelope(
-                                    box.getMinX(), box.getMaxX(), box.getMinY(), box.getMaxY()));
-                    WebMap result = webMapService.getMap(req);
-                    tiles.addTile(
-                            z,
-                            (int) x,
-                            (int) (flipy ? gridSubset.getNumTilesHigh(z) - (y + 1) : y),
-                            toBytes(result));
-                    // Cleanup
-                    cleaner.finished(null);
-
-                    if (listener.isCanceled()) {
-                        LOGGER.log(
-                                Level.FINE, "Stopping tile generation, request has been canceled");
-                        return;
+        CachedTiles cachedTiles = getCachedTiles(req, gridSubset, imageFormat);
+        try (ParallelTileRenderer renderer = new ParallelTileRenderer(tiles)) {
+            zooms:
+            for (int z = minmax[0]; z < minmax[1]; z++) {
+                long[] intersect = gridSubset.getCoverageIntersection(z, bbox);
+                long minX = minColumn == null ? intersect[0] : Math.max(minColumn, intersect[0]);
+                long maxX = maxColumn == null ? intersect[2] : Math.min(maxColumn, intersect[2]);
+                long minY = minRow == null ? intersect[1] : Math.max(minRow, intersect[1]);
+                long maxY = maxRow == null ? intersect[3] : Math.min(maxRow, intersect[3]);
+                for (long x = minX; x <= maxX; x++) {
+                    for (long y = minY; y <= maxY; y++) {
+                        long[] index = {x, y, z};
+                        BoundingBox box = gridSubset.boundsFromIndex(index);
+                        // each tile gets its own request, as they are rendered concurrently
+                        GetMapRequest tileRequest = (GetMapRequest) req.clone();
+                        tileRequest.setStyles(req.getStyles());
+                        tileRequest.setBbox(
+                                new Envelope(
+                                        box.getMinX(),
+                                        box.getMaxX(),
+                                        box.getMinY(),
+                                        box.getMaxY()));
+                        renderer.render(
+                                z,
+                                (int) x,
+                                (int) (flipy ? gridSubset.getNumTilesHigh(z) - (y + 1) : y),
+                                () -> {
+                                    byte[] cached =
+                                            cachedTiles == null
+                                                    ? null
+                                                    : cachedTiles.getTile(index);
+                                    if (cached != null) return cached;
+                                    return toBytes(webMapService.getMap(tileRequest));
+                                });
+
+                        if (listener.isCanceled()) {
+                            LOGGER.log(
+                                    Level.FINE,
+                                    "Stopping tile generation, request has been canceled");
+                            break zooms;
+                        }
+                    }
+                }
+            }
+            renderer.finish();
+        }
+        tiles.flush();
+    }
+
+    /**
+     * Returns the cached tiles that can be used in place of rendering the request tiles, or null if
+     * the request does not match a tile layer, or customizes the rendering in ways that the tile
+     * cache does not account for. Reuse is opt-in, using {@code format_options=use_cache:true}.
+     */
+    protected CachedTiles getCachedTiles(
+            GetMapRequest req, GridSubset gridSubset, String imageFormat) {
+        Object useCache = req.getFormatOptions().get("use_cache");
+        List<MapLayerInfo> layers = req.getLayers();
+        if (useCache == null
+                || !Boolean.parseBoolean(useCache.toString())
+                || layers.size() != 1
+                || !isDefaultRendering(req, layers.get(0), imageFormat)) {
+            return null;
+        }
+        String layerName = layers.get(0).getName();
+        try {
+            TileLayer tileLayer = gwc.getTileLayerByName(layerName);
+            if (tileLayer == null
+                    || !tileLayer.isEnabled()
+                    || tileLayer.getGridSubset(gridSubset.getName()) == null
+                    || tileLayer.getMimeTypes().stream()
+                            .noneMatch(m -> m.getFormat().equals(imageFormat))) {
+                return null;
+            }
+            // same checks as direct WMS integration, including the parameter filters
+            GetMapRequest renderingRequest = getRenderingRequest(req);
+            StringBuilder mismatch = new StringBuilder();
+            if (!gwc.isCachingPossible(tileLayer, renderingRequest, mismatch)) {
+                LOGGER.log(
+                        Level.FINE,
+                        "Not using cached tiles for {0}: {1}",
+                        new Object[] {layerName, mismatch});
+                return null;
+            }
+            // cached tiles are shared among users
+            if (gwc.getConfig().isSecurityEnabled()) {
+                gwc.verifyAccessLayer(layerName, bounds(req));
+            }
+            Map<String, String> parameters =
+                    tileLayer.getModifiableParameters(renderingRequest.getRawKvp(), "UTF-8");
+            return new CachedTiles(tileLayer.getName(), gridSubset, imageFormat, parameters);
+        } catch (IllegalArgumentException
+                | ServiceException
+                | SecurityException
+                | GeoWebCacheException e) {
+            LOGGER.log(Level.FINE, "Not using cached tiles for " + layerName, e);
+            return null;
+        }
+    }
+
+    /**
+     * Checks if the layer is rendered with its default style, and no options GWC does not account
+     * for. The tile layers are rendered transparent, without interpolation overrides.
+     */
+    private boolean isDefaultRendering(GetMapRequest req, MapLayerInfo layer, String imageFormat) {
+        for (Style style : req.getStyles()) {
+            if (style != null && !style.equals(layer.getDefaultStyle())) return false;
+        }
+        for (String option : req.getFormatOptions().keySet()) {
+            if (!TILES_FORMAT_OPTIONS.contains(option.toLowerCase())) return false;
+        }
+        return req.getSld() == null
+                && req.getStyleBody() == null
+                && (req.isTransparent() || JPEG_MIME_TYPE.equals(imageFormat))
+                && isEmpty(req.getInterpolations())
+                && req.getClip() == null;
+    }
+
+    /**
+     * Returns a copy of the request without the format options driving the tiles file creation,
+     * so that only the rendering parameters are checked against the tile layer
+     */
+    private GetMapRequest getRenderingRequest(GetMapRequest req) {
+        GetMapRequest copy = (GetMapRequest) req.clone();
+        copy.setFormatOptions(Collections.emptyMap());
+        Map<String, String> rawKvp = new CaseInsensitiveMap<>(new HashMap<>());
+        if (req.getRawKvp() != null) rawKvp.putAll(req.getRawKvp());
+        rawKvp.remove("FORMAT_OPTIONS");
+        copy.setRawKvp(rawKvp);
+        return copy;
+    }
+
+    private static boolean isEmpty(List<?> list) {
+        return list == null || list.stream().allMatch(Objects::isNull);
+    }
+
+    /** The tiles of a GWC tile layer, for a given gridset, format and parameters */
+    protected static class CachedTiles {
+
+        final String layerName;
+
+        final GridSubset gridSubset;
+
+        final String imageFormat;
+
+        final Map<String, String> parameters;
+
+        CachedTiles(
+                String layerName,
+                GridSubset gridSubset,
+                String imageFormat,
+                Map<String, String> parameters) {
+            this.layerName = layerName;
+            this.gridSubset = gridSubset;
+            this.imageFormat = imageFormat;
+            this.parameters = parameters;
+        }
+
+        /** Returns the tile from the GWC cache, if available */
+        byte[] getTile(long[] index) {
+            StorageBroker broker = GeoServerExtensions.bean(StorageBroker.class);
+            if (broker == null) return null;
+            try {
+                TileObject tile =
+                        TileObject.createQueryTileObject(
+                                layerName, index, gridSubset.getName(), imageFormat, parameters);
+                if (broker.get(tile)) {
+                    try (InputStream in = tile.getBlob().getInputStream()) {
+                        return in.readAllBytes();
                     }
                 }
+            } catch (StorageException | IOException e) {
+                LOGGER.log(Level.FINE, "Could not read cached tile, will render it instead", e);
             }
+            return null;
         }
     }
 
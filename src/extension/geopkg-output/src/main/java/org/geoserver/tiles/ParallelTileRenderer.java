@@ -0,0 +1,177 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.tiles;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
+import org.geoserver.tiles.AbstractTilesGetMapOutputFormat.TilesFile;
+import org.geoserver.wms.RasterCleaner;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Renders tiles on a bounded pool of threads, while the calling thread adds them to the {@link
+ * TilesFile} in the same order they were submitted, so that the file is only ever accessed by a
+ * single thread. The number of tiles rendered but not yet written is bounded too, to keep the
+ * memory usage under control.
+ *
+ * <p>The pool size is read from the {@link #RENDERING_THREADS} system, context or environment
+ * variable, and defaults to the number of available processors, up to 4. When set to 1 the tiles
+ * are rendered in the calling thread.
+ */
+public class ParallelTileRenderer implements Closeable {
+
+    static final Logger LOGGER = Logging.getLogger(ParallelTileRenderer.class);
+
+    /** Number of threads rendering tiles for a single request */
+    public static final String RENDERING_THREADS = "GS_TILES_RENDERING_THREADS";
+
+    /** Max number of tiles rendered and waiting to be written, per rendering thread */
+    static final int PENDING_PER_THREAD = 4;
+
+    private final TilesFile tiles;
+
+    private final ExecutorService executor;
+
+    private final Deque<PendingTile> pending = new ArrayDeque<>();
+
+    private final int maxPending;
+
+    private final RasterCleaner cleaner = GeoServerExtensions.bean(RasterCleaner.class);
+
+    public ParallelTileRenderer(TilesFile tiles) {
+        this(tiles, getThreads());
+    }
+
+    public ParallelTileRenderer(TilesFile tiles, int threads) {
+        this.tiles = tiles;
+        this.maxPending = threads * PENDING_PER_THREAD;
+        if (threads > 1) {
+            this.executor =
+                    Executors.newFixedThreadPool(
+                            threads,
+                            r -> {
+                                Thread t = new Thread(r, "TileRenderer");
+                                t.setDaemon(true);
+                                return t;
+                            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /** Returns the configured number of rendering threads per request */
+    public static int getThreads() {
+        String value = GeoServerExtensions.getProperty(RENDERING_THREADS);
+        if (value != null) {
+            try {
+                return Math.max(1, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + RENDERING_THREADS + ": " + value);
+            }
+        }
+        return Math.min(4, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Renders a tile and adds it to the tiles file. Might block writing out the tiles rendered
+     * earlier, if too many are waiting.
+     */
+    public void render(int zoom, int x, int y, Callable<byte[]> renderer) throws IOException {
+        if (executor == null) {
+            tiles.addTile(zoom, x, y, call(renderer));
+            return;
+        }
+
+        ThreadLocalsTransfer transfer = new ThreadLocalsTransfer();
+        Future<byte[]> future =
+                executor.submit(
+                        () -> {
+                            transfer.apply();
+                            try {
+                                return call(renderer);
+                            } finally {
+                                transfer.cleanup();
+                            }
+                        });
+        pending.add(new PendingTile(zoom, x, y, future));
+        while (pending.size() >= maxPending) {
+            writeNext();
+        }
+    }
+
+    /** Waits for the pending tiles to be rendered, and adds them to the tiles file */
+    public void finish() throws IOException {
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+    }
+
+    /** Cancels the pending tiles and stops the rendering threads */
+    @Override
+    public void close() {
+        for (PendingTile tile : pending) {
+            tile.future.cancel(true);
+        }
+        pending.clear();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private byte[] call(Callable<byte[]> renderer) throws IOException {
+        try {
+            return renderer.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to render tile", e);
+        } finally {
+            // release the images allocated while rendering, in the current thread
+            if (cleaner != null) cleaner.finished(null);
+        }
+    }
+
+    private void writeNext() throws IOException {
+        PendingTile tile = pending.poll();
+        byte[] data;
+        try {
+            data = tile.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering tiles", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException("Failed to render tile", cause);
+        }
+        tiles.addTile(tile.zoom, tile.x, tile.y, data);
+    }
+
+    private static class PendingTile {
+        final int zoom;
+        final int x;
+        final int y;
+        final Future<byte[]> future;
+
+        PendingTile(int zoom, int x, int y, Future<byte[]> future) {
+            this.zoom = zoom;
+            this.x = x;
+            this.y = y;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.tiles;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Inserts tiles in a SQLite database (GeoPackage, MBTiles) in large transactions, instead of
+ * committing each tile separately. The database is switched to WAL journaling while writing, and
+ * back to its original journal mode by {@link #finish()}, so that the resulting file can be read
+ * by clients lacking WAL support.
+ *
+ * <p>The writer holds a single connection, it is not meant to be used by multiple threads.
+ */
+public class SQLiteTileWriter implements Closeable {
+
+    static final Logger LOGGER = Logging.getLogger(SQLiteTileWriter.class);
+
+    /** Number of tiles inserted in each transaction */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /** Provides the connection to the database */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection getConnection() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+
+    private final String insert;
+
+    private final int batchSize;
+
+    private final List<TileData> batch = new ArrayList<>();
+
+    private Connection cx;
+
+    private String journalMode;
+
+    /**
+     * @param factory provides the connection used to write the tiles
+     * @param insert the insert statement, with zoom level, column, row and tile data parameters
+     */
+    public SQLiteTileWriter(ConnectionFactory factory, String insert) {
+        this(factory, insert, DEFAULT_BATCH_SIZE);
+    }
+
+    public SQLiteTileWriter(ConnectionFactory factory, String insert, int batchSize) {
+        this.factory = factory;
+        this.insert = insert;
+        this.batchSize = batchSize;
+    }
+
+    /** Adds a tile, the tile will be written once the batch is full */
+    public void add(int zoom, int x, int y, byte[] data) throws IOException {
+        batch.add(new TileData(zoom, x, y, data));
+        if (batch.size() >= batchSize) {
+            writeBatch();
+        }
+    }
+
+    /**
+     * Writes the pending tiles, restores the journal mode and releases the connection. The writer
+     * can still be used afterwards, a new connection will be opened as needed.
+     */
+    public void finish() throws IOException {
+        writeBatch();
+        if (cx == null) {
+            return;
+        }
+        try {
+            cx.setAutoCommit(true);
+            if (journalMode != null) {
+                // checkpoints the WAL into the main database file, the mode is left unchanged if
+                // other connections are using the database, the file is still readable then
+                try (Statement st = cx.createStatement();
+                        ResultSet rs = st.executeQuery("PRAGMA journal_mode=" + journalMode)) {
+                    if (rs.next() && !journalMode.equalsIgnoreCase(rs.getString(1))) {
+                        LOGGER.fine("Could not restore journal mode " + journalMode);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to restore the database journal mode", e);
+        } finally {
+            close();
+        }
+    }
+
+    /** Releases the connection, discarding the tiles not yet committed */
+    @Override
+    public void close() {
+        batch.clear();
+        if (cx != null) {
+            try {
+                if (!cx.getAutoCommit()) {
+                    cx.rollback();
+                    cx.setAutoCommit(true);
+                }
+                cx.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Failed to close the tiles connection", e);
+            }
+            cx = null;
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            if (cx == null) {
+                open();
+            }
+            try (PreparedStatement ps = cx.prepareStatement(insert)) {
+                for (TileData tile : batch) {
+                    ps.setInt(1, tile.zoom);
+                    ps.setInt(2, tile.x);
+                    ps.setInt(3, tile.y);
+                    ps.setBytes(4, tile.data);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            cx.commit();
+            batch.clear();
+        } catch (SQLException e) {
+            throw new IOException("Failed to write tiles", e);
+        }
+    }
+
+    private void open() throws SQLException {
+        cx = factory.getConnection();
+        try (Statement st = cx.createStatement();
+                ResultSet rs = st.executeQuery("PRAGMA journal_mode")) {
+            journalMode = rs.next() ? rs.getString(1) : null;
+        }
+        if (journalMode != null && !"wal".equalsIgnoreCase(journalMode)) {
+            execute("PRAGMA journal_mode=WAL");
+        } else {
+            journalMode = null;
+        }
+        // safe in WAL mode, the database cannot be corrupted, only the last commits lost
+        execute("PRAGMA synchronous=NORMAL");
+        cx.setAutoCommit(false);
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement st = cx.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    private static class TileData {
+        final int zoom;
+        final int x;
+        final int y;
+        final byte[] data;
+
+        TileData(int zoom, int x, int y, byte[] data) {
+            this.zoom = zoom;
+            this.x = x;
+            this.y = y;
+            this.data = data;
+        }
+    }
+}
@@ -18,14 +18,19 @@
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import javax.imageio.ImageIO;
 import javax.xml.namespace.QName;
+import org.geoserver.catalog.LayerInfo;
 import org.geoserver.config.GeoServer;
 import org.geoserver.data.test.SystemTestData;
 import org.geoserver.geopkg.wms.GeoPackageGetMapOutputFormat;
 import org.geoserver.gwc.GWC;
+import org.geoserver.gwc.layer.GeoServerTileLayer;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.tiles.FileBackedRawMap;
+import org.geoserver.tiles.ParallelTileRenderer;
 import org.geoserver.wms.GetMapRequest;
 import org.geoserver.wms.WMSInfo;
 import org.geoserver.wms.WMSMapContent;
@@ -35,11 +40,15 @@
 import org.geotools.geopkg.GeoPackage;
 import org.geotools.geopkg.Tile;
 import org.geotools.geopkg.TileEntry;
+import org.geotools.geopkg.TileReader;
 import org.geotools.image.test.ImageAssert;
 import org.geotools.util.URLs;
 import org.hamcrest.CoreMatchers;
 import org.junit.Before;
 import org.junit.Test;
+import org.geowebcache.io.ByteArrayResource;
+import org.geowebcache.storage.StorageBroker;
+import org.geowebcache.storage.TileObject;
 import org.locationtech.jts.geom.Envelope;
 
 /**
@@ -139,6 +148,102 @@ public void testTimeout() throws Exception {
         }
     }
 
+    @Test
+    public void testParallelRendering() throws Exception {
+        try {
+            System.setProperty(ParallelTileRenderer.RENDERING_THREADS, "1");
+            String sequential = tileKeys(produceTiles());
+            System.setProperty(ParallelTileRenderer.RENDERING_THREADS, "4");
+            String parallel = tileKeys(produceTiles());
+            assertEquals(sequential, parallel);
+        } finally {
+            System.clearProperty(ParallelTileRenderer.RENDERING_THREADS);
+        }
+    }
+
+    @Test
+    public void testReuseCachedTiles() throws Exception {
+        GWC gwc = GWC.get();
+        LayerInfo layer = getCatalog().getLayerByName(getLayerId(WORLD));
+        if (!gwc.hasTileLayer(layer)) {
+            gwc.add(new GeoServerTileLayer(layer, gwc.getConfig(), gwc.getGridSetBroker()));
+        }
+        // the two tiles of the first zoom level, the raster layer tiles are in JPEG
+        StorageBroker broker = applicationContext.getBean(StorageBroker.class);
+        byte[] cached = "cached tile".getBytes(StandardCharsets.UTF_8);
+        for (long[] index : new long[][] {{0, 0, 0}, {1, 0, 0}}) {
+            broker.put(
+                    TileObject.createCompleteTileObject(
+                            layer.prefixedName(),
+                            index,
+                            "EPSG:4326",
+                            "image/jpeg",
+                            null,
+                            new ByteArrayResource(cached)));
+        }
+        try {
+            // opt-in
+            assertTileData(cached, true, produceFirstLevel("use_cache", "true"));
+            // off by default, or when explicitly disabled
+            assertTileData(cached, false, produceFirstLevel(null, null));
+            assertTileData(cached, false, produceFirstLevel("use_cache", "false"));
+            // rendering options the tile layer does not account for
+            WMSMapContent mapContent = createMapContent(WORLD);
+            mapContent.getRequest().getFormatOptions().put("use_cache", "true");
+            mapContent.getRequest().getFormatOptions().put("dpi", "180");
+            assertTileData(cached, false, produceFirstLevel(mapContent));
+        } finally {
+            broker.delete(layer.prefixedName());
+        }
+    }
+
+    private WebMap produceFirstLevel(String option, String value) throws IOException {
+        WMSMapContent mapContent = createMapContent(WORLD);
+        if (option != null) mapContent.getRequest().getFormatOptions().put(option, value);
+        return produceFirstLevel(mapContent);
+    }
+
+    private WebMap produceFirstLevel(WMSMapContent mapContent) throws IOException {
+        mapContent.getRequest().getFormatOptions().put("min_zoom", "0");
+        mapContent.getRequest().getFormatOptions().put("max_zoom", "1");
+        return format.produceMap(mapContent);
+    }
+
+    private void assertTileData(byte[] expected, boolean same, WebMap map) throws IOException {
+        int count = 0;
+        try (GeoPackage geopkg = createGeoPackage(map);
+                TileReader reader =
+                        geopkg.reader(geopkg.tiles().get(0), null, null, null, null, null, null)) {
+            while (reader.hasNext()) {
+                assertEquals(same, Arrays.equals(expected, reader.next().getData()));
+                count++;
+            }
+        }
+        assertEquals(2, count);
+    }
+
+    private WebMap produceTiles() throws IOException {
+        WMSMapContent mapContent = createMapContent(WORLD);
+        mapContent.getRequest().getFormatOptions().put("min_zoom", "0");
+        mapContent.getRequest().getFormatOptions().put("max_zoom", "3");
+        return format.produceMap(mapContent);
+    }
+
+    private String tileKeys(WebMap map) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        try (GeoPackage geopkg = createGeoPackage(map);
+                TileReader reader =
+                        geopkg.reader(geopkg.tiles().get(0), null, null, null, null, null, null)) {
+            while (reader.hasNext()) {
+                Tile tile = reader.next();
+                assertTrue(tile.getData().length > 0);
+                sb.append(tile.getZoom()).append('/').append(tile.getColumn()).append('/');
+                sb.append(tile.getRow()).append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
     GeoPackage createGeoPackage(WebMap map) throws IOException {
         assertTrue(map instanceof FileBackedRawMap);
 
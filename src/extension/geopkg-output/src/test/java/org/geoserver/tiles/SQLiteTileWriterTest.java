@@ -0,0 +1,80 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.tiles;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SQLiteTileWriterTest {
+
+    static final String INSERT =
+            "INSERT INTO tiles (zoom_level, tile_column, tile_row, tile_data) VALUES (?, ?, ?, ?)";
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    String url;
+
+    @Before
+    public void createDatabase() throws Exception {
+        url = "jdbc:sqlite:" + new File(folder.getRoot(), "tiles.db").getAbsolutePath();
+        try (Connection cx = DriverManager.getConnection(url);
+                Statement st = cx.createStatement()) {
+            st.execute("PRAGMA journal_mode=DELETE");
+            st.execute(
+                    "CREATE TABLE tiles (zoom_level INTEGER, tile_column INTEGER,"
+                            + " tile_row INTEGER, tile_data BLOB)");
+        }
+    }
+
+    private String query(String sql) throws SQLException {
+        try (Connection cx = DriverManager.getConnection(url);
+                Statement st = cx.createStatement();
+                ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private SQLiteTileWriter writer() {
+        return new SQLiteTileWriter(() -> DriverManager.getConnection(url), INSERT, 3);
+    }
+
+    @Test
+    public void testBatches() throws Exception {
+        SQLiteTileWriter writer = writer();
+        for (int i = 0; i < 4; i++) {
+            writer.add(1, i, 0, new byte[] {(byte) i});
+        }
+        // only the full batch is committed, the database is in WAL mode while writing
+        assertEquals("3", query("SELECT COUNT(*) FROM tiles"));
+        assertEquals("wal", query("PRAGMA journal_mode").toLowerCase());
+
+        // the last tiles are written, and the original journal mode restored
+        writer.finish();
+        assertEquals("4", query("SELECT COUNT(*) FROM tiles"));
+        assertEquals("delete", query("PRAGMA journal_mode").toLowerCase());
+        assertEquals("03", query("SELECT hex(tile_data) FROM tiles WHERE tile_column = 3"));
+    }
+
+    @Test
+    public void testCloseDiscardsPending() throws Exception {
+        try (SQLiteTileWriter writer = writer()) {
+            for (int i = 0; i < 5; i++) {
+                writer.add(1, i, 0, new byte[] {(byte) i});
+            }
+        }
+        assertEquals("3", query("SELECT COUNT(*) FROM tiles"));
+    }
+}
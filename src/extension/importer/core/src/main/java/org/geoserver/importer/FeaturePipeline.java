@@ -0,0 +1,391 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.importer.ImportPipelineProgress.Stage;
+import org.geoserver.importer.job.ProgressMonitor;
+import org.geoserver.importer.transform.VectorTransformChain;
+import org.geotools.api.data.DataStore;
+import org.geotools.api.data.FeatureWriter;
+import org.geotools.api.data.Transaction;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Copies features into a target store reading, transforming and writing them on separate threads,
+ * connected by bounded queues.
+ *
+ * <p>A reader thread reads the source in chunks, a configurable number of worker threads convert
+ * and transform the chunks (a single one if the transform chain is not thread safe), and the
+ * calling thread writes them in source order, committing the transaction every {@code
+ * commitInterval} source features. The number of committed features is recorded in the task, so
+ * that a failed or canceled import can be resumed skipping the features already stored.
+ */
+class FeaturePipeline {
+
+    static final Logger LOGGER = Logging.getLogger(FeaturePipeline.class);
+
+    /** Maximum number of features handed over between stages at once */
+    static final int CHUNK_SIZE = 256;
+
+    static final long POLL_MILLIS = 100;
+
+    /** Source of the features to import, returns null when there are no more features */
+    @FunctionalInterface
+    interface Source {
+        SimpleFeature next() throws IOException;
+    }
+
+    /** Writes the transformed features into the target, in the pipeline transaction */
+    interface Sink extends Closeable {
+
+        void write(List<SimpleFeature> features) throws IOException;
+
+        /** Pushes the buffered features into the transaction, called before each commit */
+        void flush() throws IOException;
+    }
+
+    /** Writes features with a {@link FeatureWriter} in append mode */
+    static class WriterSink implements Sink {
+
+        final DataStore dataStore;
+
+        final String typeName;
+
+        final Transaction transaction;
+
+        FeatureWriter<SimpleFeatureType, SimpleFeature> writer;
+
+        WriterSink(DataStore dataStore, String typeName, Transaction transaction) {
+            this.dataStore = dataStore;
+            this.typeName = typeName;
+            this.transaction = transaction;
+        }
+
+        @Override
+        public void write(List<SimpleFeature> features) throws IOException {
+            if (writer == null) {
+                writer = dataStore.getFeatureWriterAppend(typeName, transaction);
+            }
+            for (SimpleFeature feature : features) {
+                SimpleFeature next = writer.next();
+                next.setAttributes(feature.getAttributes());
+                writer.write();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // batching writers flush on close
+            close();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        }
+    }
+
+    static final class Chunk {
+        final long sequence;
+        final List<SimpleFeature> features;
+        final int sourceCount;
+
+        Chunk(long sequence, List<SimpleFeature> features, int sourceCount) {
+            this.sequence = sequence;
+            this.features = features;
+            this.sourceCount = sourceCount;
+        }
+    }
+
+    /** Marks the end of the chunks produced by a stage */
+    static final Chunk END = new Chunk(-1, null, 0);
+
+    final ImportTask task;
+
+    final DataStore dataStore;
+
+    final String typeName;
+
+    final FeatureDataConverter converter;
+
+    final VectorTransformChain tx;
+
+    final int workers;
+
+    final int queueSize;
+
+    final int commitInterval;
+
+    final int chunkSize;
+
+    final ProgressMonitor monitor;
+
+    final ImportPipelineProgress progress = new ImportPipelineProgress();
+
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    final AtomicInteger skipped = new AtomicInteger();
+
+    /**
+     * @param task The task being imported
+     * @param dataStore The target store
+     * @param typeName The target feature type
+     * @param converter Converts source features to the target schema
+     * @param tx The transform chain
+     * @param threads The number of transform workers
+     * @param queueSize The number of chunks buffered between stages
+     * @param commitInterval The number of source features between commits, zero or negative to
+     *     commit only at the end
+     */
+    FeaturePipeline(
+            ImportTask task,
+            DataStore dataStore,
+            String typeName,
+            FeatureDataConverter converter,
+            VectorTransformChain tx,
+            int threads,
+            int queueSize,
+            int commitInterval) {
+        this.task = task;
+        this.dataStore = dataStore;
+        this.typeName = typeName;
+        this.converter = converter;
+        this.tx = tx;
+        this.workers = tx == null || tx.isThreadSafe() ? Math.max(1, threads) : 1;
+        this.queueSize = Math.max(1, queueSize);
+        this.commitInterval = commitInterval;
+        // commits happen between chunks, keep them small enough to honor the interval
+        this.chunkSize = commitInterval > 0 ? Math.min(CHUNK_SIZE, commitInterval) : CHUNK_SIZE;
+        this.monitor = task.progress();
+    }
+
+    /**
+     * Copies the features, skipping the ones already committed by a previous run of the task. The
+     * transaction is committed every {@code commitInterval} features, and left open at the end, for
+     * the caller to commit or roll back.
+     *
+     * @param source The features to import
+     * @param sink Writes the features, within the transaction
+     * @param transaction The transaction, committed every {@code commitInterval} features
+     */
+    void run(Source source, Sink sink, Transaction transaction) throws Exception {
+        int resumeFrom = task.getNumberCommitted();
+        if (resumeFrom > 0) {
+            LOGGER.info(
+                    "Resuming import into '" + typeName + "' after " + resumeFrom + " features");
+        }
+        task.setPipelineProgress(progress);
+
+        BlockingQueue<Chunk> toTransform = new ArrayBlockingQueue<>(queueSize);
+        // bounded by the permits, chunks get there out of order and are sorted by the writer
+        BlockingQueue<Chunk> toWrite = new LinkedBlockingQueue<>();
+        Semaphore inFlight = new Semaphore(2 * queueSize + workers);
+        SimpleFeatureType schema = dataStore.getSchema(typeName);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor =
+                Executors.newFixedThreadPool(
+                        workers + 1,
+                        r -> {
+                            Thread t =
+                                    new Thread(
+                                            r,
+                                            "ImporterPipeline-" + threadCounter.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        });
+        try {
+            executor.execute(() -> read(source, resumeFrom, toTransform, inFlight));
+            for (int i = 0; i < workers; i++) {
+                executor.execute(() -> transform(schema, toTransform, toWrite));
+            }
+
+            // write on the calling thread, in source order
+            Map<Long, Chunk> pending = new HashMap<>();
+            long nextSequence = 0;
+            int ended = 0;
+            int processed = resumeFrom;
+            int uncommitted = 0;
+            while (ended < workers && !isStopped()) {
+                Chunk chunk = toWrite.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (chunk == null) {
+                    continue;
+                } else if (chunk == END) {
+                    ended++;
+                    continue;
+                }
+                pending.put(chunk.sequence, chunk);
+                while ((chunk = pending.remove(nextSequence)) != null && !isStopped()) {
+                    nextSequence++;
+                    sink.write(chunk.features);
+                    inFlight.release();
+                    progress.add(Stage.WRITE, chunk.features.size());
+                    processed += chunk.sourceCount;
+                    uncommitted += chunk.sourceCount;
+                    task.setNumberProcessed(processed);
+
+                    if (commitInterval > 0 && uncommitted >= commitInterval) {
+                        sink.flush();
+                        transaction.commit();
+                        task.setNumberCommitted(processed);
+                        uncommitted = 0;
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            fail(t);
+        } finally {
+            executor.shutdownNow();
+            sink.close();
+            executor.awaitTermination(POLL_MILLIS * 10, TimeUnit.MILLISECONDS);
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof Exception) {
+            throw (Exception) error;
+        } else if (error != null) {
+            throw new Exception(error);
+        }
+        if (skipped.get() > 0) {
+            task.addMessage(Level.WARNING, skipped.get() + " features were skipped.");
+        }
+        LOGGER.info("Pipelined load into '" + typeName + "' completed: " + progress);
+    }
+
+    /** Reads the source in chunks, until exhausted or stopped */
+    void read(
+            Source source, int resumeFrom, BlockingQueue<Chunk> toTransform, Semaphore inFlight) {
+        try {
+            long sequence = 0;
+            int index = 0;
+            List<SimpleFeature> features = new ArrayList<>(chunkSize);
+            int sourceCount = 0;
+            SimpleFeature feature;
+            while (!isStopped() && (feature = source.next()) != null) {
+                progress.add(Stage.READ, 1);
+                if (index++ < resumeFrom) {
+                    continue;
+                }
+                features.add(feature);
+                sourceCount++;
+                if (features.size() == chunkSize) {
+                    if (!acquire(inFlight)
+                            || !put(toTransform, new Chunk(sequence++, features, sourceCount))) {
+                        return;
+                    }
+                    features = new ArrayList<>(chunkSize);
+                    sourceCount = 0;
+                }
+            }
+            if (!features.isEmpty()
+                    && (!acquire(inFlight)
+                            || !put(toTransform, new Chunk(sequence, features, sourceCount)))) {
+                return;
+            }
+            for (int i = 0; i < workers; i++) {
+                if (!put(toTransform, END)) {
+                    return;
+                }
+            }
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    /** Converts and transforms chunks of features to the target schema */
+    void transform(
+            SimpleFeatureType schema,
+            BlockingQueue<Chunk> toTransform,
+            BlockingQueue<Chunk> toWrite) {
+        try {
+            SimpleFeatureBuilder builder = new SimpleFeatureBuilder(schema);
+            while (!isStopped()) {
+                Chunk chunk = toTransform.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (chunk == null) {
+                    continue;
+                } else if (chunk == END) {
+                    toWrite.put(END);
+                    return;
+                }
+                List<SimpleFeature> transformed = new ArrayList<>(chunk.features.size());
+                for (SimpleFeature feature : chunk.features) {
+                    SimpleFeature next = builder.buildFeature(null);
+                    converter.convert(feature, next);
+
+                    // @hack #45678 - mask empty geometry or postgis will complain
+                    Geometry geom = (Geometry) next.getDefaultGeometry();
+                    if (geom != null && geom.isEmpty()) {
+                        next.setDefaultGeometry(null);
+                    }
+
+                    if (tx != null) {
+                        next = tx.inline(task, dataStore, feature, next);
+                    }
+                    if (next == null) {
+                        skipped.incrementAndGet();
+                    } else {
+                        transformed.add(next);
+                    }
+                }
+                progress.add(Stage.TRANSFORM, chunk.sourceCount);
+                toWrite.put(new Chunk(chunk.sequence, transformed, chunk.sourceCount));
+            }
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    boolean isStopped() {
+        return failure.get() != null || monitor.isCanceled();
+    }
+
+    void fail(Throwable t) {
+        if (failure.compareAndSet(null, t)) {
+            LOGGER.log(Level.FINE, "Pipelined load into '" + typeName + "' failed", t);
+        }
+    }
+
+    private boolean put(BlockingQueue<Chunk> queue, Chunk chunk) throws InterruptedException {
+        while (!isStopped()) {
+            if (queue.offer(chunk, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean acquire(Semaphore semaphore) throws InterruptedException {
+        while (!isStopped()) {
+            if (semaphore.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
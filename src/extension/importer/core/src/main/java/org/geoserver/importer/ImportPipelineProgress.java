@@ -0,0 +1,71 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.importer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the number of features that went through each stage of a pipelined import, and the
+ * resulting throughput, in features per second.
+ */
+public class ImportPipelineProgress {
+
+    /** The stages of a pipelined import */
+    public enum Stage {
+        READ,
+        TRANSFORM,
+        WRITE
+    }
+
+    private final long start = System.nanoTime();
+
+    private final Map<Stage, LongAdder> counters = new LinkedHashMap<>();
+
+    public ImportPipelineProgress() {
+        for (Stage stage : Stage.values()) {
+            counters.put(stage, new LongAdder());
+        }
+    }
+
+    void add(Stage stage, long count) {
+        counters.get(stage).add(count);
+    }
+
+    /** Number of features that went through the given stage */
+    public long getCount(Stage stage) {
+        return counters.get(stage).sum();
+    }
+
+    /** Average number of features per second that went through the given stage */
+    public double getRate(Stage stage) {
+        long elapsed = getElapsedMillis();
+        return elapsed > 0 ? getCount(stage) * 1000d / elapsed : 0;
+    }
+
+    /** Milliseconds elapsed since the pipeline started */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Stage stage : Stage.values()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(stage.name().toLowerCase())
+                    .append(" ")
+                    .append(getCount(stage))
+                    .append(" (")
+                    .append(Math.round(getRate(stage)))
+                    .append("/s)");
+        }
+        return sb.toString();
+    }
+}
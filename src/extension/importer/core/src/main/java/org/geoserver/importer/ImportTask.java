@@ -99,6 +99,12 @@ public static enum State {
 
     int numberProcessed;
 
+    /** number of source features committed by a pipelined import, used to resume it */
+    int numberCommitted;
+
+    /** throughput of the stages of a running pipelined import */
+    transient ImportPipelineProgress pipelineProgress;
+
     String typeName;
 
     String typeSpec;
@@ -245,6 +251,31 @@ public void setNumberProcessed(int numberProcessed) {
         this.numberProcessed = numberProcessed;
     }
 
+    /**
+     * Number of source features already committed to the target store by a pipelined import that
+     * did not complete. Running the task again skips these features and appends the remaining ones
+     * to the same target.
+     */
+    public int getNumberCommitted() {
+        return numberCommitted;
+    }
+
+    public void setNumberCommitted(int numberCommitted) {
+        this.numberCommitted = numberCommitted;
+    }
+
+    /**
+     * Returns the throughput of the reading, transforming and writing stages of a pipelined import,
+     * or null if the task is not being imported in pipelined mode
+     */
+    public ImportPipelineProgress getPipelineProgress() {
+        return pipelineProgress;
+    }
+
+    public void setPipelineProgress(ImportPipelineProgress pipelineProgress) {
+        this.pipelineProgress = pipelineProgress;
+    }
+
     public int getTotalToProcess() {
         return totalToProcess;
     }
@@ -79,6 +79,8 @@
 import org.geotools.api.data.FeatureWriter;
 import org.geotools.api.data.FileGroupProvider;
 import org.geotools.api.data.FileServiceInfo;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.QueryCapabilities;
 import org.geotools.api.data.ServiceInfo;
 import org.geotools.api.data.SimpleFeatureStore;
 import org.geotools.api.data.Transaction;
@@ -86,6 +88,7 @@
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.feature.type.FeatureType;
 import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.sort.SortBy;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
 import org.geotools.api.style.Style;
 import org.geotools.api.style.StyledLayerDescriptor;
@@ -98,6 +101,7 @@
 import org.geotools.data.directory.DirectoryDataStore;
 import org.geotools.data.shapefile.ShapefileDataStore;
 import org.geotools.feature.FeatureCollection;
+import org.geotools.feature.FeatureIterator;
 import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
 import org.geotools.geometry.GeneralBounds;
 import org.geotools.geometry.jts.ReferencedEnvelope;
@@ -1460,10 +1464,24 @@ void loadIntoDataStore(
             featureType = featureDataConverter.convertType(featureType, format, data, task);
             UpdateMode updateMode = task.getUpdateMode();
 
+            // a pipelined import that committed some features before stopping appends the
+            // remaining ones to the same native type
+            boolean pipelined =
+                    configuration.getPipelineThreads() > 0 || configuration.isBulkLoad();
+            boolean resuming =
+                    pipelined
+                            && task.getNumberCommitted() > 0
+                            && updateMode != UpdateMode.UPDATE
+                            && Arrays.asList(dataStore.getTypeNames())
+                                    .contains(featureType.getTypeName());
+            if (!resuming) {
+                task.setNumberCommitted(0);
+            }
+
             // created native type name in target datastore, will be dropped if import fails
             String createdNativeTypeName = null;
 
-            if (updateMode == UpdateMode.CREATE) {
+            if (updateMode == UpdateMode.CREATE && !resuming) {
                 // find a unique native name in the target store (to avoid replacing existing
                 // content)
                 nativeName = findUniqueNativeFeatureTypeName(featureType, store);
@@ -1511,7 +1529,16 @@ void loadIntoDataStore(
             // apply the feature type transform
             featureType = tx.inline(task, dataStore, featureType);
 
-            if (updateMode == UpdateMode.CREATE) {
+            if (resuming) {
+                LOGGER.info(
+                        "Resume loading layer '"
+                                + task.getLayer().getResource().getName()
+                                + "' into native schema '"
+                                + featureType.getTypeName()
+                                + "' after "
+                                + task.getNumberCommitted()
+                                + " committed features");
+            } else if (updateMode == UpdateMode.CREATE) {
                 LOGGER.info(
                         "Create layer '"
                                 + task.getLayer().getResource().getName()
@@ -1570,7 +1597,19 @@ void loadIntoDataStore(
             }
 
             // Move features
-            if (format instanceof DataStoreFormat) {
+            if (pipelined) {
+                error =
+                        copyPipelined(
+                                data,
+                                task,
+                                format,
+                                dataStore,
+                                transaction,
+                                createdNativeTypeName,
+                                featureType.getTypeName(),
+                                featureDataConverter,
+                                tx);
+            } else if (format instanceof DataStoreFormat) {
                 error =
                         copyFromFeatureSource(
                                 data,
@@ -1811,6 +1850,155 @@ private LayerInfo checkResourceExists(
         return originalLayer;
     }
 
+    /**
+     * Copies content using a {@link FeaturePipeline}, reading, transforming and writing features on
+     * separate threads and committing every {@link ImporterInfo#getCommitInterval()} features.
+     * Database targets are bulk loaded if {@link ImporterInfo#isBulkLoad()} is enabled. If
+     * the copy fails or is canceled after some features have been committed, the target schema is
+     * preserved, and running the task again appends the remaining features.
+     *
+     * @return {@code null} if successful, or error condition throwable
+     */
+    @SuppressWarnings("unchecked") // vague about feature types
+    Throwable copyPipelined(
+            ImportData data,
+            ImportTask task,
+            VectorFormat format,
+            DataStore dataStoreDestination,
+            Transaction transaction,
+            String createdFeatureTypeName,
+            String nativeFeatureTypeName,
+            FeatureDataConverter featureDataConverter,
+            VectorTransformChain tx) {
+        LOGGER.fine("beginning import - pipelined");
+
+        Throwable error = null;
+        ProgressMonitor monitor = task.progress();
+        FeaturePipeline pipeline =
+                new FeaturePipeline(
+                        task,
+                        dataStoreDestination,
+                        nativeFeatureTypeName,
+                        featureDataConverter,
+                        tx,
+                        configuration.getPipelineThreads(),
+                        configuration.getPipelineQueueSize(),
+                        configuration.getCommitInterval());
+        FeaturePipeline.Sink sink = null;
+        try {
+            task.clearMessages();
+            task.setTotalToProcess(format.getFeatureCount(data, task));
+
+            if (configuration.isBulkLoad()) {
+                sink =
+                        JDBCBulkLoader.create(
+                                dataStoreDestination, nativeFeatureTypeName, transaction);
+                if (sink == null) {
+                    task.addMessage(
+                            Level.INFO,
+                            "Bulk loading not supported by the target, using regular inserts");
+                }
+            }
+            if (sink == null) {
+                sink =
+                        new FeaturePipeline.WriterSink(
+                                dataStoreDestination, nativeFeatureTypeName, transaction);
+            }
+
+            if (format instanceof DataStoreFormat) {
+                FeatureSource fs = ((DataStoreFormat) format).getFeatureSource(data, task);
+                Query query = getStableOrderQuery(fs, task);
+                try (FeatureIterator it = fs.getFeatures(query).features()) {
+                    pipeline.run(
+                            () -> it.hasNext() ? (SimpleFeature) it.next() : null,
+                            sink,
+                            transaction);
+                }
+            } else {
+                @SuppressWarnings("PMD.CloseResource") // disposed by the format
+                FeatureReader reader = format.read(data, task);
+                try {
+                    pipeline.run(
+                            () -> reader.hasNext() ? (SimpleFeature) reader.next() : null,
+                            sink,
+                            transaction);
+                } finally {
+                    format.dispose(reader, task);
+                }
+            }
+            if (!monitor.isCanceled()) {
+                transaction.commit();
+                task.setNumberCommitted(0);
+                task.addMessage(Level.INFO, "Pipelined import: " + pipeline.progress);
+            }
+        } catch (Throwable e) {
+            error = e;
+            LOGGER.fine("Pipelined load in to target error:" + error);
+        } finally {
+            task.setPipelineProgress(null);
+        }
+
+        if (error != null || monitor.isCanceled()) {
+            LOGGER.log(
+                    Level.INFO,
+                    "Pipelined import "
+                            + (error != null ? "error" : "canceled")
+                            + ", data insert into '"
+                            + nativeFeatureTypeName
+                            + "' rolling back uncommitted features");
+            try {
+                transaction.rollback();
+            } catch (Exception e1) {
+                LOGGER.log(Level.WARNING, "Error rolling back transaction", e1);
+            }
+
+            if (task.getNumberCommitted() > 0) {
+                task.addMessage(
+                        Level.WARNING,
+                        task.getNumberCommitted()
+                                + " features were committed, running the import again will"
+                                + " load the remaining ones");
+            } else if (createdFeatureTypeName != null) {
+                // nothing committed, drop the type as the other copy methods do
+                LOGGER.log(
+                        Level.WARNING,
+                        "Unable to load data, removing created schema '"
+                                + createdFeatureTypeName
+                                + "'");
+                try {
+                    dropSchema(dataStoreDestination, createdFeatureTypeName);
+                } catch (Exception e1) {
+                    LOGGER.log(
+                            Level.WARNING,
+                            "Error dropping schema '" + createdFeatureTypeName + "' after rollback",
+                            e1);
+                }
+            }
+        }
+        return error;
+    }
+
+    /**
+     * Returns a query reading the source in a repeatable order, sorted by feature id, so that a
+     * resumed pipelined import skips exactly the features committed by the previous run. Sources
+     * that cannot be sorted are read in their own order, which file based sources keep stable, but
+     * databases do not guarantee: a warning is added to the task when resuming from one of them.
+     */
+    private Query getStableOrderQuery(FeatureSource<?, ?> fs, ImportTask task) {
+        Query query = new Query(fs.getSchema().getName().getLocalPart());
+        QueryCapabilities capabilities = fs.getQueryCapabilities();
+        if (capabilities != null
+                && capabilities.supportsSorting(new SortBy[] {SortBy.NATURAL_ORDER})) {
+            query.setSortBy(new SortBy[] {SortBy.NATURAL_ORDER});
+        } else if (task.getNumberCommitted() > 0) {
+            task.addMessage(
+                    Level.WARNING,
+                    "The source cannot be sorted by feature id, the features skipped when"
+                            + " resuming might not match the ones committed before");
+        }
+        return query;
+    }
+
     /**
      * Copy content from import data, used to feature source.
      *
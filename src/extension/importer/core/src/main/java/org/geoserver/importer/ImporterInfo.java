@@ -36,4 +36,42 @@ public interface ImporterInfo extends Serializable {
 
     /** @see #getContextExpiration() */
     void setContextExpiration(double contextExpiration);
+
+    /**
+     * Number of threads transforming features in a pipelined import, where reading, transforming
+     * and writing features run on separate threads. Set to zero, or to a negative number, to run
+     * imports on a single thread. Defaults to zero.
+     */
+    int getPipelineThreads();
+
+    /** @see #getPipelineThreads() */
+    void setPipelineThreads(int pipelineThreads);
+
+    /**
+     * Number of feature chunks buffered between the stages of a pipelined import. Defaults to 16.
+     */
+    int getPipelineQueueSize();
+
+    /** @see #getPipelineQueueSize() */
+    void setPipelineQueueSize(int pipelineQueueSize);
+
+    /**
+     * Number of features written between commits in a pipelined import. An import stopped after
+     * a commit can be resumed, skipping the features already committed. Set to zero, or to a
+     * negative number, to load all features in a single transaction. Defaults to zero.
+     */
+    int getCommitInterval();
+
+    /** @see #getCommitInterval() */
+    void setCommitInterval(int commitInterval);
+
+    /**
+     * When true, pipelined imports into database targets use the database bulk loading mechanism
+     * ({@code COPY} for PostGIS, JDBC batch inserts for the others) instead of inserting one row at
+     * a time. Enabling it also enables pipelined imports. Defaults to false.
+     */
+    boolean isBulkLoad();
+
+    /** @see #isBulkLoad() */
+    void setBulkLoad(boolean bulkLoad);
 }
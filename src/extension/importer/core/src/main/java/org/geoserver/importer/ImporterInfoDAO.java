@@ -32,6 +32,14 @@ public class ImporterInfoDAO {
 
     public static final String CONTEXT_EXPIRATION_KEY = "importer.contextExpiration";
 
+    public static final String PIPELINE_THREADS_KEY = "importer.pipeline.threads";
+
+    public static final String PIPELINE_QUEUE_SIZE_KEY = "importer.pipeline.queueSize";
+
+    public static final String COMMIT_INTERVAL_KEY = "importer.commitInterval";
+
+    public static final String BULK_LOAD_KEY = "importer.bulkLoad";
+
     /**
      * Reads the importer configuration from the specified resource, or returns a default
      *
@@ -60,6 +68,11 @@ public void read(Resource resource, ImporterInfo info) throws IOException {
                 getConfig(props, MAX_SYNCH_KEY, Integer.class, () -> processors));
         info.setContextExpiration(
                 getConfig(props, CONTEXT_EXPIRATION_KEY, Double.class, () -> 1440d));
+        info.setPipelineThreads(getConfig(props, PIPELINE_THREADS_KEY, Integer.class, () -> 0));
+        info.setPipelineQueueSize(
+                getConfig(props, PIPELINE_QUEUE_SIZE_KEY, Integer.class, () -> 16));
+        info.setCommitInterval(getConfig(props, COMMIT_INTERVAL_KEY, Integer.class, () -> 0));
+        info.setBulkLoad(getConfig(props, BULK_LOAD_KEY, Boolean.class, () -> false));
     }
 
     private <T> T getConfig(
@@ -104,6 +117,12 @@ void write(ImporterInfo configuration, Resource resource) throws IOException {
                 MAX_ASYNCH_KEY, String.valueOf(configuration.getMaxAsynchronousImports()));
         props.setProperty(
                 CONTEXT_EXPIRATION_KEY, String.valueOf(configuration.getContextExpiration()));
+        props.setProperty(
+                PIPELINE_THREADS_KEY, String.valueOf(configuration.getPipelineThreads()));
+        props.setProperty(
+                PIPELINE_QUEUE_SIZE_KEY, String.valueOf(configuration.getPipelineQueueSize()));
+        props.setProperty(COMMIT_INTERVAL_KEY, String.valueOf(configuration.getCommitInterval()));
+        props.setProperty(BULK_LOAD_KEY, String.valueOf(configuration.isBulkLoad()));
         try (OutputStream os = resource.out()) {
             props.store(os, null);
         }
@@ -13,6 +13,10 @@ public class ImporterInfoImpl implements ImporterInfo {
     int maxSynchronousImports;
     int maxAsynchronousImports;
     double contextExpiration = 1440;
+    int pipelineThreads;
+    int pipelineQueueSize = 16;
+    int commitInterval;
+    boolean bulkLoad;
 
     public ImporterInfoImpl() {}
 
@@ -21,6 +25,10 @@ public ImporterInfoImpl(ImporterInfo configuration) {
         this.maxSynchronousImports = configuration.getMaxSynchronousImports();
         this.maxAsynchronousImports = configuration.getMaxAsynchronousImports();
         this.contextExpiration = configuration.getContextExpiration();
+        this.pipelineThreads = configuration.getPipelineThreads();
+        this.pipelineQueueSize = configuration.getPipelineQueueSize();
+        this.commitInterval = configuration.getCommitInterval();
+        this.bulkLoad = configuration.isBulkLoad();
     }
 
     @Override
@@ -63,6 +71,46 @@ public void setContextExpiration(double contextExpiration) {
         this.contextExpiration = contextExpiration;
     }
 
+    @Override
+    public int getPipelineThreads() {
+        return pipelineThreads;
+    }
+
+    @Override
+    public void setPipelineThreads(int pipelineThreads) {
+        this.pipelineThreads = pipelineThreads;
+    }
+
+    @Override
+    public int getPipelineQueueSize() {
+        return pipelineQueueSize;
+    }
+
+    @Override
+    public void setPipelineQueueSize(int pipelineQueueSize) {
+        this.pipelineQueueSize = pipelineQueueSize;
+    }
+
+    @Override
+    public int getCommitInterval() {
+        return commitInterval;
+    }
+
+    @Override
+    public void setCommitInterval(int commitInterval) {
+        this.commitInterval = commitInterval;
+    }
+
+    @Override
+    public boolean isBulkLoad() {
+        return bulkLoad;
+    }
+
+    @Override
+    public void setBulkLoad(boolean bulkLoad) {
+        this.bulkLoad = bulkLoad;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -71,12 +119,23 @@ public boolean equals(Object o) {
         return maxSynchronousImports == that.maxSynchronousImports
                 && maxAsynchronousImports == that.maxAsynchronousImports
                 && contextExpiration == that.contextExpiration
+                && pipelineThreads == that.pipelineThreads
+                && pipelineQueueSize == that.pipelineQueueSize
+                && commitInterval == that.commitInterval
+                && bulkLoad == that.bulkLoad
                 && Objects.equals(uploadRoot, that.uploadRoot);
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(
-                uploadRoot, maxSynchronousImports, maxAsynchronousImports, contextExpiration);
+                uploadRoot,
+                maxSynchronousImports,
+                maxAsynchronousImports,
+                contextExpiration,
+                pipelineThreads,
+                pipelineQueueSize,
+                commitInterval,
+                bulkLoad);
     }
 }
@@ -0,0 +1,334 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.importer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geotools.api.data.DataStore;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.data.Transaction;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.jdbc.AutoGeneratedPrimaryKeyColumn;
+import org.geotools.jdbc.JDBCDataStore;
+import org.geotools.jdbc.JDBCFeatureStore;
+import org.geotools.jdbc.PreparedStatementSQLDialect;
+import org.geotools.jdbc.PrimaryKeyColumn;
+import org.geotools.jdbc.SQLDialect;
+import org.geotools.jdbc.SequencedPrimaryKeyColumn;
+import org.geotools.util.factory.Hints;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKBWriter;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Bulk loads features into a {@link JDBCDataStore} table, bypassing the row by row inserts of the
+ * GeoTools feature writers. PostGIS targets are loaded with {@code COPY FROM STDIN}, other
+ * databases with JDBC batch inserts, when the dialect supports prepared statements.
+ *
+ * <p>The loaders work on the connection associated to the import transaction, so commits and
+ * rollbacks happen as with the feature writers. Bulk loading is used only when the primary key of
+ * the target table is generated by the database, as the key columns are not part of the inserts.
+ */
+abstract class JDBCBulkLoader implements FeaturePipeline.Sink {
+
+    static final Logger LOGGER = Logging.getLogger(JDBCBulkLoader.class);
+
+    static final String POSTGIS_PACKAGE = "org.geotools.data.postgis";
+
+    final JDBCDataStore store;
+
+    final SimpleFeatureType schema;
+
+    final Connection cx;
+
+    JDBCBulkLoader(JDBCDataStore store, SimpleFeatureType schema, Connection cx) {
+        this.store = store;
+        this.schema = schema;
+        this.cx = cx;
+    }
+
+    /**
+     * Returns a bulk loader for the given target, or null if the target does not support bulk
+     * loading
+     */
+    static JDBCBulkLoader create(DataStore dataStore, String typeName, Transaction transaction)
+            throws IOException {
+        if (!(dataStore instanceof JDBCDataStore)) {
+            return null;
+        }
+        JDBCDataStore store = (JDBCDataStore) dataStore;
+        boolean postgis = store.getSQLDialect().getClass().getName().startsWith(POSTGIS_PACKAGE);
+        SimpleFeatureSource source = store.getFeatureSource(typeName);
+        if (!(source instanceof JDBCFeatureStore)
+                || !isGenerated((JDBCFeatureStore) source, postgis)) {
+            LOGGER.fine("Primary key of " + typeName + " is not generated, cannot bulk load it");
+            return null;
+        }
+
+        SimpleFeatureType schema = source.getSchema();
+        Connection cx = store.getConnection(transaction);
+        if (postgis) {
+            try {
+                return new CopyLoader(store, schema, cx, cx.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "COPY not available, will use batch inserts", e);
+            }
+        }
+        if (store.getSQLDialect() instanceof PreparedStatementSQLDialect) {
+            return new BatchLoader(store, schema, cx);
+        }
+        return null;
+    }
+
+    /** Checks the database will generate the key values missing from the inserts */
+    static boolean isGenerated(JDBCFeatureStore featureStore, boolean postgis) {
+        for (PrimaryKeyColumn column : featureStore.getPrimaryKey().getColumns()) {
+            // sequences are column defaults only for PostgreSQL serial columns
+            boolean generated =
+                    column instanceof AutoGeneratedPrimaryKeyColumn
+                            || (postgis && column instanceof SequencedPrimaryKeyColumn);
+            if (!generated) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Encodes the qualified table name */
+    void encodeTableName(StringBuffer sql) {
+        SQLDialect dialect = store.getSQLDialect();
+        if (store.getDatabaseSchema() != null) {
+            dialect.encodeSchemaName(store.getDatabaseSchema(), sql);
+            sql.append(".");
+        }
+        dialect.encodeTableName(schema.getTypeName(), sql);
+    }
+
+    /** Encodes the list of the attribute columns */
+    void encodeColumnNames(StringBuffer sql) {
+        sql.append("(");
+        List<AttributeDescriptor> descriptors = schema.getAttributeDescriptors();
+        for (int i = 0; i < descriptors.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            store.getSQLDialect().encodeColumnName(null, descriptors.get(i).getLocalName(), sql);
+        }
+        sql.append(")");
+    }
+
+    static int getSRID(GeometryDescriptor descriptor) {
+        Object srid = descriptor.getUserData().get(JDBCDataStore.JDBC_NATIVE_SRID);
+        return srid instanceof Integer ? (Integer) srid : -1;
+    }
+
+    static int getDimension(GeometryDescriptor descriptor) {
+        Object dimension = descriptor.getUserData().get(Hints.COORDINATE_DIMENSION);
+        return dimension instanceof Integer ? (Integer) dimension : 2;
+    }
+
+    /** Loads features with PostgreSQL {@code COPY}, in text format */
+    static class CopyLoader extends JDBCBulkLoader {
+
+        /** Timestamps are sent in UTC, with an explicit offset, not to depend on the server zone */
+        static final DateTimeFormatter TIMESTAMP_FORMAT =
+                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSSxxx")
+                        .withZone(ZoneOffset.UTC);
+
+        final CopyManager copyManager;
+
+        final String copySql;
+
+        CopyLoader(
+                JDBCDataStore store, SimpleFeatureType schema, Connection cx, PGConnection pgc)
+                throws SQLException {
+            super(store, schema, cx);
+            this.copyManager = pgc.getCopyAPI();
+            StringBuffer sql = new StringBuffer("COPY ");
+            encodeTableName(sql);
+            sql.append(" ");
+            encodeColumnNames(sql);
+            sql.append(" FROM STDIN");
+            this.copySql = sql.toString();
+        }
+
+        @Override
+        public void write(List<SimpleFeature> features) throws IOException {
+            StringBuilder rows = new StringBuilder();
+            List<AttributeDescriptor> descriptors = schema.getAttributeDescriptors();
+            for (SimpleFeature feature : features) {
+                for (int i = 0; i < descriptors.size(); i++) {
+                    if (i > 0) {
+                        rows.append('\t');
+                    }
+                    encodeValue(feature.getAttribute(i), descriptors.get(i), rows);
+                }
+                rows.append('\n');
+            }
+            try {
+                copyManager.copyIn(copySql, new StringReader(rows.toString()));
+            } catch (SQLException e) {
+                throw new IOException("Failed to copy features into " + schema.getTypeName(), e);
+            }
+        }
+
+        static void encodeValue(Object value, AttributeDescriptor descriptor, StringBuilder row) {
+            if (value == null) {
+                row.append("\\N");
+            } else if (value instanceof Geometry) {
+                // hex encoded EWKB, parsed by the geometry input function
+                Geometry geometry = (Geometry) value;
+                GeometryDescriptor gd = (GeometryDescriptor) descriptor;
+                int srid = getSRID(gd);
+                if (srid > 0 && geometry.getSRID() != srid) {
+                    // the feature might be shared with other pipeline stages, don't modify it
+                    geometry = geometry.copy();
+                    geometry.setSRID(srid);
+                }
+                WKBWriter writer = new WKBWriter(getDimension(gd), srid > 0);
+                row.append(WKBWriter.toHex(writer.write(geometry)));
+            } else if (value instanceof byte[]) {
+                row.append("\\\\x").append(WKBWriter.toHex((byte[]) value));
+            } else if (value instanceof Date
+                    && !(value instanceof java.sql.Date)
+                    && !(value instanceof java.sql.Time)) {
+                row.append(TIMESTAMP_FORMAT.format(((Date) value).toInstant()));
+            } else {
+                escape(value.toString(), row);
+            }
+        }
+
+        static void escape(String value, StringBuilder row) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\':
+                        row.append("\\\\");
+                        break;
+                    case '\n':
+                        row.append("\\n");
+                        break;
+                    case '\r':
+                        row.append("\\r");
+                        break;
+                    case '\t':
+                        row.append("\\t");
+                        break;
+                    default:
+                        row.append(c);
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+            // each chunk is sent as a separate COPY command
+        }
+
+        @Override
+        public void close() {
+            // the connection belongs to the transaction
+        }
+    }
+
+    /** Loads features with JDBC batch inserts */
+    static class BatchLoader extends JDBCBulkLoader {
+
+        final PreparedStatementSQLDialect dialect;
+
+        PreparedStatement ps;
+
+        BatchLoader(JDBCDataStore store, SimpleFeatureType schema, Connection cx) {
+            super(store, schema, cx);
+            this.dialect = (PreparedStatementSQLDialect) store.getSQLDialect();
+        }
+
+        private PreparedStatement prepare() throws SQLException {
+            StringBuffer sql = new StringBuffer("INSERT INTO ");
+            encodeTableName(sql);
+            sql.append(" ");
+            encodeColumnNames(sql);
+            sql.append(" VALUES (");
+            List<AttributeDescriptor> descriptors = schema.getAttributeDescriptors();
+            for (int i = 0; i < descriptors.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                AttributeDescriptor descriptor = descriptors.get(i);
+                if (descriptor instanceof GeometryDescriptor) {
+                    GeometryDescriptor gd = (GeometryDescriptor) descriptor;
+                    @SuppressWarnings("unchecked")
+                    Class<? extends Geometry> binding =
+                            (Class<? extends Geometry>) gd.getType().getBinding();
+                    dialect.prepareGeometryValue(
+                            binding, getDimension(gd), getSRID(gd), binding, sql);
+                } else {
+                    sql.append("?");
+                }
+            }
+            sql.append(")");
+            LOGGER.fine(sql.toString());
+            return cx.prepareStatement(sql.toString());
+        }
+
+        @Override
+        public void write(List<SimpleFeature> features) throws IOException {
+            List<AttributeDescriptor> descriptors = schema.getAttributeDescriptors();
+            try {
+                if (ps == null) {
+                    ps = prepare();
+                }
+                for (SimpleFeature feature : features) {
+                    for (int i = 0; i < descriptors.size(); i++) {
+                        AttributeDescriptor descriptor = descriptors.get(i);
+                        Class<?> binding = descriptor.getType().getBinding();
+                        Object value = feature.getAttribute(i);
+                        if (descriptor instanceof GeometryDescriptor) {
+                            GeometryDescriptor gd = (GeometryDescriptor) descriptor;
+                            dialect.setGeometryValue(
+                                    (Geometry) value,
+                                    getDimension(gd),
+                                    getSRID(gd),
+                                    binding,
+                                    ps,
+                                    i + 1);
+                        } else {
+                            dialect.setValue(value, binding, ps, i + 1, cx);
+                        }
+                    }
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            } catch (SQLException e) {
+                throw new IOException("Failed to insert features into " + schema.getTypeName(), e);
+            }
+        }
+
+        @Override
+        public void flush() {
+            // batches are executed after each chunk
+        }
+
+        @Override
+        public void close() {
+            store.closeSafe(ps);
+            ps = null;
+        }
+    }
+}
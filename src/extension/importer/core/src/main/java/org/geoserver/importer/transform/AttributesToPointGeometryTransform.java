@@ -152,4 +152,9 @@ public String toString() {
                 + '\''
                 + '}';
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
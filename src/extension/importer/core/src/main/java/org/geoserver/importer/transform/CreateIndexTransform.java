@@ -15,6 +15,7 @@
 import org.geotools.api.data.DataAccess;
 import org.geotools.api.data.Transaction;
 import org.geotools.jdbc.JDBCDataStore;
+import org.geotools.jdbc.SQLDialect;
 
 /** @author Ian Schneider <ischneider@opengeo.org> */
 public class CreateIndexTransform extends AbstractTransform
@@ -57,8 +58,7 @@ private void createIndex(ImportTask item, JDBCDataStore store) throws Exception
             conn = store.getConnection(Transaction.AUTO_COMMIT);
             stmt = conn.createStatement();
             String tableName = item.getLayer().getResource().getNativeName();
-            String indexName = "\"" + tableName + "_" + field + "\"";
-            sql = "CREATE INDEX " + indexName + " ON \"" + tableName + "\" (\"" + field + "\")";
+            sql = getCreateIndexSQL(store, tableName);
             stmt.execute(sql);
         } catch (SQLException sqle) {
             error = sqle;
@@ -71,6 +71,26 @@ private void createIndex(ImportTask item, JDBCDataStore store) throws Exception
         }
     }
 
+    /**
+     * Builds the index creation statement, encoding names according to the store dialect. Meant to
+     * be run after the data is loaded, as bulk loading is faster without indexes to maintain.
+     */
+    String getCreateIndexSQL(JDBCDataStore store, String tableName) {
+        SQLDialect dialect = store.getSQLDialect();
+        StringBuffer sql = new StringBuffer("CREATE INDEX ");
+        dialect.encodeTableName(tableName + "_" + field, sql);
+        sql.append(" ON ");
+        if (store.getDatabaseSchema() != null) {
+            dialect.encodeSchemaName(store.getDatabaseSchema(), sql);
+            sql.append(".");
+        }
+        dialect.encodeTableName(tableName, sql);
+        sql.append(" (");
+        dialect.encodeColumnName(null, field, sql);
+        sql.append(")");
+        return sql.toString();
+    }
+
     @Override
     public String toString() {
         return "CreateIndexTransform{" + "field='" + field + '\'' + '}';
@@ -27,4 +27,13 @@ SimpleFeatureType apply(ImportTask task, DataStore dataStore, SimpleFeatureType
     SimpleFeature apply(
             ImportTask task, DataStore dataStore, SimpleFeature oldFeature, SimpleFeature feature)
             throws Exception;
+
+    /**
+     * Returns true if {@link #apply(ImportTask, DataStore, SimpleFeature, SimpleFeature)} can be
+     * called concurrently by several threads, allowing pipelined imports to transform features in
+     * parallel. Defaults to false.
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
 }
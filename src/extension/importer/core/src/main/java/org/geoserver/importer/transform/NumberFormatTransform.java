@@ -26,4 +26,9 @@ public SimpleFeature apply(
         }
         return feature;
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
@@ -22,7 +22,7 @@ public class ReprojectTransform extends AbstractTransform implements InlineVecto
     private static final long serialVersionUID = 1L;
 
     CoordinateReferenceSystem source, target;
-    transient MathTransform transform;
+    transient volatile MathTransform transform;
 
     public CoordinateReferenceSystem getSource() {
         return source;
@@ -90,6 +90,11 @@ public SimpleFeature apply(
         return feature;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "ReprojectTransform{"
@@ -63,4 +63,18 @@ public SimpleFeature inline(
 
         return feature;
     }
+
+    /**
+     * Returns true if all the inline transforms of the chain can be applied concurrently
+     *
+     * @see InlineVectorTransform#isThreadSafe()
+     */
+    public boolean isThreadSafe() {
+        for (InlineVectorTransform tx : filter(transforms, InlineVectorTransform.class)) {
+            if (!tx.isThreadSafe()) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
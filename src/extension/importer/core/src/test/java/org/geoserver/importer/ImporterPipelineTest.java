@@ -0,0 +1,162 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.importer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.importer.transform.AbstractTransform;
+import org.geoserver.importer.transform.CreateIndexTransform;
+import org.geoserver.importer.transform.InlineVectorTransform;
+import org.geoserver.importer.transform.ReprojectTransform;
+import org.geotools.api.data.DataStore;
+import org.geotools.api.data.Query;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.referencing.CRS;
+import org.junit.After;
+import org.junit.Test;
+
+/** Tests pipelined imports, with parallel transforms, intermediate commits and bulk loading */
+public class ImporterPipelineTest extends ImporterTestSupport {
+
+    /** Fails on the 56th feature, once the first 50 ones have been committed */
+    static class FailingTransform extends AbstractTransform implements InlineVectorTransform {
+
+        private static final long serialVersionUID = 1L;
+
+        transient int count;
+
+        @Override
+        public SimpleFeatureType apply(
+                ImportTask task, DataStore dataStore, SimpleFeatureType featureType) {
+            return featureType;
+        }
+
+        @Override
+        public SimpleFeature apply(
+                ImportTask task,
+                DataStore dataStore,
+                SimpleFeature oldFeature,
+                SimpleFeature feature)
+                throws Exception {
+            if (++count == 56) {
+                for (int i = 0; i < 100 && task.getNumberCommitted() < 50; i++) {
+                    Thread.sleep(100);
+                }
+                throw new IOException("Simulated failure");
+            }
+            return feature;
+        }
+    }
+
+    @Override
+    protected void setupImporterFieldInternal() {
+        super.setupImporterFieldInternal();
+        setPipeline(2, 10, false);
+    }
+
+    @After
+    public void resetPipeline() {
+        setPipeline(0, 0, false);
+    }
+
+    private void setPipeline(int threads, int commitInterval, boolean bulkLoad) {
+        try {
+            ImporterInfo config = importer.getConfiguration();
+            config.setPipelineThreads(threads);
+            config.setCommitInterval(commitInterval);
+            config.setBulkLoad(bulkLoad);
+            importer.setConfiguration(config);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private int count(String layerName) throws IOException {
+        FeatureTypeInfo info = getCatalog().getFeatureTypeByName(layerName);
+        return info.getFeatureSource(null, null).getCount(Query.ALL);
+    }
+
+    @Test
+    public void testPipelinedImport() throws Exception {
+        Catalog cat = getCatalog();
+        DataStoreInfo ds = createH2DataStore(cat.getDefaultWorkspace().getName(), "pipelined");
+
+        File dir = unpack("shape/bugsites_esri_prj.tar.gz");
+        ImportContext context = importer.createContext(new Directory(dir), ds);
+        ImportTask task = context.getTasks().get(0);
+        task.addTransform(new ReprojectTransform(CRS.decode("EPSG:4326")));
+        importer.run(context);
+
+        assertEquals(ImportTask.State.COMPLETE, task.getState());
+        assertEquals(task.getTotalToProcess(), count("bugsites"));
+        assertEquals(task.getTotalToProcess(), task.getNumberProcessed());
+        assertEquals(0, task.getNumberCommitted());
+        assertNull(task.getPipelineProgress());
+        assertTrue(
+                task.getMessages().stream()
+                        .anyMatch(m -> m.getMessage().startsWith("Pipelined import: read")));
+        runChecks("bugsites");
+    }
+
+    @Test
+    public void testResumeAfterFailure() throws Exception {
+        Catalog cat = getCatalog();
+        DataStoreInfo ds = createH2DataStore(cat.getDefaultWorkspace().getName(), "resumed");
+
+        File dir = unpack("shape/bugsites_esri_prj.tar.gz");
+        ImportContext context = importer.createContext(new Directory(dir), ds);
+        ImportTask task = context.getTasks().get(0);
+        FailingTransform failing = new FailingTransform();
+        task.addTransform(failing);
+        importer.run(context);
+
+        // the committed features are kept, the layer is not published yet
+        assertEquals(ImportTask.State.ERROR, task.getState());
+        assertEquals(50, task.getNumberCommitted());
+        assertNull(cat.getLayerByName("bugsites"));
+        DataStore store = (DataStore) ds.getDataStore(null);
+        assertEquals(50, store.getFeatureSource("bugsites").getCount(Query.ALL));
+
+        // run again without the failing transform, the remaining features are appended
+        task.removeTransform(failing);
+        task.setState(ImportTask.State.READY);
+        importer.run(context);
+
+        assertEquals(ImportTask.State.COMPLETE, task.getState());
+        assertEquals(0, task.getNumberCommitted());
+        assertNotNull(cat.getLayerByName("bugsites"));
+        assertEquals(task.getTotalToProcess(), count("bugsites"));
+    }
+
+    @Test
+    public void testBulkLoad() throws Exception {
+        setPipeline(2, 0, true);
+        Catalog cat = getCatalog();
+        DataStoreInfo ds = createH2DataStore(cat.getDefaultWorkspace().getName(), "bulk");
+
+        File dir = unpack("shape/bugsites_esri_prj.tar.gz");
+        ImportContext context = importer.createContext(new Directory(dir), ds);
+        ImportTask task = context.getTasks().get(0);
+        // the index is built once the data is loaded
+        task.addTransform(new CreateIndexTransform("CAT_ID"));
+        importer.run(context);
+
+        assertEquals(ImportTask.State.COMPLETE, task.getState());
+        assertEquals(task.getTotalToProcess(), count("bugsites"));
+        assertTrue(
+                task.getMessages().stream()
+                        .noneMatch(m -> m.getMessage().startsWith("Bulk loading not supported")));
+        runChecks("bugsites");
+    }
+}
@@ -0,0 +1,98 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.importer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Date;
+import org.geoserver.importer.JDBCBulkLoader.CopyLoader;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.jdbc.JDBCDataStore;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+
+public class JDBCBulkLoaderTest {
+
+    SimpleFeatureType schema;
+
+    @Before
+    public void setupSchema() throws Exception {
+        SimpleFeatureTypeBuilder builder = new SimpleFeatureTypeBuilder();
+        builder.setName("test");
+        builder.add("geom", Point.class);
+        builder.add("name", String.class);
+        builder.add("data", byte[].class);
+        builder.add("time", Date.class);
+        schema = builder.buildFeatureType();
+        schema.getGeometryDescriptor().getUserData().put(JDBCDataStore.JDBC_NATIVE_SRID, 4326);
+    }
+
+    private String encode(Object value, String attribute) {
+        AttributeDescriptor descriptor = schema.getDescriptor(attribute);
+        StringBuilder row = new StringBuilder();
+        CopyLoader.encodeValue(value, descriptor, row);
+        return row.toString();
+    }
+
+    @Test
+    public void testEscape() {
+        StringBuilder row = new StringBuilder();
+        CopyLoader.escape("a\tb\nc\rd\\e", row);
+        assertEquals("a\\tb\\nc\\rd\\\\e", row.toString());
+    }
+
+    @Test
+    public void testNull() {
+        assertEquals("\\N", encode(null, "name"));
+        assertEquals("\\N", encode(null, "geom"));
+    }
+
+    @Test
+    public void testString() {
+        assertEquals("tab\\there", encode("tab\there", "name"));
+        // the literal sequence is escaped, not turned into a null
+        assertEquals("\\\\N", encode("\\N", "name"));
+    }
+
+    @Test
+    public void testBytea() {
+        // the backslash of the bytea hex format is escaped for the COPY text format
+        assertEquals("\\\\x00FF10", encode(new byte[] {0, (byte) 0xFF, 0x10}, "data"));
+    }
+
+    @Test
+    public void testTimestamp() {
+        // always in UTC, with an explicit offset, whatever the JVM time zone
+        assertEquals("1970-01-01 00:00:00.000000+00:00", encode(new Date(0), "time"));
+        // microseconds are preserved
+        Timestamp timestamp = Timestamp.from(Instant.parse("2020-05-10T12:30:15.123456Z"));
+        assertEquals("2020-05-10 12:30:15.123456+00:00", encode(timestamp, "time"));
+    }
+
+    @Test
+    public void testGeometry() throws Exception {
+        Point point = new GeometryFactory().createPoint(new Coordinate(10, 20));
+        String hex = encode(point, "geom");
+
+        // EWKB carrying the native SRID, but the source geometry is left untouched
+        Point decoded = (Point) new WKBReader().read(WKBReader.hexToBytes(hex));
+        assertEquals(4326, decoded.getSRID());
+        assertEquals(point.getCoordinate(), decoded.getCoordinate());
+        assertEquals(0, point.getSRID());
+
+        // a geometry already carrying the SRID is encoded as is
+        point.setSRID(4326);
+        assertEquals(WKBWriter.toHex(new WKBWriter(2, true).write(point)), encode(point, "geom"));
+    }
+}
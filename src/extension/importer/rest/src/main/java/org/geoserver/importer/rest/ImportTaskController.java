@@ -36,6 +36,7 @@
 import org.geoserver.importer.FileData;
 import org.geoserver.importer.ImportContext;
 import org.geoserver.importer.ImportData;
+import org.geoserver.importer.ImportPipelineProgress;
 import org.geoserver.importer.ImportTask;
 import org.geoserver.importer.Importer;
 import org.geoserver.importer.ValidationException;
@@ -105,6 +106,18 @@ public ImportWrapper progressGet(@PathVariable Long id, @PathVariable Integer ta
                 progress.put("progress", inProgress.getNumberProcessed());
                 progress.put("total", inProgress.getTotalToProcess());
                 progress.put("state", inProgress.getState().toString());
+                ImportPipelineProgress pipeline = inProgress.getPipelineProgress();
+                if (pipeline != null) {
+                    JSONObject stages = new JSONObject();
+                    for (ImportPipelineProgress.Stage stage :
+                            ImportPipelineProgress.Stage.values()) {
+                        JSONObject throughput = new JSONObject();
+                        throughput.put("count", pipeline.getCount(stage));
+                        throughput.put("rate", pipeline.getRate(stage));
+                        stages.put(stage.name().toLowerCase(), throughput);
+                    }
+                    progress.put("stages", stages);
+                }
             } else {
                 ImportTask task = task(id, taskId);
                 progress.put("state", task.getState().toString());
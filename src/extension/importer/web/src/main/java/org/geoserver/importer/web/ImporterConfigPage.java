@@ -5,6 +5,7 @@
 package org.geoserver.importer.web;
 
 import org.apache.wicket.markup.html.form.Button;
+import org.apache.wicket.markup.html.form.CheckBox;
 import org.apache.wicket.markup.html.form.Form;
 import org.apache.wicket.markup.html.form.SubmitLink;
 import org.apache.wicket.markup.html.form.TextField;
@@ -72,6 +73,32 @@ protected IModel<String> getFileModel(IModel<String> paramValue) {
                         Double.class);
         form.add(expiration);
 
+        TextField<Integer> pipelineThreads =
+                new TextField<>(
+                        "pipelineThreads",
+                        new PropertyModel<>(model, "pipelineThreads"),
+                        Integer.class);
+        pipelineThreads.add(new RangeValidator<>(0, Integer.MAX_VALUE));
+        form.add(pipelineThreads);
+
+        TextField<Integer> pipelineQueueSize =
+                new TextField<>(
+                        "pipelineQueueSize",
+                        new PropertyModel<>(model, "pipelineQueueSize"),
+                        Integer.class);
+        pipelineQueueSize.add(new RangeValidator<>(1, Integer.MAX_VALUE));
+        form.add(pipelineQueueSize);
+
+        TextField<Integer> commitInterval =
+                new TextField<>(
+                        "commitInterval",
+                        new PropertyModel<>(model, "commitInterval"),
+                        Integer.class);
+        commitInterval.add(new RangeValidator<>(0, Integer.MAX_VALUE));
+        form.add(commitInterval);
+
+        form.add(new CheckBox("bulkLoad", new PropertyModel<>(model, "bulkLoad")));
+
         SubmitLink submit =
                 new SubmitLink("submit", form) {
                     @Override
@@ -33,6 +33,8 @@ public void testLoadAndSave() throws IOException {
         config.setMaxSynchronousImports(4);
         config.setMaxAsynchronousImports(2);
         config.setContextExpiration(300);
+        config.setPipelineThreads(3);
+        config.setCommitInterval(10000);
         importer.setConfiguration(config);
 
         // make sure it's populated correctly
@@ -42,6 +44,8 @@ public void testLoadAndSave() throws IOException {
         tester.assertModelValue("form:maxSync", 4);
         tester.assertModelValue("form:maxAsync", 2);
         tester.assertModelValue("form:expiration", 300d);
+        tester.assertModelValue("form:pipelineThreads", 3);
+        tester.assertModelValue("form:commitInterval", 10000);
 
         // change and save
         FormTester form = tester.newFormTester("form");
@@ -50,6 +54,8 @@ public void testLoadAndSave() throws IOException {
         form.setValue("maxSync", "2");
         form.setValue("maxAsync", "1");
         form.setValue("expiration", "1");
+        form.setValue("pipelineThreads", "2");
+        form.setValue("commitInterval", "0");
         form.submit("submit");
 
         ImporterInfo newConfiguration = importer.getConfiguration();
@@ -57,6 +63,8 @@ public void testLoadAndSave() throws IOException {
         assertEquals(2, newConfiguration.getMaxSynchronousImports());
         assertEquals(1, newConfiguration.getMaxAsynchronousImports());
         assertEquals(1, newConfiguration.getContextExpiration(), 0d);
+        assertEquals(2, newConfiguration.getPipelineThreads());
+        assertEquals(0, newConfiguration.getCommitInterval());
     }
 
     @Test
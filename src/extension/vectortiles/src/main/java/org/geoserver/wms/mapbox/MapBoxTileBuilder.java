@@ -10,8 +10,7 @@
 import java.io.IOException;
 import java.util.Map;
 import java.util.logging.Logger;
-import no.ecc.vectortile.VectorTileEncoder;
-import no.ecc.vectortile.VectorTileEncoderNoClip;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.wms.WMSMapContent;
 import org.geoserver.wms.map.RawMap;
 import org.geoserver.wms.vector.VectorTileBuilder;
@@ -23,13 +22,31 @@
 public class MapBoxTileBuilder implements VectorTileBuilder {
     private static final Logger LOGGER = Logging.getLogger(MapBoxTileBuilder.class);
 
-    private VectorTileEncoder encoder;
+    /** Maximum encoded size of a tile, in bytes, before attributes and geometries get dropped */
+    static final String MAX_TILE_BYTES = "org.geoserver.vectortiles.mvt.maxTileBytes";
+
+    /** Maximum number of features in a tile, before attributes and geometries get dropped */
+    static final String MAX_TILE_FEATURES = "org.geoserver.vectortiles.mvt.maxTileFeatures";
+
+    private StreamingVectorTileEncoder encoder;
 
     public MapBoxTileBuilder(Rectangle mapSize, ReferencedEnvelope mapArea) {
         final int extent = Math.max(mapSize.width, mapSize.height);
-        final int polygonClipBuffer = extent / 32;
-        final boolean autoScale = false;
-        this.encoder = new VectorTileEncoderNoClip(extent, polygonClipBuffer, autoScale);
+        this.encoder =
+                new StreamingVectorTileEncoder(
+                        extent, getLimit(MAX_TILE_BYTES), getLimit(MAX_TILE_FEATURES));
+    }
+
+    static long getLimit(String property) {
+        String value = GeoServerExtensions.getProperty(property);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + property + ": " + value);
+            }
+        }
+        return 0;
     }
 
     @Override
@@ -0,0 +1,546 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.mapbox;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * A Mapbox Vector Tile encoder that writes each feature in protobuf form as soon as it is added,
+ * instead of keeping the geometries and attributes around until the tile is complete. Memory usage
+ * is thus bound to the encoded size of the tile, plus the key and value dictionaries of each layer.
+ *
+ * <p>Optionally, the tile can be given a budget in terms of bytes and features. As the tile fills
+ * up, the encoder degrades gracefully instead of growing without bounds:
+ *
+ * <ul>
+ *   <li>past half of the budget, feature attributes are dropped
+ *   <li>past 80% of the budget, geometries are thinned, points are kept only if no other point
+ *       fell in the same cell of a coarse grid, lines and polygons are snapped to a coarser grid
+ *   <li>once the budget is exhausted, features are dropped
+ * </ul>
+ *
+ * <p>Geometries are expected to be already clipped and in tile coordinates, they are just rounded
+ * to integers. The output is equivalent to the one of {@link no.ecc.vectortile.VectorTileEncoder}
+ * with auto-scale and clipping disabled.
+ */
+public class StreamingVectorTileEncoder {
+
+    static final Logger LOGGER = Logging.getLogger(StreamingVectorTileEncoder.class);
+
+    // protobuf wire types
+    static final int VARINT = 0;
+    static final int FIXED64 = 1;
+    static final int LENGTH_DELIMITED = 2;
+    static final int FIXED32 = 5;
+
+    // geometry types and commands, see the MVT specification
+    static final int POINT = 1;
+    static final int LINESTRING = 2;
+    static final int POLYGON = 3;
+    static final int MOVE_TO = 1;
+    static final int LINE_TO = 2;
+    static final int CLOSE_PATH = 7;
+
+    /** Size of the occupancy grid used to thin out points, per side */
+    static final int THINNING_GRID_SIZE = 256;
+
+    /** Snapping factor, in tile units, used to thin lines and polygons */
+    static final int THINNING_SNAP = 8;
+
+    final int extent;
+
+    final long maxBytes;
+
+    final long maxFeatures;
+
+    final Map<String, LayerBuffer> layers = new LinkedHashMap<>();
+
+    final BitSet occupied = new BitSet(THINNING_GRID_SIZE * THINNING_GRID_SIZE);
+
+    long bytes;
+
+    long features;
+
+    long strippedFeatures;
+
+    long thinnedFeatures;
+
+    long droppedFeatures;
+
+    /**
+     * Builds a new encoder
+     *
+     * @param extent The tile extent
+     * @param maxBytes The maximum encoded size of the tile, zero or negative means no limit
+     * @param maxFeatures The maximum number of features in the tile, zero or negative means no
+     *     limit
+     */
+    public StreamingVectorTileEncoder(int extent, long maxBytes, long maxFeatures) {
+        this.extent = extent;
+        this.maxBytes = maxBytes;
+        this.maxFeatures = maxFeatures;
+    }
+
+    /** How full the tile is, in relation to its budget (0 means empty, 1 means budget exhausted) */
+    double getPressure() {
+        double pressure = 0;
+        if (maxBytes > 0) {
+            pressure = (double) bytes / maxBytes;
+        }
+        if (maxFeatures > 0) {
+            pressure = Math.max(pressure, (double) features / maxFeatures);
+        }
+        return pressure;
+    }
+
+    /**
+     * Encodes a feature in the given layer
+     *
+     * @param layerName The target layer
+     * @param attributes The feature attributes, null values are skipped
+     * @param geometry The feature geometry, in tile coordinates
+     * @param id The feature id, negative values are not encoded
+     */
+    public void addFeature(
+            String layerName, Map<String, ?> attributes, Geometry geometry, long id) {
+        if (geometry == null || geometry.isEmpty()) {
+            return;
+        }
+        if (geometry.getClass().equals(GeometryCollection.class)) {
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                addFeature(layerName, attributes, geometry.getGeometryN(i), id);
+            }
+            return;
+        }
+
+        double pressure = getPressure();
+        if (pressure >= 1) {
+            droppedFeatures++;
+            return;
+        }
+        boolean thin = pressure >= 0.8;
+        boolean strip = pressure >= 0.5 && attributes != null && !attributes.isEmpty();
+
+        IntList commands = new IntList();
+        int type = encodeGeometry(geometry, commands, thin);
+        if (type == 0) {
+            if (thin) {
+                thinnedFeatures++;
+            }
+            return;
+        }
+
+        LayerBuffer layer = layers.computeIfAbsent(layerName, LayerBuffer::new);
+        IntList tags = new IntList();
+        if (strip) {
+            strippedFeatures++;
+        } else if (attributes != null) {
+            for (Map.Entry<String, ?> entry : attributes.entrySet()) {
+                if (entry.getKey() == null || entry.getValue() == null) {
+                    continue;
+                }
+                tags.add(layer.key(entry.getKey()));
+                tags.add(layer.value(entry.getValue()));
+            }
+        }
+
+        ProtoBuffer feature = new ProtoBuffer();
+        if (id >= 0) {
+            feature.writeTag(1, VARINT);
+            feature.writeVarint(id);
+        }
+        if (tags.size > 0) {
+            feature.writePacked(2, tags);
+        }
+        feature.writeTag(3, VARINT);
+        feature.writeVarint(type);
+        feature.writePacked(4, commands);
+
+        int before = layer.features.size();
+        layer.features.writeMessage(2, feature);
+        bytes += layer.features.size() - before;
+        features++;
+    }
+
+    /** Encodes the geometry commands, returns the geometry type, or 0 if nothing was encoded */
+    int encodeGeometry(Geometry geometry, IntList commands, boolean thin) {
+        Cursor cursor = new Cursor();
+        if (geometry instanceof Point || geometry instanceof MultiPoint) {
+            IntList coords = new IntList();
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                Point p = (Point) geometry.getGeometryN(i);
+                if (p.isEmpty()) {
+                    continue;
+                }
+                int x = (int) Math.round(p.getX());
+                int y = (int) Math.round(p.getY());
+                if (thin && !claimCell(x, y)) {
+                    continue;
+                }
+                coords.add(x);
+                coords.add(y);
+            }
+            if (coords.size == 0) {
+                return 0;
+            }
+            commands.add(command(MOVE_TO, coords.size / 2));
+            for (int i = 0; i < coords.size; i += 2) {
+                cursor.moveTo(coords.get(i), coords.get(i + 1), commands);
+            }
+            return POINT;
+        } else if (geometry instanceof LineString || geometry instanceof MultiLineString) {
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                LineString ls = (LineString) geometry.getGeometryN(i);
+                IntList coords = round(ls.getCoordinateSequence(), thin);
+                if (coords.size < 4) {
+                    continue;
+                }
+                encodePath(coords, false, cursor, commands);
+            }
+            return commands.size > 0 ? LINESTRING : 0;
+        } else if (geometry instanceof Polygon || geometry instanceof MultiPolygon) {
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                Polygon polygon = (Polygon) geometry.getGeometryN(i);
+                IntList shell = ring(polygon.getExteriorRing(), thin, true);
+                if (shell == null) {
+                    continue;
+                }
+                encodePath(shell, true, cursor, commands);
+                for (int h = 0; h < polygon.getNumInteriorRing(); h++) {
+                    IntList hole = ring(polygon.getInteriorRingN(h), thin, false);
+                    if (hole != null) {
+                        encodePath(hole, true, cursor, commands);
+                    }
+                }
+            }
+            return commands.size > 0 ? POLYGON : 0;
+        }
+        return 0;
+    }
+
+    private boolean claimCell(int x, int y) {
+        int cx = clamp((long) x * THINNING_GRID_SIZE / extent);
+        int cy = clamp((long) y * THINNING_GRID_SIZE / extent);
+        int cell = cy * THINNING_GRID_SIZE + cx;
+        if (occupied.get(cell)) {
+            return false;
+        }
+        occupied.set(cell);
+        return true;
+    }
+
+    private static int clamp(long cell) {
+        return (int) Math.max(0, Math.min(THINNING_GRID_SIZE - 1, cell));
+    }
+
+    /** Rounds (and optionally snaps) the coordinates, removing consecutive duplicates */
+    private static IntList round(CoordinateSequence cs, boolean thin) {
+        IntList result = new IntList();
+        int px = 0, py = 0;
+        for (int i = 0; i < cs.size(); i++) {
+            int x = (int) Math.round(cs.getX(i));
+            int y = (int) Math.round(cs.getY(i));
+            if (thin) {
+                x = Math.round((float) x / THINNING_SNAP) * THINNING_SNAP;
+                y = Math.round((float) y / THINNING_SNAP) * THINNING_SNAP;
+            }
+            if (result.size > 0 && x == px && y == py) {
+                continue;
+            }
+            result.add(x);
+            result.add(y);
+            px = x;
+            py = y;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ring coordinates without the closing point, oriented as required by the MVT
+     * specification (positive area for shells, negative for holes, in tile coordinates), or null if
+     * the ring collapsed
+     */
+    private static IntList ring(LineString ring, boolean thin, boolean shell) {
+        IntList coords = round(ring.getCoordinateSequence(), thin);
+        // drop the closing point
+        int n = coords.size;
+        if (n >= 4 && coords.get(0) == coords.get(n - 2) && coords.get(1) == coords.get(n - 1)) {
+            coords.size -= 2;
+        }
+        if (coords.size < 6) {
+            return null;
+        }
+        long area = 0;
+        for (int i = 0; i < coords.size; i += 2) {
+            int j = (i + 2) % coords.size;
+            area +=
+                    (long) coords.get(i) * coords.get(j + 1)
+                            - (long) coords.get(j) * coords.get(i + 1);
+        }
+        if (area == 0) {
+            return null;
+        }
+        if ((area > 0) != shell) {
+            coords.reversePairs();
+        }
+        return coords;
+    }
+
+    private static void encodePath(IntList coords, boolean closed, Cursor cursor, IntList out) {
+        out.add(command(MOVE_TO, 1));
+        cursor.moveTo(coords.get(0), coords.get(1), out);
+        int lineTos = coords.size / 2 - 1;
+        out.add(command(LINE_TO, lineTos));
+        for (int i = 2; i < coords.size; i += 2) {
+            cursor.moveTo(coords.get(i), coords.get(i + 1), out);
+        }
+        if (closed) {
+            out.add(command(CLOSE_PATH, 1));
+        }
+    }
+
+    static int command(int id, int count) {
+        return (id & 0x7) | (count << 3);
+    }
+
+    static int zigZag(int n) {
+        return (n << 1) ^ (n >> 31);
+    }
+
+    /** Writes the tile to the given stream */
+    public void encode(OutputStream out) throws IOException {
+        ProtoBuffer tile = new ProtoBuffer();
+        for (LayerBuffer layer : layers.values()) {
+            tile.writeMessage(3, layer.encode());
+        }
+        tile.writeTo(out);
+        if ((strippedFeatures > 0 || thinnedFeatures > 0 || droppedFeatures > 0)
+                && LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(
+                    String.format(
+                            "Tile budget exceeded, %,d features encoded, %,d without attributes, "
+                                    + "%,d removed by thinning, %,d dropped",
+                            features, strippedFeatures, thinnedFeatures, droppedFeatures));
+        }
+    }
+
+    /** Returns the encoded tile */
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        encode(bos);
+        return bos.toByteArray();
+    }
+
+    /** Keeps track of the last position, geometry commands are relative to it */
+    static class Cursor {
+        int x;
+        int y;
+
+        void moveTo(int nx, int ny, IntList out) {
+            out.add(zigZag(nx - x));
+            out.add(zigZag(ny - y));
+            x = nx;
+            y = ny;
+        }
+    }
+
+    /** A layer being built, with its encoded features and attribute dictionaries */
+    class LayerBuffer {
+        final String name;
+
+        final ProtoBuffer features = new ProtoBuffer();
+
+        final Map<String, Integer> keys = new HashMap<>();
+
+        final List<String> keyList = new ArrayList<>();
+
+        final Map<Object, Integer> values = new HashMap<>();
+
+        final List<Object> valueList = new ArrayList<>();
+
+        LayerBuffer(String name) {
+            this.name = name;
+        }
+
+        int key(String key) {
+            Integer idx = keys.get(key);
+            if (idx == null) {
+                idx = keyList.size();
+                keys.put(key, idx);
+                keyList.add(key);
+                bytes += key.length() + 2;
+            }
+            return idx;
+        }
+
+        int value(Object value) {
+            // same normalization as the reference encoder, values that cannot be encoded natively
+            // are turned into strings
+            if (!(value instanceof String
+                    || value instanceof Integer
+                    || value instanceof Long
+                    || value instanceof Float
+                    || value instanceof Double
+                    || value instanceof Boolean)) {
+                if (value instanceof Number) {
+                    value = ((Number) value).doubleValue();
+                } else {
+                    value = value.toString();
+                }
+            }
+            Integer idx = values.get(value);
+            if (idx == null) {
+                idx = valueList.size();
+                values.put(value, idx);
+                valueList.add(value);
+                bytes += value instanceof String ? ((String) value).length() + 4 : 12;
+            }
+            return idx;
+        }
+
+        ProtoBuffer encode() {
+            ProtoBuffer layer = new ProtoBuffer();
+            layer.writeTag(15, VARINT);
+            layer.writeVarint(2);
+            layer.writeString(1, name);
+            features.writeTo(layer);
+            for (String key : keyList) {
+                layer.writeString(3, key);
+            }
+            for (Object value : valueList) {
+                layer.writeMessage(4, encodeValue(value));
+            }
+            layer.writeTag(5, VARINT);
+            layer.writeVarint(extent);
+            return layer;
+        }
+
+        private ProtoBuffer encodeValue(Object value) {
+            ProtoBuffer buffer = new ProtoBuffer();
+            if (value instanceof String) {
+                buffer.writeString(1, (String) value);
+            } else if (value instanceof Float) {
+                buffer.writeTag(2, FIXED32);
+                buffer.writeFixed32(Float.floatToIntBits((Float) value));
+            } else if (value instanceof Double) {
+                buffer.writeTag(3, FIXED64);
+                buffer.writeFixed64(Double.doubleToLongBits((Double) value));
+            } else if (value instanceof Integer || value instanceof Long) {
+                long l = ((Number) value).longValue();
+                buffer.writeTag(6, VARINT);
+                buffer.writeVarint((l << 1) ^ (l >> 63));
+            } else if (value instanceof Boolean) {
+                buffer.writeTag(7, VARINT);
+                buffer.writeVarint(((Boolean) value) ? 1 : 0);
+            }
+            return buffer;
+        }
+    }
+
+    /** Minimal growable list of primitive ints */
+    static class IntList {
+        int[] data = new int[16];
+
+        int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        int get(int index) {
+            return data[index];
+        }
+
+        /** Reverses the order of the (x, y) pairs */
+        void reversePairs() {
+            for (int i = 0, j = size - 2; i < j; i += 2, j -= 2) {
+                int x = data[i], y = data[i + 1];
+                data[i] = data[j];
+                data[i + 1] = data[j + 1];
+                data[j] = x;
+                data[j + 1] = y;
+            }
+        }
+    }
+
+    /** Minimal protobuf writer, on top of a growable byte array */
+    static class ProtoBuffer extends ByteArrayOutputStream {
+
+        void writeTag(int field, int wireType) {
+            writeVarint((field << 3) | wireType);
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeFixed32(int value) {
+            for (int i = 0; i < 4; i++) {
+                write((value >>> (8 * i)) & 0xFF);
+            }
+        }
+
+        void writeFixed64(long value) {
+            for (int i = 0; i < 8; i++) {
+                write((int) ((value >>> (8 * i)) & 0xFF));
+            }
+        }
+
+        void writeString(int field, String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeTag(field, LENGTH_DELIMITED);
+            writeVarint(utf8.length);
+            write(utf8, 0, utf8.length);
+        }
+
+        void writeMessage(int field, ProtoBuffer message) {
+            writeTag(field, LENGTH_DELIMITED);
+            writeVarint(message.size());
+            message.writeTo(this);
+        }
+
+        void writePacked(int field, IntList values) {
+            ProtoBuffer packed = new ProtoBuffer();
+            for (int i = 0; i < values.size; i++) {
+                // uint32 values, sign bits are not expected here
+                packed.writeVarint(values.get(i) & 0xFFFFFFFFL);
+            }
+            writeMessage(field, packed);
+        }
+
+        void writeTo(ProtoBuffer other) {
+            other.write(buf, 0, count);
+        }
+    }
+}
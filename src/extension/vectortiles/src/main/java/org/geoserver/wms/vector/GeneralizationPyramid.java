@@ -0,0 +1,603 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.vector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.io.FileUtils;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+import org.locationtech.jts.simplify.DouglasPeuckerSimplifier;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+
+/**
+ * A disk backed collection of pre-generalized geometries for a single feature type, organized in
+ * levels of increasing simplification distance, each level doubling the distance of the previous
+ * one.
+ *
+ * <p>Geometries are generalized the first time they are requested at a given level, and stored in
+ * a file per level, so that following tile requests (and GeoServer restarts) can skip both loading
+ * and simplifying the full resolution geometries, see {@link PyramidLevel#lookup(String)}. Records
+ * are appended by a background writer, and the files are compacted once most of their contents
+ * are made of superseded or removed records.
+ *
+ * <p>Each stored geometry carries a fingerprint of the original one (number of points and
+ * envelope), checked whenever the original geometry is at hand. Changes made via WFS-T are handled
+ * explicitly by {@link #invalidate(Collection)}, changes made to the data behind GeoServer's back
+ * require the pyramid to be dropped, e.g., by disabling and enabling it again.
+ */
+public class GeneralizationPyramid implements Closeable {
+
+    static final Logger LOGGER = Logging.getLogger(GeneralizationPyramid.class);
+
+    /** Geometries with fewer points are stored as is, simplifying them is not worth it */
+    static final int MIN_POINTS = 32;
+
+    /** Level files smaller than this are never compacted */
+    static final long COMPACTION_MIN_SIZE = 1024 * 1024;
+
+    /** Writes the records of all pyramids, off the request threads */
+    static final ExecutorService WRITER =
+            Executors.newSingleThreadExecutor(
+                    r -> {
+                        Thread t = new Thread(r, "GeneralizationPyramidWriter");
+                        t.setDaemon(true);
+                        return t;
+                    });
+
+    static final String LEVEL_PREFIX = "level_";
+
+    static final String LEVEL_SUFFIX = ".dat";
+
+    private static final double LOG2 = Math.log(2);
+
+    private final File directory;
+
+    final Map<Integer, PyramidLevel> levels = new ConcurrentHashMap<>();
+
+    /**
+     * Opens a pyramid stored in the given directory, creating it if missing
+     *
+     * @param directory The directory holding the level files
+     */
+    public GeneralizationPyramid(File directory) throws IOException {
+        this.directory = directory;
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create generalization pyramid at " + directory);
+        }
+    }
+
+    /**
+     * Returns the pyramid level to be used for the given simplification distance, that is, the
+     * coarsest level whose distance does not exceed the requested one, or null if the distance is
+     * not usable
+     */
+    public PyramidLevel getLevel(double distance) {
+        if (!(distance > 0) || Double.isInfinite(distance)) {
+            return null;
+        }
+        int index = (int) Math.floor(Math.log(distance) / LOG2);
+        try {
+            return getLevel(index);
+        } catch (UncheckedIOException e) {
+            LOGGER.log(Level.WARNING, "Could not open generalization pyramid level " + index, e);
+            return null;
+        }
+    }
+
+    private PyramidLevel getLevel(int index) {
+        return levels.computeIfAbsent(
+                index,
+                i -> {
+                    try {
+                        return new PyramidLevel(i, new File(directory, getLevelFileName(i)));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    static String getLevelFileName(int index) {
+        return LEVEL_PREFIX + index + LEVEL_SUFFIX;
+    }
+
+    /**
+     * Drops the generalized geometries of the given features from all levels, to be used when the
+     * features are known to have been modified or removed
+     */
+    public void invalidate(Collection<String> featureIds) {
+        if (featureIds.isEmpty()) {
+            return;
+        }
+        // make sure all levels on disk are taken into account, not just the ones used so far
+        File[] files =
+                directory.listFiles(
+                        (dir, name) ->
+                                name.startsWith(LEVEL_PREFIX) && name.endsWith(LEVEL_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                try {
+                    int index =
+                            Integer.parseInt(
+                                    name.substring(
+                                            LEVEL_PREFIX.length(),
+                                            name.length() - LEVEL_SUFFIX.length()));
+                    getLevel(index).invalidate(featureIds);
+                } catch (NumberFormatException | UncheckedIOException e) {
+                    LOGGER.log(Level.WARNING, "Could not invalidate pyramid level " + file, e);
+                }
+            }
+        }
+    }
+
+    /** Waits for all the queued writes to be performed */
+    public void flush() {
+        try {
+            WRITER.submit(() -> {}).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.FINE, "Failed to flush generalization pyramid " + directory, e);
+        }
+    }
+
+    /** Removes all the generalized geometries, deleting the backing files */
+    public void clear() {
+        close();
+        try {
+            FileUtils.cleanDirectory(directory);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not clean generalization pyramid " + directory, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        for (PyramidLevel level : levels.values()) {
+            level.close();
+        }
+        levels.clear();
+    }
+
+    /**
+     * A single level of the pyramid, with its own simplification distance and backing file. Each
+     * record in the file is made of its length, the feature id, the fingerprint of the original
+     * geometry, and the WKB of the generalized geometry (or a negative length, for removed ones).
+     */
+    public static class PyramidLevel implements Closeable {
+
+        final int index;
+
+        final double distance;
+
+        final File file;
+
+        /** Guards the channel, which is replaced during compaction */
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        FileChannel channel;
+
+        /** The live records on disk, by feature id */
+        final Map<String, RecordLocation> offsets = new ConcurrentHashMap<>();
+
+        /**
+         * The records computed but not written yet, by feature id. Concurrent requests for the same
+         * feature share the entry, so that the geometry is generalized and written only once.
+         */
+        final Map<String, PendingRecord> pending = new ConcurrentHashMap<>();
+
+        /** Total size of the live records, used to decide when to compact */
+        final AtomicLong liveBytes = new AtomicLong();
+
+        PyramidLevel(int index, File file) throws IOException {
+            this.index = index;
+            this.distance = Math.pow(2, index);
+            this.file = file;
+            this.channel = open(file);
+            loadIndex();
+            compactIfNeeded();
+        }
+
+        private static FileChannel open(File file) throws IOException {
+            return FileChannel.open(
+                    file.toPath(),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+
+        /** The simplification distance of this level, in the source CRS units */
+        public double getDistance() {
+            return distance;
+        }
+
+        /**
+         * Returns the stored generalized geometry of the given feature, without checking it
+         * against the original one, or null if not available. Allows to skip loading the full
+         * resolution geometry altogether, relying on explicit invalidation to keep up to date.
+         */
+        public Geometry lookup(String featureId) {
+            PendingRecord record = pending.get(featureId);
+            if (record != null) {
+                return record.generalized;
+            }
+            try {
+                return read(featureId, null);
+            } catch (IOException | ParseException e) {
+                LOGGER.log(Level.FINE, "Could not read generalized " + featureId, e);
+                return null;
+            }
+        }
+
+        /**
+         * Returns the generalized version of the given geometry, reading it from the level file if
+         * available and up to date, or computing it and queuing it for storage otherwise.
+         */
+        public Geometry generalize(String featureId, Geometry original) {
+            if (featureId == null || original == null) {
+                return original;
+            }
+
+            PendingRecord record = pending.get(featureId);
+            if (record != null && record.matches(original)) {
+                return record.getGeneralized(original);
+            }
+            if (record == null) {
+                try {
+                    Geometry stored = read(featureId, original);
+                    if (stored != null) {
+                        return stored;
+                    }
+                } catch (IOException | ParseException e) {
+                    LOGGER.log(
+                            Level.FINE,
+                            "Could not read generalized geometry for " + featureId + ", rebuilding",
+                            e);
+                }
+            }
+
+            // generalize once, even if several requests are after the same feature
+            PendingRecord computed =
+                    pending.compute(
+                            featureId,
+                            (id, current) ->
+                                    current != null && current.matches(original)
+                                            ? current
+                                            : new PendingRecord(original, simplify(original)));
+            if (computed.queued.compareAndSet(false, true)) {
+                WRITER.execute(() -> flush(featureId, computed));
+            }
+            return computed.getGeneralized(original);
+        }
+
+        Geometry simplify(Geometry geom) {
+            if (geom.getNumPoints() < MIN_POINTS) {
+                return geom;
+            }
+            switch (geom.getDimension()) {
+                case 2:
+                    return TopologyPreservingSimplifier.simplify(geom, distance);
+                case 1:
+                    return DouglasPeuckerSimplifier.simplify(geom, distance);
+                default:
+                    return geom;
+            }
+        }
+
+        void invalidate(Collection<String> featureIds) {
+            for (String featureId : featureIds) {
+                boolean queued = pending.remove(featureId) != null;
+                RecordLocation removed = offsets.remove(featureId);
+                if (removed != null) {
+                    liveBytes.addAndGet(-removed.size());
+                }
+                if (removed != null || queued) {
+                    WRITER.execute(() -> flush(featureId, null));
+                }
+            }
+        }
+
+        /**
+         * Writes a record queued by {@link #generalize(String, Geometry)}, unless it has been
+         * invalidated or superseded in the meantime, or a removal marker if the record is null
+         */
+        private synchronized void flush(String featureId, PendingRecord record) {
+            try {
+                if (record == null) {
+                    writeRecord(featureId, null, null);
+                } else if (pending.get(featureId) == record) {
+                    byte[] wkb = new WKBWriter(2).write(record.generalized);
+                    writeRecord(featureId, record.original, wkb);
+                }
+                compactIfNeeded();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Could not store generalized geometry for " + featureId, e);
+            } finally {
+                if (record != null) {
+                    pending.remove(featureId, record);
+                }
+            }
+        }
+
+        /**
+         * Returns the stored geometry, or null if missing, or its fingerprint does not match the
+         * original (the check is skipped if the original is null)
+         */
+        private Geometry read(String featureId, Geometry original)
+                throws IOException, ParseException {
+            ByteBuffer body;
+            // the location must be looked up under lock, compaction moves the records around
+            lock.readLock().lock();
+            try {
+                RecordLocation location = offsets.get(featureId);
+                if (location == null) {
+                    return null;
+                }
+                body = ByteBuffer.allocate(location.length);
+                readFully(channel, body, location.offset + Integer.BYTES);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body.array()));
+            in.readUTF();
+            int numPoints = in.readInt();
+            double minX = in.readDouble();
+            double maxX = in.readDouble();
+            double minY = in.readDouble();
+            double maxY = in.readDouble();
+            Envelope envelope = new Envelope(minX, maxX, minY, maxY);
+            if (original != null
+                    && (numPoints != original.getNumPoints()
+                            || !envelope.equals(original.getEnvelopeInternal()))) {
+                return null;
+            }
+            byte[] wkb = new byte[in.readInt()];
+            in.readFully(wkb);
+            GeometryFactory factory =
+                    original != null ? original.getFactory() : new GeometryFactory();
+            return new WKBReader(factory).read(wkb);
+        }
+
+        private void readFully(FileChannel channel, ByteBuffer buffer, long position)
+                throws IOException {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position + buffer.position());
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file in " + file);
+                }
+            }
+        }
+
+        /** Appends a record, a null original marks the feature as removed */
+        private synchronized void writeRecord(String featureId, Geometry original, byte[] wkb)
+                throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0); // length placeholder
+            out.writeUTF(featureId);
+            if (original == null) {
+                out.writeInt(-1);
+            } else {
+                Envelope envelope = original.getEnvelopeInternal();
+                out.writeInt(original.getNumPoints());
+                out.writeDouble(envelope.getMinX());
+                out.writeDouble(envelope.getMaxX());
+                out.writeDouble(envelope.getMinY());
+                out.writeDouble(envelope.getMaxY());
+                out.writeInt(wkb.length);
+                out.write(wkb);
+            }
+            out.flush();
+
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            int length = buffer.capacity() - Integer.BYTES;
+            buffer.putInt(0, length);
+            long position = channel.size();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+            RecordLocation previous;
+            if (original == null) {
+                previous = offsets.remove(featureId);
+            } else {
+                RecordLocation location = new RecordLocation(position, length);
+                previous = offsets.put(featureId, location);
+                liveBytes.addAndGet(location.size());
+            }
+            if (previous != null) {
+                liveBytes.addAndGet(-previous.size());
+            }
+        }
+
+        /**
+         * Rewrites the level file with just the live records, if it's large enough, and most of it
+         * is made of superseded or removed records
+         */
+        synchronized void compactIfNeeded() throws IOException {
+            long size = channel.size();
+            if (size >= COMPACTION_MIN_SIZE && liveBytes.get() * 2 < size) {
+                compact();
+            }
+        }
+
+        /** Rewrites the level file with just the live records */
+        synchronized void compact() throws IOException {
+            File compacted = new File(file.getParentFile(), file.getName() + ".compact");
+            Map<String, RecordLocation> locations = new ConcurrentHashMap<>();
+            long position = 0;
+            try (FileChannel target =
+                    FileChannel.open(
+                            compacted.toPath(),
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING,
+                            StandardOpenOption.WRITE)) {
+                List<Map.Entry<String, RecordLocation>> live = new ArrayList<>(offsets.entrySet());
+                // copy in file order, to keep the reads sequential
+                live.sort((e1, e2) -> Long.compare(e1.getValue().offset, e2.getValue().offset));
+                for (Map.Entry<String, RecordLocation> entry : live) {
+                    RecordLocation location = entry.getValue();
+                    long recordSize = location.size();
+                    long copied = 0;
+                    while (copied < recordSize) {
+                        copied +=
+                                channel.transferTo(
+                                        location.offset + copied,
+                                        recordSize - copied,
+                                        target.position(position + copied));
+                    }
+                    locations.put(entry.getKey(), new RecordLocation(position, location.length));
+                    position += recordSize;
+                }
+                target.force(false);
+            }
+
+            lock.writeLock().lock();
+            try {
+                channel.close();
+                Files.move(
+                        compacted.toPath(),
+                        file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                channel = open(file);
+                // features invalidated in the meantime stay removed
+                long live = 0;
+                for (Map.Entry<String, RecordLocation> entry : locations.entrySet()) {
+                    if (offsets.computeIfPresent(entry.getKey(), (k, v) -> entry.getValue())
+                            != null) {
+                        live += entry.getValue().size();
+                    }
+                }
+                liveBytes.set(live);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            LOGGER.fine("Compacted generalization pyramid level " + file + " to " + position);
+        }
+
+        /** Scans the level file, rebuilding the in memory index of the live records */
+        private void loadIndex() throws IOException {
+            long position = 0;
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            while (position + Integer.BYTES <= size) {
+                header.clear();
+                readFully(channel, header, position);
+                int length = header.getInt(0);
+                if (length <= 0 || position + Integer.BYTES + length > size) {
+                    break;
+                }
+                ByteBuffer body = ByteBuffer.allocate(length);
+                readFully(channel, body, position + Integer.BYTES);
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(body.array()));
+                String featureId = in.readUTF();
+                RecordLocation previous;
+                if (in.readInt() < 0) {
+                    previous = offsets.remove(featureId);
+                } else {
+                    RecordLocation location = new RecordLocation(position, length);
+                    previous = offsets.put(featureId, location);
+                    liveBytes.addAndGet(location.size());
+                }
+                if (previous != null) {
+                    liveBytes.addAndGet(-previous.size());
+                }
+                position += Integer.BYTES + length;
+            }
+            if (position < size) {
+                // partial record, likely a crash while writing, drop it
+                LOGGER.warning("Truncating damaged generalization pyramid level " + file);
+                channel.truncate(position);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            lock.writeLock().lock();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Failed to close " + file, e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /** Position and length (header excluded) of a record in a level file */
+    static class RecordLocation {
+        final long offset;
+
+        final int length;
+
+        RecordLocation(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /** The size of the record, header included */
+        long size() {
+            return Integer.BYTES + length;
+        }
+    }
+
+    /** A generalized geometry waiting to be written */
+    static class PendingRecord {
+        final Geometry original;
+
+        final Geometry generalized;
+
+        final AtomicBoolean queued = new AtomicBoolean();
+
+        PendingRecord(Geometry original, Geometry generalized) {
+            this.original = original;
+            this.generalized = generalized;
+        }
+
+        boolean matches(Geometry other) {
+            return original == other
+                    || (original.getNumPoints() == other.getNumPoints()
+                            && original.getEnvelopeInternal().equals(other.getEnvelopeInternal()));
+        }
+
+        /** Returns the generalized geometry, or the original one, if it was not simplified */
+        Geometry getGeneralized(Geometry requested) {
+            return generalized == original ? requested : generalized;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.vector;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.platform.GeoServerResourceLoader;
+import org.geoserver.platform.resource.Resource;
+import org.geoserver.wfs.TransactionCallback;
+import org.geoserver.wfs.TransactionEvent;
+import org.geoserver.wfs.TransactionEventType;
+import org.geoserver.wfs.WFSException;
+import org.geoserver.wfs.request.TransactionRequest;
+import org.geoserver.wfs.request.TransactionResponse;
+import org.geotools.api.feature.type.Name;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Keeps track of the {@link GeneralizationPyramid} of the feature types that enabled them, via the
+ * {@link #ENABLED_KEY} metadata entry, and keeps them in synch with the data changes performed via
+ * WFS transactions and the configuration changes performed on the catalog.
+ *
+ * <p>Pyramids are stored in the data directory, under {@code vectortiles/pyramids/<featureTypeId>}
+ */
+public class GeneralizationPyramids implements TransactionCallback, DisposableBean {
+
+    static final Logger LOGGER = Logging.getLogger(GeneralizationPyramids.class);
+
+    /** Feature type metadata key enabling the generalization pyramid */
+    public static final String ENABLED_KEY = "vectorTilesGeneralizationPyramid";
+
+    static final String PYRAMIDS_PATH = "vectortiles/pyramids";
+
+    /** Feature type properties whose change invalidates the pyramid */
+    static final Set<String> GEOMETRY_AFFECTING_PROPERTIES =
+            Set.of("store", "nativeName", "nativeCRS", "srs", "projectionPolicy", "cqlFilter");
+
+    private final Catalog catalog;
+
+    private final GeoServerResourceLoader loader;
+
+    private final Map<String, GeneralizationPyramid> pyramids = new ConcurrentHashMap<>();
+
+    /**
+     * The features touched by the transaction running in the current thread, by feature type id,
+     * invalidated again once the transaction is over, as requests running before the commit might
+     * have stored the old geometries back
+     */
+    private final ThreadLocal<Map<String, List<String>>> touched = new ThreadLocal<>();
+
+    public GeneralizationPyramids(Catalog catalog, GeoServerResourceLoader loader) {
+        this.catalog = catalog;
+        this.loader = loader;
+        catalog.addListener(new PyramidCleaner());
+    }
+
+    /** Returns the pyramid for the feature type with the given name, or null if not enabled */
+    public GeneralizationPyramid getPyramid(Name name) {
+        FeatureTypeInfo info = catalog.getFeatureTypeByName(name);
+        return info != null ? getPyramid(info) : null;
+    }
+
+    /** Returns the pyramid for the given feature type, or null if not enabled */
+    public GeneralizationPyramid getPyramid(FeatureTypeInfo info) {
+        if (!isEnabled(info)) {
+            return null;
+        }
+        try {
+            return pyramids.computeIfAbsent(
+                    info.getId(),
+                    id -> {
+                        try {
+                            return new GeneralizationPyramid(
+                                    loader.get(PYRAMIDS_PATH).get(id).dir());
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+        } catch (IllegalStateException e) {
+            LOGGER.log(
+                    Level.WARNING,
+                    "Could not open generalization pyramid for " + info.prefixedName(),
+                    e);
+            return null;
+        }
+    }
+
+    static boolean isEnabled(FeatureTypeInfo info) {
+        Boolean enabled = info.getMetadata().get(ENABLED_KEY, Boolean.class);
+        return Boolean.TRUE.equals(enabled);
+    }
+
+    /** Closes and removes the pyramid of the given feature type, if any, including its files */
+    void drop(String featureTypeId) {
+        GeneralizationPyramid pyramid = pyramids.remove(featureTypeId);
+        if (pyramid != null) {
+            pyramid.clear();
+        }
+        Resource directory = loader.get(PYRAMIDS_PATH).get(featureTypeId);
+        if (directory.getType() == Resource.Type.DIRECTORY) {
+            directory.delete();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        pyramids.values().forEach(GeneralizationPyramid::close);
+        pyramids.clear();
+    }
+
+    @Override
+    public TransactionRequest beforeTransaction(TransactionRequest request) throws WFSException {
+        touched.remove();
+        return request;
+    }
+
+    @Override
+    public void beforeCommit(TransactionRequest request) throws WFSException {
+        // nothing to do
+    }
+
+    @Override
+    public void afterTransaction(
+            TransactionRequest request, TransactionResponse result, boolean committed) {
+        Map<String, List<String>> features = touched.get();
+        touched.remove();
+        if (features == null) {
+            return;
+        }
+        // stale entries left behind by a rollback are harmless, but cheap to drop as well
+        for (Map.Entry<String, List<String>> entry : features.entrySet()) {
+            GeneralizationPyramid pyramid = pyramids.get(entry.getKey());
+            if (pyramid != null) {
+                pyramid.invalidate(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Invalidates the generalized geometries of the features being modified, deleted or inserted,
+     * and records them for a second invalidation after the transaction
+     */
+    @Override
+    public void dataStoreChange(TransactionEvent event) throws WFSException {
+        TransactionEventType type = event.getType();
+        if (type != TransactionEventType.PRE_UPDATE
+                && type != TransactionEventType.PRE_DELETE
+                && type != TransactionEventType.POST_INSERT) {
+            return;
+        }
+        try {
+            FeatureTypeInfo info =
+                    catalog.getFeatureTypeByName(
+                            event.getLayerName().getNamespaceURI(),
+                            event.getLayerName().getLocalPart());
+            if (info == null || !isEnabled(info)) {
+                return;
+            }
+            GeneralizationPyramid pyramid = getPyramid(info);
+            if (pyramid == null) {
+                return;
+            }
+            List<String> featureIds = new ArrayList<>();
+            try (SimpleFeatureIterator it = event.getAffectedFeatures().features()) {
+                while (it.hasNext()) {
+                    featureIds.add(it.next().getID());
+                }
+            }
+            pyramid.invalidate(featureIds);
+
+            Map<String, List<String>> features = touched.get();
+            if (features == null) {
+                features = new HashMap<>();
+                touched.set(features);
+            }
+            features.computeIfAbsent(info.getId(), id -> new ArrayList<>()).addAll(featureIds);
+        } catch (RuntimeException e) {
+            // never make the transaction fail due to a pyramid error
+            LOGGER.log(Level.WARNING, "Error invalidating the generalization pyramid", e);
+        }
+    }
+
+    @Override
+    public int getPriority() {
+        return 0;
+    }
+
+    /** Drops pyramids when their feature type is removed or its definition changes */
+    class PyramidCleaner implements CatalogListener {
+
+        @Override
+        public void handleAddEvent(CatalogAddEvent event) {
+            // nothing to do
+        }
+
+        @Override
+        public void handleRemoveEvent(CatalogRemoveEvent event) {
+            if (event.getSource() instanceof FeatureTypeInfo) {
+                drop(((FeatureTypeInfo) event.getSource()).getId());
+            }
+        }
+
+        @Override
+        public void handleModifyEvent(CatalogModifyEvent event) {
+            if (event.getSource() instanceof FeatureTypeInfo
+                    && event.getPropertyNames().stream()
+                            .anyMatch(GEOMETRY_AFFECTING_PROPERTIES::contains)) {
+                // the geometries read from the store might have changed, start from scratch
+                drop(((FeatureTypeInfo) event.getSource()).getId());
+            }
+        }
+
+        @Override
+        public void handlePostModifyEvent(CatalogPostModifyEvent event) {
+            // disabling the pyramid drops it, so that enabling it back starts from scratch
+            if (event.getSource() instanceof FeatureTypeInfo
+                    && !isEnabled((FeatureTypeInfo) event.getSource())) {
+                drop(((FeatureTypeInfo) event.getSource()).getId());
+            }
+        }
+
+        @Override
+        public void reloaded() {
+            pyramids.values().forEach(GeneralizationPyramid::close);
+            pyramids.clear();
+        }
+    }
+}
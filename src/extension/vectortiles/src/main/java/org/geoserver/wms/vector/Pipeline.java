@@ -47,6 +47,31 @@ public Geometry execute(Geometry geom) throws Exception {
         return next.execute(g);
     }
 
+    /**
+     * Execute pipeline including all downstream pipelines, on the geometry of the feature with the
+     * given identifier (used by steps whose results depend on the feature identity, such as
+     * generalization pyramid lookups)
+     */
+    public Geometry execute(String featureId, Geometry geom) throws Exception {
+        setFeatureId(featureId);
+        return execute(geom);
+    }
+
+    /** Lets the steps know which feature is about to be processed */
+    void setFeatureId(String featureId) {
+        if (next != null && next != END) {
+            next.setFeatureId(featureId);
+        }
+    }
+
+    /** Returns the generalization pyramid level used by the pipeline, if any */
+    GeneralizationPyramid.PyramidLevel getPyramidLevel() {
+        if (next != null && next != END) {
+            return next.getPyramidLevel();
+        }
+        return null;
+    }
+
     /** Implementation of the pipeline. A unary operation on a geometry. */
     protected abstract Geometry _run(Geometry geom) throws Exception;
 }
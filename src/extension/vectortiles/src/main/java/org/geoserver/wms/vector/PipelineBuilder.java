@@ -181,6 +181,23 @@ public PipelineBuilder preprocess() {
         return this;
     }
 
+    /**
+     * Replaces the source geometries with pre-generalized ones taken from the given pyramid, using
+     * the coarsest level that does not exceed the source CRS simplification distance. Must be
+     * added first, as the pyramid works against the original geometries. Does nothing if the
+     * pyramid is null.
+     */
+    public PipelineBuilder pregeneralize(@Nullable GeneralizationPyramid pyramid) {
+        if (pyramid != null) {
+            GeneralizationPyramid.PyramidLevel level =
+                    pyramid.getLevel(context.sourceCRSSimplificationDistance);
+            if (level != null) {
+                addLast(new Pregeneralize(level));
+            }
+        }
+        return this;
+    }
+
     /** Flatten singleton feature collections */
     public PipelineBuilder collapseCollections() {
         addLast(new CollapseCollections());
@@ -214,6 +231,33 @@ protected Geometry _run(Geometry geom) throws Exception {
         }
     }
 
+    private static final class Pregeneralize extends Pipeline {
+
+        private final GeneralizationPyramid.PyramidLevel level;
+
+        private String featureId;
+
+        Pregeneralize(GeneralizationPyramid.PyramidLevel level) {
+            this.level = level;
+        }
+
+        @Override
+        void setFeatureId(String featureId) {
+            this.featureId = featureId;
+            super.setFeatureId(featureId);
+        }
+
+        @Override
+        GeneralizationPyramid.PyramidLevel getPyramidLevel() {
+            return level;
+        }
+
+        @Override
+        protected Geometry _run(Geometry geom) throws Exception {
+            return level.generalize(featureId, geom);
+        }
+    }
+
     private static final class PreProcess extends Pipeline {
 
         private final ProjectionHandler projectionHandler;
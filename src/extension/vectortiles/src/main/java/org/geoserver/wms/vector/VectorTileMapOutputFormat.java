@@ -12,11 +12,17 @@
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.wms.MapProducerCapabilities;
 import org.geoserver.wms.WMSMapContent;
@@ -29,9 +35,14 @@
 import org.geotools.api.feature.Feature;
 import org.geotools.api.feature.GeometryAttribute;
 import org.geotools.api.feature.Property;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
 import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.identity.FeatureId;
 import org.geotools.api.referencing.FactoryException;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.feature.FeatureCollection;
 import org.geotools.feature.FeatureIterator;
 import org.geotools.geometry.jts.ReferencedEnvelope;
@@ -46,6 +57,20 @@ public class VectorTileMapOutputFormat extends AbstractMapOutputFormat {
     /** A logger for this class. */
     private static final Logger LOGGER = Logging.getLogger(VectorTileMapOutputFormat.class);
 
+    /**
+     * Query hint used to hand over the layer {@link GeneralizationPyramid} to {@link
+     * #getPipeline}, removed before the query is run
+     */
+    static final Hints.Key GENERALIZATION_PYRAMID = new Hints.Key(GeneralizationPyramid.class);
+
+    /** Max number of features loaded at once when missing from the generalization pyramid */
+    static final int MISSING_FEATURES_BATCH = 1000;
+
+    /** Max number of features held back while waiting for the missing ones to be loaded */
+    static final int MAX_HELD_FEATURES = 10 * MISSING_FEATURES_BATCH;
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory();
+
     private final VectorTileBuilderFactory tileBuilderFactory;
 
     private boolean clipToMapBounds;
@@ -127,6 +152,10 @@ public WebMap produceMap(final WMSMapContent mapContent) throws ServiceException
 
             Query query = getStyleQuery(layer, mapContent);
             Hints hints = query.getHints();
+            GeneralizationPyramid pyramid = getPyramid(featureSource);
+            if (pyramid != null) {
+                hints.put(GENERALIZATION_PYRAMID, pyramid);
+            }
 
             Pipeline pipeline =
                     getPipeline(
@@ -139,10 +168,23 @@ public WebMap produceMap(final WMSMapContent mapContent) throws ServiceException
                             buffer);
 
             hints.remove(Hints.SCREENMAP);
+            hints.remove(GENERALIZATION_PYRAMID);
+
+            GeneralizationPyramid.PyramidLevel level = pipeline.getPyramidLevel();
+            if (level != null && featureSource.getSchema() instanceof SimpleFeatureType) {
+                runPregeneralized(
+                        featureSource,
+                        query,
+                        level,
+                        pipeline,
+                        geometryDescriptor,
+                        vectorTileBuilder,
+                        layer);
+            } else {
+                FeatureCollection<?, ?> features = featureSource.getFeatures(query);
 
-            FeatureCollection<?, ?> features = featureSource.getFeatures(query);
-
-            run(features, pipeline, geometryDescriptor, vectorTileBuilder, layer);
+                run(features, pipeline, geometryDescriptor, vectorTileBuilder, layer);
+            }
         }
 
         WebMap map = vectorTileBuilder.build(mapContent);
@@ -163,8 +205,13 @@ protected Pipeline getPipeline(
                     PipelineBuilder.newBuilder(
                             renderingArea, paintArea, sourceCrs, overSamplingFactor, buffer);
 
+            GeneralizationPyramid pyramid = null;
+            if (qHints != null) {
+                pyramid = (GeneralizationPyramid) qHints.get(GENERALIZATION_PYRAMID);
+            }
             pipeline =
-                    builder.preprocess()
+                    builder.pregeneralize(pyramid)
+                            .preprocess()
                             .transform(transformToScreenCoordinates)
                             .clip(clipToMapBounds, transformToScreenCoordinates)
                             .simplify(transformToScreenCoordinates, fsHints, qHints)
@@ -177,6 +224,19 @@ protected Pipeline getPipeline(
         return pipeline;
     }
 
+    /**
+     * Returns the generalization pyramid for the given source, if enabled, and if the source is not
+     * able to generalize geometries on its own
+     */
+    private GeneralizationPyramid getPyramid(FeatureSource<?, ?> featureSource) {
+        GeneralizationPyramids pyramids = GeoServerExtensions.bean(GeneralizationPyramids.class);
+        if (pyramids == null
+                || featureSource.getSupportedHints().contains(Hints.GEOMETRY_DISTANCE)) {
+            return null;
+        }
+        return pyramids.getPyramid(featureSource.getSchema().getName());
+    }
+
     private Map<String, Object> getProperties(ComplexAttribute feature) {
         Map<String, Object> props = new TreeMap<>();
         for (Property p : feature.getProperties()) {
@@ -197,6 +257,178 @@ private Map<String, Object> getProperties(ComplexAttribute feature) {
         return props;
     }
 
+    /**
+     * Encodes the features of a layer backed by a generalization pyramid. The features are first
+     * loaded without their geometry, using the generalized ones stored in the pyramid, and only the
+     * features missing from it are loaded again, in batches, along with their full resolution
+     * geometry, which is then generalized and stored in the pyramid for the next requests. The
+     * features following a missing one are held back until its batch is loaded, so that they are
+     * encoded in the query order (e.g., the one set by sortBy).
+     */
+    void runPregeneralized(
+            FeatureSource<?, ?> featureSource,
+            Query query,
+            GeneralizationPyramid.PyramidLevel level,
+            Pipeline pipeline,
+            GeometryDescriptor geometryDescriptor,
+            VectorTileBuilder vectorTileBuilder,
+            Layer layer)
+            throws IOException {
+        Stopwatch sw = Stopwatch.createStarted();
+        String geometryName = geometryDescriptor.getLocalName();
+        List<String> properties = new ArrayList<>();
+        if (query.getPropertyNames() == null) {
+            for (AttributeDescriptor ad :
+                    ((SimpleFeatureType) featureSource.getSchema()).getAttributeDescriptors()) {
+                properties.add(ad.getLocalName());
+            }
+        } else {
+            properties.addAll(Arrays.asList(query.getPropertyNames()));
+        }
+        properties.remove(geometryName);
+        Query attributesQuery = new Query(query);
+        attributesQuery.setPropertyNames(properties);
+
+        int count = 0;
+        int total = 0;
+        int missingTotal = 0;
+        // features waiting for a missing one to be loaded, the generalized geometry being null
+        // for the missing ones
+        List<Feature> held = new ArrayList<>();
+        List<Geometry> heldGeometries = new ArrayList<>();
+        Set<FeatureId> missing = new LinkedHashSet<>();
+        try (FeatureIterator<?> it = featureSource.getFeatures(attributesQuery).features()) {
+            while (it.hasNext()) {
+                Feature feature = it.next();
+                total++;
+                String featureId = feature.getIdentifier().toString();
+                Geometry generalized = level.lookup(featureId);
+                if (generalized == null) {
+                    missing.add(feature.getIdentifier());
+                    missingTotal++;
+                } else if (missing.isEmpty()) {
+                    // nothing held back, can be encoded right away
+                    if (addFeature(
+                            feature,
+                            featureId,
+                            null,
+                            generalized,
+                            pipeline,
+                            geometryDescriptor,
+                            vectorTileBuilder)) {
+                        count++;
+                    }
+                    continue;
+                }
+                held.add(feature);
+                heldGeometries.add(generalized);
+                if (missing.size() >= MISSING_FEATURES_BATCH
+                        || held.size() >= MAX_HELD_FEATURES) {
+                    count +=
+                            runHeld(
+                                    featureSource,
+                                    query,
+                                    held,
+                                    heldGeometries,
+                                    missing,
+                                    pipeline,
+                                    geometryDescriptor,
+                                    vectorTileBuilder);
+                }
+            }
+        }
+        if (!held.isEmpty()) {
+            count +=
+                    runHeld(
+                            featureSource,
+                            query,
+                            held,
+                            heldGeometries,
+                            missing,
+                            pipeline,
+                            geometryDescriptor,
+                            vectorTileBuilder);
+        }
+        sw.stop();
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(
+                    String.format(
+                            "Added %,d out of %,d features of '%s' using the generalization "
+                                    + "pyramid in %s, %,d features missing from it",
+                            count, total, layer.getTitle(), sw, missingTotal));
+        }
+    }
+
+    /**
+     * Loads the missing features with their full resolution geometries, and encodes all the held
+     * features in order, clearing the buffers
+     *
+     * @return the number of features added to the tile
+     */
+    private int runHeld(
+            FeatureSource<?, ?> featureSource,
+            Query query,
+            List<Feature> held,
+            List<Geometry> heldGeometries,
+            Set<FeatureId> missing,
+            Pipeline pipeline,
+            GeometryDescriptor geometryDescriptor,
+            VectorTileBuilder vectorTileBuilder)
+            throws IOException {
+        Map<String, Feature> loaded = new HashMap<>();
+        if (!missing.isEmpty()) {
+            Query missingQuery = new Query(query);
+            missingQuery.setFilter(FF.id(new LinkedHashSet<>(missing)));
+            missingQuery.setStartIndex(null);
+            missingQuery.setMaxFeatures(Query.DEFAULT_MAX);
+            missingQuery.setSortBy(null);
+            try (FeatureIterator<?> it = featureSource.getFeatures(missingQuery).features()) {
+                while (it.hasNext()) {
+                    Feature feature = it.next();
+                    loaded.put(feature.getIdentifier().toString(), feature);
+                }
+            }
+        }
+
+        int count = 0;
+        for (int i = 0; i < held.size(); i++) {
+            String featureId = held.get(i).getIdentifier().toString();
+            Geometry generalized = heldGeometries.get(i);
+            boolean added;
+            if (generalized != null) {
+                added =
+                        addFeature(
+                                held.get(i),
+                                featureId,
+                                null,
+                                generalized,
+                                pipeline,
+                                geometryDescriptor,
+                                vectorTileBuilder);
+            } else {
+                Feature feature = loaded.get(featureId);
+                // might have been removed in the meantime
+                added =
+                        feature != null
+                                && addFeature(
+                                        feature,
+                                        featureId,
+                                        featureId,
+                                        (Geometry) feature.getDefaultGeometryProperty().getValue(),
+                                        pipeline,
+                                        geometryDescriptor,
+                                        vectorTileBuilder);
+            }
+            if (added) {
+                count++;
+            }
+        }
+        held.clear();
+        heldGeometries.clear();
+        missing.clear();
+        return count;
+    }
+
     void run(
             FeatureCollection<?, ?> features,
             Pipeline pipeline,
@@ -212,31 +444,19 @@ void run(
             while (it.hasNext()) {
                 feature = it.next();
                 total++;
-                Geometry finalGeom;
 
+                final String featureId = feature.getIdentifier().toString();
                 Geometry originalGeom = (Geometry) feature.getDefaultGeometryProperty().getValue();
-                try {
-                    finalGeom = pipeline.execute(originalGeom);
-                } catch (Exception processingException) {
-                    LOGGER.log(
-                            Level.WARNING,
-                            processingException.getLocalizedMessage(),
-                            processingException);
-                    continue;
+                if (addFeature(
+                        feature,
+                        featureId,
+                        featureId,
+                        originalGeom,
+                        pipeline,
+                        geometryDescriptor,
+                        vectorTileBuilder)) {
+                    count++;
                 }
-                if (finalGeom.isEmpty()) {
-                    continue;
-                }
-
-                final String layerName = feature.getType().getName().getLocalPart();
-                final String featureId = feature.getIdentifier().toString();
-                final String geometryName = geometryDescriptor.getName().getLocalPart();
-
-                final Map<String, Object> properties = getProperties(feature);
-
-                vectorTileBuilder.addFeature(
-                        layerName, featureId, geometryName, finalGeom, properties);
-                count++;
             }
         }
         sw.stop();
@@ -250,6 +470,42 @@ void run(
         }
     }
 
+    /**
+     * Runs the geometry through the pipeline and adds the feature to the tile
+     *
+     * @param pipelineId the feature id handed to the pipeline, null if the geometry has already
+     *     been pre-generalized
+     * @return true if the feature was added, false if skipped
+     */
+    private boolean addFeature(
+            Feature feature,
+            String featureId,
+            String pipelineId,
+            Geometry geometry,
+            Pipeline pipeline,
+            GeometryDescriptor geometryDescriptor,
+            VectorTileBuilder vectorTileBuilder) {
+        Geometry finalGeom;
+        try {
+            finalGeom = pipeline.execute(pipelineId, geometry);
+        } catch (Exception processingException) {
+            LOGGER.log(
+                    Level.WARNING, processingException.getLocalizedMessage(), processingException);
+            return false;
+        }
+        if (finalGeom.isEmpty()) {
+            return false;
+        }
+
+        final String layerName = feature.getType().getName().getLocalPart();
+        final String geometryName = geometryDescriptor.getName().getLocalPart();
+
+        final Map<String, Object> properties = getProperties(feature);
+
+        vectorTileBuilder.addFeature(layerName, featureId, geometryName, finalGeom, properties);
+        return true;
+    }
+
     /** @return {@code null}, not a raster format. */
     @Override
     public MapProducerCapabilities getCapabilities(String format) {
@@ -0,0 +1,103 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.mapbox;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import no.ecc.vectortile.VectorTileDecoder;
+import no.ecc.vectortile.VectorTileDecoder.Feature;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+public class StreamingVectorTileEncoderTest {
+
+    private Geometry geom(String wkt) throws ParseException {
+        return new WKTReader().read(wkt);
+    }
+
+    private List<Feature> decode(StreamingVectorTileEncoder encoder) throws Exception {
+        VectorTileDecoder decoder = new VectorTileDecoder();
+        decoder.setAutoScale(false);
+        return decoder.decode(encoder.encode()).asList();
+    }
+
+    @Test
+    public void testEncodeDecode() throws Exception {
+        StreamingVectorTileEncoder encoder = new StreamingVectorTileEncoder(256, 0, 0);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("name", "first");
+        attributes.put("count", 10);
+        attributes.put("value", 1.5d);
+        attributes.put("flag", true);
+        encoder.addFeature("layer", attributes, geom("POINT(10 20)"), 1);
+        encoder.addFeature(
+                "layer", Map.of("name", "second"), geom("LINESTRING(0 0, 5 5, 10 0)"), 2);
+        encoder.addFeature(
+                "other",
+                Map.of(),
+                geom("POLYGON((0 0, 100 0, 100 100, 0 100, 0 0), (10 10, 10 20, 20 20, 10 10))"),
+                -1);
+
+        List<Feature> features = decode(encoder);
+        assertEquals(3, features.size());
+
+        Feature point = features.get(0);
+        assertEquals("layer", point.getLayerName());
+        assertEquals(1, point.getId());
+        assertEquals(geom("POINT(10 20)"), point.getGeometry());
+        assertEquals("first", point.getAttributes().get("name"));
+        assertEquals(10L, ((Number) point.getAttributes().get("count")).longValue());
+        assertEquals(1.5d, ((Number) point.getAttributes().get("value")).doubleValue(), 0d);
+        assertEquals(Boolean.TRUE, point.getAttributes().get("flag"));
+
+        Feature line = features.get(1);
+        assertEquals(geom("LINESTRING(0 0, 5 5, 10 0)"), line.getGeometry());
+        assertEquals("second", line.getAttributes().get("name"));
+
+        Feature polygon = features.get(2);
+        assertEquals("other", polygon.getLayerName());
+        assertTrue(polygon.getGeometry() instanceof Polygon);
+        assertEquals(1, ((Polygon) polygon.getGeometry()).getNumInteriorRing());
+        assertEquals(10000 - 50, polygon.getGeometry().getArea(), 0d);
+    }
+
+    @Test
+    public void testFeatureBudget() throws Exception {
+        StreamingVectorTileEncoder encoder = new StreamingVectorTileEncoder(256, 0, 10);
+        for (int i = 0; i < 20; i++) {
+            // all points in the same thinning cell
+            encoder.addFeature("layer", Map.of("id", i), geom("POINT(100 100)"), i);
+        }
+        List<Feature> features = decode(encoder);
+        // 8 features before thinning kicks in, then a single one is allowed in the cell
+        assertEquals(9, features.size());
+        // first half with attributes, then stripped
+        for (int i = 0; i < features.size(); i++) {
+            assertEquals(i < 5, !features.get(i).getAttributes().isEmpty());
+        }
+        assertEquals(4, encoder.strippedFeatures);
+        assertEquals(11, encoder.thinnedFeatures);
+    }
+
+    @Test
+    public void testByteBudget() throws Exception {
+        StreamingVectorTileEncoder encoder = new StreamingVectorTileEncoder(256, 1024, 0);
+        for (int i = 0; i < 1000; i++) {
+            encoder.addFeature(
+                    "layer", Map.of("name", "feature" + i), geom("LINESTRING(0 0, 100 100)"), i);
+        }
+        byte[] tile = encoder.encode();
+        // the budget is checked before adding a feature, so it can be exceeded by a single one
+        assertTrue(tile.length < 1024 + 128);
+        assertTrue(encoder.droppedFeatures > 0);
+    }
+}
@@ -0,0 +1,205 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.vector;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import java.util.Collections;
+import net.minidev.json.JSONArray;
+import net.opengis.wfs.WfsFactory;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.data.test.MockData;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.resource.Resource;
+import org.geoserver.wfs.TransactionEvent;
+import org.geoserver.wfs.TransactionEventType;
+import org.geoserver.wfs.request.TransactionRequest;
+import org.geoserver.wms.WMSTestSupport;
+import org.geoserver.wms.vector.GeneralizationPyramid.PyramidLevel;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureSource;
+import org.geotools.factory.CommonFactoryFinder;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class GeneralizationPyramidIntegrationTest extends WMSTestSupport {
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory();
+
+    static final String FID_1 = "Streams.1107532066140";
+
+    static final String FID_2 = "Streams.1107532066141";
+
+    static final String GET_MAP =
+            "wms?service=WMS&version=1.1.0&request=GetMap&layers=cite:Streams"
+                    + "&styles=&bbox=-0.005,-0.005,0.005,0.005&width=256&height=256"
+                    + "&srs=EPSG:4326&format=application%2Fjson%3Btype%3Dgeojson";
+
+    @Before
+    public void enablePyramid() {
+        setPyramidEnabled(true);
+    }
+
+    private FeatureTypeInfo getStreams() {
+        return getCatalog().getFeatureTypeByName(getLayerId(MockData.STREAMS));
+    }
+
+    private void setPyramidEnabled(boolean enabled) {
+        FeatureTypeInfo info = getStreams();
+        info.getMetadata().put(GeneralizationPyramids.ENABLED_KEY, enabled);
+        getCatalog().save(info);
+    }
+
+    private GeneralizationPyramid getPyramid() {
+        return GeoServerExtensions.bean(GeneralizationPyramids.class).getPyramid(getStreams());
+    }
+
+    /** Returns the pyramid level holding the given feature, if any */
+    private PyramidLevel getLevelHolding(String featureId) {
+        GeneralizationPyramid pyramid = getPyramid();
+        pyramid.flush();
+        for (PyramidLevel level : pyramid.levels.values()) {
+            if (level.offsets.containsKey(featureId)) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    private String getMap() throws Exception {
+        MockHttpServletResponse response = getAsServletResponse(GET_MAP);
+        assertEquals(200, response.getStatus());
+        return response.getContentAsString();
+    }
+
+    private String getCoordinates(String json, String fid) {
+        DocumentContext context = JsonPath.parse(json);
+        JSONArray coordinates =
+                context.read("$.features[?(@.properties.FID == '" + fid + "')].geometry");
+        assertEquals(1, coordinates.size());
+        return coordinates.toJSONString();
+    }
+
+    @Test
+    public void testPipelineAndTransactionInvalidation() throws Exception {
+        // first request fills the pyramid
+        String first = getMap();
+        assertNotNull(getLevelHolding(FID_1));
+        PyramidLevel level = getLevelHolding(FID_2);
+        assertNotNull(level);
+
+        // the second one is served from it, with the same results
+        assertEquals(first, getMap());
+
+        // modify one stream via WFS-T, the pyramid must forget about it
+        String update =
+                "<wfs:Transaction service=\"WFS\" version=\"1.0.0\" "
+                        + "xmlns:cite=\"http://www.opengis.net/cite\" "
+                        + "xmlns:ogc=\"http://www.opengis.net/ogc\" "
+                        + "xmlns:wfs=\"http://www.opengis.net/wfs\" "
+                        + "xmlns:gml=\"http://www.opengis.net/gml\">"
+                        + "<wfs:Update typeName=\"cite:Streams\">"
+                        + "<wfs:Property><wfs:Name>the_geom</wfs:Name><wfs:Value>"
+                        + "<gml:MultiLineString srsName=\"EPSG:4326\"><gml:lineStringMember>"
+                        + "<gml:LineString><gml:coordinates>0.001,0.001 0.002,0.002"
+                        + "</gml:coordinates></gml:LineString>"
+                        + "</gml:lineStringMember></gml:MultiLineString>"
+                        + "</wfs:Value></wfs:Property>"
+                        + "<ogc:Filter><ogc:FeatureId fid=\""
+                        + FID_2
+                        + "\"/></ogc:Filter>"
+                        + "</wfs:Update></wfs:Transaction>";
+        String response = postAsServletResponse("wfs", update).getContentAsString();
+        assertThat(response, containsString("SUCCESS"));
+        getPyramid().flush();
+        assertNull(level.offsets.get(FID_2));
+        assertNotNull(level.offsets.get(FID_1));
+
+        // the next request shows the new geometry, and stores it again
+        String updated = getMap();
+        assertEquals(getCoordinates(first, "111"), getCoordinates(updated, "111"));
+        assertNotEquals(getCoordinates(first, "112"), getCoordinates(updated, "112"));
+        assertThat(getCoordinates(updated, "112"), containsString("[0.002,0.002]"));
+        assertNotNull(getLevelHolding(FID_2));
+    }
+
+    private JSONArray getFeatureIds(String json) {
+        return JsonPath.parse(json).read("$.features[*].properties.FID");
+    }
+
+    @Test
+    public void testMissingFeaturesKeepOrder() throws Exception {
+        JSONArray expected = getFeatureIds(getMap());
+        assertEquals(2, expected.size());
+        assertNotNull(getLevelHolding(FID_1));
+
+        // the first feature is missing from the pyramid, the second is still there
+        String first = expected.get(0).equals("111") ? FID_1 : FID_2;
+        getPyramid().invalidate(Collections.singleton(first));
+        getPyramid().flush();
+        assertNull(getLevelHolding(first));
+
+        assertEquals(expected, getFeatureIds(getMap()));
+    }
+
+    @Test
+    public void testInvalidateAfterTransaction() throws Exception {
+        getMap();
+        PyramidLevel level = getLevelHolding(FID_2);
+        assertNotNull(level);
+        SimpleFeatureSource source =
+                (SimpleFeatureSource) getStreams().getFeatureSource(null, null);
+        SimpleFeatureCollection affected =
+                source.getFeatures(FF.id(Collections.singleton(FF.featureId(FID_2))));
+        Geometry original = (Geometry) DataUtilities.first(affected).getDefaultGeometry();
+
+        // the update invalidates the feature before it's performed
+        GeneralizationPyramids pyramids = GeoServerExtensions.bean(GeneralizationPyramids.class);
+        TransactionRequest request =
+                TransactionRequest.adapt(WfsFactory.eINSTANCE.createTransactionType());
+        assertEquals(request, pyramids.beforeTransaction(request));
+        pyramids.dataStoreChange(
+                new TransactionEvent(
+                        TransactionEventType.PRE_UPDATE, request, MockData.STREAMS, affected));
+        getPyramid().flush();
+        assertNull(level.offsets.get(FID_2));
+
+        // a tile request running before the commit stores the old geometry back
+        level.generalize(FID_2, original);
+        assertNotNull(getLevelHolding(FID_2));
+
+        // the transaction end drops it again
+        pyramids.afterTransaction(request, null, true);
+        getPyramid().flush();
+        assertNull(level.offsets.get(FID_2));
+        assertNotNull(level.offsets.get(FID_1));
+    }
+
+    @Test
+    public void testDisableDropsPyramid() throws Exception {
+        getMap();
+        assertNotNull(getLevelHolding(FID_1));
+        Resource directory =
+                getResourceLoader()
+                        .get(GeneralizationPyramids.PYRAMIDS_PATH)
+                        .get(getStreams().getId());
+        assertEquals(Resource.Type.DIRECTORY, directory.getType());
+
+        setPyramidEnabled(false);
+        assertEquals(Resource.Type.UNDEFINED, directory.getType());
+        assertNull(getPyramid());
+    }
+}
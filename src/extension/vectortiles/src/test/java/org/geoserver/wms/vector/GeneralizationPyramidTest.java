@@ -0,0 +1,210 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.vector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.wms.vector.GeneralizationPyramid.PyramidLevel;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.util.GeometricShapeFactory;
+
+public class GeneralizationPyramidTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    private Geometry circle(double x, double y, int points) {
+        GeometricShapeFactory factory = new GeometricShapeFactory(new GeometryFactory());
+        factory.setCentre(new Coordinate(x, y));
+        factory.setSize(10);
+        factory.setNumPoints(points);
+        return factory.createCircle();
+    }
+
+    @Test
+    public void testLevelSelection() throws Exception {
+        try (GeneralizationPyramid pyramid = new GeneralizationPyramid(folder.getRoot())) {
+            assertEquals(1, pyramid.getLevel(1.5).getDistance(), 0d);
+            assertEquals(0.25, pyramid.getLevel(0.3).getDistance(), 0d);
+            assertNull(pyramid.getLevel(0));
+            assertNull(pyramid.getLevel(Double.NaN));
+        }
+    }
+
+    @Test
+    public void testSmallGeometriesUntouched() throws Exception {
+        try (GeneralizationPyramid pyramid = new GeneralizationPyramid(folder.getRoot())) {
+            Geometry small = circle(0, 0, 8);
+            PyramidLevel level = pyramid.getLevel(1);
+            assertSame(small, level.generalize("f.1", small));
+            // stored anyways, so that lookups can skip loading the original
+            pyramid.flush();
+            assertTrue(small.equalsExact(level.lookup("f.1")));
+        }
+    }
+
+    @Test
+    public void testStoreAndReload() throws Exception {
+        File root = folder.getRoot();
+        Geometry original = circle(0, 0, 1000);
+        Geometry generalized;
+        try (GeneralizationPyramid pyramid = new GeneralizationPyramid(root)) {
+            PyramidLevel level = pyramid.getLevel(1);
+            generalized = level.generalize("f.1", original);
+            assertTrue(generalized.getNumPoints() < original.getNumPoints());
+            // written in background
+            pyramid.flush();
+            assertNotNull(level.offsets.get("f.1"));
+            assertTrue(level.pending.isEmpty());
+        }
+
+        // reopen, the generalized geometry is read back from disk
+        try (GeneralizationPyramid pyramid = new GeneralizationPyramid(root)) {
+            PyramidLevel level = pyramid.getLevel(1);
+            assertNotNull(level.offsets.get("f.1"));
+            Geometry reloaded = level.generalize("f.1", original);
+            assertTrue(generalized.equalsExact(reloaded));
+            // also available without the original geometry
+            assertTrue(generalized.equalsExact(level.lookup("f.1")));
+            assertNull(level.lookup("f.2"));
+        }
+    }
+
+    @Test
+    public void testLookupPending() throws Exception {
+        try (GeneralizationPyramid pyramid = new GeneralizationPyramid(folder.getRoot())) {
+            PyramidLevel level = pyramid.getLevel(1);
+            Geometry generalized = level.generalize("f.1", circle(0, 0, 1000));
+            // found either in the pending records or on disk, depending on the writer progress
+            assertTrue(generalized.equalsExact(level.lookup("f.1")));
+        }
+    }
+
+    @Test
+    public void testConcurrentRequestsShareRecord() throws Exception {
+        try (GeneralizationPyramid pyramid = new GeneralizationPyramid(folder.getRoot())) {
+            PyramidLevel level = pyramid.getLevel(1);
+            Geometry original = circle(0, 0, 1000);
+            int threads = 8;
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            // hold the writer, so that all requests run while the record is pending
+            CountDownLatch writerHold = new CountDownLatch(1);
+            GeneralizationPyramid.WRITER.execute(
+                    () -> {
+                        try {
+                            writerHold.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+            try {
+                List<Future<Geometry>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(
+                            executor.submit(
+                                    () -> {
+                                        barrier.await(10, TimeUnit.SECONDS);
+                                        return level.generalize("f.1", original.copy());
+                                    }));
+                }
+                Geometry first = results.get(0).get();
+                for (Future<Geometry> result : results) {
+                    assertTrue(first.equalsExact(result.get()));
+                }
+                assertEquals(1, level.pending.size());
+            } finally {
+                writerHold.countDown();
+                executor.shutdownNow();
+            }
+            pyramid.flush();
+
+            // a single record was written, no matter how many requests computed it
+            assertEquals(level.offsets.get("f.1").size(), level.channel.size());
+        }
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        File root = folder.getRoot();
+        Geometry last = null;
+        try (GeneralizationPyramid pyramid = new GeneralizationPyramid(root)) {
+            PyramidLevel level = pyramid.getLevel(1);
+            // keep on changing the same feature, superseding the previous records
+            for (int i = 0; i < 10; i++) {
+                last = circle(i * 100, 0, 1000);
+                level.generalize("f.1", last);
+                pyramid.flush();
+            }
+            level.generalize("f.2", circle(0, 100, 1000));
+            pyramid.flush();
+            long size = level.channel.size();
+
+            level.compact();
+            assertEquals(level.liveBytes.get(), level.channel.size());
+            assertTrue(level.channel.size() < size);
+            assertNotNull(level.generalize("f.1", last));
+            assertNotNull(level.lookup("f.2"));
+        }
+
+        // the compacted file reloads fine
+        try (GeneralizationPyramid pyramid = new GeneralizationPyramid(root)) {
+            PyramidLevel level = pyramid.getLevel(1);
+            assertEquals(2, level.offsets.size());
+            Geometry stored = level.lookup("f.1");
+            assertTrue(last.getEnvelopeInternal().contains(stored.getEnvelopeInternal()));
+        }
+    }
+
+    @Test
+    public void testChangedGeometryIsRegeneralized() throws Exception {
+        try (GeneralizationPyramid pyramid = new GeneralizationPyramid(folder.getRoot())) {
+            PyramidLevel level = pyramid.getLevel(1);
+            level.generalize("f.1", circle(0, 0, 1000));
+
+            // same id, different geometry, the fingerprint does not match anymore
+            Geometry moved = circle(100, 100, 1000);
+            Geometry generalized = level.generalize("f.1", moved);
+            assertTrue(moved.getEnvelopeInternal().contains(generalized.getEnvelopeInternal()));
+        }
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        File root = folder.getRoot();
+        try (GeneralizationPyramid pyramid = new GeneralizationPyramid(root)) {
+            pyramid.getLevel(1).generalize("f.1", circle(0, 0, 1000));
+            pyramid.getLevel(4).generalize("f.1", circle(0, 0, 1000));
+        }
+
+        // invalidation reaches levels that were not opened yet
+        try (GeneralizationPyramid pyramid = new GeneralizationPyramid(root)) {
+            pyramid.invalidate(Collections.singleton("f.1"));
+        }
+
+        try (GeneralizationPyramid pyramid = new GeneralizationPyramid(root)) {
+            assertNull(pyramid.getLevel(1).offsets.get("f.1"));
+            assertNull(pyramid.getLevel(4).offsets.get("f.1"));
+        }
+    }
+}
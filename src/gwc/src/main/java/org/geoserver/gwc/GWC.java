@@ -930,8 +930,9 @@ ConveyorTile prepareRequest(
      *
      * @param layer the layer name to check against
      * @param request the GetMap request to check whether it might match a tile
+     * @param requestMistmatchTarget collects the reason why the request does not match
      */
-    boolean isCachingPossible(
+    public boolean isCachingPossible(
             TileLayer layer, GetMapRequest request, StringBuilder requestMistmatchTarget) {
 
         if (null != request.getRemoteOwsType() || null != request.getRemoteOwsURL()) {
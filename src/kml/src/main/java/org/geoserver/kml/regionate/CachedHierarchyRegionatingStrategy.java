@@ -233,7 +233,7 @@ public static void clearHsqlDatabase(File dbDir, String dbName) {
      * percentage of the width and height of the envelope. The method assumes both envelopes are in
      * the same CRS
      */
-    private boolean envelopeMatch(
+    static boolean envelopeMatch(
             ReferencedEnvelope tileEnvelope, ReferencedEnvelope expectedEnvelope) {
         double widthRatio = Math.abs(1.0 - tileEnvelope.getWidth() / expectedEnvelope.getWidth());
         double heightRatio =
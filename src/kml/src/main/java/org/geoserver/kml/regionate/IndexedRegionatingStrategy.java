@@ -0,0 +1,157 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.kml.regionate;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.config.GeoServer;
+import org.geoserver.kml.regionate.RegionatingIndex.Priority;
+import org.geoserver.ows.HttpErrorCodeException;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.ServiceException;
+import org.geoserver.wms.MapLayerInfo;
+import org.geoserver.wms.WMSMapContent;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.identity.FeatureId;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.map.Layer;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Point;
+
+/**
+ * Regionating strategy backed by a {@link RegionatingIndex}, a spatially sorted index file built
+ * in the background and updated incrementally as the layer is modified, instead of a per layer
+ * HSQL database.
+ *
+ * <p>The features are prioritized by the regionating attribute, if it's a numeric, date or boolean
+ * one, otherwise by geometry size, or in a stable random order for point layers.
+ *
+ * <p>While an index is built for the first time requests wait for it a limited amount of time, and
+ * then fail with a 503 error reporting the build progress.
+ */
+public class IndexedRegionatingStrategy implements RegionatingStrategy {
+
+    static Logger LOGGER = Logging.getLogger("org.geoserver.geosearch");
+
+    /** Max time, in milliseconds, a request waits for the first build of an index */
+    static long BUILD_WAIT = Long.getLong("org.geoserver.kml.regionate.indexWait", 10000);
+
+    GeoServer gs;
+
+    public IndexedRegionatingStrategy(GeoServer gs) {
+        this.gs = gs;
+    }
+
+    @Override
+    public Filter getFilter(WMSMapContent context, Layer layer) {
+        Set<String> featuresInTile;
+        try {
+            FeatureTypeInfo featureType =
+                    gs.getCatalog().getFeatureTypeByName(layer.getFeatureSource().getName());
+
+            Integer featuresPerTile =
+                    featureType.getMetadata().get("kml.regionateFeatureLimit", Integer.class);
+            if (featuresPerTile == null || featuresPerTile.intValue() <= 1) featuresPerTile = 64;
+
+            // sanity check, the layer is not geometryless
+            SimpleFeatureType schema = (SimpleFeatureType) featureType.getFeatureType();
+            GeometryDescriptor geom = schema.getGeometryDescriptor();
+            if (geom == null)
+                throw new ServiceException(
+                        featureType.getName() + " is geometryless, cannot generate KML!");
+
+            // make sure it's a valid tile request
+            ReferencedEnvelope requestedEnvelope =
+                    context.getRenderingArea().transform(Tile.WGS84, true);
+            Tile tile = new Tile(requestedEnvelope);
+            if (!CachedHierarchyRegionatingStrategy.envelopeMatch(
+                    tile.getEnvelope(), requestedEnvelope))
+                throw new ServiceException(
+                        "Invalid bounding box request, it does not fit "
+                                + "the nearest regionating tile. Requested area: "
+                                + requestedEnvelope
+                                + ", nearest tile: "
+                                + tile.getEnvelope());
+
+            // pick the priority
+            Map options = context.getRequest().getFormatOptions();
+            String attribute = (String) options.get("regionateAttr");
+            if (attribute == null) attribute = MapLayerInfo.getRegionateAttribute(featureType);
+            Priority priority;
+            if (isSortable(schema, attribute)) {
+                priority = Priority.ATTRIBUTE;
+            } else {
+                attribute = null;
+                Class<?> binding = geom.getType().getBinding();
+                priority =
+                        Point.class.isAssignableFrom(binding) ? Priority.RANDOM : Priority.GEOMETRY;
+            }
+
+            RegionatingIndex index = getManager().getIndex(featureType, priority, attribute);
+            RegionatingIndex.Snapshot snapshot = index.getSnapshot(BUILD_WAIT);
+            if (snapshot == null) {
+                throw new HttpErrorCodeException(
+                        503,
+                        "The regionating index of "
+                                + featureType.prefixedName()
+                                + " is being built, "
+                                + Math.round(index.getProgress() * 100)
+                                + "% done, please retry later");
+            }
+            featuresInTile =
+                    snapshot.getFeatures(tile, featuresPerTile, featureType.getLatLonBoundingBox());
+            LOGGER.log(
+                    Level.FINE,
+                    "Found " + featuresInTile.size() + " features in tile " + tile.toString());
+        } catch (HttpErrorCodeException | ServiceException e) {
+            throw e;
+        } catch (Throwable t) {
+            LOGGER.log(Level.SEVERE, "Error occurred while pre-processing regionated features", t);
+            throw new ServiceException("Failure while pre-processing regionated features", t);
+        }
+
+        // This okay, just means the tile is empty
+        if (featuresInTile.isEmpty()) {
+            throw new HttpErrorCodeException(204);
+        } else {
+            FilterFactory ff = CommonFactoryFinder.getFilterFactory(null);
+            Set<FeatureId> ids = new HashSet<>();
+            for (String fid : featuresInTile) {
+                ids.add(ff.featureId(fid));
+            }
+            return ff.id(ids);
+        }
+    }
+
+    /** Returns true if the attribute exists and its values can be used as a priority */
+    private boolean isSortable(SimpleFeatureType schema, String attribute) {
+        if (attribute == null) return false;
+        AttributeDescriptor ad = schema.getDescriptor(attribute);
+        if (ad == null || ad instanceof GeometryDescriptor) return false;
+        Class<?> binding = ad.getType().getBinding();
+        return Number.class.isAssignableFrom(binding)
+                || Date.class.isAssignableFrom(binding)
+                || Boolean.class.equals(binding);
+    }
+
+    @Override
+    public void clearCache(FeatureTypeInfo cfg) {
+        getManager().clear(cfg);
+    }
+
+    private RegionatingIndexManager getManager() {
+        return GeoServerExtensions.bean(RegionatingIndexManager.class);
+    }
+}
@@ -0,0 +1,632 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.kml.regionate;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.platform.resource.Resource;
+import org.geoserver.platform.resource.Resources;
+import org.geotools.api.data.FeatureSource;
+import org.geotools.api.data.Query;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.geometry.BoundingBox;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.api.referencing.operation.MathTransform;
+import org.geotools.api.referencing.operation.TransformException;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.FeatureIterator;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * A persistent spatial index of the features of a layer, used to build the regionating hierarchy
+ * without a database.
+ *
+ * <p>Each feature is stored as its WGS84 centroid, its priority and its id, sorted by the quad key
+ * of the centroid, so that the features falling in any regionating {@link Tile} are a contiguous
+ * range of the index. The index is immutable, updates build a new {@link Snapshot} and replace the
+ * current one, so that readers are never blocked by a rebuild. The snapshot is saved in the
+ * <code>geosearch</code> directory of the data directory and reloaded at restart.
+ */
+public class RegionatingIndex {
+
+    static Logger LOGGER = Logging.getLogger("org.geoserver.geosearch");
+
+    /** The criteria used to decide which features show up first in the hierarchy */
+    public enum Priority {
+        /** Larger values of a numeric, date or boolean attribute first */
+        ATTRIBUTE,
+        /** Larger geometries first */
+        GEOMETRY,
+        /** Stable pseudo random order, based on the feature id */
+        RANDOM
+    }
+
+    /** Depth of the quad keys, deeper tiles share the features of their level 30 ancestor */
+    static final int MAX_LEVEL = 30;
+
+    /** Number of cells along each axis at the maximum level */
+    static final long CELLS = 1L << MAX_LEVEL;
+
+    /** Side of the square domain covered by the quad keys, the world plus the unused north half */
+    static final double DOMAIN_SIZE = 360;
+
+    static final int FILE_MAGIC = 0x47535249;
+
+    static final int FILE_VERSION = 1;
+
+    /** Number of features read between two progress updates */
+    static final int PROGRESS_STEP = 1000;
+
+    /** Max number of feature ids in the tiles cached by each snapshot */
+    static final int MAX_CACHED_TILE_FEATURES = 100_000;
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory(null);
+
+    final String name;
+
+    final FeatureTypeInfo featureType;
+
+    final Priority priority;
+
+    final String attribute;
+
+    final Resource file;
+
+    private final CountDownLatch ready = new CountDownLatch(1);
+
+    private volatile Snapshot snapshot;
+
+    private volatile float progress;
+
+    private volatile Exception failure;
+
+    /** Updates received before the first snapshot was available, applied once it is */
+    private final List<PendingUpdate> pending = new ArrayList<>();
+
+    /**
+     * Creates a new index, empty until {@link #load()} or {@link #build()} are called
+     *
+     * @param name the index name, unique for the layer and priority
+     * @param featureType the layer being indexed
+     * @param priority how the features are prioritized
+     * @param attribute the attribute used for {@link Priority#ATTRIBUTE}, null otherwise
+     * @param file the file the index is persisted into
+     */
+    public RegionatingIndex(
+            String name,
+            FeatureTypeInfo featureType,
+            Priority priority,
+            String attribute,
+            Resource file) {
+        this.name = name;
+        this.featureType = featureType;
+        this.priority = priority;
+        this.attribute = attribute;
+        this.file = file;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Returns the fraction of the features indexed by the build in progress, between 0 and 1 */
+    public float getProgress() {
+        return progress;
+    }
+
+    /** Returns true if the index could not be loaded nor built */
+    public boolean isFailed() {
+        return snapshot == null && failure != null;
+    }
+
+    /**
+     * Returns the current snapshot, waiting at most the specified time for the first one to be
+     * available. Returns null if the first build is still in progress when the timeout expires.
+     */
+    public Snapshot getSnapshot(long timeout) throws IOException {
+        try {
+            ready.await(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Snapshot result = snapshot;
+        if (result == null && failure != null) {
+            throw new IOException("Failed to build the regionating index " + name, failure);
+        }
+        return result;
+    }
+
+    /**
+     * Loads the index from its file, if present and compatible with the current configuration.
+     *
+     * @return true if the index has been loaded and it's up to date with the layer contents, false
+     *     if it needs to be (re)built
+     */
+    public synchronized boolean load() throws IOException {
+        if (!Resources.exists(file)) {
+            return false;
+        }
+        Snapshot loaded = null;
+        int layerCount = -1;
+        try (DataInputStream in =
+                new DataInputStream(new BufferedInputStream(file.in(), 64 * 1024))) {
+            if (in.readInt() == FILE_MAGIC
+                    && in.readInt() == FILE_VERSION
+                    && priority.name().equals(in.readUTF())
+                    && String.valueOf(attribute).equals(in.readUTF())) {
+                layerCount = in.readInt();
+                int count = in.readInt();
+                List<Entry> entries = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    double x = in.readDouble();
+                    double y = in.readDouble();
+                    double p = in.readDouble();
+                    entries.add(new Entry(in.readUTF(), x, y, p));
+                }
+                loaded = new Snapshot(entries);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not read the regionating index " + name, e);
+        }
+        if (loaded == null) {
+            return false;
+        }
+        publish(loaded);
+        boolean updated = applyPending();
+        // the layer might have been modified while GeoServer was not running
+        int count = getFeatureSource().getCount(Query.ALL);
+        return updated && (count < 0 || count == layerCount);
+    }
+
+    /** Builds the index from scratch, the current snapshot, if any, is served until done */
+    public synchronized void build() throws IOException {
+        LOGGER.info("Building regionating index " + name);
+        FeatureSource source = getFeatureSource();
+        int total = source.getCount(Query.ALL);
+        List<Entry> entries = new ArrayList<>(Math.max(total, 16));
+        progress = 0;
+        // the changes committed so far are read along with the rest of the layer
+        pending.clear();
+        try {
+            try (FeatureIterator fi = source.getFeatures(getQuery(Filter.INCLUDE)).features()) {
+                EntryBuilder builder = new EntryBuilder();
+                while (fi.hasNext()) {
+                    Entry entry = builder.build((SimpleFeature) fi.next());
+                    if (entry != null) entries.add(entry);
+                    if (total > 0 && entries.size() % PROGRESS_STEP == 0) {
+                        progress = Math.min(0.99f, entries.size() / (float) total);
+                    }
+                }
+            }
+            publish(new Snapshot(entries));
+            progress = 1;
+            LOGGER.info(
+                    "Built regionating index " + name + " with " + entries.size() + " features");
+        } catch (IOException | RuntimeException e) {
+            failed(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Updates the index after a modification of the layer. The features whose centroid falls in the
+     * modified area, as well as the specified ones, are removed, then the features currently found
+     * in the area or matching the filter are indexed again.
+     *
+     * @param area the modified area, in the native CRS, null if unknown
+     * @param fids the ids of the modified features, if known
+     * @return false if the modified area is not known and the index has to be fully rebuilt
+     */
+    public synchronized boolean update(ReferencedEnvelope area, Set<String> fids)
+            throws IOException {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // not loaded nor built yet, the change is applied once the first snapshot is
+            pending.add(new PendingUpdate(area, fids));
+            return true;
+        }
+        if (area == null || area.isNull()) {
+            return false;
+        }
+        ReferencedEnvelope wgs84Area;
+        try {
+            wgs84Area = area.transform(Tile.WGS84, true);
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Could not transform the modified area, rebuilding", e);
+            return false;
+        }
+        // re-read the features, the native area is computed back from the geographic one so that
+        // it contains all the centroids being removed
+        FeatureSource source = getFeatureSource();
+        ReferencedEnvelope nativeArea;
+        try {
+            nativeArea = wgs84Area.transform(area.getCoordinateReferenceSystem(), true);
+        } catch (Exception e) {
+            nativeArea = area;
+        }
+        GeometryDescriptor geom = source.getSchema().getGeometryDescriptor();
+        Filter filter = FF.bbox(FF.property(geom.getLocalName()), nativeArea);
+        if (fids != null && !fids.isEmpty()) {
+            filter = FF.or(filter, FF.id(FF.featureId(fids.toArray(new String[fids.size()]))));
+        }
+        List<Entry> added = new ArrayList<>();
+        try (FeatureIterator fi = source.getFeatures(getQuery(filter)).features()) {
+            EntryBuilder builder = new EntryBuilder();
+            while (fi.hasNext()) {
+                Entry entry = builder.build((SimpleFeature) fi.next());
+                if (entry != null) added.add(entry);
+            }
+        }
+        Set<String> removed = new HashSet<>();
+        if (fids != null) removed.addAll(fids);
+        for (Entry entry : added) {
+            removed.add(entry.fid);
+        }
+
+        List<Entry> entries = new ArrayList<>(current.size() + added.size());
+        for (int i = 0; i < current.size(); i++) {
+            if (!removed.contains(current.fids[i])
+                    && !wgs84Area.contains(current.xs[i], current.ys[i])) {
+                entries.add(current.entry(i));
+            }
+        }
+        entries.addAll(added);
+        publish(new Snapshot(entries));
+        return true;
+    }
+
+    /** Writes the current snapshot to the index file */
+    public synchronized void save() throws IOException {
+        Snapshot current = snapshot;
+        if (current == null) return;
+        // the layer feature count, features without a geometry are not indexed
+        int layerCount = getFeatureSource().getCount(Query.ALL);
+        try (DataOutputStream out =
+                new DataOutputStream(new BufferedOutputStream(file.out(), 64 * 1024))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeUTF(priority.name());
+            out.writeUTF(String.valueOf(attribute));
+            out.writeInt(layerCount);
+            out.writeInt(current.size());
+            for (int i = 0; i < current.size(); i++) {
+                out.writeDouble(current.xs[i]);
+                out.writeDouble(current.ys[i]);
+                out.writeDouble(current.priorities[i]);
+                out.writeUTF(current.fids[i]);
+            }
+        }
+    }
+
+    /**
+     * Applies the updates received before the first snapshot was available
+     *
+     * @return false if any of them requires a full rebuild
+     */
+    private boolean applyPending() throws IOException {
+        List<PendingUpdate> updates = new ArrayList<>(pending);
+        pending.clear();
+        boolean result = true;
+        for (PendingUpdate update : updates) {
+            result &= update(update.area, update.fids);
+        }
+        return result;
+    }
+
+    /** Removes the index file */
+    public void delete() {
+        file.delete();
+    }
+
+    /** Marks the index as failed, unless a previous snapshot can still be served */
+    void failed(Exception e) {
+        failure = e;
+        ready.countDown();
+    }
+
+    private void publish(Snapshot snapshot) {
+        this.snapshot = snapshot;
+        this.failure = null;
+        ready.countDown();
+    }
+
+    FeatureSource getFeatureSource() throws IOException {
+        return featureType.getFeatureSource(null, null);
+    }
+
+    private Query getQuery(Filter filter) throws IOException {
+        GeometryDescriptor geom = getFeatureSource().getSchema().getGeometryDescriptor();
+        Query query = new Query(featureType.getNativeName(), filter);
+        if (priority == Priority.ATTRIBUTE && !attribute.equals(geom.getLocalName())) {
+            query.setPropertyNames(geom.getLocalName(), attribute);
+        } else {
+            query.setPropertyNames(geom.getLocalName());
+        }
+        return query;
+    }
+
+    /** Turns features into index entries, reprojecting their centroids to WGS84 */
+    private class EntryBuilder {
+
+        boolean first = true;
+
+        MathTransform tx;
+
+        double[] coords = new double[2];
+
+        Entry build(SimpleFeature f) throws IOException {
+            Geometry g = (Geometry) f.getDefaultGeometry();
+            if (g == null || g.isEmpty()) return null;
+            if (first) {
+                first = false;
+                CoordinateReferenceSystem nativeCRS = f.getType().getCoordinateReferenceSystem();
+                try {
+                    if (nativeCRS != null && !CRS.equalsIgnoreMetadata(nativeCRS, Tile.WGS84)) {
+                        tx = CRS.findMathTransform(nativeCRS, Tile.WGS84, true);
+                    }
+                } catch (Exception e) {
+                    throw new IOException("Cannot transform " + name + " features to WGS84", e);
+                }
+            }
+            Point p = g.getCentroid();
+            coords[0] = p.getX();
+            coords[1] = p.getY();
+            if (tx != null) {
+                try {
+                    tx.transform(coords, 0, coords, 0, 1);
+                } catch (TransformException e) {
+                    LOGGER.log(Level.FINE, "Skipping feature " + f.getID(), e);
+                    return null;
+                }
+            }
+            return new Entry(f.getID(), coords[0], coords[1], getPriority(f, g));
+        }
+
+        private double getPriority(SimpleFeature f, Geometry g) {
+            switch (priority) {
+                case ATTRIBUTE:
+                    Object value = f.getAttribute(attribute);
+                    if (value instanceof Number) return ((Number) value).doubleValue();
+                    if (value instanceof Date) return ((Date) value).getTime();
+                    if (value instanceof Boolean) return ((Boolean) value) ? 1 : 0;
+                    return Double.NEGATIVE_INFINITY;
+                case GEOMETRY:
+                    if (g instanceof MultiPoint) return g.getNumGeometries();
+                    if (g instanceof Polygon || g instanceof MultiPolygon) return g.getArea();
+                    return g.getLength();
+                default:
+                    // scramble the hash so that similar ids end up far apart
+                    return (f.getID().hashCode() * 0x9E3779B9L) & 0xFFFFFFFFL;
+            }
+        }
+    }
+
+    /** An update waiting for the first snapshot */
+    private static final class PendingUpdate {
+
+        final ReferencedEnvelope area;
+
+        final Set<String> fids;
+
+        PendingUpdate(ReferencedEnvelope area, Set<String> fids) {
+            this.area = area;
+            this.fids = fids;
+        }
+    }
+
+    /** A single indexed feature */
+    static final class Entry {
+
+        final String fid;
+
+        final double x;
+
+        final double y;
+
+        final double priority;
+
+        final long key;
+
+        Entry(String fid, double x, double y, double priority) {
+            this.fid = fid;
+            this.x = x;
+            this.y = y;
+            this.priority = priority;
+            this.key = quadKey(x, y);
+        }
+    }
+
+    /**
+     * An immutable state of the index, with the entries stored in parallel arrays sorted by quad
+     * key. The tiles computed out of it are cached along with it, up to {@link
+     * #MAX_CACHED_TILE_FEATURES} feature ids, and go away with it when the index is updated.
+     */
+    public static final class Snapshot {
+
+        final long[] keys;
+
+        final double[] xs;
+
+        final double[] ys;
+
+        final double[] priorities;
+
+        final String[] fids;
+
+        final Cache<String, Set<String>> tiles =
+                CacheBuilder.newBuilder()
+                        .maximumWeight(MAX_CACHED_TILE_FEATURES)
+                        .<String, Set<String>>weigher((k, v) -> v.size() + 1)
+                        .build();
+
+        Snapshot(List<Entry> entries) {
+            Entry[] sorted = entries.toArray(new Entry[entries.size()]);
+            Arrays.sort(sorted, Comparator.comparingLong(e -> e.key));
+            int size = sorted.length;
+            keys = new long[size];
+            xs = new double[size];
+            ys = new double[size];
+            priorities = new double[size];
+            fids = new String[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = sorted[i].key;
+                xs[i] = sorted[i].x;
+                ys[i] = sorted[i].y;
+                priorities[i] = sorted[i].priority;
+                fids[i] = sorted[i].fid;
+            }
+        }
+
+        /** Returns the number of indexed features */
+        public int size() {
+            return keys.length;
+        }
+
+        Entry entry(int i) {
+            return new Entry(fids[i], xs[i], ys[i], priorities[i]);
+        }
+
+        /**
+         * Returns the ids of the features in the specified tile. Each tile contains the features
+         * with the highest priority among the ones whose centroid falls in it, and that are not
+         * already contained in one of its ancestors, up to the tile fully containing the data.
+         *
+         * @param tile the requested tile
+         * @param featuresPerTile the max number of features in a tile
+         * @param dataEnvelope the WGS84 envelope of the data, or null if unknown
+         */
+        public Set<String> getFeatures(
+                Tile tile, int featuresPerTile, ReferencedEnvelope dataEnvelope) {
+            // the tiles from the root of the hierarchy down to the requested one
+            Deque<Tile> path = new ArrayDeque<>();
+            for (Tile t = tile; t != null; t = t.getParent()) {
+                path.push(t);
+                if (dataEnvelope != null && t.getEnvelope().contains((BoundingBox) dataEnvelope)) {
+                    break;
+                }
+            }
+
+            Set<String> excluded = new HashSet<>();
+            Set<String> result = Collections.emptySet();
+            while (!path.isEmpty()) {
+                Tile t = path.pop();
+                String key = featuresPerTile + "/" + t.z + "/" + t.x + "/" + t.y;
+                result = tiles.getIfPresent(key);
+                if (result == null) {
+                    result = select(t, featuresPerTile, excluded);
+                    tiles.put(key, result);
+                }
+                if (!path.isEmpty()) {
+                    if (result.size() < featuresPerTile) {
+                        // the tile did not fill up, all its descendants are empty
+                        return Collections.emptySet();
+                    }
+                    excluded.addAll(result);
+                }
+            }
+            return result;
+        }
+
+        /** Picks the features with the highest priority in the tile, skipping the excluded ones */
+        private Set<String> select(Tile tile, int featuresPerTile, Set<String> excluded) {
+            long level = tile.z + 1;
+            long x = tile.x;
+            long y = tile.y;
+            if (x < 0 || y < 0 || x >= 1L << level || y >= 1L << level) {
+                return Collections.emptySet();
+            }
+            if (level > MAX_LEVEL) {
+                x >>= level - MAX_LEVEL;
+                y >>= level - MAX_LEVEL;
+                level = MAX_LEVEL;
+            }
+            int shift = (int) (2 * (MAX_LEVEL - level));
+            long start = interleave(x, y) << shift;
+            long end = start + (1L << shift);
+
+            PriorityQueue<Integer> best =
+                    new PriorityQueue<>(
+                            featuresPerTile + 1, Comparator.comparingDouble(i -> priorities[i]));
+            for (int i = lowerBound(start); i < keys.length && keys[i] < end; i++) {
+                if (excluded.contains(fids[i])) continue;
+                if (best.size() < featuresPerTile) {
+                    best.add(i);
+                } else if (priorities[i] > priorities[best.peek()]) {
+                    best.poll();
+                    best.add(i);
+                }
+            }
+            Set<String> result = new HashSet<>();
+            for (Integer i : best) {
+                result.add(fids[i]);
+            }
+            return result;
+        }
+
+        private int lowerBound(long key) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid] < key) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    /** Returns the quad key of the cell containing the point at {@link #MAX_LEVEL} */
+    static long quadKey(double x, double y) {
+        long ix = cell(x - Tile.WORLD_BOUNDS.getMinX());
+        long iy = cell(y - Tile.WORLD_BOUNDS.getMinY());
+        return interleave(ix, iy);
+    }
+
+    private static long cell(double offset) {
+        long cell = (long) Math.floor(offset / DOMAIN_SIZE * CELLS);
+        return Math.max(0, Math.min(CELLS - 1, cell));
+    }
+
+    /** Interleaves the bits of the two cell coordinates, x in the even bits, y in the odd ones */
+    static long interleave(long x, long y) {
+        long result = 0;
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            result |= ((x >> i) & 1L) << (2 * i);
+            result |= ((y >> i) & 1L) << (2 * i + 1);
+        }
+        return result;
+    }
+}
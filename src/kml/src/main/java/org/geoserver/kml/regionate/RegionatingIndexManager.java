@@ -0,0 +1,387 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.kml.regionate;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.config.GeoServer;
+import org.geoserver.kml.regionate.RegionatingIndex.Priority;
+import org.geoserver.ows.Dispatcher;
+import org.geoserver.ows.Request;
+import org.geoserver.platform.resource.Resource;
+import org.geoserver.wfs.TransactionCallback;
+import org.geoserver.wfs.TransactionEvent;
+import org.geoserver.wfs.TransactionEventType;
+import org.geoserver.wfs.WFSException;
+import org.geoserver.wfs.request.TransactionRequest;
+import org.geoserver.wfs.request.TransactionResponse;
+import org.geotools.api.data.FeatureEvent;
+import org.geotools.api.data.FeatureListener;
+import org.geotools.api.data.FeatureSource;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.Id;
+import org.geotools.api.filter.identity.Identifier;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Keeps track of the {@link RegionatingIndex} instances, building them in the background and
+ * keeping them up to date as the layers are modified, e.g., by WFS transactions.
+ *
+ * <p>WFS transactions are followed as a {@link TransactionCallback}: the features they modify,
+ * delete or insert are collected, before the changes for the modified and deleted ones, and their
+ * area is reindexed once the transaction is committed. Other modifications are followed through the
+ * feature events of the layer data stores: the area modified by each event is reindexed, while
+ * events lacking a modified area cause a full rebuild. Reads keep being served by the previous
+ * index state while an update or a rebuild is in progress.
+ */
+public class RegionatingIndexManager implements TransactionCallback, DisposableBean {
+
+    static Logger LOGGER = Logging.getLogger("org.geoserver.geosearch");
+
+    /** Number of threads used to build and update the indexes */
+    static final int THREADS = 2;
+
+    private final GeoServer gs;
+
+    private final Map<String, IndexHolder> indexes = new ConcurrentHashMap<>();
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    /** The changes made by the WFS transaction running in the current thread */
+    private final ThreadLocal<TransactionChanges> changes = new ThreadLocal<>();
+
+    private final ExecutorService executor =
+            Executors.newFixedThreadPool(
+                    THREADS,
+                    r -> {
+                        Thread t =
+                                new Thread(
+                                        r,
+                                        "RegionatingIndexBuilder-"
+                                                + threadCount.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+
+    public RegionatingIndexManager(GeoServer gs) {
+        this.gs = gs;
+    }
+
+    /**
+     * Returns the index for the specified layer and priority, starting to load or build it in the
+     * background if needed
+     */
+    public RegionatingIndex getIndex(
+            FeatureTypeInfo featureType, Priority priority, String attribute) {
+        String name = getIndexName(featureType, priority, attribute);
+        IndexHolder holder = indexes.get(name);
+        if (holder != null && !holder.index.isFailed()) {
+            return holder.index;
+        }
+        synchronized (this) {
+            holder = indexes.get(name);
+            if (holder != null) {
+                if (!holder.index.isFailed()) return holder.index;
+                holder.dispose();
+            }
+            Resource file = gs.getCatalog().getResourceLoader().get("geosearch/" + name + ".idx");
+            holder =
+                    new IndexHolder(
+                            new RegionatingIndex(name, featureType, priority, attribute, file));
+            indexes.put(name, holder);
+            executor.submit(holder::initialize);
+            return holder.index;
+        }
+    }
+
+    /** Drops all the indexes of the specified layer, along with their files */
+    public synchronized void clear(FeatureTypeInfo featureType) {
+        String prefix = getIndexPrefix(featureType);
+        for (Iterator<IndexHolder> it = indexes.values().iterator(); it.hasNext(); ) {
+            IndexHolder holder = it.next();
+            if (holder.index.getName().startsWith(prefix)) {
+                it.remove();
+                holder.dispose();
+                holder.index.delete();
+            }
+        }
+        // indexes built before a restart and not used since
+        Resource geosearch = gs.getCatalog().getResourceLoader().get("geosearch");
+        for (Resource child : geosearch.list()) {
+            if (child.name().startsWith(prefix) && child.name().endsWith(".idx")) {
+                child.delete();
+            }
+        }
+    }
+
+    @Override
+    public TransactionRequest beforeTransaction(TransactionRequest request) throws WFSException {
+        changes.set(new TransactionChanges());
+        return request;
+    }
+
+    @Override
+    public void beforeCommit(TransactionRequest request) throws WFSException {
+        // nothing to do
+    }
+
+    /** Records the features being modified, deleted or inserted in indexed layers */
+    @Override
+    public void dataStoreChange(TransactionEvent event) throws WFSException {
+        TransactionEventType type = event.getType();
+        TransactionChanges current = changes.get();
+        if (current == null
+                || (type != TransactionEventType.PRE_UPDATE
+                        && type != TransactionEventType.PRE_DELETE
+                        && type != TransactionEventType.POST_INSERT)) {
+            return;
+        }
+        try {
+            FeatureTypeInfo info =
+                    gs.getCatalog()
+                            .getFeatureTypeByName(
+                                    event.getLayerName().getNamespaceURI(),
+                                    event.getLayerName().getLocalPart());
+            if (info == null || !isIndexed(info)) {
+                return;
+            }
+            LayerChanges layer =
+                    current.layers.computeIfAbsent(
+                            info.getId(), id -> new LayerChanges(info.getNativeCRS()));
+            try (SimpleFeatureIterator it = event.getAffectedFeatures().features()) {
+                while (it.hasNext()) {
+                    SimpleFeature f = it.next();
+                    layer.fids.add(f.getID());
+                    Geometry g = (Geometry) f.getDefaultGeometry();
+                    if (g != null) layer.area.expandToInclude(g.getEnvelopeInternal());
+                }
+            }
+        } catch (RuntimeException e) {
+            // never make the transaction fail due to an index error, rebuild instead
+            LOGGER.log(Level.WARNING, "Failed to collect the regionating index changes", e);
+            current.failed = true;
+        }
+    }
+
+    /** Reindexes the areas modified by the transaction, if committed */
+    @Override
+    public void afterTransaction(
+            TransactionRequest request, TransactionResponse result, boolean committed) {
+        TransactionChanges current = changes.get();
+        changes.remove();
+        if (current == null || !committed) {
+            return;
+        }
+        for (IndexHolder holder : indexes.values()) {
+            String id = holder.index.featureType.getId();
+            if (current.failed) {
+                holder.schedule(null, null);
+            } else if (current.layers.containsKey(id)) {
+                LayerChanges layer = current.layers.get(id);
+                holder.schedule(layer.area, layer.fids);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the current thread is running a WFS transaction, whose changes are applied
+     * once it's over
+     */
+    private boolean isInTransaction() {
+        TransactionChanges current = changes.get();
+        // left behind by a transaction that did not complete, e.g., a failed commit
+        return current != null && current.request == Dispatcher.REQUEST.get();
+    }
+
+    private boolean isIndexed(FeatureTypeInfo featureType) {
+        for (IndexHolder holder : indexes.values()) {
+            if (holder.index.featureType.getId().equals(featureType.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        executor.shutdownNow();
+        for (IndexHolder holder : indexes.values()) {
+            holder.dispose();
+        }
+        indexes.clear();
+    }
+
+    static String getIndexName(FeatureTypeInfo featureType, Priority priority, String attribute) {
+        String name = getIndexPrefix(featureType) + priority.name().toLowerCase();
+        if (attribute != null) {
+            name += "_" + attribute;
+        }
+        return name;
+    }
+
+    static String getIndexPrefix(FeatureTypeInfo featureType) {
+        return featureType.getNamespace().getPrefix() + "_" + featureType.getName() + "_";
+    }
+
+    /** The changes made by a WFS transaction, by feature type id */
+    static class TransactionChanges {
+
+        final Request request = Dispatcher.REQUEST.get();
+
+        final Map<String, LayerChanges> layers = new HashMap<>();
+
+        /** the changes could not be collected, the indexes need to be rebuilt */
+        boolean failed;
+    }
+
+    /** The ids and the area, in the native CRS, of the features modified in a layer */
+    static class LayerChanges {
+
+        final Set<String> fids = new HashSet<>();
+
+        final ReferencedEnvelope area;
+
+        LayerChanges(CoordinateReferenceSystem crs) {
+            this.area = new ReferencedEnvelope(crs);
+        }
+    }
+
+    /** An index along with the listener keeping it up to date */
+    class IndexHolder implements FeatureListener {
+
+        final RegionatingIndex index;
+
+        final AtomicBoolean saveScheduled = new AtomicBoolean();
+
+        /** the feature source the listener has been registered with */
+        volatile FeatureSource source;
+
+        volatile boolean disposed;
+
+        IndexHolder(RegionatingIndex index) {
+            this.index = index;
+        }
+
+        void initialize() {
+            try {
+                FeatureSource source = index.getFeatureSource();
+                source.addFeatureListener(this);
+                this.source = source;
+                if (!index.load()) {
+                    rebuild();
+                }
+            } catch (Exception e) {
+                LOGGER.log(
+                        Level.SEVERE,
+                        "Failed to initialize the regionating index " + index.getName(),
+                        e);
+                index.failed(e);
+            }
+        }
+
+        @Override
+        public void changed(FeatureEvent event) {
+            // every update re-reads the committed data, nothing to undo on rollback, while WFS
+            // transactions are applied as a whole once committed
+            if (disposed
+                    || event.getType() == FeatureEvent.Type.ROLLBACK
+                    || isInTransaction()) {
+                return;
+            }
+            schedule(event.getBounds(), getFids(event.getFilter()));
+        }
+
+        /**
+         * Updates the index in the background
+         *
+         * @param area the modified area, in the native CRS, null if unknown
+         * @param fids the ids of the modified features, if known
+         */
+        void schedule(ReferencedEnvelope area, Set<String> fids) {
+            if (!disposed) {
+                executor.submit(() -> update(area, fids));
+            }
+        }
+
+        private void update(ReferencedEnvelope area, Set<String> fids) {
+            try {
+                if (disposed) return;
+                if (index.update(area, fids)) {
+                    scheduleSave();
+                } else {
+                    rebuild();
+                }
+            } catch (Exception e) {
+                LOGGER.log(
+                        Level.WARNING,
+                        "Failed to update the regionating index " + index.getName(),
+                        e);
+            }
+        }
+
+        private void rebuild() throws IOException {
+            if (disposed) return;
+            index.build();
+            scheduleSave();
+        }
+
+        /** Saves the index once the queued updates have been applied */
+        private void scheduleSave() {
+            if (saveScheduled.compareAndSet(false, true)) {
+                executor.submit(
+                        () -> {
+                            saveScheduled.set(false);
+                            try {
+                                if (!disposed) index.save();
+                            } catch (Exception e) {
+                                LOGGER.log(
+                                        Level.WARNING,
+                                        "Failed to save the regionating index " + index.getName(),
+                                        e);
+                            }
+                        });
+            }
+        }
+
+        void dispose() {
+            disposed = true;
+            if (source != null) {
+                try {
+                    source.removeFeatureListener(this);
+                } catch (Exception e) {
+                    LOGGER.log(Level.FINE, "Could not remove the regionating listener", e);
+                }
+            }
+        }
+
+        private Set<String> getFids(Filter filter) {
+            Set<String> fids = new HashSet<>();
+            if (filter instanceof Id) {
+                for (Identifier id : ((Id) filter).getIdentifiers()) {
+                    fids.add(String.valueOf(id.getID()));
+                }
+            }
+            return fids;
+        }
+    }
+}
@@ -12,15 +12,25 @@
 import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.logging.Level;
+import javax.xml.namespace.QName;
 import org.apache.commons.io.FileUtils;
 import org.geoserver.catalog.FeatureTypeInfo;
 import org.geoserver.data.test.MockData;
 import org.geoserver.kml.regionate.CachedHierarchyRegionatingStrategy;
+import org.geotools.api.data.SimpleFeatureStore;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.data.DataUtilities;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.geotools.util.logging.Logging;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.locationtech.jts.io.WKTReader;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
@@ -29,9 +39,11 @@ public class GeoSearchKMLTest extends RegionatingTestSupport {
 
     @Before
     public void resetMetadata() throws IOException {
-        FeatureTypeInfo fti = getFeatureTypeInfo(TILE_TESTS);
-        fti.getMetadata().remove("kml.regionateFeatureLimit");
-        getCatalog().save(fti);
+        for (QName name : new QName[] {TILE_TESTS, DISPERSED_FEATURES}) {
+            FeatureTypeInfo fti = getFeatureTypeInfo(name);
+            fti.getMetadata().remove("kml.regionateFeatureLimit");
+            getCatalog().save(fti);
+        }
     }
 
     @After
@@ -137,6 +149,155 @@ public void testRandomRegionator() throws Exception {
         assertStatusCodeForGet(204, path + "&bbox=0,-90,180,90");
     }
 
+    /** Test that requests regionated through the index actually return stuff. */
+    @Test
+    public void testIndexedRegionator() throws Exception {
+        final String path =
+                "wms?request=getmap&service=wms&version=1.1.1"
+                        + "&format="
+                        + KMLMapOutputFormat.MIME_TYPE
+                        + "&layers="
+                        + MockData.DIVIDED_ROUTES.getPrefix()
+                        + ":"
+                        + MockData.DIVIDED_ROUTES.getLocalPart()
+                        + "&styles="
+                        + MockData.DIVIDED_ROUTES.getLocalPart()
+                        + "&height=1024&width=1024&srs=EPSG:4326"
+                        + "&format_options=regionateBy:indexed;regionateAttr:NUM_LANES";
+        Document document = getAsDOM(path + "&bbox=-180,-90,0,90");
+        assertEquals("kml", document.getDocumentElement().getTagName());
+        assertEquals(
+                1, document.getDocumentElement().getElementsByTagName("Placemark").getLength());
+
+        assertStatusCodeForGet(204, path + "&bbox=0,-90,180,90");
+    }
+
+    /** Test that the index follows the modifications of the layer */
+    @Test
+    public void testIndexedRegionatorUpdates() throws Exception {
+        final String path =
+                "wms?request=getmap&service=wms&version=1.1.1"
+                        + "&format="
+                        + KMLMapOutputFormat.MIME_TYPE
+                        + "&layers="
+                        + DISPERSED_FEATURES.getPrefix()
+                        + ":"
+                        + DISPERSED_FEATURES.getLocalPart()
+                        + "&bbox=0,-90,180,90&styles="
+                        + "&height=1024&width=1024&srs=EPSG:4326"
+                        + "&format_options=regionateBy:indexed;regionateAttr:value";
+
+        FeatureTypeInfo fti = getFeatureTypeInfo(DISPERSED_FEATURES);
+        fti.getMetadata().put("kml.regionateFeatureLimit", 2);
+        getCatalog().save(fti);
+
+        // the two features with the highest value in the east half
+        Set<String> original = getPlacemarkIds(getAsDOM(path));
+        assertEquals(2, original.size());
+
+        // add a feature with a higher value, it should replace one of them
+        SimpleFeatureStore store = (SimpleFeatureStore) fti.getFeatureSource(null, null);
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(store.getSchema());
+        fb.set("name", "eleven");
+        fb.set("location", new WKTReader().read("POINT(100 10)"));
+        fb.set("value", 100);
+        store.addFeatures(DataUtilities.collection(fb.buildFeature(null)));
+        try {
+            Set<String> updated = waitForPlacemarks(path, ids -> !ids.equals(original));
+            assertEquals(2, updated.size());
+            updated.removeAll(original);
+            assertEquals(1, updated.size());
+        } finally {
+            FilterFactory ff = CommonFactoryFinder.getFilterFactory(null);
+            store.removeFeatures(ff.equals(ff.property("value"), ff.literal(100)));
+        }
+
+        // back to the original contents
+        assertEquals(original, waitForPlacemarks(path, ids -> ids.equals(original)));
+    }
+
+    /** Test that the index follows the WFS transactions */
+    @Test
+    public void testIndexedRegionatorTransactions() throws Exception {
+        final String path =
+                "wms?request=getmap&service=wms&version=1.1.1"
+                        + "&format="
+                        + KMLMapOutputFormat.MIME_TYPE
+                        + "&layers="
+                        + DISPERSED_FEATURES.getPrefix()
+                        + ":"
+                        + DISPERSED_FEATURES.getLocalPart()
+                        + "&bbox=0,-90,180,90&styles="
+                        + "&height=1024&width=1024&srs=EPSG:4326"
+                        + "&format_options=regionateBy:indexed;regionateAttr:value";
+
+        FeatureTypeInfo fti = getFeatureTypeInfo(DISPERSED_FEATURES);
+        fti.getMetadata().put("kml.regionateFeatureLimit", 2);
+        getCatalog().save(fti);
+
+        Set<String> original = getPlacemarkIds(getAsDOM(path));
+        assertEquals(2, original.size());
+
+        // insert a feature with a higher value, it should replace one of them
+        String insert =
+                "<wfs:Transaction service=\"WFS\" version=\"1.0.0\""
+                        + " xmlns:wfs=\"http://www.opengis.net/wfs\""
+                        + " xmlns:gml=\"http://www.opengis.net/gml\""
+                        + " xmlns:sf=\""
+                        + MockData.SF_URI
+                        + "\"><wfs:Insert><sf:Dispersed>"
+                        + "<sf:name>twelve</sf:name>"
+                        + "<sf:location><gml:Point><gml:coordinates>100,10</gml:coordinates>"
+                        + "</gml:Point></sf:location>"
+                        + "<sf:value>100</sf:value>"
+                        + "</sf:Dispersed></wfs:Insert></wfs:Transaction>";
+        Document dom = postAsDOM("wfs", insert);
+        assertEquals(1, dom.getElementsByTagName("wfs:SUCCESS").getLength());
+        try {
+            Set<String> updated = waitForPlacemarks(path, ids -> !ids.equals(original));
+            assertEquals(2, updated.size());
+            updated.removeAll(original);
+            assertEquals(1, updated.size());
+        } finally {
+            String delete =
+                    "<wfs:Transaction service=\"WFS\" version=\"1.0.0\""
+                            + " xmlns:wfs=\"http://www.opengis.net/wfs\""
+                            + " xmlns:ogc=\"http://www.opengis.net/ogc\""
+                            + " xmlns:sf=\""
+                            + MockData.SF_URI
+                            + "\"><wfs:Delete typeName=\"sf:Dispersed\"><ogc:Filter>"
+                            + "<ogc:PropertyIsEqualTo><ogc:PropertyName>value</ogc:PropertyName>"
+                            + "<ogc:Literal>100</ogc:Literal></ogc:PropertyIsEqualTo>"
+                            + "</ogc:Filter></wfs:Delete></wfs:Transaction>";
+            dom = postAsDOM("wfs", delete);
+            assertEquals(1, dom.getElementsByTagName("wfs:SUCCESS").getLength());
+        }
+
+        // back to the original contents
+        assertEquals(original, waitForPlacemarks(path, ids -> ids.equals(original)));
+    }
+
+    private Set<String> waitForPlacemarks(String path, Predicate<Set<String>> condition)
+            throws Exception {
+        // the index is updated in the background
+        Set<String> ids = null;
+        for (int i = 0; i < 100; i++) {
+            ids = getPlacemarkIds(getAsDOM(path));
+            if (condition.test(ids)) break;
+            Thread.sleep(100);
+        }
+        return ids;
+    }
+
+    private Set<String> getPlacemarkIds(Document document) {
+        Set<String> ids = new HashSet<>();
+        NodeList placemarks = document.getDocumentElement().getElementsByTagName("Placemark");
+        for (int i = 0; i < placemarks.getLength(); i++) {
+            ids.add(((Element) placemarks.item(i)).getAttribute("id"));
+        }
+        return ids;
+    }
+
     /**
      * Test that when a bogus regionating strategy is requested things still work. TODO: Evaluate
      * whether an error message should be returned instead.
@@ -0,0 +1,99 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the coverage reader churn in the {@link ResourcePool}: how many lookups were
+ * served from the cache, how many readers got opened, closed and evicted to respect the open
+ * reader budget.
+ *
+ * <p>Counters are cumulative since the pool creation, or the last call to {@link #reset()}.
+ */
+public class CoverageReaderStatistics {
+
+    final AtomicLong hits = new AtomicLong();
+
+    final AtomicLong misses = new AtomicLong();
+
+    final AtomicLong opened = new AtomicLong();
+
+    final AtomicLong closed = new AtomicLong();
+
+    final AtomicLong evicted = new AtomicLong();
+
+    final AtomicLong overBudget = new AtomicLong();
+
+    /** Number of reader lookups served from the cache */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /** Number of reader lookups that required opening a new reader */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /** Number of readers opened */
+    public long getOpened() {
+        return opened.get();
+    }
+
+    /** Number of readers disposed, for any reason (eviction, catalog changes, memory pressure) */
+    public long getClosed() {
+        return closed.get();
+    }
+
+    /** Number of readers disposed to keep the number of open readers within budget */
+    public long getEvicted() {
+        return evicted.get();
+    }
+
+    /**
+     * Number of times the budget could not be respected, because all the cached readers were too
+     * recently used to be safely disposed
+     */
+    public long getOverBudget() {
+        return overBudget.get();
+    }
+
+    /** Number of readers currently open, as far as the pool knows */
+    public long getOpenReaders() {
+        return Math.max(0, opened.get() - closed.get());
+    }
+
+    /** Ratio between hits and lookups, or 0 if no lookup has been performed yet */
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /** Resets all counters, but the open readers ones */
+    public void reset() {
+        hits.set(0);
+        misses.set(0);
+        evicted.set(0);
+        overBudget.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "CoverageReaderStatistics [hits="
+                + hits
+                + ", misses="
+                + misses
+                + ", opened="
+                + opened
+                + ", closed="
+                + closed
+                + ", evicted="
+                + evicted
+                + ", overBudget="
+                + overBudget
+                + "]";
+    }
+}
@@ -22,10 +22,25 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.media.jai.ColorModelFactory;
@@ -38,8 +53,11 @@
 import org.geoserver.catalog.CoverageView.EnvelopeCompositionType;
 import org.geoserver.catalog.CoverageView.InputCoverageBand;
 import org.geoserver.catalog.CoverageViewHandler.CoveragesConsistencyChecker;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
 import org.geotools.api.coverage.grid.Format;
 import org.geotools.api.coverage.grid.GridCoverage;
+import org.geotools.api.coverage.grid.GridCoverageReader;
 import org.geotools.api.coverage.grid.GridCoverageWriter;
 import org.geotools.api.coverage.grid.GridEnvelope;
 import org.geotools.api.data.ResourceInfo;
@@ -96,6 +114,30 @@ public class CoverageViewReader implements GridCoverage2DReader {
 
     private static final Logger LOGGER = Logging.getLogger(CoverageViewReader.class);
 
+    /**
+     * Max number of threads used to read the input coverages of views in parallel, shared across
+     * all views and requests
+     */
+    static final int READ_THREADS =
+            getIntProperty(
+                    "org.geoserver.coverageview.readThreads",
+                    Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Max time, in milliseconds, allowed to read all the input coverages of a view, zero or less
+     * means no limit
+     */
+    static final int READ_TIMEOUT = getIntProperty("org.geoserver.coverageview.readTimeout", 0);
+
+    private static final ExecutorService READ_EXECUTOR = createReadExecutor();
+
+    /**
+     * Input coverage layouts, cached for as long as the delegate reader is in use, or until {@link
+     * #clearInputLayouts(GridCoverageReader)} is called for it
+     */
+    private static final Map<GridCoverage2DReader, Map<String, ImageLayout>> INPUT_LAYOUTS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
     /** The CoverageView containing definition */
     CoverageView coverageView;
 
@@ -145,7 +187,7 @@ public CoverageViewReader(
         }
         ImageLayout layout;
         try {
-            layout = delegate.getImageLayout(referenceName);
+            layout = getInputLayout(referenceName);
             SampleModel originalSampleModel = layout.getSampleModel(null);
             SampleModel sampleModel =
                     RasterFactory.createBandedSampleModel(
@@ -270,16 +312,16 @@ public GridCoverage2D read(GeneralParameterValue[] parameters)
         // This is a good spot to read coverages. Reading a coverage is done only once, it is
         // cached to be used for its other bands that possibly take part in the CoverageView
         // definition
-        HashMap<String, GridCoverage2D> inputCoverages = new HashMap<>();
-        GridCoverage2D dynamicAlphaSource = null;
-        int nonNullCoverages = 0;
+        // Input coverages are read in parallel, as each of them can come from a different file
+        // or mosaic, and the overall read time would otherwise be the sum of the single ones
+        LinkedHashMap<String, GridCoverage2DReader> inputReaders = new LinkedHashMap<>();
         for (int bIdx : selectedBandIndices) {
             CoverageBand band = bands.get(bIdx);
             List<InputCoverageBand> selectedBands = band.getInputCoverageBands();
 
             // Peek for coverage name
             String coverageName = selectedBands.get(0).getCoverageName();
-            if (!inputCoverages.containsKey(coverageName)) {
+            if (!inputReaders.containsKey(coverageName)) {
                 GridCoverage2DReader reader =
                         SingleGridCoverage2DReader.wrap(delegate, coverageName);
                 // Remove this when removing constraints
@@ -290,33 +332,42 @@ public GridCoverage2D read(GeneralParameterValue[] parameters)
                 } else {
                     checker.checkConsistency(reader);
                 }
-                // bands selection parameter inside on final bands so they should not be propagated
-                // to the delegate reader
-                GeneralParameterValue[] filteredParameters = parameters;
-                if (parameters != null) {
-                    // creating a copy of parameters excluding the bands parameter
-                    filteredParameters =
-                            Arrays.stream(parameters)
-                                    .filter(
-                                            parameter ->
-                                                    !matches(parameter, AbstractGridFormat.BANDS))
-                                    .toArray(GeneralParameterValue[]::new);
-                }
-                GridCoverage2D coverage = reader.read(filteredParameters);
-                if (coverage == null) {
-                    if (handler.isHomogeneousCoverages()
-                            || handler.getEnvelopeCompositionType()
-                                    == EnvelopeCompositionType.INTERSECTION) {
-                        return null;
-                    }
-                } else {
-                    nonNullCoverages++;
-                }
-                if (dynamicAlphaSource == null && hasDynamicAlpha(coverage, reader)) {
-                    dynamicAlphaSource = coverage;
+                inputReaders.put(coverageName, reader);
+            }
+        }
+        // bands selection parameter inside on final bands so they should not be propagated
+        // to the delegate reader
+        GeneralParameterValue[] filteredParameters = parameters;
+        if (parameters != null) {
+            // creating a copy of parameters excluding the bands parameter
+            filteredParameters =
+                    Arrays.stream(parameters)
+                            .filter(parameter -> !matches(parameter, AbstractGridFormat.BANDS))
+                            .toArray(GeneralParameterValue[]::new);
+        }
+        Map<String, GridCoverage2D> readCoverages = readInputs(inputReaders, filteredParameters);
+
+        HashMap<String, GridCoverage2D> inputCoverages = new HashMap<>();
+        GridCoverage2D dynamicAlphaSource = null;
+        int nonNullCoverages = 0;
+        for (Map.Entry<String, GridCoverage2DReader> entry : inputReaders.entrySet()) {
+            String coverageName = entry.getKey();
+            GridCoverage2DReader reader = entry.getValue();
+            GridCoverage2D coverage = readCoverages.get(coverageName);
+            if (coverage == null) {
+                if (handler.isHomogeneousCoverages()
+                        || handler.getEnvelopeCompositionType()
+                                == EnvelopeCompositionType.INTERSECTION) {
+                    disposeCoverages(readCoverages.values());
+                    return null;
                 }
-                inputCoverages.put(coverageName, coverage);
+            } else {
+                nonNullCoverages++;
+            }
+            if (dynamicAlphaSource == null && hasDynamicAlpha(coverage, reader)) {
+                dynamicAlphaSource = coverage;
             }
+            inputCoverages.put(coverageName, coverage);
         }
 
         // all readers returned null?
@@ -341,8 +392,7 @@ public GridCoverage2D read(GeneralParameterValue[] parameters)
 
             // build empty coverages for the missing bits
             for (String name : inputCoverages.keySet()) {
-                GridCoverage2DReader reader = SingleGridCoverage2DReader.wrap(delegate, name);
-                ImageLayout layout = reader.getImageLayout();
+                ImageLayout layout = getInputLayout(name);
                 int numBands = layout.getSampleModel(null).getNumBands();
                 Number[] bandValues = new Number[numBands]; // all zeroes
                 Arrays.fill(bandValues, Double.valueOf(0));
@@ -507,6 +557,208 @@ public GridCoverage2D read(GeneralParameterValue[] parameters)
         return result;
     }
 
+    /**
+     * Reads the input coverages, in parallel if more than one is needed. When no timeout is set
+     * the first input is read in the calling thread, the others are handed to the shared read pool,
+     * otherwise all of them are, and must complete within the configured {@link #READ_TIMEOUT}.
+     *
+     * @return The coverages read, by input coverage name (values can be null)
+     */
+    private Map<String, GridCoverage2D> readInputs(
+            LinkedHashMap<String, GridCoverage2DReader> inputReaders,
+            GeneralParameterValue[] parameters)
+            throws IOException {
+        return readInputs(
+                coverageName,
+                inputReaders,
+                parameters,
+                READ_THREADS > 1 ? READ_EXECUTOR : null,
+                READ_TIMEOUT);
+    }
+
+    /**
+     * Reads the input coverages using the given executor, or sequentially if the executor is null
+     * and there is no timeout to honor. On failure, the reads that are still pending are cancelled
+     * without interrupting them, as the input readers are shared and cached, and would be left
+     * unusable by an interrupt during I/O. Reads already running complete, but their results are
+     * disposed, as are the ones of the reads already completed.
+     *
+     * @param viewName the name of the coverage view, for error reporting
+     * @param inputReaders the readers of the input coverages, by name
+     * @param parameters the read parameters
+     * @param executor the executor, or null to read sequentially
+     * @param timeout the max time allowed to read all the inputs, in milliseconds, zero or less
+     *     means no limit
+     * @return The coverages read, by input coverage name (values can be null)
+     */
+    static Map<String, GridCoverage2D> readInputs(
+            String viewName,
+            LinkedHashMap<String, GridCoverage2DReader> inputReaders,
+            GeneralParameterValue[] parameters,
+            ExecutorService executor,
+            long timeout)
+            throws IOException {
+        Map<String, GridCoverage2D> result = new HashMap<>();
+        if (timeout <= 0 && (inputReaders.size() == 1 || executor == null)) {
+            try {
+                for (Map.Entry<String, GridCoverage2DReader> entry : inputReaders.entrySet()) {
+                    result.put(entry.getKey(), entry.getValue().read(parameters));
+                }
+                return result;
+            } catch (IOException | RuntimeException e) {
+                disposeCoverages(result.values());
+                throw e;
+            }
+        }
+        if (executor == null) {
+            executor = READ_EXECUTOR;
+        }
+
+        long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : 0;
+        ReadTracker tracker = new ReadTracker();
+        Map<String, Future<GridCoverage2D>> futures = new LinkedHashMap<>();
+        String first = null;
+        for (Map.Entry<String, GridCoverage2DReader> entry : inputReaders.entrySet()) {
+            // without a deadline the first input is read in the calling thread
+            if (first == null && deadline == 0) {
+                first = entry.getKey();
+                continue;
+            }
+            GridCoverage2DReader reader = entry.getValue();
+            ThreadLocalsTransfer transfer = new ThreadLocalsTransfer();
+            futures.put(
+                    entry.getKey(),
+                    executor.submit(
+                            () -> {
+                                if (tracker.isAborted()) {
+                                    return null;
+                                }
+                                transfer.apply();
+                                try {
+                                    return tracker.completed(reader.read(parameters));
+                                } finally {
+                                    transfer.cleanup();
+                                }
+                            }));
+        }
+
+        boolean success = false;
+        try {
+            if (first != null) {
+                result.put(first, inputReaders.get(first).read(parameters));
+            }
+            for (Map.Entry<String, Future<GridCoverage2D>> entry : futures.entrySet()) {
+                Future<GridCoverage2D> future = entry.getValue();
+                GridCoverage2D coverage;
+                if (deadline > 0) {
+                    long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                    coverage = future.get(remaining, TimeUnit.MILLISECONDS);
+                } else {
+                    coverage = future.get();
+                }
+                result.put(entry.getKey(), coverage);
+            }
+            success = true;
+            return result;
+        } catch (TimeoutException e) {
+            throw new IOException(
+                    "Reading the coverages composing view "
+                            + viewName
+                            + " took more than "
+                            + timeout
+                            + "ms",
+                    e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading coverage view " + viewName, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to read coverage view " + viewName, cause);
+        } finally {
+            if (!success) {
+                // make sure nothing read is leaked, and no pending read starts
+                futures.values().forEach(f -> f.cancel(false));
+                tracker.abort();
+                if (first != null) {
+                    disposeCoverages(Collections.singleton(result.get(first)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps track of the coverages read by the pool threads, disposing them, and any coverage read
+     * afterwards, when the overall read is aborted
+     */
+    static class ReadTracker {
+        private final List<GridCoverage2D> completed = new ArrayList<>();
+
+        private boolean aborted;
+
+        synchronized boolean isAborted() {
+            return aborted;
+        }
+
+        /** Registers a coverage read, returns null and disposes it if the read was aborted */
+        synchronized GridCoverage2D completed(GridCoverage2D coverage) {
+            if (aborted) {
+                disposeCoverages(Collections.singleton(coverage));
+                return null;
+            }
+            completed.add(coverage);
+            return coverage;
+        }
+
+        /** Aborts the read, disposing all the coverages read so far */
+        synchronized void abort() {
+            aborted = true;
+            disposeCoverages(completed);
+            completed.clear();
+        }
+    }
+
+    static void disposeCoverages(Collection<GridCoverage2D> coverages) {
+        for (GridCoverage2D coverage : coverages) {
+            if (coverage != null) {
+                coverage.dispose(true);
+            }
+        }
+    }
+
+    /**
+     * Drops the cached input layouts of the given reader, to be called when the reader is disposed,
+     * or its contents changed (e.g., harvesting new granules in a mosaic)
+     */
+    public static void clearInputLayouts(GridCoverageReader reader) {
+        if (reader != null) {
+            INPUT_LAYOUTS.remove(reader);
+        }
+    }
+
+    /**
+     * Returns the image layout of the given input coverage. Layouts are cached across requests, as
+     * long as the delegate reader is alive, since computing them can be expensive for some readers
+     * (e.g. mosaics needing to open a granule).
+     */
+    private ImageLayout getInputLayout(String name) throws IOException {
+        Map<String, ImageLayout> layouts =
+                INPUT_LAYOUTS.computeIfAbsent(delegate, d -> new ConcurrentHashMap<>());
+        ImageLayout layout = layouts.get(name);
+        if (layout == null) {
+            layout = delegate.getImageLayout(name);
+            if (layout == null) {
+                return null;
+            }
+            layouts.put(name, layout);
+        }
+        return (ImageLayout) layout.clone();
+    }
+
     private boolean matches(
             GeneralParameterValue parameter, DefaultParameterDescriptor<?> expected) {
         return parameter.getDescriptor().getName().equals(expected.getName());
@@ -648,6 +900,43 @@ protected void checkCoverageName(String coverageName) {
         }
     }
 
+    private static int getIntProperty(String name, int defaultValue) {
+        String value = GeoServerExtensions.getProperty(name);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + name + ": " + value + ", ignoring it");
+            }
+        }
+        return defaultValue;
+    }
+
+    private static ExecutorService createReadExecutor() {
+        int threads = Math.max(1, READ_THREADS);
+        ThreadFactory factory =
+                new ThreadFactory() {
+                    final AtomicInteger counter = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "CoverageViewReader-" + counter.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }
+                };
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        factory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     @Override
     public void dispose() throws IOException {
         delegate.dispose();
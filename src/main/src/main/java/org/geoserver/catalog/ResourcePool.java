@@ -34,9 +34,12 @@
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.measure.Unit;
@@ -194,6 +197,29 @@ public class ResourcePool {
     /** Default number of hard references */
     static int FEATURETYPE_CACHE_SIZE_DEFAULT = 100;
 
+    /**
+     * System property controlling the maximum number of coverage readers kept open at the same
+     * time. Zero or negative values (the default) mean no budget
+     */
+    public static final String COVERAGE_READER_BUDGET =
+            "org.geoserver.catalog.coverageReaderBudget";
+
+    /**
+     * System property controlling how long (in milliseconds) a coverage reader must have been
+     * left unused before it can be evicted to respect the reader budget. Defaults to 60 seconds.
+     */
+    public static final String COVERAGE_READER_MIN_IDLE =
+            "org.geoserver.catalog.coverageReaderMinIdle";
+
+    static final long COVERAGE_READER_MIN_IDLE_DEFAULT = 60 * 1000;
+
+    /**
+     * System property controlling how many coverage readers are opened in background at startup,
+     * zero (the default) disables the warm-up
+     */
+    public static final String COVERAGE_READER_WARMUP =
+            "org.geoserver.catalog.coverageReaderWarmup";
+
     static String CRS_NOT_FOUND = "CRS_NOT_FOUND";
     static Map<CoordinateReferenceSystem, String> crsIdentifierCache = new SoftValueHashMap<>();
 
@@ -206,6 +232,7 @@ public class ResourcePool {
     Map<String, WebMapServer> wmsCache;
     Map<String, WebMapTileServer> wmtsCache;
     Map<CoverageHintReaderKey, GridCoverageReader> hintCoverageReaderCache;
+    CoverageReaderStatistics coverageReaderStatistics = new CoverageReaderStatistics();
     Map<String, StyledLayerDescriptor> sldCache;
     Map<String, Style> styleCache;
 
@@ -368,7 +395,57 @@ public Map<CoverageHintReaderKey, GridCoverageReader> getHintCoverageReaderCache
     }
 
     protected Map<CoverageHintReaderKey, GridCoverageReader> createHintCoverageReaderCache() {
-        return new CoverageHintReaderCache();
+        return new CoverageHintReaderCache(
+                getPositiveLong(COVERAGE_READER_BUDGET, 0),
+                getPositiveLong(COVERAGE_READER_MIN_IDLE, COVERAGE_READER_MIN_IDLE_DEFAULT));
+    }
+
+    static long getPositiveLong(String property, long defaultValue) {
+        String value = GeoServerExtensions.getProperty(property);
+        if (value != null) {
+            try {
+                return Math.max(0, Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + property + ": " + value + ", ignoring it");
+            }
+        }
+        return defaultValue;
+    }
+
+    /** Returns the statistics about coverage reader usage, opening and disposal */
+    public CoverageReaderStatistics getCoverageReaderStatistics() {
+        return coverageReaderStatistics;
+    }
+
+    /**
+     * Opens the readers of the given coverages in a background thread, so that the first requests
+     * hitting them do not pay the reader setup costs (header parsing, overview lookups and the
+     * like). Failures are logged and otherwise ignored.
+     *
+     * @param coverages The coverages to pre-load, in order of importance
+     * @return A future that will complete once all readers have been opened
+     */
+    public CompletableFuture<Void> prewarmCoverageReaders(List<CoverageInfo> coverages) {
+        List<CoverageInfo> targets = new ArrayList<>(coverages);
+        return CompletableFuture.runAsync(
+                () -> {
+                    for (CoverageInfo ci : targets) {
+                        try {
+                            getGridCoverageReader(ci, null);
+                        } catch (Exception e) {
+                            LOGGER.log(
+                                    Level.FINE,
+                                    "Failed to pre-load coverage reader for " + ci.prefixedName(),
+                                    e);
+                        }
+                    }
+                    LOGGER.fine("Coverage readers warm-up completed, " + coverageReaderStatistics);
+                },
+                runnable -> {
+                    Thread t = new Thread(runnable, "GeoServer coverage reader warm-up");
+                    t.setDaemon(true);
+                    t.start();
+                });
     }
 
     /**
@@ -1648,13 +1725,17 @@ private GridCoverageReader getGridCoverageReader(
         key = coverageCacheKeys.unique(key);
         GridCoverageReader reader = hintCoverageReaderCache.get(key);
 
-        // if not found in cache, create it
-        if (reader == null) {
+        if (reader != null) {
+            coverageReaderStatistics.hits.incrementAndGet();
+        } else {
+            // if not found in cache, create it
             synchronized (key) {
                 if (key != null) {
                     reader = hintCoverageReaderCache.get(key);
                 }
-                if (reader == null) {
+                if (reader != null) {
+                    coverageReaderStatistics.hits.incrementAndGet();
+                } else {
                     try {
                         /////////////////////////////////////////////////////////
                         //
@@ -1674,6 +1755,8 @@ private GridCoverageReader getGridCoverageReader(
                                             + " and hints "
                                             + hints);
                         }
+                        coverageReaderStatistics.misses.incrementAndGet();
+                        coverageReaderStatistics.opened.incrementAndGet();
                         if (key != null) {
                             hintCoverageReaderCache.put(key, reader);
                         }
@@ -2496,6 +2579,7 @@ protected void dispose(String id, GridCoverageReader reader) {
 
                 fireDisposed(info, reader);
             }
+            CoverageViewReader.clearInputLayouts(reader);
             try {
                 reader.dispose();
             } catch (Exception e) {
@@ -2505,27 +2589,150 @@ protected void dispose(String id, GridCoverageReader reader) {
         }
     }
 
+    /**
+     * Caches coverage readers by store and hints. Optionally, keeps the number of open readers
+     * within a budget, evicting the least valuable reader when a new one needs to be added. The
+     * victim is chosen among the readers that have not been used for a while, picking the least
+     * frequently used one, and the least recently used one in case of ties. Usage frequencies are
+     * periodically halved, so that readers that were popular in the past eventually age out.
+     */
     class CoverageHintReaderCache
             extends CatalogResourceCache<CoverageHintReaderKey, GridCoverageReader> {
 
+        final long budget;
+
+        final long minIdleMillis;
+
+        final Map<CoverageHintReaderKey, ReaderUsage> usages = new ConcurrentHashMap<>();
+
+        final AtomicLong accesses = new AtomicLong();
+
+        public CoverageHintReaderCache() {
+            this(0, COVERAGE_READER_MIN_IDLE_DEFAULT);
+        }
+
+        /**
+         * Builds a new cache
+         *
+         * @param budget The maximum number of readers kept open, zero means no limit
+         * @param minIdleMillis How long a reader must have been unused before it can be evicted
+         */
+        public CoverageHintReaderCache(long budget, long minIdleMillis) {
+            this.budget = budget;
+            this.minIdleMillis = minIdleMillis;
+        }
+
+        @Override
+        public GridCoverageReader get(Object key) {
+            GridCoverageReader reader = super.get(key);
+            if (reader != null) {
+                touch((CoverageHintReaderKey) key);
+            }
+            return reader;
+        }
+
+        @Override
+        public synchronized GridCoverageReader put(
+                CoverageHintReaderKey key, GridCoverageReader reader) {
+            if (budget > 0 && !containsKey(key)) {
+                while (size() >= budget) {
+                    if (!evict()) {
+                        coverageReaderStatistics.overBudget.incrementAndGet();
+                        LOGGER.fine(
+                                "Coverage reader budget of "
+                                        + budget
+                                        + " exceeded, all cached readers are in active use");
+                        break;
+                    }
+                }
+            }
+            touch(key);
+            return super.put(key, reader);
+        }
+
+        private void touch(CoverageHintReaderKey key) {
+            usages.computeIfAbsent(key, k -> new ReaderUsage()).touch();
+            // periodic aging, keeps the frequencies responsive to changes in the access patterns
+            long limit = Math.max(budget, 100) * 10;
+            if (accesses.incrementAndGet() % limit == 0) {
+                usages.values().forEach(ReaderUsage::age);
+            }
+        }
+
+        /** Evicts one reader among the idle ones, returns false if no reader could be evicted */
+        private boolean evict() {
+            long idleThreshold = System.currentTimeMillis() - minIdleMillis;
+            CoverageHintReaderKey victim = null;
+            ReaderUsage victimUsage = null;
+            for (CoverageHintReaderKey key : keySet()) {
+                ReaderUsage usage = usages.get(key);
+                if (usage == null) {
+                    // not tracked, can only happen if the entry was added bypassing put
+                    victim = key;
+                    break;
+                }
+                if (usage.lastAccess > idleThreshold) {
+                    continue;
+                }
+                int frequency = usage.frequency.get();
+                if (victimUsage == null
+                        || frequency < victimUsage.frequency.get()
+                        || (frequency == victimUsage.frequency.get()
+                                && usage.lastAccess < victimUsage.lastAccess)) {
+                    victim = key;
+                    victimUsage = usage;
+                }
+            }
+
+            if (victim == null) {
+                return false;
+            }
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(
+                        "Evicting coverage reader for store " + victim.id + " to respect budget");
+            }
+            coverageReaderStatistics.evicted.incrementAndGet();
+            remove(victim);
+            return true;
+        }
+
         @Override
         protected void dispose(CoverageHintReaderKey key, GridCoverageReader reader) {
+            usages.remove(key);
+            coverageReaderStatistics.closed.incrementAndGet();
             CoverageStoreInfo info = catalog.getCoverageStore(key.id);
+            String name = info != null ? info.getName() : key.id;
             if (info != null) {
-                String name = info.getName();
                 LOGGER.fine("Disposing coverage store '" + name + "'");
 
                 fireDisposed(info, reader);
             }
+            CoverageViewReader.clearInputLayouts(reader);
             try {
                 reader.dispose();
             } catch (Exception e) {
-                LOGGER.warning("Error occured disposing coverage reader '" + info.getName() + "'");
+                LOGGER.warning("Error occured disposing coverage reader '" + name + "'");
                 LOGGER.log(Level.FINE, "", e);
             }
         }
     }
 
+    /** Usage tracking for a cached coverage reader */
+    static class ReaderUsage {
+        volatile long lastAccess;
+
+        final AtomicInteger frequency = new AtomicInteger();
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+            frequency.incrementAndGet();
+        }
+
+        void age() {
+            frequency.updateAndGet(f -> f >> 1);
+        }
+    }
+
     /**
      * The key in the {@link CoverageHintReaderCache}
      *
@@ -5,12 +5,15 @@
  */
 package org.geoserver.catalog;
 
+import java.util.ArrayList;
 import java.util.List;
+import org.geoserver.catalog.util.CloseableIterator;
 import org.geoserver.config.ConfigurationListenerAdapter;
 import org.geoserver.config.GeoServer;
 import org.geoserver.config.GeoServerInfo;
 import org.geoserver.config.GeoServerReinitializer;
 import org.geoserver.util.EntityResolverProvider;
+import org.geotools.api.filter.Filter;
 
 /**
  * Initializes parameters of the {@link ResourcePool} class from configuration.
@@ -59,5 +62,32 @@ public void handleGlobalChange(
                 });
 
         gs.getCatalog().getResourcePool().setEntityResolverProvider(resolverProvider);
+
+        prewarmCoverageReaders(gs.getCatalog());
+    }
+
+    /**
+     * Opens in background the readers of the first enabled coverages, up to the number configured
+     * via {@link ResourcePool#COVERAGE_READER_WARMUP}, and within the open readers budget
+     */
+    void prewarmCoverageReaders(Catalog catalog) {
+        long count = ResourcePool.getPositiveLong(ResourcePool.COVERAGE_READER_WARMUP, 0);
+        long budget = ResourcePool.getPositiveLong(ResourcePool.COVERAGE_READER_BUDGET, 0);
+        if (budget > 0) {
+            count = Math.min(count, budget);
+        }
+        if (count <= 0) {
+            return;
+        }
+
+        List<CoverageInfo> coverages = new ArrayList<>();
+        Filter enabled = Predicates.equal("enabled", true);
+        try (CloseableIterator<CoverageInfo> it =
+                catalog.list(CoverageInfo.class, enabled, 0, (int) count, null)) {
+            while (it.hasNext()) {
+                coverages.add(it.next());
+            }
+        }
+        catalog.getResourcePool().prewarmCoverageReaders(coverages);
     }
 }
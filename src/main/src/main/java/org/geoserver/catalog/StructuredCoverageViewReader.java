@@ -282,7 +282,12 @@ public void delete(boolean deleteData) throws IOException {
     @Override
     public List<HarvestedSource> harvest(String defaultTargetCoverage, Object source, Hints hints)
             throws IOException, UnsupportedOperationException {
-        return structuredDelegate.harvest(defaultTargetCoverage, source, hints);
+        try {
+            return structuredDelegate.harvest(defaultTargetCoverage, source, hints);
+        } finally {
+            // the granules just added might change the input layouts
+            clearInputLayouts(structuredDelegate);
+        }
     }
 
     @Override
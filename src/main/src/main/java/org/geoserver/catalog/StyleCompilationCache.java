@@ -0,0 +1,256 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Logger;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geotools.api.style.StyledLayerDescriptor;
+import org.geotools.styling.visitor.DuplicatingStyleVisitor;
+import org.geotools.util.Version;
+import org.geotools.util.logging.Logging;
+import org.xml.sax.EntityResolver;
+
+/**
+ * Process wide cache of parsed style documents, keyed by a hash of their contents, along with the
+ * format, version, the location relative paths are resolved against and the entity resolver. It
+ * covers all {@link StyleHandler} formats, so that the expensive conversions to SLD (CSS, YSLD,
+ * MBStyle) are only performed once for a given document, and dynamic styles sent along with
+ * requests are not parsed again when repeated.
+ *
+ * <p>Each lookup returns a copy of the parsed document, which the caller is free to modify. The
+ * cache is bounded by the size of the style sources it holds, in megabytes, as read from the
+ * {@link #CACHE_SIZE_KEY} variable, setting it to zero disables the cache. The cache is emptied
+ * when the configuration is reset or reloaded, see {@link StyleCompilationCacheCleaner}.
+ */
+public class StyleCompilationCache {
+
+    static final Logger LOGGER = Logging.getLogger(StyleCompilationCache.class);
+
+    /** Max size of the cached style sources, in megabytes */
+    public static final String CACHE_SIZE_KEY = "STYLE_COMPILATION_CACHE_SIZE";
+
+    static final long DEFAULT_CACHE_SIZE = 16;
+
+    private static volatile StyleCompilationCache INSTANCE;
+
+    /** Parses a style document */
+    @FunctionalInterface
+    public interface Compiler {
+        StyledLayerDescriptor compile() throws IOException;
+    }
+
+    private final Cache<StyleKey, CompiledStyle> cache;
+
+    /** Returns the shared cache instance */
+    public static StyleCompilationCache get() {
+        if (INSTANCE == null) {
+            synchronized (StyleCompilationCache.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new StyleCompilationCache(getCacheSize() * 1024 * 1024);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /** Builds a cache holding up to the given amount of style source bytes */
+    public StyleCompilationCache(long maxWeight) {
+        if (maxWeight > 0) {
+            this.cache =
+                    CacheBuilder.newBuilder()
+                            .maximumWeight(maxWeight)
+                            .<StyleKey, CompiledStyle>weigher((k, v) -> v.weight)
+                            .recordStats()
+                            .build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    private static long getCacheSize() {
+        String value = GeoServerExtensions.getProperty(CACHE_SIZE_KEY);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + CACHE_SIZE_KEY + ": " + value);
+            }
+        }
+        return DEFAULT_CACHE_SIZE;
+    }
+
+    /**
+     * Returns the compiled style for the given document, parsing it with the compiler if not found
+     * in the cache
+     *
+     * @param format the style format
+     * @param version the style format version, may be null
+     * @param base the location relative references are resolved against, may be null
+     * @param resolver the entity resolver used by the compiler, may be null
+     * @param content the style document
+     * @param compiler parses the document, in case it's not in the cache
+     */
+    public CompiledStyle compile(
+            String format,
+            Version version,
+            String base,
+            EntityResolver resolver,
+            String content,
+            Compiler compiler)
+            throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return compile(format, version, base, resolver, bytes, compiler);
+    }
+
+    /**
+     * Returns the compiled style for the given raw document, parsing it with the compiler if not
+     * found in the cache
+     *
+     * @see #compile(String, Version, String, EntityResolver, String, Compiler)
+     */
+    public CompiledStyle compile(
+            String format,
+            Version version,
+            String base,
+            EntityResolver resolver,
+            byte[] content,
+            Compiler compiler)
+            throws IOException {
+        if (cache == null) {
+            return new CompiledStyle(compiler.compile(), content.length);
+        }
+        StyleKey key = new StyleKey(format, version, base, resolver, hash(content));
+        try {
+            return cache.get(key, () -> new CompiledStyle(compiler.compile(), content.length));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Failed to parse style", cause);
+        } catch (UncheckedExecutionException e) {
+            // unwrap to preserve the original exception, e.g., service exceptions
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    /** Returns the compiled style for the given document, or null if not found in the cache */
+    public CompiledStyle lookup(
+            String format, Version version, String base, EntityResolver resolver, String content) {
+        if (cache == null) {
+            return null;
+        }
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return cache.getIfPresent(new StyleKey(format, version, base, resolver, hash(bytes)));
+    }
+
+    /** Returns the cache hit and miss statistics */
+    public CacheStats getStatistics() {
+        return cache != null ? cache.stats() : new CacheStats(0, 0, 0, 0, 0, 0);
+    }
+
+    /** Drops all the cached styles */
+    public void clear() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    static String hash(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(content);
+            StringBuilder sb = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A parsed style document, kept private, {@link #getSld()} returns a new copy at each call.
+     */
+    public static class CompiledStyle {
+
+        private final StyledLayerDescriptor sld;
+
+        private final int weight;
+
+        private volatile boolean validated;
+
+        CompiledStyle(StyledLayerDescriptor parsed, int weight) {
+            this.sld = copy(parsed);
+            this.weight = weight;
+        }
+
+        /** Returns a copy of the parsed style document */
+        public StyledLayerDescriptor getSld() {
+            return copy(sld);
+        }
+
+        private static StyledLayerDescriptor copy(StyledLayerDescriptor sld) {
+            DuplicatingStyleVisitor visitor = new DuplicatingStyleVisitor();
+            sld.accept(visitor);
+            return (StyledLayerDescriptor) visitor.getCopy();
+        }
+
+        /** Returns true if the document has already been validated successfully */
+        public boolean isValidated() {
+            return validated;
+        }
+
+        /** Marks the document as successfully validated */
+        public void setValidated(boolean validated) {
+            this.validated = validated;
+        }
+    }
+
+    static class StyleKey {
+        final String format;
+        final Version version;
+        final String base;
+        final String resolver;
+        final String hash;
+
+        StyleKey(
+                String format, Version version, String base, EntityResolver resolver, String hash) {
+            this.format = format;
+            this.version = version;
+            this.base = base;
+            // the resolution policy decides which external entities end up in the document
+            this.resolver = resolver != null ? resolver.getClass().getName() : null;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            StyleKey that = (StyleKey) o;
+            return Objects.equals(format, that.format)
+                    && Objects.equals(version, that.version)
+                    && Objects.equals(base, that.base)
+                    && Objects.equals(resolver, that.resolver)
+                    && Objects.equals(hash, that.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(format, version, base, resolver, hash);
+        }
+    }
+}
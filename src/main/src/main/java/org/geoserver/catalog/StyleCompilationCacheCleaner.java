@@ -0,0 +1,34 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import org.geoserver.config.impl.GeoServerLifecycleHandler;
+
+/**
+ * Empties the {@link StyleCompilationCache} when the configuration is reset or reloaded, so that
+ * styles are parsed again with the current settings (e.g., the external entities policy)
+ */
+public class StyleCompilationCacheCleaner implements GeoServerLifecycleHandler {
+
+    @Override
+    public void onReset() {
+        StyleCompilationCache.get().clear();
+    }
+
+    @Override
+    public void onDispose() {
+        StyleCompilationCache.get().clear();
+    }
+
+    @Override
+    public void beforeReload() {
+        // nothing to do
+    }
+
+    @Override
+    public void onReload() {
+        StyleCompilationCache.get().clear();
+    }
+}
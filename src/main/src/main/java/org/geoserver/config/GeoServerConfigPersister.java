@@ -47,6 +47,9 @@
     /** logging instance */
     static Logger LOGGER = Logging.getLogger("org.geoserver.config");
 
+    /** set while the changes made by the current thread must not be persisted */
+    static final ThreadLocal<Boolean> PERSISTENCE_SKIPPED = ThreadLocal.withInitial(() -> false);
+
     GeoServerResourceLoader rl;
     GeoServerDataDirectory dd;
     XStreamPersister xp;
@@ -57,8 +60,32 @@ public GeoServerConfigPersister(GeoServerResourceLoader rl, XStreamPersister xp)
         this.xp = xp;
     }
 
+    /**
+     * Disables, or enables back, the persistence of the changes made by the current thread, for
+     * this persister as well as {@link GeoServerResourcePersister} and {@link ServicePersister}.
+     * Used when applying changes that have already been saved to the data directory, e.g. by
+     * another node of a cluster sharing it.
+     *
+     * @param skipped true to stop persisting the changes, false to persist them again
+     */
+    public static void setPersistenceSkipped(boolean skipped) {
+        if (skipped) {
+            PERSISTENCE_SKIPPED.set(true);
+        } else {
+            PERSISTENCE_SKIPPED.remove();
+        }
+    }
+
+    /** Returns true if the changes made by the current thread are not being persisted */
+    public static boolean isPersistenceSkipped() {
+        return PERSISTENCE_SKIPPED.get();
+    }
+
     @Override
     public void handleAddEvent(CatalogAddEvent event) {
+        if (isPersistenceSkipped()) {
+            return;
+        }
         Object source = event.getSource();
         try {
             if (source instanceof WorkspaceInfo) {
@@ -95,6 +122,9 @@ public void handleAddEvent(CatalogAddEvent event) {
 
     @Override
     public void handleModifyEvent(CatalogModifyEvent event) {
+        if (isPersistenceSkipped()) {
+            return;
+        }
         Object source = event.getSource();
 
         try {
@@ -167,6 +197,9 @@ public void handleModifyEvent(CatalogModifyEvent event) {
 
     @Override
     public void handlePostModifyEvent(CatalogPostModifyEvent event) {
+        if (isPersistenceSkipped()) {
+            return;
+        }
         Object source = event.getSource();
         try {
             if (source instanceof WorkspaceInfo) {
@@ -203,6 +236,9 @@ public void handlePostModifyEvent(CatalogPostModifyEvent event) {
 
     @Override
     public void handleRemoveEvent(CatalogRemoveEvent event) {
+        if (isPersistenceSkipped()) {
+            return;
+        }
         Object source = event.getSource();
         try {
             if (source instanceof WorkspaceInfo) {
@@ -246,6 +282,9 @@ public void handleGlobalChange(
 
     @Override
     public void handlePostGlobalChange(GeoServerInfo global) {
+        if (isPersistenceSkipped()) {
+            return;
+        }
         try {
             persist(global, dd.config(global));
         } catch (IOException e) {
@@ -264,6 +303,9 @@ public void handleSettingsModified(
             List<String> propertyNames,
             List<Object> oldValues,
             List<Object> newValues) {
+        if (isPersistenceSkipped()) {
+            return;
+        }
         // handle case of settings changing workspace
         int i = propertyNames.indexOf("workspace");
         if (i > -1) {
@@ -276,6 +318,9 @@ public void handleSettingsModified(
 
     @Override
     public void handleSettingsPostModified(SettingsInfo settings) {
+        if (isPersistenceSkipped()) {
+            return;
+        }
         LOGGER.fine("Persisting settings " + settings);
         try {
             persist(settings, dd.config(settings));
@@ -286,6 +331,9 @@ public void handleSettingsPostModified(SettingsInfo settings) {
 
     @Override
     public void handleSettingsRemoved(SettingsInfo settings) {
+        if (isPersistenceSkipped()) {
+            return;
+        }
         LOGGER.fine("Removing settings " + settings);
         rmRes(dd.config(settings));
     }
@@ -299,6 +347,9 @@ public void handleLoggingChange(
 
     @Override
     public void handlePostLoggingChange(LoggingInfo logging) {
+        if (isPersistenceSkipped()) {
+            return;
+        }
         try {
             persist(logging, dd.config(logging));
         } catch (IOException e) {
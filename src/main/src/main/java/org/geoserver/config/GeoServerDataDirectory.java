@@ -24,6 +24,7 @@
 import org.geoserver.catalog.NamespaceInfo;
 import org.geoserver.catalog.ResourceInfo;
 import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleCompilationCache;
 import org.geoserver.catalog.StyleInfo;
 import org.geoserver.catalog.Styles;
 import org.geoserver.catalog.WMSLayerInfo;
@@ -714,13 +715,26 @@ public File findLegacyResourceDir(ResourceInfo resource) throws IOException {
         File input = styleResource.file();
 
         DefaultResourceLocator locator = new GeoServerResourceLocator();
-        locator.setSourceUrl(Resources.toURL(styleResource));
+        URL sourceUrl = Resources.toURL(styleResource);
+        locator.setSourceUrl(sourceUrl);
         EntityResolver entityResolver = getEntityResolver();
-        final StyledLayerDescriptor sld =
-                Styles.handler(s.getFormat())
-                        .parse(input, s.getFormatVersion(), locator, getEntityResolver());
-
-        return sld;
+        // the parsed documents are shared by content, avoiding to parse again styles whose
+        // configuration changed, but not their contents
+        return StyleCompilationCache.get()
+                .compile(
+                        s.getFormat(),
+                        s.getFormatVersion(),
+                        String.valueOf(sourceUrl),
+                        entityResolver,
+                        styleResource.getContents(),
+                        () ->
+                                Styles.handler(s.getFormat())
+                                        .parse(
+                                                input,
+                                                s.getFormatVersion(),
+                                                locator,
+                                                entityResolver))
+                .getSld();
     }
 
     /**
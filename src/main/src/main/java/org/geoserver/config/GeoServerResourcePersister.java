@@ -59,6 +59,9 @@ public void reloaded() {}
 
     @Override
     public void handleModifyEvent(CatalogModifyEvent event) {
+        if (GeoServerConfigPersister.isPersistenceSkipped()) {
+            return;
+        }
         Object source = event.getSource();
 
         try {
@@ -100,6 +103,9 @@ public void handleModifyEvent(CatalogModifyEvent event) {
 
     @Override
     public void handleRemoveEvent(CatalogRemoveEvent event) {
+        if (GeoServerConfigPersister.isPersistenceSkipped()) {
+            return;
+        }
         Object source = event.getSource();
         try {
             if (source instanceof StyleInfo) {
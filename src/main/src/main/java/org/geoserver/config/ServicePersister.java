@@ -35,6 +35,9 @@ public void handleServiceChange(
             List<String> propertyNames,
             List<Object> oldValues,
             List<Object> newValues) {
+        if (GeoServerConfigPersister.isPersistenceSkipped()) {
+            return;
+        }
 
         XStreamServiceLoader loader = findServiceLoader(service);
 
@@ -58,6 +61,9 @@ public void handleServiceChange(
 
     @Override
     public void handlePostServiceChange(ServiceInfo service) {
+        if (GeoServerConfigPersister.isPersistenceSkipped()) {
+            return;
+        }
         XStreamServiceLoader<ServiceInfo> loader = findServiceLoader(service);
 
         try {
@@ -74,6 +80,9 @@ public void handlePostServiceChange(ServiceInfo service) {
 
     @Override
     public void handleServiceRemove(ServiceInfo service) {
+        if (GeoServerConfigPersister.isPersistenceSkipped()) {
+            return;
+        }
         XStreamServiceLoader loader = findServiceLoader(service);
         try {
             Resource dir =
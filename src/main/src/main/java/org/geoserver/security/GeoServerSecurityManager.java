@@ -71,6 +71,7 @@
 import org.geoserver.security.auth.AuthenticationCache;
 import org.geoserver.security.auth.GeoServerRootAuthenticationProvider;
 import org.geoserver.security.auth.GuavaAuthenticationCacheImpl;
+import org.geoserver.security.auth.StripedAuthenticationCacheImpl;
 import org.geoserver.security.auth.UsernamePasswordAuthenticationProvider;
 import org.geoserver.security.concurrent.LockingKeyStoreProvider;
 import org.geoserver.security.concurrent.LockingRoleService;
@@ -114,12 +115,14 @@
 import org.geoserver.security.filter.GeoServerSecurityFilter;
 import org.geoserver.security.filter.GeoServerSecurityInterceptorFilter;
 import org.geoserver.security.filter.GeoServerUserNamePasswordAuthenticationFilter;
+import org.geoserver.security.impl.CachingRoleService;
 import org.geoserver.security.impl.DataAccessRuleDAO;
 import org.geoserver.security.impl.GeoServerRole;
 import org.geoserver.security.impl.GeoServerUser;
 import org.geoserver.security.impl.GeoServerUserGroup;
 import org.geoserver.security.impl.GroupAdminProperty;
 import org.geoserver.security.impl.RESTAccessRuleDAO;
+import org.geoserver.security.impl.RoleResolutionCache;
 import org.geoserver.security.impl.ServiceAccessRuleDAO;
 import org.geoserver.security.impl.Util;
 import org.geoserver.security.password.ConfigurationPasswordEncryptionHelper;
@@ -151,6 +154,7 @@
 import org.geotools.util.logging.Logging;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ApplicationEvent;
@@ -281,6 +285,12 @@ public class GeoServerSecurityManager implements ApplicationContextAware, Applic
     /** rememmber me service */
     volatile RememberMeServices rememberMeService;
 
+    /** cache of role lookups shared by all role services, null if disabled */
+    volatile RoleResolutionCache roleResolutionCache;
+
+    /** flag set once the role resolution cache configuration has been looked up */
+    volatile boolean roleResolutionCacheLookedUp;
+
     private XStreamPersister xp;
 
     private XStreamPersister gxp;
@@ -541,6 +551,13 @@ public void destroy() throws Exception {
         rememberMeService = null;
         keyStoreProvider = null;
 
+        RoleResolutionCache cache = getRoleResolutionCache();
+        if (cache != null) {
+            cache.dispose();
+        }
+        roleResolutionCache = null;
+        roleResolutionCacheLookedUp = false;
+
         listeners.clear();
 
         appContext = null;
@@ -648,7 +665,15 @@ synchronized void init(SecurityManagerConfig config) throws Exception {
 
         setProviders(allAuthProviders);
 
+        // switch authentication cache implementation if needed
+        SecurityManagerConfig.AuthenticationCacheType oldCacheType =
+                securityConfig != null ? securityConfig.getAuthenticationCacheType() : null;
+        boolean resetAuthCache = oldCacheType != config.getAuthenticationCacheType();
+
         this.securityConfig = new SecurityManagerConfig(config);
+        if (resetAuthCache && authCache != null) {
+            resetAuthenticationCache();
+        }
         this.initialized = true;
     }
 
@@ -695,7 +720,63 @@ public AuthenticationCache getAuthenticationCache() {
 
     AuthenticationCache lookupAuthenticationCache() {
         AuthenticationCache authCache = GeoServerExtensions.bean(AuthenticationCache.class);
-        return authCache != null ? authCache : new GuavaAuthenticationCacheImpl(1000);
+        if (authCache != null) {
+            return authCache;
+        }
+        if (securityConfig != null
+                && securityConfig.getAuthenticationCacheType()
+                        == SecurityManagerConfig.AuthenticationCacheType.STRIPED) {
+            return new StripedAuthenticationCacheImpl(1000);
+        }
+        return new GuavaAuthenticationCacheImpl(1000);
+    }
+
+    /**
+     * Returns the cache of user and group role lookups shared by all role services, also used for
+     * the group lookups of the user/group services, or null if role caching is disabled.
+     *
+     * @see RoleResolutionCache#TTL
+     */
+    public RoleResolutionCache getRoleResolutionCache() {
+        if (!roleResolutionCacheLookedUp) {
+            synchronized (this) {
+                if (!roleResolutionCacheLookedUp) {
+                    roleResolutionCache = RoleResolutionCache.lookup();
+                    roleResolutionCacheLookedUp = true;
+                }
+            }
+        }
+        return roleResolutionCache;
+    }
+
+    /**
+     * Drops the cached lookups of the named role or user/group service, or of all services if the
+     * name is null
+     */
+    public void invalidateRoleResolutionCache(String roleServiceName) {
+        RoleResolutionCache cache = getRoleResolutionCache();
+        if (cache == null) {
+            return;
+        }
+        if (roleServiceName == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(roleServiceName);
+        }
+    }
+
+    /** Disposes the current authentication cache, a new one will be looked up on next access */
+    void resetAuthenticationCache() {
+        AuthenticationCache current = authCache;
+        authCache = null;
+        if (current instanceof DisposableBean
+                && current != GeoServerExtensions.bean(AuthenticationCache.class)) {
+            try {
+                ((DisposableBean) current).destroy();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Error disposing the authentication cache", e);
+            }
+        }
     }
 
     public RememberMeServices getRememberMeService() {
@@ -1062,6 +1143,7 @@ public void saveRoleService(SecurityRoleServiceConfig config)
         roleServiceHelper.saveConfig(config);
         // remove from cache
         roleServices.remove(config.getName());
+        invalidateRoleResolutionCache(config.getName());
 
         // update active role service
         if (activeRoleService != null && config.getName().equals(activeRoleService.getName())) {
@@ -1104,6 +1186,7 @@ public void removeRoleService(SecurityRoleServiceConfig config)
         validator.validateRemoveRoleService(config);
 
         roleServices.remove(config.getName());
+        invalidateRoleResolutionCache(config.getName());
         roleServiceHelper.removeConfig(config.getName());
     }
 
@@ -1227,6 +1310,7 @@ public void saveUserGroupService(SecurityUserGroupServiceConfig config)
         userGroupServiceHelper.saveConfig(config);
         // remove from cache
         userGroupServices.remove(config.getName());
+        invalidateRoleResolutionCache(config.getName());
     }
 
     /**
@@ -1244,6 +1328,7 @@ public void removeUserGroupService(SecurityUserGroupServiceConfig config)
         validator.validateRemoveUserGroupService(config);
 
         userGroupServices.remove(config.getName());
+        invalidateRoleResolutionCache(config.getName());
         userGroupServiceHelper.removeConfig(config.getName());
     }
 
@@ -2859,6 +2944,12 @@ public GeoServerUserGroupService load(String name) throws IOException {
             }
             service.setName(name);
             service.initializeFromConfig(config);
+            RoleResolutionCache cache = getRoleResolutionCache();
+            if (cache != null) {
+                // the cached groups of the users are stale once the service is reloaded
+                service.registerUserGroupLoadedListener(
+                        e -> cache.invalidate(name, RoleResolutionCache.Kind.USER_GROUPS));
+            }
 
             if (config instanceof FileBasedSecurityServiceConfig) {
                 FileBasedSecurityServiceConfig fileConfig = (FileBasedSecurityServiceConfig) config;
@@ -2926,6 +3017,10 @@ public GeoServerRoleService load(String name) throws IOException {
                 if (needsLockProtection) {
                     service = new LockingRoleService(service);
                 }
+                RoleResolutionCache cache = getRoleResolutionCache();
+                if (cache != null) {
+                    service = new CachingRoleService(service, cache);
+                }
             }
 
             service.setName(name);
@@ -0,0 +1,456 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.auth;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geotools.util.logging.Logging;
+import org.springframework.security.core.Authentication;
+
+/**
+ * An {@link AuthenticationCache} designed for high concurrency, e.g., basic authentication on each
+ * tile request:
+ *
+ * <ul>
+ *   <li>The cache is split in a number of segments, each one backed by a {@link
+ *       ConcurrentHashMap}. Lookups never lock, writes only lock the target segment.
+ *   <li>Entries are not kept in access order, eviction is approximate: when a segment is full the
+ *       least frequently used entry is picked as a victim (the least recently used one, among
+ *       equally frequent entries), and a new entry is admitted only if it has been requested at
+ *       least as often as the victim (TinyLFU admission). Frequencies are tracked by a small count
+ *       min sketch per segment, periodically halved so that old popularity fades away. Lookups
+ *       record their key in the sketch only if the segment lock is free, so that they never wait,
+ *       and the records dropped under contention are a sample of the busiest keys anyway.
+ *   <li>Idle and live timeouts are checked lazily, on lookup and when a segment is full, no
+ *       background thread is needed.
+ *   <li>Entries are keyed by a SHA-256 digest of the cache key, so that no credential derived
+ *       material is retained in the cache. Each thread remembers the last key it digested, as a
+ *       lookup miss is followed by a put of the same key, and clients keep sending the same
+ *       credentials over a connection.
+ * </ul>
+ *
+ * <p>Hit rate, evictions and lock contention are tracked, see {@link #getStatistics()}.
+ */
+public class StripedAuthenticationCacheImpl implements AuthenticationCache {
+
+    static Logger LOGGER = Logging.getLogger("org.geoserver.security");
+
+    /** Default number of segments */
+    public static final int DEFAULT_SEGMENTS = 16;
+
+    private final int timeToIdleSeconds, timeToLiveSeconds, maxEntries;
+
+    private final Segment[] segments;
+
+    private final int segmentCapacity;
+
+    private final Statistics statistics = new Statistics();
+
+    /** The last key digested by the current thread */
+    private static final ThreadLocal<LastKey> LAST_KEY = new ThreadLocal<>();
+
+    private static final ThreadLocal<MessageDigest> DIGEST =
+            ThreadLocal.withInitial(
+                    () -> {
+                        try {
+                            return MessageDigest.getInstance("SHA-256");
+                        } catch (NoSuchAlgorithmException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+
+    public StripedAuthenticationCacheImpl(int maxEntries) {
+        this(DEFAULT_IDLE_TIME, DEFAULT_LIVE_TIME, maxEntries, DEFAULT_SEGMENTS);
+    }
+
+    public StripedAuthenticationCacheImpl(
+            int timeToIdleSeconds, int timeToLiveSeconds, int maxEntries, int segmentCount) {
+        this.timeToIdleSeconds = timeToIdleSeconds;
+        this.timeToLiveSeconds = timeToLiveSeconds;
+        this.maxEntries = maxEntries;
+
+        // power of two number of segments, not more than the entries
+        int count = Integer.highestOneBit(Math.max(1, Math.min(segmentCount, maxEntries)));
+        this.segmentCapacity = (maxEntries + count - 1) / count;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+
+        if (LOGGER.isLoggable(Level.CONFIG)) {
+            LOGGER.config(
+                    "Striped AuthenticationCache initialized with "
+                            + maxEntries
+                            + " max entries in "
+                            + count
+                            + " segments, "
+                            + timeToIdleSeconds
+                            + " seconds idle time, "
+                            + timeToLiveSeconds
+                            + " seconds time to live");
+        }
+    }
+
+    public int getTimeToIdleSeconds() {
+        return timeToIdleSeconds;
+    }
+
+    public int getTimeToLiveSeconds() {
+        return timeToLiveSeconds;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /** Returns the cache usage statistics */
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    /** Returns the number of entries in the cache, including expired ones not yet purged */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.map.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void removeAll() {
+        for (Segment segment : segments) {
+            segment.map.clear();
+        }
+    }
+
+    @Override
+    public void removeAll(String filterName) {
+        if (filterName == null) return;
+        for (Segment segment : segments) {
+            segment.map.keySet().removeIf(k -> filterName.equals(k.filterName));
+        }
+    }
+
+    @Override
+    public void remove(String filterName, String cacheKey) {
+        HashedKey key = hash(filterName, cacheKey);
+        segmentFor(key).map.remove(key);
+    }
+
+    @Override
+    public Authentication get(String filterName, String cacheKey) {
+        HashedKey key = hash(filterName, cacheKey);
+        Segment segment = segmentFor(key);
+        if (segment.lock.tryLock()) {
+            try {
+                segment.sketch.increment(key.hashCode());
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        AuthenticationCacheEntry entry = segment.map.get(key);
+        if (entry == null) {
+            statistics.misses.increment();
+            return null;
+        }
+        long currentTime = System.currentTimeMillis();
+        if (entry.hasExpired(currentTime)) {
+            segment.map.remove(key, entry);
+            statistics.expirations.increment();
+            statistics.misses.increment();
+            return null;
+        }
+        entry.setLastAccessed(currentTime);
+        statistics.hits.increment();
+        return entry.getAuthentication();
+    }
+
+    @Override
+    public void put(
+            String filterName,
+            String cacheKey,
+            Authentication auth,
+            Integer timeToIdleSeconds,
+            Integer timeToLiveSeconds) {
+        timeToIdleSeconds = timeToIdleSeconds != null ? timeToIdleSeconds : this.timeToIdleSeconds;
+        timeToLiveSeconds = timeToLiveSeconds != null ? timeToLiveSeconds : this.timeToLiveSeconds;
+
+        HashedKey key = hash(filterName, cacheKey);
+        AuthenticationCacheEntry entry =
+                new AuthenticationCacheEntry(auth, timeToIdleSeconds, timeToLiveSeconds);
+        Segment segment = segmentFor(key);
+        if (!segment.lock.tryLock()) {
+            statistics.contended.increment();
+            segment.lock.lock();
+        }
+        try {
+            if (!segment.map.containsKey(key)
+                    && segment.map.size() >= segmentCapacity
+                    && !makeRoom(segment, key)) {
+                statistics.rejections.increment();
+                return;
+            }
+            segment.map.put(key, entry);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(String filterName, String cacheKey, Authentication auth) {
+        put(filterName, cacheKey, auth, timeToIdleSeconds, timeToLiveSeconds);
+    }
+
+    /**
+     * Purges the expired entries of a full segment, and if that's not enough, evicts the least
+     * valuable entry, unless it's more valuable than the candidate. Called with the segment lock
+     * held.
+     *
+     * @return true if there is room for the candidate
+     */
+    private boolean makeRoom(Segment segment, HashedKey candidate) {
+        long currentTime = System.currentTimeMillis();
+        HashedKey victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        long victimAccess = Long.MAX_VALUE;
+        for (Map.Entry<HashedKey, AuthenticationCacheEntry> e : segment.map.entrySet()) {
+            AuthenticationCacheEntry entry = e.getValue();
+            if (entry.hasExpired(currentTime)) {
+                segment.map.remove(e.getKey(), entry);
+                statistics.expirations.increment();
+                continue;
+            }
+            int frequency = segment.sketch.frequency(e.getKey().hashCode());
+            long access = entry.getLastAccessed();
+            if (frequency < victimFrequency
+                    || (frequency == victimFrequency && access < victimAccess)) {
+                victim = e.getKey();
+                victimFrequency = frequency;
+                victimAccess = access;
+            }
+        }
+        if (segment.map.size() < segmentCapacity) {
+            return true;
+        }
+        if (victim == null || segment.sketch.frequency(candidate.hashCode()) < victimFrequency) {
+            return false;
+        }
+        segment.map.remove(victim);
+        statistics.evictions.increment();
+        return true;
+    }
+
+    /** Returns the digested key, reusing the last one of the current thread if it matches */
+    private static HashedKey hash(String filterName, String cacheKey) {
+        LastKey last = LAST_KEY.get();
+        if (last != null
+                && Objects.equals(last.cacheKey, cacheKey)
+                && Objects.equals(last.key.filterName, filterName)) {
+            return last.key;
+        }
+        HashedKey key = new HashedKey(filterName, cacheKey);
+        LAST_KEY.set(new LastKey(cacheKey, key));
+        return key;
+    }
+
+    private Segment segmentFor(HashedKey key) {
+        // the key hash comes from a cryptographic digest, any set of bits is well distributed
+        return segments[key.hashCode() & (segments.length - 1)];
+    }
+
+    /** A portion of the cache, with its own lock for writes and for the frequency sketch */
+    private static final class Segment {
+        final ConcurrentHashMap<HashedKey, AuthenticationCacheEntry> map =
+                new ConcurrentHashMap<>();
+        final ReentrantLock lock = new ReentrantLock();
+        final FrequencySketch sketch;
+
+        Segment(int capacity) {
+            this.sketch = new FrequencySketch(capacity);
+        }
+    }
+
+    /** A cache key along with its digest */
+    private static final class LastKey {
+        final String cacheKey;
+        final HashedKey key;
+
+        LastKey(String cacheKey, HashedKey key) {
+            this.cacheKey = cacheKey;
+            this.key = key;
+        }
+    }
+
+    /** The filter name, plus the first 128 bits of the SHA-256 digest of the cache key */
+    static final class HashedKey {
+        final String filterName;
+        final long high;
+        final long low;
+
+        HashedKey(String filterName, String cacheKey) {
+            this.filterName = filterName;
+            MessageDigest digest = DIGEST.get();
+            digest.reset();
+            byte[] bytes = digest.digest(String.valueOf(cacheKey).getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            this.high = buffer.getLong();
+            this.low = buffer.getLong();
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (high ^ (high >>> 32));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof HashedKey)) return false;
+            HashedKey other = (HashedKey) obj;
+            return high == other.high
+                    && low == other.low
+                    && Objects.equals(filterName, other.filterName);
+        }
+    }
+
+    /**
+     * A count min sketch with small saturating counters, tracking how often keys are requested.
+     * Not thread safe, guarded by the lock of the segment owning it.
+     */
+    static final class FrequencySketch {
+        private static final int[] SEEDS = {0x97cb3127, 0xb4b82e5d, 0x6fd8b3a9, 0x9e3779b9};
+        private static final int MAX_COUNT = 15;
+
+        private final byte[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maxEntries) {
+            int size = Integer.highestOneBit(Math.max(64, maxEntries * 4 - 1)) << 1;
+            this.table = new byte[size];
+            this.mask = size - 1;
+            this.sampleSize = Math.max(100, maxEntries * 10);
+        }
+
+        private int index(int hash, int i) {
+            int h = (hash ^ SEEDS[i]) * 0x9e3779b9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int idx = index(hash, i);
+                if (table[idx] < MAX_COUNT) {
+                    table[idx]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(int hash) {
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < SEEDS.length; i++) {
+                frequency = Math.min(frequency, table[index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        /** Halves all counters, so that old popularity fades away */
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (byte) (table[i] >>> 1);
+            }
+            additions = 0;
+        }
+    }
+
+    /** Usage statistics, cumulative since the cache creation or the last {@link #reset()} */
+    public static class Statistics {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+        final LongAdder expirations = new LongAdder();
+        final LongAdder rejections = new LongAdder();
+        final LongAdder contended = new LongAdder();
+
+        /** Number of lookups that found a valid entry */
+        public long getHits() {
+            return hits.sum();
+        }
+
+        /** Number of lookups that did not find a valid entry */
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        /** Number of entries evicted to make room for new ones */
+        public long getEvictions() {
+            return evictions.sum();
+        }
+
+        /** Number of entries removed because their idle or live time expired */
+        public long getExpirations() {
+            return expirations.sum();
+        }
+
+        /** Number of new entries not admitted, as less frequently used than the eviction victim */
+        public long getRejections() {
+            return rejections.sum();
+        }
+
+        /** Number of writes that had to wait for another thread working on the same segment */
+        public long getContended() {
+            return contended.sum();
+        }
+
+        /** Ratio between hits and lookups, or 0 if no lookup has been performed yet */
+        public double getHitRatio() {
+            long h = getHits();
+            long total = h + getMisses();
+            return total == 0 ? 0 : (double) h / total;
+        }
+
+        public void reset() {
+            hits.reset();
+            misses.reset();
+            evictions.reset();
+            expirations.reset();
+            rejections.reset();
+            contended.reset();
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics [hits="
+                    + hits
+                    + ", misses="
+                    + misses
+                    + ", evictions="
+                    + evictions
+                    + ", expirations="
+                    + expirations
+                    + ", rejections="
+                    + rejections
+                    + ", contended="
+                    + contended
+                    + "]";
+        }
+    }
+}
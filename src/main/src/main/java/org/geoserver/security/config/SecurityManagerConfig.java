@@ -26,6 +26,14 @@ public class SecurityManagerConfig implements SecurityConfig {
 
     private static final long serialVersionUID = 1L;
 
+    /** The available {@link org.geoserver.security.auth.AuthenticationCache} implementations */
+    public enum AuthenticationCacheType {
+        /** Cache based on Guava, with a periodic eviction task */
+        GUAVA,
+        /** Segmented cache with lock free lookups, suited for high concurrency */
+        STRIPED
+    }
+
     private String roleServiceName;
     private List<String> authProviderNames = new ArrayList<>();
     private String configPasswordEncrypterName;
@@ -34,6 +42,7 @@ public class SecurityManagerConfig implements SecurityConfig {
     private GeoServerSecurityFilterChain filterChain = new GeoServerSecurityFilterChain();
     private RememberMeServicesConfig rememberMeService = new RememberMeServicesConfig();
     private BruteForcePreventionConfig bruteForcePrevention = new BruteForcePreventionConfig();
+    private AuthenticationCacheType authenticationCacheType = AuthenticationCacheType.GUAVA;
 
     public SecurityManagerConfig() {}
 
@@ -52,6 +61,7 @@ public SecurityManagerConfig(SecurityManagerConfig config) {
                 new BruteForcePreventionConfig(config.getBruteForcePrevention());
         this.encryptingUrlParams = config.isEncryptingUrlParams();
         this.configPasswordEncrypterName = config.getConfigPasswordEncrypterName();
+        this.authenticationCacheType = config.getAuthenticationCacheType();
         // this.masterPasswordURL=config.getMasterPasswordURL();
         // this.masterPasswordStrategy=config.getMasterPasswordStrategy();
     }
@@ -65,6 +75,10 @@ private Object readResolve() {
                 bruteForcePrevention != null
                         ? bruteForcePrevention
                         : new BruteForcePreventionConfig();
+        authenticationCacheType =
+                authenticationCacheType != null
+                        ? authenticationCacheType
+                        : AuthenticationCacheType.GUAVA;
         return this;
     }
 
@@ -109,6 +123,15 @@ public void setBruteForcePrevention(BruteForcePreventionConfig bruteForcePrevent
         this.bruteForcePrevention = bruteForcePrevention;
     }
 
+    /** The authentication cache implementation in use */
+    public AuthenticationCacheType getAuthenticationCacheType() {
+        return authenticationCacheType;
+    }
+
+    public void setAuthenticationCacheType(AuthenticationCacheType authenticationCacheType) {
+        this.authenticationCacheType = authenticationCacheType;
+    }
+
     /** Flag controlling if web admin should encrypt url parameters. */
     public boolean isEncryptingUrlParams() {
         return encryptingUrlParams;
@@ -0,0 +1,179 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.impl;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedSet;
+import org.geoserver.security.GeoServerRoleService;
+import org.geoserver.security.GeoServerRoleStore;
+import org.geoserver.security.GeoServerSecurityManager;
+import org.geoserver.security.config.SecurityNamedServiceConfig;
+import org.geoserver.security.event.RoleLoadedEvent;
+import org.geoserver.security.event.RoleLoadedListener;
+import org.geoserver.security.impl.RoleResolutionCache.Kind;
+
+/**
+ * Wrapper for a {@link GeoServerRoleService} looking up the roles of users and groups through the
+ * shared {@link RoleResolutionCache}. Cached roles are dropped when the wrapped service is
+ * reloaded, or when changes are stored through a store created by this wrapper.
+ */
+public class CachingRoleService implements GeoServerRoleService, RoleLoadedListener {
+
+    protected final GeoServerRoleService service;
+
+    protected final RoleResolutionCache cache;
+
+    protected Set<RoleLoadedListener> listeners = Collections.synchronizedSet(new HashSet<>());
+
+    public CachingRoleService(GeoServerRoleService service, RoleResolutionCache cache) {
+        this.service = service;
+        this.cache = cache;
+        service.registerRoleLoadedListener(this);
+    }
+
+    /** @return the wrapped service */
+    public GeoServerRoleService getService() {
+        return service;
+    }
+
+    @Override
+    public SortedSet<GeoServerRole> getRolesForUser(String username) throws IOException {
+        return cache.getRoles(getName(), Kind.USER, username, service::getRolesForUser);
+    }
+
+    @Override
+    public SortedSet<GeoServerRole> getRolesForGroup(String groupname) throws IOException {
+        return cache.getRoles(getName(), Kind.GROUP, groupname, service::getRolesForGroup);
+    }
+
+    @Override
+    public GeoServerRoleStore createStore() throws IOException {
+        GeoServerRoleStore store = service.createStore();
+        return store != null ? new CachingRoleStore(store, cache) : null;
+    }
+
+    @Override
+    public void load() throws IOException {
+        cache.invalidate(getName());
+        service.load();
+    }
+
+    @Override
+    public void rolesChanged(RoleLoadedEvent event) {
+        cache.invalidate(getName());
+        RoleLoadedEvent wrapped = new RoleLoadedEvent(this);
+        for (RoleLoadedListener listener : listeners) {
+            listener.rolesChanged(wrapped);
+        }
+    }
+
+    @Override
+    public void registerRoleLoadedListener(RoleLoadedListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void unregisterRoleLoadedListener(RoleLoadedListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public SortedSet<String> getGroupNamesForRole(GeoServerRole role) throws IOException {
+        return service.getGroupNamesForRole(role);
+    }
+
+    @Override
+    public SortedSet<String> getUserNamesForRole(GeoServerRole role) throws IOException {
+        return service.getUserNamesForRole(role);
+    }
+
+    @Override
+    public SortedSet<GeoServerRole> getRoles() throws IOException {
+        return service.getRoles();
+    }
+
+    @Override
+    public Map<String, String> getParentMappings() throws IOException {
+        return service.getParentMappings();
+    }
+
+    @Override
+    public GeoServerRole createRoleObject(String role) throws IOException {
+        return service.createRoleObject(role);
+    }
+
+    @Override
+    public GeoServerRole getParentRole(GeoServerRole role) throws IOException {
+        return service.getParentRole(role);
+    }
+
+    @Override
+    public GeoServerRole getRoleByName(String role) throws IOException {
+        return service.getRoleByName(role);
+    }
+
+    @Override
+    public Properties personalizeRoleParams(
+            String roleName, Properties roleParams, String userName, Properties userProps)
+            throws IOException {
+        return service.personalizeRoleParams(roleName, roleParams, userName, userProps);
+    }
+
+    @Override
+    public GeoServerRole getAdminRole() {
+        return service.getAdminRole();
+    }
+
+    @Override
+    public GeoServerRole getGroupAdminRole() {
+        return service.getGroupAdminRole();
+    }
+
+    @Override
+    public int getRoleCount() throws IOException {
+        return service.getRoleCount();
+    }
+
+    @Override
+    public void initializeFromConfig(SecurityNamedServiceConfig config) throws IOException {
+        cache.invalidate(getName());
+        service.initializeFromConfig(config);
+    }
+
+    @Override
+    public boolean canCreateStore() {
+        return service.canCreateStore();
+    }
+
+    @Override
+    public String getName() {
+        return service.getName();
+    }
+
+    @Override
+    public void setName(String name) {
+        service.setName(name);
+    }
+
+    @Override
+    public void setSecurityManager(GeoServerSecurityManager securityManager) {
+        service.setSecurityManager(securityManager);
+    }
+
+    @Override
+    public GeoServerSecurityManager getSecurityManager() {
+        return service.getSecurityManager();
+    }
+
+    @Override
+    public String toString() {
+        return "Caching " + getName();
+    }
+}
@@ -0,0 +1,99 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.impl;
+
+import java.io.IOException;
+import java.util.SortedSet;
+import org.geoserver.security.GeoServerRoleService;
+import org.geoserver.security.GeoServerRoleStore;
+
+/**
+ * Wrapper for a {@link GeoServerRoleStore} created by a {@link CachingRoleService}. Lookups are not
+ * cached, as the store might hold uncommitted changes, and the cached roles of the service are
+ * dropped once changes are stored.
+ */
+public class CachingRoleStore extends CachingRoleService implements GeoServerRoleStore {
+
+    public CachingRoleStore(GeoServerRoleStore store, RoleResolutionCache cache) {
+        super(store, cache);
+    }
+
+    /** @return the wrapped store */
+    public GeoServerRoleStore getStore() {
+        return (GeoServerRoleStore) service;
+    }
+
+    @Override
+    public SortedSet<GeoServerRole> getRolesForUser(String username) throws IOException {
+        return getStore().getRolesForUser(username);
+    }
+
+    @Override
+    public SortedSet<GeoServerRole> getRolesForGroup(String groupname) throws IOException {
+        return getStore().getRolesForGroup(groupname);
+    }
+
+    @Override
+    public void initializeFromService(GeoServerRoleService service) throws IOException {
+        getStore().initializeFromService(service);
+    }
+
+    @Override
+    public void clear() throws IOException {
+        getStore().clear();
+    }
+
+    @Override
+    public void addRole(GeoServerRole role) throws IOException {
+        getStore().addRole(role);
+    }
+
+    @Override
+    public void updateRole(GeoServerRole role) throws IOException {
+        getStore().updateRole(role);
+    }
+
+    @Override
+    public boolean removeRole(GeoServerRole role) throws IOException {
+        return getStore().removeRole(role);
+    }
+
+    @Override
+    public void associateRoleToGroup(GeoServerRole role, String groupname) throws IOException {
+        getStore().associateRoleToGroup(role, groupname);
+    }
+
+    @Override
+    public void disAssociateRoleFromGroup(GeoServerRole role, String groupname)
+            throws IOException {
+        getStore().disAssociateRoleFromGroup(role, groupname);
+    }
+
+    @Override
+    public void associateRoleToUser(GeoServerRole role, String username) throws IOException {
+        getStore().associateRoleToUser(role, username);
+    }
+
+    @Override
+    public void disAssociateRoleFromUser(GeoServerRole role, String username) throws IOException {
+        getStore().disAssociateRoleFromUser(role, username);
+    }
+
+    @Override
+    public void setParentRole(GeoServerRole role, GeoServerRole parentRole) throws IOException {
+        getStore().setParentRole(role, parentRole);
+    }
+
+    @Override
+    public void store() throws IOException {
+        getStore().store();
+        cache.invalidate(getName());
+    }
+
+    @Override
+    public boolean isModified() {
+        return getStore().isModified();
+    }
+}
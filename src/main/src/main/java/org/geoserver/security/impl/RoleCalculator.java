@@ -13,6 +13,7 @@
 import java.util.SortedSet;
 import java.util.TreeSet;
 import org.geoserver.security.GeoServerRoleService;
+import org.geoserver.security.GeoServerSecurityManager;
 import org.geoserver.security.GeoServerUserGroupService;
 
 /**
@@ -94,7 +95,7 @@ public SortedSet<GeoServerRole> calculateRoles(GeoServerUser user) throws IOExce
 
         // add all roles for enabled groups
         if (getUserGroupService() != null) {
-            for (GeoServerUserGroup group : getUserGroupService().getGroupsForUser(user)) {
+            for (GeoServerUserGroup group : getGroupsForUser(user)) {
                 if (group.isEnabled()) set1.addAll(calculateRoles(group));
             }
         }
@@ -108,6 +109,24 @@ public SortedSet<GeoServerRole> calculateRoles(GeoServerUser user) throws IOExce
         return set2;
     }
 
+    /**
+     * Returns the groups of the user, going through the shared {@link RoleResolutionCache} when
+     * role caching is enabled
+     */
+    protected SortedSet<GeoServerUserGroup> getGroupsForUser(GeoServerUser user)
+            throws IOException {
+        GeoServerUserGroupService service = getUserGroupService();
+        GeoServerSecurityManager manager = service.getSecurityManager();
+        RoleResolutionCache cache = manager != null ? manager.getRoleResolutionCache() : null;
+        if (cache == null) {
+            return service.getGroupsForUser(user);
+        }
+        return cache.getGroups(
+                service.getName(),
+                user.getUsername(),
+                name -> service.getGroupsForUser(new GeoServerUser(name)));
+    }
+
     public void addMappedSystemRoles(Collection<GeoServerRole> set) {
         // if the user has the admin role of the role service the
         // GeoserverRole.ADMIN_ROLE must also be in the set
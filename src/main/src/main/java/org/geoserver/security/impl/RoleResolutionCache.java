@@ -0,0 +1,408 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.impl;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Caches the roles assigned to users and groups by the role services, and the groups assigned to
+ * users by the user/group services, shared by all of them and keyed by service name.
+ *
+ * <p>Services backed by a directory or a database (LDAP, JDBC) perform a remote lookup each time
+ * the roles of a user are calculated, that is, on each authenticated request. This cache
+ * keeps the results for a configurable time to live, caches empty results for a (usually shorter)
+ * negative time to live, and refreshes popular entries in the background when they get close to
+ * expiration, so that requests are not exposed to the backend latency.
+ *
+ * <p>The cache is configured with the following system properties (or environment variables, or
+ * servlet context parameters):
+ *
+ * <ul>
+ *   <li>{@link #TTL}: time to live of the cached roles, in seconds, 0 (the default) disables the
+ *       cache
+ *   <li>{@link #NEGATIVE_TTL}: time to live of empty results, in seconds, defaults to the smallest
+ *       between the time to live and 30 seconds
+ *   <li>{@link #REFRESH_AHEAD}: fraction of the time to live after which an entry being accessed is
+ *       reloaded in background, defaults to 0.75, a value of 1 or more disables the refresh
+ *   <li>{@link #MAX_ENTRIES}: maximum number of cached entries, defaults to 10000
+ * </ul>
+ *
+ * @see CachingRoleService
+ * @see RoleCalculator
+ */
+public class RoleResolutionCache {
+
+    static final Logger LOGGER = Logging.getLogger(RoleResolutionCache.class);
+
+    public static final String TTL = "org.geoserver.security.roleCache.ttl";
+
+    public static final String NEGATIVE_TTL = "org.geoserver.security.roleCache.negativeTtl";
+
+    public static final String REFRESH_AHEAD = "org.geoserver.security.roleCache.refreshAhead";
+
+    public static final String MAX_ENTRIES = "org.geoserver.security.roleCache.maxEntries";
+
+    static final long DEFAULT_NEGATIVE_TTL = 30;
+
+    static final double DEFAULT_REFRESH_AHEAD = 0.75;
+
+    static final long DEFAULT_MAX_ENTRIES = 10000;
+
+    /** The kind of lookup being cached */
+    public enum Kind {
+        /** Roles of a user, from a role service */
+        USER,
+        /** Roles of a group, from a role service */
+        GROUP,
+        /** Groups of a user, from a user/group service */
+        USER_GROUPS
+    }
+
+    /** Loads the roles or groups of a principal from the service */
+    @FunctionalInterface
+    public interface Loader<T> {
+        SortedSet<T> load(String name) throws IOException;
+    }
+
+    /** Loads the roles of a principal from the role service */
+    @FunctionalInterface
+    public interface RoleLoader extends Loader<GeoServerRole> {}
+
+    private final long ttl;
+
+    private final long negativeTtl;
+
+    private final long refreshAfter;
+
+    private final Ticker ticker;
+
+    private final Cache<Key, Entry> cache;
+
+    private volatile ExecutorService executor;
+
+    private final Statistics statistics = new Statistics();
+
+    /**
+     * Builds a new cache
+     *
+     * @param ttl time to live of the cached roles, in seconds
+     * @param negativeTtl time to live of empty results, in seconds
+     * @param refreshAhead fraction of the time to live after which entries are refreshed
+     * @param maxEntries maximum number of cached entries
+     */
+    public RoleResolutionCache(long ttl, long negativeTtl, double refreshAhead, long maxEntries) {
+        this(ttl, negativeTtl, refreshAhead, maxEntries, Ticker.systemTicker());
+    }
+
+    RoleResolutionCache(
+            long ttl, long negativeTtl, double refreshAhead, long maxEntries, Ticker ticker) {
+        this.ttl = TimeUnit.SECONDS.toNanos(ttl);
+        this.negativeTtl = TimeUnit.SECONDS.toNanos(negativeTtl);
+        this.refreshAfter =
+                refreshAhead > 0 && refreshAhead < 1 ? (long) (this.ttl * refreshAhead) : -1;
+        this.ticker = ticker;
+        long maxTtl = Math.max(this.ttl, this.negativeTtl);
+        this.cache =
+                CacheBuilder.newBuilder()
+                        .maximumSize(maxEntries)
+                        .expireAfterWrite(maxTtl, TimeUnit.NANOSECONDS)
+                        .ticker(ticker)
+                        .build();
+    }
+
+    /**
+     * Builds the cache from the system properties, returns null if caching is disabled
+     *
+     * @see #TTL
+     */
+    public static RoleResolutionCache lookup() {
+        long ttl = getLong(TTL, 0);
+        if (ttl <= 0) {
+            return null;
+        }
+        long negativeTtl = getLong(NEGATIVE_TTL, Math.min(ttl, DEFAULT_NEGATIVE_TTL));
+        long maxEntries = getLong(MAX_ENTRIES, DEFAULT_MAX_ENTRIES);
+        double refreshAhead = DEFAULT_REFRESH_AHEAD;
+        String value = GeoServerExtensions.getProperty(REFRESH_AHEAD);
+        if (value != null) {
+            try {
+                refreshAhead = Double.parseDouble(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + REFRESH_AHEAD + ": " + value);
+            }
+        }
+        LOGGER.info(
+                "Caching role lookups for "
+                        + ttl
+                        + " seconds, empty results for "
+                        + negativeTtl
+                        + " seconds");
+        return new RoleResolutionCache(ttl, negativeTtl, refreshAhead, maxEntries);
+    }
+
+    private static long getLong(String property, long defaultValue) {
+        String value = GeoServerExtensions.getProperty(property);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + property + ": " + value);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns the roles of the given principal, using the cached value if still valid, or calling
+     * the loader otherwise. The returned set is a copy, callers are free to modify it.
+     *
+     * @param service The role service name
+     * @param kind The kind of principal
+     * @param name The user or group name
+     * @param loader Loads the roles from the role service, on cache miss or refresh
+     */
+    public SortedSet<GeoServerRole> getRoles(
+            String service, Kind kind, String name, RoleLoader loader) throws IOException {
+        return get(new Key(service, kind, name), loader);
+    }
+
+    /**
+     * Returns the groups of the given user, using the cached value if still valid, or calling the
+     * loader otherwise. The returned set is a copy, callers are free to modify it.
+     *
+     * @param service The user/group service name
+     * @param username The user name
+     * @param loader Loads the groups from the user/group service, on cache miss or refresh
+     */
+    public SortedSet<GeoServerUserGroup> getGroups(
+            String service, String username, Loader<GeoServerUserGroup> loader)
+            throws IOException {
+        return get(new Key(service, Kind.USER_GROUPS, username), loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> SortedSet<T> get(Key key, Loader<T> loader) throws IOException {
+        Entry entry = cache.getIfPresent(key);
+        long now = ticker.read();
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            if (age < entry.ttl) {
+                statistics.hits.increment();
+                if (refreshAfter >= 0 && !entry.isNegative() && age >= refreshAfter) {
+                    refresh(key, entry, loader);
+                }
+                return new TreeSet<>((SortedSet<T>) entry.values);
+            }
+            cache.asMap().remove(key, entry);
+        }
+
+        statistics.misses.increment();
+        Entry loaded = newEntry(loader.load(key.name), now);
+        cache.put(key, loaded);
+        return new TreeSet<>((SortedSet<T>) loaded.values);
+    }
+
+    private Entry newEntry(SortedSet<?> values, long now) {
+        if (values == null || values.isEmpty()) {
+            return new Entry(new TreeSet<>(), now, negativeTtl);
+        }
+        return new Entry(new TreeSet<>(values), now, ttl);
+    }
+
+    /** Reloads an entry in background, unless a refresh is already in progress */
+    private void refresh(Key key, Entry entry, Loader<?> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            getExecutor()
+                    .execute(
+                            () -> {
+                                try {
+                                    long now = ticker.read();
+                                    Entry refreshed = newEntry(loader.load(key.name), now);
+                                    // an invalidation might have happened in the meantime
+                                    if (cache.asMap().replace(key, entry, refreshed)) {
+                                        statistics.refreshes.increment();
+                                    }
+                                } catch (Exception e) {
+                                    // keep serving the current value until it expires
+                                    statistics.refreshFailures.increment();
+                                    entry.refreshing.set(false);
+                                    LOGGER.log(
+                                            Level.FINE,
+                                            "Failed to refresh cached lookup for " + key.name,
+                                            e);
+                                }
+                            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    ThreadPoolExecutor tpe =
+                            new ThreadPoolExecutor(
+                                    2,
+                                    2,
+                                    60,
+                                    TimeUnit.SECONDS,
+                                    new LinkedBlockingQueue<>(1000),
+                                    r -> {
+                                        Thread t =
+                                                new Thread(
+                                                        r,
+                                                        "RoleCacheRefresh-"
+                                                                + counter.incrementAndGet());
+                                        t.setDaemon(true);
+                                        return t;
+                                    });
+                    tpe.allowCoreThreadTimeOut(true);
+                    executor = tpe;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /** Drops all cached lookups */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        statistics.invalidations.increment();
+    }
+
+    /** Drops the cached lookups of the given service */
+    public void invalidate(String service) {
+        cache.asMap().keySet().removeIf(k -> Objects.equals(k.service, service));
+        statistics.invalidations.increment();
+    }
+
+    /** Drops the cached lookups of the given kind for the given service */
+    public void invalidate(String service, Kind kind) {
+        cache.asMap()
+                .keySet()
+                .removeIf(k -> k.kind == kind && Objects.equals(k.service, service));
+        statistics.invalidations.increment();
+    }
+
+    /** Drops the cached roles of a single user or group of the given role service */
+    public void invalidate(String service, Kind kind, String name) {
+        cache.invalidate(new Key(service, kind, name));
+        statistics.invalidations.increment();
+    }
+
+    /** Number of cached entries, including expired ones not yet cleaned up */
+    public long size() {
+        return cache.size();
+    }
+
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    /** Stops the background refresh threads */
+    public void dispose() {
+        ExecutorService current = executor;
+        executor = null;
+        if (current != null) {
+            current.shutdownNow();
+        }
+        cache.invalidateAll();
+    }
+
+    /** Cache usage counters */
+    public static class Statistics {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder refreshes = new LongAdder();
+        final LongAdder refreshFailures = new LongAdder();
+        final LongAdder invalidations = new LongAdder();
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        public long getRefreshes() {
+            return refreshes.sum();
+        }
+
+        public long getRefreshFailures() {
+            return refreshFailures.sum();
+        }
+
+        public long getInvalidations() {
+            return invalidations.sum();
+        }
+    }
+
+    private static final class Key {
+        final String service;
+        final Kind kind;
+        final String name;
+
+        Key(String service, Kind kind, String name) {
+            this.service = service;
+            this.kind = kind;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return kind == other.kind
+                    && Objects.equals(service, other.service)
+                    && Objects.equals(name, other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(service, kind, name);
+        }
+    }
+
+    private static final class Entry {
+        final SortedSet<?> values;
+        final long loadedAt;
+        final long ttl;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(SortedSet<?> values, long loadedAt, long ttl) {
+            this.values = values;
+            this.loadedAt = loadedAt;
+            this.ttl = ttl;
+        }
+
+        boolean isNegative() {
+            return values.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.coverage.grid.io.GridCoverage2DReader;
+import org.junit.After;
+import org.junit.Test;
+
+public class CoverageViewReaderTest {
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private GridCoverage2DReader reader(Callable<GridCoverage2D> read) {
+        return mock(
+                GridCoverage2DReader.class,
+                invocation -> {
+                    if ("read".equals(invocation.getMethod().getName())) {
+                        return read.call();
+                    }
+                    return RETURNS_DEFAULTS.answer(invocation);
+                });
+    }
+
+    @Test
+    public void testParallelRead() throws Exception {
+        // all three reads must be running at the same time to get past the barrier
+        CyclicBarrier barrier = new CyclicBarrier(3);
+        LinkedHashMap<String, GridCoverage2DReader> readers = new LinkedHashMap<>();
+        Map<String, GridCoverage2D> coverages = new LinkedHashMap<>();
+        for (String name : new String[] {"a", "b", "c"}) {
+            GridCoverage2D coverage = mock(GridCoverage2D.class);
+            coverages.put(name, coverage);
+            readers.put(
+                    name,
+                    reader(
+                            () -> {
+                                barrier.await(10, TimeUnit.SECONDS);
+                                return coverage;
+                            }));
+        }
+
+        Map<String, GridCoverage2D> result =
+                CoverageViewReader.readInputs("view", readers, null, executor, 0);
+        assertEquals(coverages, result);
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        GridCoverage2D fast = mock(GridCoverage2D.class);
+        GridCoverage2D slow = mock(GridCoverage2D.class);
+        LinkedHashMap<String, GridCoverage2DReader> readers = new LinkedHashMap<>();
+        // with a timeout the first read is subject to the deadline too
+        readers.put(
+                "slow",
+                reader(
+                        () -> {
+                            latch.await(10, TimeUnit.SECONDS);
+                            return slow;
+                        }));
+        readers.put("fast", reader(() -> fast));
+
+        try {
+            CoverageViewReader.readInputs("view", readers, null, executor, 100);
+            fail("Should have timed out");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("took more than 100ms"));
+        }
+        verify(fast, timeout(5000)).dispose(true);
+
+        // the slow read was not interrupted, its result is disposed once it completes
+        latch.countDown();
+        verify(slow, timeout(5000)).dispose(true);
+    }
+
+    @Test
+    public void testFailureCleanup() throws Exception {
+        GridCoverage2D first = mock(GridCoverage2D.class);
+        LinkedHashMap<String, GridCoverage2DReader> readers = new LinkedHashMap<>();
+        readers.put("first", reader(() -> first));
+        readers.put(
+                "failing",
+                reader(
+                        () -> {
+                            throw new IOException("Failed read");
+                        }));
+
+        try {
+            CoverageViewReader.readInputs("view", readers, null, executor, 0);
+            fail("Should have failed");
+        } catch (IOException e) {
+            assertEquals("Failed read", e.getMessage());
+        }
+        verify(first).dispose(true);
+    }
+
+    @Test
+    public void testNoInterruptOnFailure() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        GridCoverage2D running = mock(GridCoverage2D.class);
+        LinkedHashMap<String, GridCoverage2DReader> readers = new LinkedHashMap<>();
+        readers.put(
+                "failing",
+                reader(
+                        () -> {
+                            // make sure the other read is in progress before failing
+                            started.await(10, TimeUnit.SECONDS);
+                            throw new IOException("Failed read");
+                        }));
+        readers.put(
+                "running",
+                reader(
+                        () -> {
+                            started.countDown();
+                            try {
+                                release.await(10, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                interrupted.set(true);
+                            }
+                            return running;
+                        }));
+
+        try {
+            CoverageViewReader.readInputs("view", readers, null, executor, 0);
+            fail("Should have failed");
+        } catch (IOException e) {
+            assertEquals("Failed read", e.getMessage());
+        }
+        release.countDown();
+        verify(running, timeout(5000)).dispose(true);
+        assertFalse(interrupted.get());
+    }
+
+    @Test
+    public void testSequentialRead() throws Exception {
+        GridCoverage2D coverage = mock(GridCoverage2D.class);
+        LinkedHashMap<String, GridCoverage2DReader> readers = new LinkedHashMap<>();
+        readers.put("a", reader(() -> coverage));
+        readers.put("b", reader(() -> null));
+
+        Map<String, GridCoverage2D> result =
+                CoverageViewReader.readInputs("view", readers, null, null, 0);
+        assertSame(coverage, result.get("a"));
+        assertTrue(result.containsKey("b"));
+    }
+}
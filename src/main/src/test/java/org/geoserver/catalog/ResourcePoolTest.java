@@ -901,6 +901,83 @@ public CoverageStoreInfo clone(
         assertThat(hints2, hasEntry(Hints.KEY_ANTIALIASING, Hints.VALUE_ANTIALIAS_ON));
     }
 
+    @Test
+    public void testCoverageReaderBudget() throws Exception {
+        ResourcePool pool = newDetachedPool();
+        ResourcePool.CoverageHintReaderCache cache = pool.new CoverageHintReaderCache(2, 0);
+
+        ResourcePool.CoverageHintReaderKey k1 = new ResourcePool.CoverageHintReaderKey("s1", null);
+        ResourcePool.CoverageHintReaderKey k2 = new ResourcePool.CoverageHintReaderKey("s2", null);
+        ResourcePool.CoverageHintReaderKey k3 = new ResourcePool.CoverageHintReaderKey("s3", null);
+        GridCoverageReader r1 = createNiceMock(GridCoverageReader.class);
+        GridCoverageReader r2 = createNiceMock(GridCoverageReader.class);
+        GridCoverageReader r3 = createNiceMock(GridCoverageReader.class);
+        replay(r1, r2, r3);
+
+        cache.put(k1, r1);
+        cache.put(k2, r2);
+        // make the first reader more popular than the second
+        cache.get(k1);
+        cache.get(k1);
+
+        // over budget, the least frequently used reader gets evicted
+        cache.put(k3, r3);
+        assertEquals(2, cache.size());
+        assertSame(r1, cache.get(k1));
+        assertNull(cache.get(k2));
+        assertSame(r3, cache.get(k3));
+
+        CoverageReaderStatistics stats = pool.getCoverageReaderStatistics();
+        assertEquals(1, stats.getEvicted());
+        assertEquals(1, stats.getClosed());
+    }
+
+    @Test
+    public void testCoverageReaderBudgetSparesActiveReaders() throws Exception {
+        ResourcePool pool = newDetachedPool();
+        ResourcePool.CoverageHintReaderCache cache =
+                pool.new CoverageHintReaderCache(1, 60 * 60 * 1000);
+
+        GridCoverageReader r1 = createNiceMock(GridCoverageReader.class);
+        GridCoverageReader r2 = createNiceMock(GridCoverageReader.class);
+        replay(r1, r2);
+        cache.put(new ResourcePool.CoverageHintReaderKey("s1", null), r1);
+        cache.put(new ResourcePool.CoverageHintReaderKey("s2", null), r2);
+
+        // recently used readers are not evicted, the budget is exceeded instead
+        assertEquals(2, cache.size());
+        CoverageReaderStatistics stats = pool.getCoverageReaderStatistics();
+        assertEquals(0, stats.getEvicted());
+        assertEquals(1, stats.getOverBudget());
+    }
+
+    @Test
+    public void testCoverageReaderStatistics() throws Exception {
+        Catalog catalog = getCatalog();
+        ResourcePool pool = newDetachedPool();
+        CoverageInfo ci = catalog.getCoverageByName(getLayerId(MockData.TASMANIA_DEM));
+
+        pool.getGridCoverageReader(ci, null);
+        pool.getGridCoverageReader(ci, null);
+
+        CoverageReaderStatistics stats = pool.getCoverageReaderStatistics();
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getOpenReaders());
+
+        pool.clear(ci.getStore());
+        assertEquals(0, stats.getOpenReaders());
+        pool.dispose();
+    }
+
+    /** A pool that is not registered as a catalog listener, to avoid side effects on other tests */
+    private ResourcePool newDetachedPool() {
+        ResourcePool pool = new ResourcePool();
+        pool.catalog = getCatalog();
+        pool.repository = new CatalogRepository(getCatalog());
+        return pool;
+    }
+
     @Test
     public void testGetParamsFixesDatabaseFilePath() {
         Catalog catalog = getCatalog();
@@ -0,0 +1,143 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geoserver.catalog.StyleCompilationCache.CompiledStyle;
+import org.geotools.api.style.StyledLayerDescriptor;
+import org.geotools.util.PreventLocalEntityResolver;
+import org.junit.Test;
+import org.xml.sax.EntityResolver;
+
+public class StyleCompilationCacheTest {
+
+    static final String SLD =
+            "<StyledLayerDescriptor version=\"1.0.0\" xmlns=\"http://www.opengis.net/sld\" "
+                    + "xmlns:ogc=\"http://www.opengis.net/ogc\">"
+                    + "<NamedLayer><Name>test</Name><UserStyle><FeatureTypeStyle>"
+                    + "<Rule><MaxScaleDenominator>50000</MaxScaleDenominator>"
+                    + "<ogc:Filter><ogc:PropertyIsEqualTo><ogc:PropertyName>type</ogc:PropertyName>"
+                    + "<ogc:Literal>road</ogc:Literal></ogc:PropertyIsEqualTo></ogc:Filter>"
+                    + "<LineSymbolizer><Stroke><CssParameter name=\"stroke-width\">"
+                    + "<ogc:PropertyName>width</ogc:PropertyName></CssParameter></Stroke>"
+                    + "</LineSymbolizer></Rule>"
+                    + "</FeatureTypeStyle></UserStyle></NamedLayer></StyledLayerDescriptor>";
+
+    AtomicInteger parses = new AtomicInteger();
+
+    private CompiledStyle compile(StyleCompilationCache cache, String sld) throws IOException {
+        return compile(cache, sld, null);
+    }
+
+    private CompiledStyle compile(StyleCompilationCache cache, String sld, EntityResolver resolver)
+            throws IOException {
+        return cache.compile(
+                SLDHandler.FORMAT,
+                null,
+                null,
+                resolver,
+                sld,
+                () -> {
+                    parses.incrementAndGet();
+                    return new SLDHandler().parse(new StringReader(sld), null, null, resolver);
+                });
+    }
+
+    @Test
+    public void testCompileOnce() throws Exception {
+        StyleCompilationCache cache = new StyleCompilationCache(1024 * 1024);
+        assertNull(cache.lookup(SLDHandler.FORMAT, null, null, null, SLD));
+        CompiledStyle compiled = compile(cache, SLD);
+        assertSame(compiled, compile(cache, SLD));
+        assertEquals(1, parses.get());
+        assertEquals(1, cache.getStatistics().hitCount());
+        assertNotNull(cache.lookup(SLDHandler.FORMAT, null, null, null, SLD));
+
+        // a different document is parsed again
+        compile(cache, SLD.replace("50000", "60000"));
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    public void testEntityResolver() throws Exception {
+        StyleCompilationCache cache = new StyleCompilationCache(1024 * 1024);
+        CompiledStyle compiled = compile(cache, SLD, PreventLocalEntityResolver.INSTANCE);
+        assertFalse(compiled.isValidated());
+        assertSame(compiled, compile(cache, SLD, PreventLocalEntityResolver.INSTANCE));
+        assertEquals(1, parses.get());
+
+        // parsed under a different entity resolution policy
+        assertNull(cache.lookup(SLDHandler.FORMAT, null, null, null, SLD));
+        assertNotSame(compiled, compile(cache, SLD, null));
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    public void testCleaner() throws Exception {
+        StyleCompilationCache cache = StyleCompilationCache.get();
+        compile(cache, SLD);
+        assertNotNull(cache.lookup(SLDHandler.FORMAT, null, null, null, SLD));
+        new StyleCompilationCacheCleaner().onReset();
+        assertNull(cache.lookup(SLDHandler.FORMAT, null, null, null, SLD));
+        compile(cache, SLD);
+        new StyleCompilationCacheCleaner().onReload();
+        assertNull(cache.lookup(SLDHandler.FORMAT, null, null, null, SLD));
+    }
+
+    @Test
+    public void testCopies() throws Exception {
+        CompiledStyle compiled = compile(new StyleCompilationCache(1024 * 1024), SLD);
+        StyledLayerDescriptor sld1 = compiled.getSld();
+        StyledLayerDescriptor sld2 = compiled.getSld();
+        assertNotSame(sld1, sld2);
+        assertEquals(sld1, sld2);
+
+        // altering a copy does not affect the cached document
+        Styles.style(sld1).featureTypeStyles().clear();
+        assertEquals(1, Styles.style(compiled.getSld()).featureTypeStyles().size());
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        StyleCompilationCache cache = new StyleCompilationCache(0);
+        compile(cache, SLD);
+        compile(cache, SLD);
+        assertEquals(2, parses.get());
+        assertNull(cache.lookup(SLDHandler.FORMAT, null, null, null, SLD));
+    }
+
+    @Test
+    public void testFailuresNotCached() throws Exception {
+        StyleCompilationCache cache = new StyleCompilationCache(1024 * 1024);
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.compile(
+                        SLDHandler.FORMAT,
+                        null,
+                        null,
+                        null,
+                        "invalid",
+                        () -> {
+                            parses.incrementAndGet();
+                            throw new IOException("Failed");
+                        });
+                fail("Expected a parse failure");
+            } catch (IOException e) {
+                assertEquals("Failed", e.getMessage());
+            }
+        }
+        assertEquals(2, parses.get());
+    }
+}
@@ -0,0 +1,179 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Ticker;
+import java.io.IOException;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.geoserver.security.impl.RoleResolutionCache.Kind;
+import org.junit.After;
+import org.junit.Test;
+
+public class RoleResolutionCacheTest {
+
+    static class FakeTicker extends Ticker {
+        final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(long seconds) {
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+        }
+    }
+
+    /** Counts the lookups, returning a single role named after the user, if any */
+    static class CountingLoader implements RoleResolutionCache.RoleLoader {
+        final AtomicInteger calls = new AtomicInteger();
+        volatile String role;
+
+        CountingLoader(String role) {
+            this.role = role;
+        }
+
+        @Override
+        public SortedSet<GeoServerRole> load(String name) throws IOException {
+            calls.incrementAndGet();
+            SortedSet<GeoServerRole> roles = new TreeSet<>();
+            if (role != null) {
+                roles.add(new GeoServerRole(role));
+            }
+            return roles;
+        }
+    }
+
+    FakeTicker ticker = new FakeTicker();
+
+    RoleResolutionCache cache;
+
+    @After
+    public void dispose() {
+        if (cache != null) {
+            cache.dispose();
+        }
+    }
+
+    @Test
+    public void testTimeToLive() throws Exception {
+        cache = new RoleResolutionCache(60, 10, 1, 100, ticker);
+        CountingLoader loader = new CountingLoader("ROLE_A");
+        assertEquals(1, cache.getRoles("svc", Kind.USER, "bob", loader).size());
+        ticker.advance(59);
+        assertEquals(1, cache.getRoles("svc", Kind.USER, "bob", loader).size());
+        assertEquals(1, loader.calls.get());
+
+        // users and groups do not share entries
+        cache.getRoles("svc", Kind.GROUP, "bob", loader);
+        assertEquals(2, loader.calls.get());
+
+        ticker.advance(1);
+        cache.getRoles("svc", Kind.USER, "bob", loader);
+        assertEquals(3, loader.calls.get());
+        assertEquals(1, cache.getStatistics().getHits());
+        assertEquals(3, cache.getStatistics().getMisses());
+    }
+
+    @Test
+    public void testNegativeCaching() throws Exception {
+        cache = new RoleResolutionCache(60, 10, 1, 100, ticker);
+        CountingLoader loader = new CountingLoader(null);
+        assertTrue(cache.getRoles("svc", Kind.USER, "ghost", loader).isEmpty());
+        ticker.advance(9);
+        assertTrue(cache.getRoles("svc", Kind.USER, "ghost", loader).isEmpty());
+        assertEquals(1, loader.calls.get());
+
+        // the shorter time to live applies to empty results
+        loader.role = "ROLE_A";
+        ticker.advance(1);
+        assertEquals(1, cache.getRoles("svc", Kind.USER, "ghost", loader).size());
+        assertEquals(2, loader.calls.get());
+    }
+
+    @Test
+    public void testRefreshAhead() throws Exception {
+        cache = new RoleResolutionCache(60, 10, 0.5, 100, ticker);
+        CountingLoader loader = new CountingLoader("ROLE_A");
+        cache.getRoles("svc", Kind.USER, "bob", loader);
+
+        // past the refresh point the current value is returned, and reloaded in background
+        loader.role = "ROLE_B";
+        ticker.advance(30);
+        SortedSet<GeoServerRole> roles = cache.getRoles("svc", Kind.USER, "bob", loader);
+        assertEquals("ROLE_A", roles.first().getAuthority());
+        for (int i = 0; i < 100 && cache.getStatistics().getRefreshes() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, cache.getStatistics().getRefreshes());
+        assertEquals(2, loader.calls.get());
+
+        // the refreshed value starts a new time to live
+        ticker.advance(29);
+        roles = cache.getRoles("svc", Kind.USER, "bob", loader);
+        assertEquals("ROLE_B", roles.first().getAuthority());
+        assertEquals(2, loader.calls.get());
+    }
+
+    @Test
+    public void testInvalidation() throws Exception {
+        cache = new RoleResolutionCache(60, 10, 1, 100, ticker);
+        CountingLoader loader = new CountingLoader("ROLE_A");
+        cache.getRoles("svc1", Kind.USER, "bob", loader);
+        cache.getRoles("svc1", Kind.USER, "alice", loader);
+        cache.getRoles("svc2", Kind.USER, "bob", loader);
+        assertEquals(3, cache.size());
+
+        cache.invalidate("svc1", Kind.USER, "bob");
+        assertEquals(2, cache.size());
+        cache.invalidate("svc1");
+        assertEquals(1, cache.size());
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+
+        cache.getRoles("svc2", Kind.USER, "bob", loader);
+        assertEquals(4, loader.calls.get());
+    }
+
+    @Test
+    public void testReturnsCopies() throws Exception {
+        cache = new RoleResolutionCache(60, 10, 1, 100, ticker);
+        CountingLoader loader = new CountingLoader("ROLE_A");
+        cache.getRoles("svc", Kind.USER, "bob", loader).clear();
+        assertEquals(1, cache.getRoles("svc", Kind.USER, "bob", loader).size());
+    }
+
+    @Test
+    public void testGroups() throws Exception {
+        cache = new RoleResolutionCache(60, 10, 1, 100, ticker);
+        AtomicInteger calls = new AtomicInteger();
+        RoleResolutionCache.Loader<GeoServerUserGroup> loader =
+                name -> {
+                    calls.incrementAndGet();
+                    return new TreeSet<>(Set.of(new GeoServerUserGroup(name + "_group")));
+                };
+        SortedSet<GeoServerUserGroup> groups = cache.getGroups("default", "bob", loader);
+        assertEquals("bob_group", groups.first().getGroupname());
+        assertEquals(groups, cache.getGroups("default", "bob", loader));
+        assertEquals(1, calls.get());
+
+        // same service name, different kind of lookup
+        CountingLoader roleLoader = new CountingLoader("ROLE_A");
+        cache.getRoles("default", Kind.USER, "bob", roleLoader);
+        assertEquals(2, cache.size());
+        cache.invalidate("default", Kind.USER_GROUPS);
+        assertEquals(1, cache.size());
+        cache.getGroups("default", "bob", loader);
+        assertEquals(2, calls.get());
+    }
+}
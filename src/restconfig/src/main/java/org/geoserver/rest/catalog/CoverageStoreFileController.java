@@ -19,6 +19,7 @@
 import org.geoserver.catalog.CatalogRepository;
 import org.geoserver.catalog.CoverageInfo;
 import org.geoserver.catalog.CoverageStoreInfo;
+import org.geoserver.catalog.CoverageViewReader;
 import org.geoserver.catalog.LayerInfo;
 import org.geoserver.catalog.SingleGridCoverage2DReader;
 import org.geoserver.data.util.CoverageStoreUtils;
@@ -123,6 +124,8 @@ public void coverageStorePost(
         }
         // File Harvesting
         sr.harvest(null, harvestedResources, GeoTools.getDefaultHints());
+        // views built on top of this store need to recompute their input layouts
+        CoverageViewReader.clearInputLayouts(sr);
         if (updateBBox) new MosaicInfoBBoxHandler(catalog).updateNativeBBox(info, sr);
     }
 
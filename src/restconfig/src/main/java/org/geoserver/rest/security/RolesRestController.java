@@ -13,6 +13,8 @@
 import org.geoserver.security.GeoServerRoleStore;
 import org.geoserver.security.GeoServerSecurityManager;
 import org.geoserver.security.impl.GeoServerRole;
+import org.geoserver.security.impl.RoleResolutionCache;
+import org.geoserver.security.impl.RoleResolutionCache.Kind;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -181,6 +183,39 @@ protected JaxbRoleList getGroup(
         disassociateToGroup(getService(serviceName), roleName, groupName);
     }
 
+    @DeleteMapping(value = "/cache")
+    public @ResponseStatus(HttpStatus.OK) void invalidateCache() {
+        securityManager.invalidateRoleResolutionCache(null);
+    }
+
+    @DeleteMapping(value = "/service/{serviceName}/cache")
+    public @ResponseStatus(HttpStatus.OK) void invalidateCache(
+            @PathVariable("serviceName") String serviceName) throws IOException {
+        securityManager.invalidateRoleResolutionCache(getService(serviceName).getName());
+    }
+
+    @DeleteMapping(value = "/service/{serviceName}/cache/user/{user}")
+    public @ResponseStatus(HttpStatus.OK) void invalidateUserCache(
+            @PathVariable("serviceName") String serviceName, @PathVariable("user") String userName)
+            throws IOException {
+        invalidateCache(getService(serviceName), Kind.USER, userName);
+    }
+
+    @DeleteMapping(value = "/service/{serviceName}/cache/group/{group}")
+    public @ResponseStatus(HttpStatus.OK) void invalidateGroupCache(
+            @PathVariable("serviceName") String serviceName,
+            @PathVariable("group") String groupName)
+            throws IOException {
+        invalidateCache(getService(serviceName), Kind.GROUP, groupName);
+    }
+
+    protected void invalidateCache(GeoServerRoleService roleService, Kind kind, String name) {
+        RoleResolutionCache cache = securityManager.getRoleResolutionCache();
+        if (cache != null) {
+            cache.invalidate(roleService.getName(), kind, name);
+        }
+    }
+
     protected void associateToGroup(
             GeoServerRoleService roleService, String roleName, String groupName)
             throws IOException {
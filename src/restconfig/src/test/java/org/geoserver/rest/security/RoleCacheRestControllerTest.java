@@ -0,0 +1,94 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.rest.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import org.geoserver.security.GeoServerRoleService;
+import org.geoserver.security.impl.GeoServerUser;
+import org.geoserver.security.impl.RoleCalculator;
+import org.geoserver.security.impl.RoleResolutionCache;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class RoleCacheRestControllerTest extends SecurityRESTTestSupport {
+
+    private static final String SERVICE = "default";
+
+    RoleResolutionCache cache;
+
+    @BeforeClass
+    public static void enableCache() {
+        System.setProperty(RoleResolutionCache.TTL, "600");
+    }
+
+    @AfterClass
+    public static void disableCache() {
+        System.clearProperty(RoleResolutionCache.TTL);
+    }
+
+    @Before
+    public void fillCache() throws Exception {
+        cache = getSecurityManager().getRoleResolutionCache();
+        assertNotNull(cache);
+        cache.invalidateAll();
+        GeoServerRoleService roleService = getSecurityManager().loadRoleService(SERVICE);
+        roleService.getRolesForUser("admin");
+        roleService.getRolesForGroup("staff");
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testInvalidateAll() throws Exception {
+        assertEquals(200, deleteAsServletResponse("rest/security/roles/cache").getStatus());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidateService() throws Exception {
+        assertEquals(
+                200,
+                deleteAsServletResponse("rest/security/roles/service/" + SERVICE + "/cache")
+                        .getStatus());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidateUser() throws Exception {
+        assertEquals(
+                200,
+                deleteAsServletResponse(
+                                "rest/security/roles/service/" + SERVICE + "/cache/user/admin")
+                        .getStatus());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testInvalidateGroup() throws Exception {
+        assertEquals(
+                200,
+                deleteAsServletResponse(
+                                "rest/security/roles/service/" + SERVICE + "/cache/group/staff")
+                        .getStatus());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testUserGroupsCached() throws Exception {
+        RoleCalculator calculator =
+                new RoleCalculator(
+                        getSecurityManager().loadUserGroupService(SERVICE),
+                        getSecurityManager().loadRoleService(SERVICE));
+        calculator.calculateRoles(new GeoServerUser("admin"));
+        // the groups of the user are cached along with its roles
+        assertEquals(3, cache.size());
+
+        assertEquals(200, deleteAsServletResponse("rest/security/roles/cache").getStatus());
+        assertEquals(0, cache.size());
+    }
+}
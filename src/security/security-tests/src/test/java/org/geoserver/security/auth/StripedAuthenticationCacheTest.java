@@ -0,0 +1,129 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.auth;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+/** Unit tests for the striped AuthenticationCache implementation. */
+public class StripedAuthenticationCacheTest extends BaseAuthenticationCacheTest {
+
+    @Override
+    protected AuthenticationCache createAuthenticationCache() {
+        return new StripedAuthenticationCacheImpl(
+                TIME_IDLE,
+                TIME_LIVE,
+                MAX_ENTRIES,
+                StripedAuthenticationCacheImpl.DEFAULT_SEGMENTS);
+    }
+
+    private Authentication auth(String user) {
+        return new UsernamePasswordAuthenticationToken(user, "secret");
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        StripedAuthenticationCacheImpl striped = new StripedAuthenticationCacheImpl(100);
+        Authentication a1 = auth("a1");
+        Authentication a2 = auth("a2");
+        striped.put("filter1", "key1", a1);
+        striped.put("filter2", "key1", a2);
+        striped.put("filter2", "key2", a2);
+
+        assertSame(a1, striped.get("filter1", "key1"));
+        assertSame(a2, striped.get("filter2", "key1"));
+        assertNull(striped.get("filter1", "key2"));
+
+        striped.remove("filter1", "key1");
+        assertNull(striped.get("filter1", "key1"));
+
+        striped.removeAll("filter2");
+        assertNull(striped.get("filter2", "key1"));
+        assertNull(striped.get("filter2", "key2"));
+        assertEquals(0, striped.size());
+
+        StripedAuthenticationCacheImpl.Statistics stats = striped.getStatistics();
+        assertEquals(2, stats.getHits());
+        assertEquals(4, stats.getMisses());
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        StripedAuthenticationCacheImpl striped = new StripedAuthenticationCacheImpl(100);
+        // zero seconds idle time, the entry expires as soon as the clock moves
+        striped.put("filter", "key", auth("user"), 0, 10);
+        Thread.sleep(10);
+        assertNull(striped.get("filter", "key"));
+        assertEquals(1, striped.getStatistics().getExpirations());
+        assertEquals(0, striped.size());
+    }
+
+    @Test
+    public void testFrequencyBasedAdmission() {
+        // single segment, two entries
+        StripedAuthenticationCacheImpl striped = new StripedAuthenticationCacheImpl(300, 600, 2, 1);
+        striped.put("filter", "a", auth("a"));
+        striped.put("filter", "b", auth("b"));
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(striped.get("filter", "a"));
+            assertNotNull(striped.get("filter", "b"));
+        }
+
+        // a never requested key is not admitted, the cached ones are more popular
+        striped.put("filter", "c", auth("c"));
+        assertEquals(1, striped.getStatistics().getRejections());
+        assertNotNull(striped.get("filter", "a"));
+        assertNotNull(striped.get("filter", "b"));
+
+        // once requested often enough, it replaces the least popular one
+        for (int i = 0; i < 5; i++) {
+            assertNull(striped.get("filter", "c"));
+        }
+        striped.put("filter", "c", auth("c"));
+        assertEquals(1, striped.getStatistics().getEvictions());
+        assertNotNull(striped.get("filter", "c"));
+        assertEquals(2, striped.size());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        StripedAuthenticationCacheImpl striped = new StripedAuthenticationCacheImpl(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    for (int i = 0; i < 2000; i++) {
+                                        String key = "key" + (i % 200);
+                                        if (striped.get("filter", key) == null) {
+                                            striped.put("filter", key, auth(key));
+                                        }
+                                    }
+                                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(200, striped.size());
+        assertTrue(striped.getStatistics().getHitRatio() > 0.9);
+    }
+}
@@ -5,11 +5,14 @@
  */
 package org.geoserver.security.web;
 
+import java.util.Arrays;
 import org.apache.wicket.ajax.AjaxRequestTarget;
 import org.apache.wicket.ajax.markup.html.AjaxLink;
 import org.apache.wicket.behavior.AttributeAppender;
 import org.apache.wicket.markup.html.basic.Label;
 import org.apache.wicket.markup.html.form.CheckBox;
+import org.apache.wicket.markup.html.form.DropDownChoice;
+import org.apache.wicket.markup.html.form.EnumChoiceRenderer;
 import org.apache.wicket.markup.html.form.Form;
 import org.apache.wicket.markup.html.form.FormComponentPanel;
 import org.apache.wicket.markup.html.form.SubmitLink;
@@ -18,6 +21,7 @@
 import org.apache.wicket.model.StringResourceModel;
 import org.geoserver.security.GeoServerSecurityManager;
 import org.geoserver.security.config.SecurityManagerConfig;
+import org.geoserver.security.config.SecurityManagerConfig.AuthenticationCacheType;
 import org.geoserver.security.web.passwd.PasswordEncoderChoice;
 import org.geoserver.security.web.role.RoleServiceChoice;
 import org.geoserver.web.wicket.HelpLink;
@@ -40,6 +44,12 @@ void initComponents() {
 
         form.add(new RoleServiceChoice("roleServiceName"));
 
+        form.add(
+                new DropDownChoice<>(
+                        "authenticationCacheType",
+                        Arrays.asList(AuthenticationCacheType.values()),
+                        new EnumChoiceRenderer<>()));
+
         form.add(new EncryptionPanel("encryption"));
         form.add(new HelpLink("encryptionHelp").setDialog(dialog));
         form.add(
@@ -29,7 +29,8 @@ public class KMLLayerConfigPanel extends PublishedConfigurationPanel<LayerInfo>
     private static final long serialVersionUID = 6469105227923320272L;
     /** TODO: replace this with a list coming from the KML regionation classes */
     static final List<String> KML_STRATEGIES =
-            Arrays.asList("external-sorting", "geometry", "native-sorting", "random");
+            Arrays.asList(
+                    "external-sorting", "geometry", "indexed", "native-sorting", "random");
 
     public KMLLayerConfigPanel(String id, IModel<LayerInfo> model) {
         super(id, model);
@@ -94,7 +94,7 @@ public List<String> getPropertyNames() {
 
         @Override
         public void setPropertyNames(List<String> names) {
-            eSet(adaptee, "propertyNames", names);
+            eSet(adaptee, "propertyName", names);
         }
 
         @Override
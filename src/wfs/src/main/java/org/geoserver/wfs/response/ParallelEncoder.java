@@ -0,0 +1,135 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Runs the encoding of the independent parts of a multi type output (e.g., one shapefile set per
+ * feature collection) concurrently, with a per request thread budget.
+ *
+ * <p>The budget is read from the {@link #ENCODING_THREADS} system, context or environment variable
+ * and defaults to 1, that is, the parts are encoded sequentially in the request thread. Mind each
+ * concurrently encoded part keeps a store connection open while being read, the connection pools
+ * must be sized accordingly.
+ */
+public class ParallelEncoder {
+
+    static final Logger LOGGER = Logging.getLogger(ParallelEncoder.class);
+
+    /** The max number of threads used to encode the parts of a single output */
+    public static final String ENCODING_THREADS = "GS-WFS-ENCODING-THREADS";
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newCachedThreadPool(
+                    r -> {
+                        Thread t = new Thread(r, "WFSParallelEncoder");
+                        t.setDaemon(true);
+                        return t;
+                    });
+
+    private ParallelEncoder() {}
+
+    /** Returns the number of threads a single output can use to encode its parts */
+    public static int getThreads() {
+        String value = GeoServerExtensions.getProperty(ENCODING_THREADS);
+        if (value != null) {
+            try {
+                return Math.max(1, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + ENCODING_THREADS + ": " + value);
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Runs the tasks using at most {@link #getThreads()} threads, the calling one included, and
+     * returns their results in the same order as the tasks. Once a task fails the ones not yet
+     * started are skipped, and the failure is rethrown after the running ones completed.
+     */
+    public static <T> List<T> run(List<Callable<T>> tasks) throws IOException {
+        return run(tasks, getThreads());
+    }
+
+    /**
+     * Runs the tasks using at most the given number of threads, the calling one included, and
+     * returns their results in the same order as the tasks
+     */
+    public static <T> List<T> run(List<Callable<T>> tasks, int threads) throws IOException {
+        @SuppressWarnings("unchecked")
+        T[] results = (T[]) new Object[tasks.size()];
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Runnable worker =
+                () -> {
+                    int i;
+                    while (failure.get() == null && (i = next.getAndIncrement()) < tasks.size()) {
+                        try {
+                            results[i] = tasks.get(i).call();
+                        } catch (Throwable t) {
+                            failure.compareAndSet(null, t);
+                        }
+                    }
+                };
+
+        List<Future<?>> futures = new ArrayList<>();
+        int helpers = Math.min(threads, tasks.size()) - 1;
+        for (int i = 0; i < helpers; i++) {
+            ThreadLocalsTransfer transfer = new ThreadLocalsTransfer();
+            futures.add(
+                    EXECUTOR.submit(
+                            () -> {
+                                transfer.apply();
+                                try {
+                                    worker.run();
+                                } finally {
+                                    transfer.cleanup();
+                                }
+                            }));
+        }
+        worker.run();
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                // let the workers stop at the next task, and propagate the interruption
+                failure.compareAndSet(null, e);
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                failure.compareAndSet(null, e.getCause());
+            }
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof IOException) {
+            throw (IOException) t;
+        } else if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw new IOException("Failed to encode the output", t);
+        }
+        return Arrays.asList(results);
+    }
+}
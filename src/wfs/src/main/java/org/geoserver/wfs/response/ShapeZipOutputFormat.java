@@ -21,6 +21,8 @@
 import java.io.StringWriter;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -30,6 +32,7 @@
 import java.util.Map;
 import java.util.Properties;
 import java.util.SimpleTimeZone;
+import java.util.concurrent.Callable;
 import java.util.logging.Logger;
 import java.util.zip.ZipOutputStream;
 import javax.servlet.http.HttpServletRequest;
@@ -186,42 +189,18 @@ public void write(
         // We might get multiple feature collections in our response (multiple queries?) so we need
         // to write out multiple shapefile sets, one for each query response.
         final File tempDir = IOUtils.createTempDirectory("shpziptemp");
-        ShapefileDumper dumper =
-                new ShapefileDumper(tempDir) {
-
-                    @Override
-                    protected String getShapeName(
-                            SimpleFeatureType schema, String geometryName, String geometryType) {
-                        FeatureTypeInfo ftInfo = getFeatureTypeInfo(schema);
-                        String fileName =
-                                new FileNameSource(getClass())
-                                        .getShapeName(ftInfo, geometryName, geometryType);
-                        return fileName;
-                    }
-
-                    @Override
-                    protected void shapefileDumped(
-                            String fileName, SimpleFeatureType remappedSchema) throws IOException {
-                        try {
-                            changeWKTFormatIfFileFormatIsESRI(
-                                    tempDir, request, fileName, remappedSchema);
-                        } catch (FactoryException e) {
-                            throw new IOException("Failed to write out the ESRI style prj file", e);
-                        }
-                    }
-                };
-        dumper.setMaxDbfSize(maxDbfSize);
-        dumper.setMaxShpSize(maxShpSize);
-        dumper.setCharset(charset);
-
-        // target charset
-
         try {
             // if an empty result out of feature type with unknown geometry is created, the
             // zip file will be empty and the zip output stream will break
-            boolean shapefileCreated = false;
-            for (SimpleFeatureCollection collection : collections) {
-                shapefileCreated |= dumper.dump(collection);
+            boolean shapefileCreated;
+            if (collections.size() > 1 && ParallelEncoder.getThreads() > 1) {
+                shapefileCreated = dumpParallel(collections, charset, tempDir, request);
+            } else {
+                shapefileCreated = false;
+                ShapefileDumper dumper = getDumper(tempDir, charset, request);
+                for (SimpleFeatureCollection collection : collections) {
+                    shapefileCreated |= dumper.dump(collection);
+                }
             }
 
             // take care of the case the output is completely empty
@@ -265,6 +244,81 @@ protected void shapefileDumped(
         }
     }
 
+    /**
+     * Dumps each collection in its own sub directory, concurrently, and then moves the results in
+     * the target directory following the collections order, so that, just like with a sequential
+     * dump, the files of a later collection replace the ones with the same name of an earlier one
+     */
+    private boolean dumpParallel(
+            List<SimpleFeatureCollection> collections,
+            Charset charset,
+            File tempDir,
+            GetFeatureRequest request)
+            throws IOException {
+        List<File> partDirs = new ArrayList<>();
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < collections.size(); i++) {
+            File partDir = new File(tempDir, "part" + i);
+            if (!partDir.mkdir()) {
+                throw new IOException("Could not create directory " + partDir);
+            }
+            partDirs.add(partDir);
+            SimpleFeatureCollection collection = collections.get(i);
+            tasks.add(() -> getDumper(partDir, charset, request).dump(collection));
+        }
+
+        boolean shapefileCreated = false;
+        for (Boolean created : ParallelEncoder.run(tasks)) {
+            shapefileCreated |= created;
+        }
+
+        for (File partDir : partDirs) {
+            File[] files = partDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    Files.move(
+                            file.toPath(),
+                            new File(tempDir, file.getName()).toPath(),
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            FileUtils.deleteDirectory(partDir);
+        }
+        return shapefileCreated;
+    }
+
+    /** Builds a dumper writing the shapefiles in the specified directory */
+    private ShapefileDumper getDumper(File dir, Charset charset, GetFeatureRequest request) {
+        ShapefileDumper dumper =
+                new ShapefileDumper(dir) {
+
+                    @Override
+                    protected String getShapeName(
+                            SimpleFeatureType schema, String geometryName, String geometryType) {
+                        FeatureTypeInfo ftInfo = getFeatureTypeInfo(schema);
+                        String fileName =
+                                new FileNameSource(getClass())
+                                        .getShapeName(ftInfo, geometryName, geometryType);
+                        return fileName;
+                    }
+
+                    @Override
+                    protected void shapefileDumped(
+                            String fileName, SimpleFeatureType remappedSchema) throws IOException {
+                        try {
+                            changeWKTFormatIfFileFormatIsESRI(
+                                    dir, request, fileName, remappedSchema);
+                        } catch (FactoryException e) {
+                            throw new IOException("Failed to write out the ESRI style prj file", e);
+                        }
+                    }
+                };
+        dumper.setMaxDbfSize(maxDbfSize);
+        dumper.setMaxShpSize(maxShpSize);
+        dumper.setCharset(charset);
+        return dumper;
+    }
+
     /** Dumps the request */
     private void createRequestDump(
             File tempDir, GetFeatureRequest gft, SimpleFeatureCollection fc) {
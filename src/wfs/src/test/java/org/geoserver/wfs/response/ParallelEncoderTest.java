@@ -0,0 +1,76 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class ParallelEncoderTest {
+
+    @Test
+    public void testResultsInOrder() throws Exception {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int value = i;
+            tasks.add(
+                    () -> {
+                        threads.add(Thread.currentThread());
+                        // later tasks complete first
+                        Thread.sleep((10 - value) * 5);
+                        return value;
+                    });
+        }
+
+        List<Integer> results = ParallelEncoder.run(tasks, 3);
+
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), results);
+        assertTrue(threads.size() <= 3);
+        assertTrue(threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testFailureStopsPendingTasks() throws Exception {
+        AtomicInteger executed = new AtomicInteger();
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        tasks.add(
+                () -> {
+                    throw new IOException("failed");
+                });
+        for (int i = 0; i < 10; i++) {
+            tasks.add(() -> executed.incrementAndGet());
+        }
+
+        try {
+            ParallelEncoder.run(tasks, 1);
+            fail("Should have failed");
+        } catch (IOException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertEquals(0, executed.get());
+    }
+
+    @Test
+    public void testDefaultThreads() {
+        assertEquals(1, ParallelEncoder.getThreads());
+        System.setProperty(ParallelEncoder.ENCODING_THREADS, "4");
+        try {
+            assertEquals(4, ParallelEncoder.getThreads());
+        } finally {
+            System.clearProperty(ParallelEncoder.ENCODING_THREADS);
+        }
+    }
+}
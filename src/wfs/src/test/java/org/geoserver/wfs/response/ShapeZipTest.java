@@ -236,6 +236,36 @@ public void testMultiTypeDots() throws Exception {
         checkFieldsAreNotEmpty(new ByteArrayInputStream(zip));
     }
 
+    @Test
+    public void testMultiCollectionParallel() throws Exception {
+        ShapeZipOutputFormat zip =
+                new ShapeZipOutputFormat(getGeoServer(), getCatalog(), getResourceLoader());
+        FeatureCollectionResponse fct =
+                FeatureCollectionResponse.adapt(WfsFactory.eINSTANCE.createFeatureCollectionType());
+        fct.getFeature().add(getFeatureSource(ALL_TYPES).getFeatures());
+        fct.getFeature().add(getFeatureSource(SystemTestData.BASIC_POLYGONS).getFeatures());
+        fct.getFeature().add(getFeatureSource(DOTS).getFeatures());
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        System.setProperty(ParallelEncoder.ENCODING_THREADS, "3");
+        try {
+            zip.write(fct, bos, op);
+        } finally {
+            System.clearProperty(ParallelEncoder.ENCODING_THREADS);
+        }
+        byte[] bytes = bos.toByteArray();
+
+        final String[] expectedTypes = {
+            "AllTypesPoint",
+            "AllTypesMPoint",
+            "AllTypesPolygon",
+            "AllTypesLine",
+            SystemTestData.BASIC_POLYGONS.getLocalPart(),
+            "dots_in_name"
+        };
+        checkShapefileIntegrity(expectedTypes, new ByteArrayInputStream(bytes));
+        checkFieldsAreNotEmpty(new ByteArrayInputStream(bytes));
+    }
+
     @Test
     public void testGeometryInTheMiddle() throws Exception {
         byte[] zip = writeOut(getFeatureSource(GEOMMID).getFeatures());
@@ -19,12 +19,15 @@
 import java.io.ByteArrayInputStream;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import javax.xml.namespace.QName;
+import net.opengis.wfs.QueryType;
+import net.opengis.wfs.WfsFactory;
 import net.sf.json.JSONObject;
 import org.custommonkey.xmlunit.XMLAssert;
 import org.custommonkey.xmlunit.XMLUnit;
@@ -36,6 +39,7 @@
 import org.geoserver.wfs.GMLInfo;
 import org.geoserver.wfs.WFSInfo;
 import org.geoserver.wfs.WFSTestSupport;
+import org.geoserver.wfs.request.Query;
 import org.geotools.gml3.GML;
 import org.junit.Before;
 import org.junit.Test;
@@ -82,6 +86,27 @@ public void testGetPropertyNameStar() throws Exception {
                 "wfs?request=GetFeature&typename=cdf:Fifteen&version=1.1.0&service=wfs&propertyname=*");
     }
 
+    @Test
+    public void testGetPropertyName() throws Exception {
+        Document doc =
+                getAsDOM(
+                        "wfs?request=GetFeature&typename=cdf:Other&version=1.1.0&service=wfs"
+                                + "&propertyname=cdf:string2");
+        assertXpathEvaluatesTo("1", "count(//cdf:Other)", doc);
+        assertXpathEvaluatesTo("sometimes", "//cdf:Other/cdf:string2", doc);
+        assertXpathEvaluatesTo("0", "count(//cdf:Other/cdf:string1)", doc);
+        assertXpathEvaluatesTo("0", "count(//cdf:Other/cdf:integers)", doc);
+    }
+
+    @Test
+    public void testQueryAdapterPropertyNames() throws Exception {
+        QueryType query = WfsFactory.eINSTANCE.createQueryType();
+        Query adapter = Query.adapt(query);
+        adapter.setPropertyNames(Arrays.asList("cdf:string1", "cdf:string2"));
+        assertEquals(Arrays.asList("cdf:string1", "cdf:string2"), query.getPropertyName());
+        assertEquals(Arrays.asList("cdf:string1", "cdf:string2"), adapter.getPropertyNames());
+    }
+
     private void testGetFifteenAll(String request) throws Exception {
         Document doc = getAsDOM(request);
         assertEquals("wfs:FeatureCollection", doc.getDocumentElement().getNodeName());
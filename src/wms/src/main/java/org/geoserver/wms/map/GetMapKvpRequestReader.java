@@ -51,6 +51,8 @@
 import org.geoserver.catalog.MetadataMap;
 import org.geoserver.catalog.ResourceInfo;
 import org.geoserver.catalog.SLDHandler;
+import org.geoserver.catalog.StyleCompilationCache;
+import org.geoserver.catalog.StyleCompilationCache.CompiledStyle;
 import org.geoserver.catalog.StyleInfo;
 import org.geoserver.catalog.Styles;
 import org.geoserver.catalog.WMSLayerInfo;
@@ -96,6 +98,7 @@
 import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.referencing.CRS;
 import org.geotools.renderer.style.StyleAttributeExtractor;
+import org.geotools.util.Version;
 import org.locationtech.jts.geom.Geometry;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.lang.Nullable;
@@ -819,14 +822,7 @@ private void processSLDLink(
         try (InputStream input = getStream(getMap)) {
             if (input != null) {
                 try (InputStreamReader reader = new InputStreamReader(input)) {
-                    if (getMap.getValidateSchema().booleanValue()) {
-                        List<Exception> errors = validateStyle(input, getMap);
-                        if ((errors != null) && (!errors.isEmpty())) {
-                            throw new ServiceException(SLDValidator.getErrorMessage(input, errors));
-                        }
-                    }
-
-                    StyledLayerDescriptor sld = parseStyle(getMap, reader);
+                    StyledLayerDescriptor sld = parseCachedStyle(getMap, IOUtils.toString(reader));
                     processSld(getMap, requestedLayerInfos, sld, styleNameList);
                 } catch (Exception ex) {
                     final Level l = Level.WARNING;
@@ -860,22 +856,8 @@ private void processSLDBody(
             LOGGER.fine("Getting layers and styles from SLD_BODY");
         }
 
-        if (getMap.getValidateSchema().booleanValue()) {
-            try (StringReader reader = new StringReader(getMap.getSldBody())) {
-                List<Exception> errors = validateStyle(reader, getMap);
-
-                if (!errors.isEmpty()) {
-                    throw new ServiceException(
-                            SLDValidator.getErrorMessage(
-                                    new StringReader(getMap.getSldBody()), errors));
-                }
-            }
-        }
-
-        try (StringReader input = new StringReader(getMap.getSldBody())) {
-            StyledLayerDescriptor sld = parseStyle(getMap, input);
-            processSld(getMap, requestedLayerInfos, sld, styleNameList);
-        }
+        StyledLayerDescriptor sld = parseCachedStyle(getMap, getMap.getSldBody());
+        processSld(getMap, requestedLayerInfos, sld, styleNameList);
 
         // set filter in, we'll check consistency later
         getMap.setFilter(filters);
@@ -1120,25 +1102,63 @@ private List<Filter> parseFilters(
     }
 
     /** validates an style document. */
-    private List<Exception> validateStyle(Object input, GetMapRequest getMap) {
+    private List<Exception> validateStyle(
+            Object input, GetMapRequest getMap, EntityResolver entityResolver) {
         try {
             String language = getStyleFormat(getMap);
-            EntityResolverProvider entityResolverProvider = getEntityResolverProvider();
-            EntityResolver entityResolver = entityResolverProvider.getEntityResolver();
-
             return Styles.handler(language).validate(input, getMap.styleVersion(), entityResolver);
         } catch (IOException e) {
             throw new ServiceException("Error validating style", e);
         }
     }
 
+    /**
+     * Validates (if requested) and parses a dynamic style document, reusing the results of previous
+     * requests sending the same document
+     */
+    private StyledLayerDescriptor parseCachedStyle(GetMapRequest getMap, String style)
+            throws IOException {
+        StyleCompilationCache cache = StyleCompilationCache.get();
+        String format = getStyleFormat(getMap);
+        Version version = getMap.styleVersion();
+        EntityResolver resolver = getEntityResolverProvider().getEntityResolver();
+        boolean validate = getMap.getValidateSchema().booleanValue();
+        if (validate) {
+            CompiledStyle cached = cache.lookup(format, version, null, resolver, style);
+            if (cached == null || !cached.isValidated()) {
+                try (StringReader reader = new StringReader(style)) {
+                    List<Exception> errors = validateStyle(reader, getMap, resolver);
+                    if (errors != null && !errors.isEmpty()) {
+                        throw new ServiceException(
+                                SLDValidator.getErrorMessage(new StringReader(style), errors));
+                    }
+                }
+            }
+        }
+
+        CompiledStyle compiled =
+                cache.compile(
+                        format,
+                        version,
+                        null,
+                        resolver,
+                        style,
+                        () -> {
+                            try (StringReader reader = new StringReader(style)) {
+                                return parseStyle(getMap, reader, resolver);
+                            }
+                        });
+        if (validate) {
+            compiled.setValidated(true);
+        }
+        return compiled.getSld();
+    }
+
     /** Parses an style document. */
-    private StyledLayerDescriptor parseStyle(GetMapRequest getMap, Reader reader) {
+    private StyledLayerDescriptor parseStyle(
+            GetMapRequest getMap, Reader reader, EntityResolver entityResolver) {
         try {
             String format = getStyleFormat(getMap);
-            EntityResolverProvider entityResolverProvider = getEntityResolverProvider();
-            EntityResolver entityResolver = entityResolverProvider.getEntityResolver();
-
             return Styles.handler(format)
                     .parse(reader, getMap.styleVersion(), null, entityResolver);
         } catch (IOException e) {
@@ -30,6 +30,7 @@
 import javax.media.jai.JAI;
 import javax.media.jai.LookupTableJAI;
 import org.geoserver.catalog.LayerInfo;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.wms.DefaultWebMapService;
 import org.geoserver.wms.GetMapOutputFormat;
@@ -48,7 +49,9 @@
 import org.geotools.map.Layer;
 import org.geotools.map.StyleLayer;
 import org.geotools.renderer.lite.LabelCache;
+import org.geotools.renderer.lite.RendererUtilities;
 import org.geotools.renderer.lite.StreamingRenderer;
+import org.geotools.renderer.style.DynamicSymbolFactoryFinder;
 
 /**
  * A {@link GetMapOutputFormat} that produces {@link RenderedImageMap} instances to be encoded in
@@ -475,6 +478,28 @@ public RenderedImageMap produceMap(final WMSMapContent mapContent, final boolean
             }
         }
 
+        // replace the static point symbols with images shared across requests
+        SymbolRasterCache symbolCache = GeoServerExtensions.bean(SymbolRasterCache.class);
+        if (symbolCache != null
+                && symbolCache.isEnabled()
+                && RenderingHints.VALUE_ANTIALIAS_ON.equals(
+                        hints.get(RenderingHints.KEY_ANTIALIASING))
+                && !hints.containsKey(DynamicSymbolFactoryFinder.MARK_FACTORY_FILTER)
+                && !request.getRequest().equalsIgnoreCase("GETFEATUREINFO")) {
+            double scaleFactor =
+                    RendererUtilities.getDpi(rendererParams) / SymbolRasterCache.STANDARD_DPI;
+            for (Layer value : mapContent.layers()) {
+                if (value instanceof StyleLayer) {
+                    StyleLayer layer = (StyleLayer) value;
+                    Style style = layer.getStyle();
+                    Style cached = symbolCache.apply(style, scaleFactor, hints);
+                    if (cached != style) {
+                        layer.setStyle(cached);
+                    }
+                }
+            }
+        }
+
         for (int i = 0; i < request.getLayers().size(); i++) {
 
             Interpolation interpolationToSet = null;
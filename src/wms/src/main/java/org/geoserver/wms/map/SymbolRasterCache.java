@@ -0,0 +1,590 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.measure.Unit;
+import javax.measure.quantity.Length;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.config.impl.GeoServerLifecycleHandler;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.api.style.AnchorPoint;
+import org.geotools.api.style.ExternalGraphic;
+import org.geotools.api.style.FeatureTypeStyle;
+import org.geotools.api.style.Fill;
+import org.geotools.api.style.Graphic;
+import org.geotools.api.style.GraphicalSymbol;
+import org.geotools.api.style.Mark;
+import org.geotools.api.style.PointSymbolizer;
+import org.geotools.api.style.Rule;
+import org.geotools.api.style.Stroke;
+import org.geotools.api.style.Style;
+import org.geotools.api.style.StyleFactory;
+import org.geotools.api.style.Symbolizer;
+import org.geotools.data.memory.MemoryFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.map.FeatureLayer;
+import org.geotools.map.MapContent;
+import org.geotools.measure.UomOgcMapping;
+import org.geotools.renderer.lite.StreamingRenderer;
+import org.geotools.renderer.style.IconStyle2D;
+import org.geotools.renderer.style.MarkStyle2D;
+import org.geotools.renderer.style.SLDStyleFactory;
+import org.geotools.renderer.style.Style2D;
+import org.geotools.styling.StyleBuilder;
+import org.geotools.styling.visitor.DuplicatingStyleVisitor;
+import org.geotools.util.NumberRange;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+
+/**
+ * Process wide cache of pre-rasterized point symbols. Marks and SVG graphics whose appearance does
+ * not depend on the feature being rendered are painted once into an image, and the point
+ * symbolizers using them are replaced with an inline image graphic, which the renderer can just
+ * draw for each feature, instead of painting the vector symbol every time.
+ *
+ * <p>Symbols are keyed by graphical symbols, size, opacity, scale factor and the Java2D rendering
+ * hints they are painted with. Rotation, anchor displacement and the other placement parameters
+ * are left on the graphic and applied by the renderer when drawing the image, so the same image
+ * serves every rotation. The images are resampled when drawn, so the output is close to, but not
+ * exactly the same as, the one of the vector symbols: the cache is disabled unless its size in
+ * megabytes is set with the {@link #CACHE_SIZE_KEY} variable. It is emptied whenever a style is
+ * modified or removed, or the configuration is reloaded.
+ */
+public class SymbolRasterCache implements CatalogListener, GeoServerLifecycleHandler {
+
+    static final Logger LOGGER = Logging.getLogger(SymbolRasterCache.class);
+
+    /** Max memory used by the cache, in megabytes */
+    public static final String CACHE_SIZE_KEY = "SYMBOL_RASTER_CACHE_SIZE";
+
+    /** Disabled by default, as the output changes slightly */
+    static final long DEFAULT_CACHE_SIZE = 0;
+
+    /** Symbols larger than this, in pixels, are left to the renderer */
+    static final int MAX_SYMBOL_SIZE = 256;
+
+    /** The dpi at which the symbol sizes are expressed, matching the OGC 0.28mm pixel */
+    public static final double STANDARD_DPI = 25.4 / 0.28;
+
+    private static final ReferencedEnvelope SAMPLE_AREA =
+            new ReferencedEnvelope(-1, 1, -1, 1, null);
+
+    private static final NumberRange<Double> SCALE_RANGE =
+            NumberRange.create(0d, Double.MAX_VALUE);
+
+    private static final SimpleFeature SAMPLE_FEATURE;
+
+    private static final SimpleFeatureCollection SAMPLE_DATA;
+
+    static {
+        SimpleFeatureTypeBuilder typeBuilder = new SimpleFeatureTypeBuilder();
+        typeBuilder.setName("symbol");
+        typeBuilder.add("the_geom", Point.class);
+        SimpleFeatureType featureType = typeBuilder.buildFeatureType();
+        SimpleFeatureBuilder featureBuilder = new SimpleFeatureBuilder(featureType);
+        featureBuilder.set("the_geom", new GeometryFactory().createPoint(new Coordinate(0, 0)));
+        SAMPLE_FEATURE = featureBuilder.buildFeature(null);
+        MemoryFeatureCollection collection = new MemoryFeatureCollection(featureType);
+        collection.add(SAMPLE_FEATURE);
+        SAMPLE_DATA = collection;
+    }
+
+    private static final StyleFactory SF = CommonFactoryFinder.getStyleFactory();
+
+    private static final FilterFactory FF = CommonFactoryFinder.getFilterFactory();
+
+    private final Cache<SymbolKey, RasterSymbol> cache;
+
+    private volatile boolean enabled = true;
+
+    /**
+     * Builds a cache sized according to the {@link #CACHE_SIZE_KEY} variable, and cleared when
+     * the catalog styles change
+     */
+    public SymbolRasterCache(Catalog catalog) {
+        this(getCacheSize() * 1024 * 1024);
+        catalog.addListener(this);
+    }
+
+    /** Builds a cache holding up to the given amount of bytes, zero disables it */
+    public SymbolRasterCache(long maxBytes) {
+        if (maxBytes > 0) {
+            this.cache =
+                    CacheBuilder.newBuilder()
+                            .maximumWeight(maxBytes)
+                            .<SymbolKey, RasterSymbol>weigher(
+                                    (k, symbol) ->
+                                            symbol.image.getWidth()
+                                                    * symbol.image.getHeight()
+                                                    * 4)
+                            .recordStats()
+                            .build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    private static long getCacheSize() {
+        String value = GeoServerExtensions.getProperty(CACHE_SIZE_KEY);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + CACHE_SIZE_KEY + ": " + value);
+            }
+        }
+        return DEFAULT_CACHE_SIZE;
+    }
+
+    /** Returns true if the cache is enabled */
+    public boolean isEnabled() {
+        return cache != null && enabled;
+    }
+
+    /** Turns the cache on and off at runtime, the cached symbols are dropped when turning it off */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    /** Returns the cache hit and miss statistics */
+    public CacheStats getStatistics() {
+        return cache != null ? cache.stats() : new CacheStats(0, 0, 0, 0, 0, 0);
+    }
+
+    /** Drops all the cached symbols */
+    public void clear() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Returns a copy of the style where the cacheable point symbols are replaced by images, or the
+     * style itself if there is nothing to replace
+     *
+     * @param style the style to be rendered
+     * @param scaleFactor the ratio between the rendering dpi and the {@link #STANDARD_DPI}
+     * @param hints the Java2D hints used to paint the symbols
+     */
+    public Style apply(Style style, double scaleFactor, RenderingHints hints) {
+        if (!isEnabled() || !hasCacheableSymbols(style)) {
+            return style;
+        }
+        SymbolReplacingVisitor visitor = new SymbolReplacingVisitor(scaleFactor, hints);
+        style.accept(visitor);
+        if (!visitor.replaced) {
+            return style;
+        }
+        if (LOGGER.isLoggable(Level.FINER)) {
+            LOGGER.finer("Symbol raster cache statistics: " + cache.stats());
+        }
+        return (Style) visitor.getCopy();
+    }
+
+    private boolean hasCacheableSymbols(Style style) {
+        for (FeatureTypeStyle fts : style.featureTypeStyles()) {
+            for (Rule rule : fts.rules()) {
+                for (Symbolizer symbolizer : rule.symbolizers()) {
+                    if (symbolizer instanceof PointSymbolizer
+                            && isCacheable((PointSymbolizer) symbolizer)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the symbolizer graphic is made only of marks and SVG graphics that look the
+     * same for every feature
+     */
+    static boolean isCacheable(PointSymbolizer ps) {
+        Unit<Length> uom = ps.getUnitOfMeasure();
+        if (uom != null && !UomOgcMapping.PIXEL.getUnit().equals(uom)) {
+            return false;
+        }
+        Graphic graphic = ps.getGraphic();
+        if (graphic == null
+                || graphic.graphicalSymbols().isEmpty()
+                || !isStatic(graphic.getOpacity())
+                || !isCentered(graphic.getAnchorPoint())) {
+            return false;
+        }
+        Expression size = graphic.getSize();
+        boolean defaultSize = size == null || Expression.NIL.equals(size);
+        if (!defaultSize && !isStatic(size)) {
+            return false;
+        }
+        for (GraphicalSymbol symbol : graphic.graphicalSymbols()) {
+            if (symbol instanceof Mark) {
+                if (!isStatic((Mark) symbol)) {
+                    return false;
+                }
+            } else if (symbol instanceof ExternalGraphic) {
+                // the default size of an external graphic is its own, we'd need to load it
+                if (defaultSize || !isStaticSVG((ExternalGraphic) symbol)) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isStatic(Expression ex) {
+        return ex == null || ex instanceof Literal;
+    }
+
+    private static boolean isCentered(AnchorPoint anchor) {
+        if (anchor == null) {
+            return true;
+        }
+        return isStatic(anchor.getAnchorPointX())
+                && isStatic(anchor.getAnchorPointY())
+                && evaluate(anchor.getAnchorPointX(), 0.5) == 0.5
+                && evaluate(anchor.getAnchorPointY(), 0.5) == 0.5;
+    }
+
+    private static boolean isStatic(Mark mark) {
+        if (mark.getExternalMark() != null || !isStatic(mark.getWellKnownName())) {
+            return false;
+        }
+        Fill fill = mark.getFill();
+        if (fill != null
+                && (fill.getGraphicFill() != null
+                        || !isStatic(fill.getColor())
+                        || !isStatic(fill.getOpacity()))) {
+            return false;
+        }
+        Stroke stroke = mark.getStroke();
+        if (stroke != null) {
+            if (stroke.getGraphicFill() != null
+                    || stroke.getGraphicStroke() != null
+                    || !isStatic(stroke.getColor())
+                    || !isStatic(stroke.getWidth())
+                    || !isStatic(stroke.getOpacity())
+                    || !isStatic(stroke.getLineJoin())
+                    || !isStatic(stroke.getLineCap())
+                    || !isStatic(stroke.getDashOffset())) {
+                return false;
+            }
+            if (stroke.dashArray() != null) {
+                for (Expression dash : stroke.dashArray()) {
+                    if (!isStatic(dash)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isStaticSVG(ExternalGraphic eg) {
+        if (eg.getInlineContent() != null
+                || eg.getFormat() == null
+                || !eg.getFormat().toLowerCase().contains("svg")) {
+            return false;
+        }
+        try {
+            // embedded CQL expressions make the location feature dependent
+            return eg.getLocation() != null && !eg.getLocation().toString().contains("${");
+        } catch (MalformedURLException e) {
+            return false;
+        }
+    }
+
+    private static double evaluate(Expression ex, double defaultValue) {
+        if (ex == null || Expression.NIL.equals(ex)) {
+            return defaultValue;
+        }
+        Double value = ex.evaluate(null, Double.class);
+        return value != null ? value : defaultValue;
+    }
+
+    /** Returns the width of the largest mark stroke, it extends out of the symbol size */
+    private static double getStrokeWidth(Graphic graphic) {
+        double width = 0;
+        for (GraphicalSymbol symbol : graphic.graphicalSymbols()) {
+            if (symbol instanceof Mark && ((Mark) symbol).getStroke() != null) {
+                width = Math.max(width, evaluate(((Mark) symbol).getStroke().getWidth(), 1));
+            }
+        }
+        return width;
+    }
+
+    /** Returns the rasterized symbol, from the cache or painting it, or null on failure */
+    RasterSymbol getSymbol(Graphic graphic, double scaleFactor, RenderingHints hints) {
+        double size = evaluate(graphic.getSize(), SLDStyleFactory.DEFAULT_MARK_SIZE);
+        double opacity = evaluate(graphic.getOpacity(), 1);
+        if (size <= 0 || size * scaleFactor > MAX_SYMBOL_SIZE) {
+            return null;
+        }
+        SymbolKey key =
+                new SymbolKey(graphic.graphicalSymbols(), size, opacity, scaleFactor, hints);
+        RasterSymbol symbol = cache.getIfPresent(key);
+        if (symbol == null) {
+            try {
+                symbol = paint(graphic, size, scaleFactor, hints);
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Failed to rasterize symbol, will paint it directly", e);
+                return null;
+            }
+            if (symbol == null) {
+                return null;
+            }
+            cache.put(key, symbol);
+        }
+        return symbol;
+    }
+
+    /**
+     * Returns the width and height of the symbol as the renderer paints it, the height matches the
+     * graphic size, the width of external graphics follows their aspect ratio
+     */
+    private static double[] getSymbolBounds(Graphic graphic, double size) {
+        PointSymbolizer ps = SF.createPointSymbolizer(graphic, null);
+        Style2D style = new SLDStyleFactory().createStyle(SAMPLE_FEATURE, ps, SCALE_RANGE);
+        if (style instanceof IconStyle2D) {
+            Icon icon = ((IconStyle2D) style).getIcon();
+            return new double[] {icon.getIconWidth(), icon.getIconHeight()};
+        } else if (style instanceof MarkStyle2D) {
+            return new double[] {size, size};
+        }
+        return null;
+    }
+
+    private RasterSymbol paint(
+            Graphic graphic, double size, double scaleFactor, RenderingHints hints) {
+        // the same symbol, without rotation and displacement, at the center of the image
+        Graphic centered = SF.createDefaultGraphic();
+        centered.graphicalSymbols().clear();
+        centered.graphicalSymbols().addAll(graphic.graphicalSymbols());
+        centered.setSize(FF.literal(size));
+        centered.setOpacity(graphic.getOpacity());
+        double[] bounds = getSymbolBounds(centered, size);
+        if (bounds == null) {
+            return null;
+        }
+
+        // the logical size of the image, including a margin for the stroke
+        double stroke = getStrokeWidth(graphic);
+        int width = (int) Math.ceil(bounds[0] + stroke) + 2;
+        int height = (int) Math.ceil(bounds[1] + stroke) + 2;
+        int pixelWidth = (int) Math.ceil(width * scaleFactor);
+        int pixelHeight = (int) Math.ceil(height * scaleFactor);
+        if (Math.max(pixelWidth, pixelHeight) > MAX_SYMBOL_SIZE) {
+            return null;
+        }
+
+        Style style = new StyleBuilder(SF).createStyle(SF.createPointSymbolizer(centered, null));
+        BufferedImage image =
+                new BufferedImage(pixelWidth, pixelHeight, BufferedImage.TYPE_INT_ARGB);
+        MapContent mapContent = new MapContent();
+        mapContent.addLayer(new FeatureLayer(SAMPLE_DATA, style));
+        Graphics2D graphics = image.createGraphics();
+        try {
+            if (hints != null) {
+                graphics.setRenderingHints(hints);
+            }
+            graphics.scale(pixelWidth / (double) width, pixelHeight / (double) height);
+            StreamingRenderer renderer = new StreamingRenderer();
+            if (hints != null) {
+                renderer.setJava2DHints(hints);
+            }
+            renderer.setMapContent(mapContent);
+            // same aspect ratio as the image, the symbol is painted at its center
+            double ratio = width / (double) height;
+            ReferencedEnvelope area = new ReferencedEnvelope(-ratio, ratio, -1, 1, null);
+            renderer.paint(graphics, new Rectangle(width, height), area);
+        } finally {
+            graphics.dispose();
+            mapContent.dispose();
+        }
+        return new RasterSymbol(image, height);
+    }
+
+    @Override
+    public void handleAddEvent(CatalogAddEvent event) {
+        // a new style cannot have cached symbols yet
+    }
+
+    @Override
+    public void handleRemoveEvent(CatalogRemoveEvent event) {
+        clearOnStyleChange(event);
+    }
+
+    @Override
+    public void handleModifyEvent(CatalogModifyEvent event) {
+        // wait for the post modify event
+    }
+
+    @Override
+    public void handlePostModifyEvent(CatalogPostModifyEvent event) {
+        clearOnStyleChange(event);
+    }
+
+    private void clearOnStyleChange(CatalogEvent event) {
+        if (event.getSource() instanceof StyleInfo) {
+            clear();
+        }
+    }
+
+    @Override
+    public void reloaded() {
+        clear();
+    }
+
+    @Override
+    public void onReset() {
+        // the SVG files might have been changed
+        clear();
+    }
+
+    @Override
+    public void onDispose() {
+        clear();
+    }
+
+    @Override
+    public void beforeReload() {
+        // nothing to do
+    }
+
+    @Override
+    public void onReload() {
+        clear();
+    }
+
+    /** Replaces the cacheable point symbols with inline images */
+    class SymbolReplacingVisitor extends DuplicatingStyleVisitor {
+
+        final double scaleFactor;
+
+        final RenderingHints hints;
+
+        boolean replaced;
+
+        SymbolReplacingVisitor(double scaleFactor, RenderingHints hints) {
+            this.scaleFactor = scaleFactor;
+            this.hints = hints;
+        }
+
+        @Override
+        public void visit(PointSymbolizer ps) {
+            super.visit(ps);
+            if (!isCacheable(ps)) {
+                return;
+            }
+            Graphic graphic = ps.getGraphic();
+            RasterSymbol symbol = getSymbol(graphic, scaleFactor, hints);
+            if (symbol == null) {
+                return;
+            }
+
+            // the image covers the logical symbol size, the renderer scales it by the dpi factor,
+            // keeping its aspect ratio
+            ExternalGraphic eg =
+                    sf.createExternalGraphic(new ImageIcon(symbol.image), "image/png");
+            Graphic copy = sf.createDefaultGraphic();
+            copy.graphicalSymbols().clear();
+            copy.graphicalSymbols().add(eg);
+            copy.setSize(ff.literal(symbol.height));
+            copy.setOpacity(ff.literal(1));
+            copy.setRotation(copy(graphic.getRotation()));
+            copy.setDisplacement(copy(graphic.getDisplacement()));
+            ((PointSymbolizer) pages.peek()).setGraphic(copy);
+            replaced = true;
+        }
+    }
+
+    /** A rasterized symbol, along with its logical height */
+    static class RasterSymbol {
+        final BufferedImage image;
+        final double height;
+
+        RasterSymbol(BufferedImage image, double height) {
+            this.image = image;
+            this.height = height;
+        }
+    }
+
+    static class SymbolKey {
+        final List<GraphicalSymbol> symbols;
+        final double size;
+        final double opacity;
+        final double scaleFactor;
+        final Map<Object, Object> hints;
+
+        SymbolKey(
+                List<GraphicalSymbol> symbols,
+                double size,
+                double opacity,
+                double scale,
+                RenderingHints hints) {
+            this.symbols = new ArrayList<>(symbols);
+            this.size = size;
+            this.opacity = opacity;
+            this.scaleFactor = scale;
+            this.hints = hints != null ? new HashMap<>(hints) : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            SymbolKey that = (SymbolKey) o;
+            return Double.compare(that.size, size) == 0
+                    && Double.compare(that.opacity, opacity) == 0
+                    && Double.compare(that.scaleFactor, scaleFactor) == 0
+                    && Objects.equals(symbols, that.symbols)
+                    && Objects.equals(hints, that.hints);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(symbols, size, opacity, scaleFactor, hints);
+        }
+    }
+}
@@ -30,6 +30,7 @@
 import java.net.InetSocketAddress;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -58,6 +59,7 @@
 import org.geoserver.catalog.LayerGroupInfo;
 import org.geoserver.catalog.LayerInfo;
 import org.geoserver.catalog.PublishedType;
+import org.geoserver.catalog.StyleCompilationCache;
 import org.geoserver.catalog.impl.ModificationProxy;
 import org.geoserver.config.GeoServer;
 import org.geoserver.config.GeoServerInfo;
@@ -67,6 +69,7 @@
 import org.geoserver.ows.Request;
 import org.geoserver.ows.kvp.URIKvpParser;
 import org.geoserver.platform.ServiceException;
+import org.geoserver.platform.resource.Resource;
 import org.geoserver.test.RemoteOWSTestSupport;
 import org.geoserver.test.ows.KvpRequestReaderTestSupport;
 import org.geoserver.wms.CacheConfiguration;
@@ -666,6 +669,86 @@ public void testSldBodyDisabled() throws Exception {
         assertTrue(error);
     }
 
+    private String validatedSld(String symbolizerContent) {
+        return "<StyledLayerDescriptor version=\"1.0.0\" xmlns=\"http://www.opengis.net/sld\">"
+                + "<NamedLayer><Name>"
+                + getLayerId(BASIC_POLYGONS)
+                + "</Name><UserStyle><Name>Validated</Name><FeatureTypeStyle><Rule>"
+                + "<PolygonSymbolizer>"
+                + symbolizerContent
+                + "<Fill><CssParameter name=\"fill\">#FF0000</CssParameter></Fill>"
+                + "</PolygonSymbolizer></Rule></FeatureTypeStyle></UserStyle></NamedLayer>"
+                + "</StyledLayerDescriptor>";
+    }
+
+    private GetMapRequest readValidated(Map<String, Object> kvp) throws Exception {
+        kvp.put("layers", getLayerId(BASIC_POLYGONS));
+        kvp.put("validateschema", "true");
+        GetMapRequest request = reader.createRequest();
+        return reader.read(request, parseKvp(kvp), caseInsensitiveKvp(kvp));
+    }
+
+    @Test
+    public void testSldBodyValidatedCache() throws Exception {
+        StyleCompilationCache cache = StyleCompilationCache.get();
+        cache.clear();
+        String sld = validatedSld("");
+        Map<String, Object> kvp = new HashMap<>();
+        kvp.put("sld_body", sld);
+
+        long hits = cache.getStatistics().hitCount();
+        GetMapRequest request = readValidated(kvp);
+        assertTrue(request.getValidateSchema());
+        assertEquals("Validated", request.getStyles().get(0).getName());
+        // the same body is neither validated nor parsed again
+        request = readValidated(kvp);
+        assertEquals("Validated", request.getStyles().get(0).getName());
+        assertEquals(hits + 1, cache.getStatistics().hitCount());
+
+        // an invalid body is still rejected, every time
+        kvp.put("sld_body", validatedSld("<Font/>"));
+        for (int i = 0; i < 2; i++) {
+            try {
+                readValidated(kvp);
+                fail("The invalid style should have been rejected");
+            } catch (ServiceException e) {
+                assertThat(e.getMessage(), containsString("Font"));
+            }
+        }
+        assertEquals(hits + 1, cache.getStatistics().hitCount());
+    }
+
+    @Test
+    public void testSldValidatedCache() throws Exception {
+        StyleCompilationCache cache = StyleCompilationCache.get();
+        cache.clear();
+        Resource valid = getDataDirectory().get("validated.sld");
+        valid.setContents(validatedSld("").getBytes(StandardCharsets.UTF_8));
+        Map<String, Object> kvp = new HashMap<>();
+        kvp.put("sld", valid.file().toURI().toURL().toExternalForm());
+
+        long hits = cache.getStatistics().hitCount();
+        GetMapRequest request = readValidated(kvp);
+        assertEquals("Validated", request.getStyles().get(0).getName());
+        request = readValidated(kvp);
+        assertEquals("Validated", request.getStyles().get(0).getName());
+        assertEquals(hits + 1, cache.getStatistics().hitCount());
+
+        // an invalid document is still rejected
+        Resource invalid = getDataDirectory().get("invalid.sld");
+        invalid.setContents(validatedSld("<Font/>").getBytes(StandardCharsets.UTF_8));
+        kvp.put("sld", invalid.file().toURI().toURL().toExternalForm());
+        for (int i = 0; i < 2; i++) {
+            try {
+                readValidated(kvp);
+                fail("The invalid style should have been rejected");
+            } catch (ServiceException e) {
+                assertEquals("Error while getting SLD.", e.getMessage());
+            }
+        }
+        assertEquals(hits + 1, cache.getStatistics().hitCount());
+    }
+
     @Test
     public void testSldNamed() throws Exception {
         // style name matching one in the sld
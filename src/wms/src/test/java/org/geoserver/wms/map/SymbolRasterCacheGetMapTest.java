@@ -0,0 +1,110 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.namespace.QName;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.data.test.MockData;
+import org.geoserver.data.test.SystemTestData;
+import org.geoserver.data.test.SystemTestData.LayerProperty;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.wms.WMSTestSupport;
+import org.geotools.image.test.ImageAssert;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Compares the GetMap output with and without the {@link SymbolRasterCache}, the rendering of the
+ * vector symbols being the reference.
+ */
+public class SymbolRasterCacheGetMapTest extends WMSTestSupport {
+
+    static final QName SYMBOLS = new QName(MockData.SF_URI, "Symbols", MockData.SF_PREFIX);
+
+    SymbolRasterCache cache;
+
+    @BeforeClass
+    public static void enableSymbolCache() {
+        System.setProperty(SymbolRasterCache.CACHE_SIZE_KEY, "16");
+    }
+
+    @AfterClass
+    public static void resetSymbolCache() {
+        System.clearProperty(SymbolRasterCache.CACHE_SIZE_KEY);
+    }
+
+    @Override
+    protected void onSetUp(SystemTestData testData) throws Exception {
+        super.onSetUp(testData);
+        Catalog catalog = getCatalog();
+        testData.addStyle("symbols", "symbols.sld", getClass(), catalog);
+        try (InputStream is = getClass().getResourceAsStream("wide.svg")) {
+            testData.copyTo(is, "styles/wide.svg");
+        }
+        Map<LayerProperty, Object> properties = new HashMap<>();
+        properties.put(LayerProperty.STYLE, "symbols");
+        testData.addVectorLayer(SYMBOLS, properties, "symbols.properties", getClass(), catalog);
+    }
+
+    @Before
+    public void getCache() {
+        cache = GeoServerExtensions.bean(SymbolRasterCache.class);
+        assertTrue(cache.isEnabled());
+    }
+
+    @After
+    public void enableCache() {
+        cache.setEnabled(true);
+    }
+
+    private String getMapRequest(int size, String formatOptions) {
+        return "wms?service=WMS&version=1.1.1&request=GetMap&format=image/png"
+                + "&layers="
+                + getLayerId(SYMBOLS)
+                + "&styles=&srs=EPSG:4326&bbox=-1,-1,1,1"
+                + "&width="
+                + size
+                + "&height="
+                + size
+                + (formatOptions != null ? "&format_options=" + formatOptions : "");
+    }
+
+    private void assertSameOutput(String request) throws Exception {
+        cache.setEnabled(false);
+        BufferedImage expected = getAsImage(request, "image/png");
+
+        cache.setEnabled(true);
+        long misses = cache.getStatistics().missCount();
+        BufferedImage actual = getAsImage(request, "image/png");
+        // the mark, the rotated mark, and the non square SVG
+        assertEquals(misses + 3, cache.getStatistics().missCount());
+        ImageAssert.assertEquals(expected, actual, 150);
+
+        // the symbols are reused by the next request
+        long hits = cache.getStatistics().hitCount();
+        ImageAssert.assertEquals(expected, getAsImage(request, "image/png"), 150);
+        assertEquals(hits + 3, cache.getStatistics().hitCount());
+    }
+
+    @Test
+    public void testSameOutput() throws Exception {
+        assertSameOutput(getMapRequest(200, null));
+    }
+
+    @Test
+    public void testSameOutputHighDpi() throws Exception {
+        assertSameOutput(getMapRequest(400, "dpi:180"));
+    }
+}
@@ -0,0 +1,152 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.util.Collections;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.style.ExternalGraphic;
+import org.geotools.api.style.Graphic;
+import org.geotools.api.style.Mark;
+import org.geotools.api.style.PointSymbolizer;
+import org.geotools.api.style.Style;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.styling.StyleBuilder;
+import org.junit.Test;
+
+public class SymbolRasterCacheTest {
+
+    static final RenderingHints HINTS =
+            new RenderingHints(
+                    Collections.singletonMap(
+                            RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON));
+
+    StyleBuilder sb = new StyleBuilder();
+
+    FilterFactory ff = CommonFactoryFinder.getFilterFactory();
+
+    @Test
+    public void testStaticMarkReplaced() throws Exception {
+        SymbolRasterCache cache = new SymbolRasterCache(1024 * 1024);
+        Mark mark = sb.createMark("circle", Color.RED, Color.BLACK, 2);
+        Graphic graphic = sb.createGraphic(null, mark, null, 1, 10, 0);
+        graphic.setRotation(ff.property("angle"));
+        Style style = sb.createStyle(sb.createPointSymbolizer(graphic));
+
+        Style cached = cache.apply(style, 1, HINTS);
+        assertNotSame(style, cached);
+        Graphic cachedGraphic = getGraphic(cached);
+        ExternalGraphic eg = (ExternalGraphic) cachedGraphic.graphicalSymbols().get(0);
+        assertNotNull(eg.getInlineContent());
+        // size plus stroke plus margin
+        assertEquals(14, eg.getInlineContent().getIconWidth());
+        // the rotation is still applied by the renderer
+        assertEquals(ff.property("angle"), cachedGraphic.getRotation());
+        assertEquals(0, cache.getStatistics().hitCount());
+        assertEquals(1, cache.getStatistics().missCount());
+
+        // the same symbol in another request hits the cache
+        cache.apply(sb.createStyle(sb.createPointSymbolizer(graphic)), 1, HINTS);
+        assertEquals(1, cache.getStatistics().hitCount());
+
+        // but not at a different dpi, where it gets bigger
+        Style hiDpi = cache.apply(style, 2, HINTS);
+        ExternalGraphic hiDpiEg = (ExternalGraphic) getGraphic(hiDpi).graphicalSymbols().get(0);
+        assertEquals(28, hiDpiEg.getInlineContent().getIconWidth());
+        assertEquals(2, cache.getStatistics().missCount());
+    }
+
+    @Test
+    public void testRenderingHintsInKey() throws Exception {
+        SymbolRasterCache cache = new SymbolRasterCache(1024 * 1024);
+        Graphic graphic = sb.createGraphic(null, sb.createMark("circle"), null);
+        Style style = sb.createStyle(sb.createPointSymbolizer(graphic));
+
+        cache.apply(style, 1, HINTS);
+        RenderingHints quality = new RenderingHints(HINTS);
+        quality.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        cache.apply(style, 1, quality);
+        assertEquals(0, cache.getStatistics().hitCount());
+        assertEquals(2, cache.getStatistics().missCount());
+
+        // equal hints hit the cache
+        cache.apply(style, 1, new RenderingHints(quality));
+        assertEquals(1, cache.getStatistics().hitCount());
+    }
+
+    @Test
+    public void testNonSquareSVG() throws Exception {
+        SymbolRasterCache cache = new SymbolRasterCache(1024 * 1024);
+        ExternalGraphic svg =
+                sb.createExternalGraphic(getClass().getResource("wide.svg"), "image/svg+xml");
+        Graphic graphic = sb.createGraphic(svg, null, null, 1, 10, 0);
+        Style style = sb.createStyle(sb.createPointSymbolizer(graphic));
+
+        Style cached = cache.apply(style, 1, HINTS);
+        assertNotSame(style, cached);
+        Graphic cachedGraphic = getGraphic(cached);
+        ExternalGraphic eg = (ExternalGraphic) cachedGraphic.graphicalSymbols().get(0);
+        // twice as wide as high, plus margin, the size is the image height
+        assertEquals(22, eg.getInlineContent().getIconWidth());
+        assertEquals(12, eg.getInlineContent().getIconHeight());
+        assertEquals(12, cachedGraphic.getSize().evaluate(null, Double.class), 0d);
+    }
+
+    @Test
+    public void testDynamicMarkKept() throws Exception {
+        SymbolRasterCache cache = new SymbolRasterCache(1024 * 1024);
+        Mark mark = sb.createMark("circle", Color.RED);
+        mark.getFill().setColor(ff.property("color"));
+        Graphic graphic = sb.createGraphic(null, mark, null);
+        PointSymbolizer ps = sb.createPointSymbolizer(graphic);
+        assertFalse(SymbolRasterCache.isCacheable(ps));
+
+        Style style = sb.createStyle(ps);
+        assertSame(style, cache.apply(style, 1, HINTS));
+
+        // dynamic sizes are not cached either
+        Graphic sized = sb.createGraphic(null, sb.createMark("square"), null);
+        sized.setSize(ff.property("size"));
+        assertFalse(SymbolRasterCache.isCacheable(sb.createPointSymbolizer(sized)));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        SymbolRasterCache cache = new SymbolRasterCache(1024 * 1024);
+        Graphic graphic = sb.createGraphic(null, sb.createMark("square"), null);
+        Style style = sb.createStyle(sb.createPointSymbolizer(graphic));
+        assertTrue(SymbolRasterCache.isCacheable(sb.createPointSymbolizer(graphic)));
+
+        cache.apply(style, 1, HINTS);
+        cache.onReset();
+        cache.apply(style, 1, HINTS);
+        assertEquals(0, cache.getStatistics().hitCount());
+        assertEquals(2, cache.getStatistics().missCount());
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        SymbolRasterCache cache = new SymbolRasterCache(0);
+        assertFalse(cache.isEnabled());
+        Graphic graphic = sb.createGraphic(null, sb.createMark("square"), null);
+        Style style = sb.createStyle(sb.createPointSymbolizer(graphic));
+        assertSame(style, cache.apply(style, 1, HINTS));
+    }
+
+    private Graphic getGraphic(Style style) {
+        PointSymbolizer ps =
+                (PointSymbolizer)
+                        style.featureTypeStyles().get(0).rules().get(0).symbolizers().get(0);
+        return ps.getGraphic();
+    }
+}